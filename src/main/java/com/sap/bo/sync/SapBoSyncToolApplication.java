@@ -1,12 +1,16 @@
 package com.sap.bo.sync;
 
+import com.sap.bo.sync.cli.SyncCommand;
+import com.sap.bo.sync.cli.SyncCommandOptions;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
- * Main application class for the SAP Business Objects Synchronization Tool
+ * Main application class for the SAP Business Objects Synchronization Tool.
+ * Started with --mode=run, export or import, it performs a single headless sync run or bundle export or
+ * import and exits instead of serving the API.
  */
 @SpringBootApplication
 @EnableAsync
@@ -14,6 +18,9 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class SapBoSyncToolApplication {
 
     public static void main(String[] args) {
+        if (SyncCommandOptions.isRunMode(args)) {
+            System.exit(SyncCommand.run(SapBoSyncToolApplication.class, args));
+        }
         SpringApplication.run(SapBoSyncToolApplication.class, args);
     }
 }
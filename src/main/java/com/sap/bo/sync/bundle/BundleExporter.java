@@ -0,0 +1,246 @@
+package com.sap.bo.sync.bundle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.FolderTree;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.model.Universe;
+import com.sap.bo.sync.pipeline.SyncExecutor;
+import com.sap.bo.sync.plan.SyncAction;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Exports source objects into a bundle file for environments that cannot be reached from the source.
+ *
+ * Objects are written in dependency order: folders level by level, then connections, universes and reports.
+ * Every record is a CREATE action with the object as payload and the record numbers of the folder, connection
+ * or universe it depends on, so an import can write them in order without contacting the source. Report
+ * documents are stored as binary content next to their record.
+ *
+ * Universe details and report documents are fetched with the concurrency of the sync executor within a
+ * bounded window and are not kept by the listing, so an export only holds a window of payloads in memory.
+ */
+@Component
+public class BundleExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(BundleExporter.class);
+
+    public static final List<String> OBJECT_TYPES = Collections.unmodifiableList(
+            Arrays.asList("folder", "connection", "universe", "report"));
+
+    private final SapBoServiceFactory serviceFactory;
+    private final SapBoProperties sapBoProperties;
+    private final ObjectMapper objectMapper;
+    private final SyncExecutor syncExecutor;
+
+    public BundleExporter(SapBoServiceFactory serviceFactory, SapBoProperties sapBoProperties, ObjectMapper objectMapper,
+                          SyncExecutor syncExecutor) {
+        this.serviceFactory = serviceFactory;
+        this.sapBoProperties = sapBoProperties;
+        this.objectMapper = objectMapper;
+        this.syncExecutor = syncExecutor != null ? syncExecutor : SyncExecutor.callerRuns();
+    }
+
+    /**
+     * Export source objects into a bundle
+     * @param file Bundle file to create
+     * @param objectTypes Object types to export ("folder", "connection", "universe", "report"), or null for all
+     * @param modifiedAfter Only export connections, universes and reports modified after this date, or null for all
+     * @return Index of the written bundle
+     */
+    public BundleIndex export(Path file, List<String> objectTypes, Date modifiedAfter) {
+        List<String> types = objectTypes != null ? objectTypes : OBJECT_TYPES;
+        log.info("Exporting {} modified after {} to bundle {}", types, modifiedAfter != null ? modifiedAfter : "any time", file);
+        long start = System.currentTimeMillis();
+
+        SapBoService sourceService = serviceFactory.getSourceService();
+        SapBoProperties.BundleProperties properties = sapBoProperties.getSync().getBundle();
+        int threads = properties.getCompressionThreads() > 0
+                ? properties.getCompressionThreads()
+                : Runtime.getRuntime().availableProcessors();
+
+        BundleIndex index = new BundleIndex();
+        index.setBundleId(UUID.randomUUID().toString());
+        index.setCreatedAt(new Date());
+        index.setSourceUrl(sapBoProperties.getSource() != null ? sapBoProperties.getSource().getUrl() : null);
+
+        BundleWriter writer = null;
+        try {
+            writer = new BundleWriter(file, index, objectMapper, properties.getChunkSize(),
+                    properties.getCompressionLevel(), threads);
+
+            if (types.contains("folder")) {
+                exportFolders(writer, FolderTree.of(sourceService.getFolders(null)));
+            }
+
+            Map<String, Integer> connectionRecords = new HashMap<>();
+            if (types.contains("connection")) {
+                exportObjects(writer, "connection", sourceService.getConnections(modifiedAfter, null),
+                        connection -> null, Collections.emptyMap(), connectionRecords,
+                        connection -> new Export(connection, null));
+            }
+
+            Map<String, Integer> universeRecords = new HashMap<>();
+            if (types.contains("universe")) {
+                exportObjects(writer, "universe", sourceService.getUniverses(null, modifiedAfter, null),
+                        Universe::getConnectionId, connectionRecords, universeRecords, universe -> {
+                            // Loaded separately so the listing does not keep the payload after it was written
+                            Universe details = sourceService.getUniverse(universe.getId());
+                            return new Export(details != null ? details : universe, null);
+                        });
+            }
+
+            if (types.contains("report")) {
+                exportObjects(writer, "report", sourceService.getReports(null, modifiedAfter, null),
+                        Report::getUniverseId, universeRecords, null,
+                        report -> new Export(report, sourceService.getReportContent(report)));
+            }
+
+            writer.close();
+        } catch (IOException e) {
+            abort(writer);
+            throw new SapBoApiException("Failed to write bundle " + file, e);
+        } catch (RuntimeException e) {
+            abort(writer);
+            throw e;
+        }
+
+        log.info("Exported {} to bundle {} in {} ms: {} chunks, {} bytes compressed to {}", index.getObjectCounts(), file,
+                System.currentTimeMillis() - start, index.getChunks().size(), index.getRawBytes(), index.getCompressedBytes());
+        return index;
+    }
+
+    private void exportFolders(BundleWriter writer, FolderTree sourceTree) throws IOException {
+        Map<String, Integer> recordsByPath = new HashMap<>();
+        for (List<SapBoObject> level : sourceTree.missingIn(FolderTree.of(Collections.emptyList()))) {
+            for (SapBoObject folder : level) {
+                String path = sourceTree.getPath(folder.getId());
+                String parentPath = FolderTree.parentPath(path);
+
+                SapBoObject newFolder = new SapBoObject();
+                newFolder.setName(folder.getName());
+                newFolder.setDescription(folder.getDescription());
+                newFolder.setType(folder.getType());
+                newFolder.setCuid(folder.getCuid());
+                newFolder.setParentCuid(folder.getParentCuid());
+                newFolder.setPath(path);
+
+                SyncAction action = newAction(writer, "folder", folder, newFolder);
+                action.setPath(path);
+                action.setParentPath(parentPath);
+                Integer parentRecord = parentPath != null ? recordsByPath.get(parentPath) : null;
+                if (parentRecord != null) {
+                    action.getDependsOn().add(parentRecord);
+                }
+                recordsByPath.put(path, action.getId());
+                writer.write(action, null);
+            }
+        }
+    }
+
+    /**
+     * Export the listed objects of one type, fetching their payloads concurrently but writing them in order
+     * @param dependencyOf Reference to the object this type depends on, e.g. the connection of a universe
+     * @param dependencyRecords Record numbers of the referenced type by object ID
+     * @param records Receives the record numbers of this type by object ID, or null if not needed
+     * @param fetch Loads the payload and content of a listed object
+     */
+    private <T extends SapBoObject> void exportObjects(BundleWriter writer, String objectType, List<T> objects,
+                                                       Function<T, String> dependencyOf,
+                                                       Map<String, Integer> dependencyRecords,
+                                                       Map<String, Integer> records,
+                                                       Function<T, Export> fetch) throws IOException {
+        log.info("Exporting {} {} objects", objects.size(), objectType);
+        int window = Math.max(2, syncExecutor.getMaxConcurrency() * 2);
+        Deque<CompletableFuture<Export>> fetching = new ArrayDeque<>();
+
+        for (int i = 0; i < objects.size() || !fetching.isEmpty(); ) {
+            while (i < objects.size() && fetching.size() < window) {
+                T object = objects.get(i++);
+                fetching.add(syncExecutor.supplyAsync(() -> fetch.apply(object)));
+            }
+
+            Export export = join(fetching.poll());
+            @SuppressWarnings("unchecked")
+            T object = (T) export.object;
+            SyncAction action = newAction(writer, objectType, object, object);
+            Integer dependency = dependencyRecords.get(dependencyOf.apply(object));
+            if (dependency != null) {
+                action.getDependsOn().add(dependency);
+            }
+            if (records != null) {
+                records.put(object.getId(), action.getId());
+            }
+            writer.write(action, export.content);
+        }
+    }
+
+    private SyncAction newAction(BundleWriter writer, String objectType, SapBoObject source, SapBoObject payload) {
+        SyncAction action = new SyncAction();
+        action.setId(writer.getRecordCount());
+        action.setType(SyncAction.Type.CREATE);
+        action.setObjectType(objectType);
+        action.setObjectId(source.getId());
+        action.setName(source.getName());
+        action.setPayload(objectMapper.valueToTree(payload));
+        return action;
+    }
+
+    private static Export join(CompletableFuture<Export> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static void abort(BundleWriter writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.abort();
+        } catch (IOException e) {
+            log.warn("Failed to remove incomplete bundle: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Listed object with its payload loaded and its document content
+     */
+    private static final class Export {
+        private final SapBoObject object;
+        private final byte[] content;
+
+        private Export(SapBoObject object, byte[] content) {
+            this.object = object;
+            this.content = content;
+        }
+    }
+}
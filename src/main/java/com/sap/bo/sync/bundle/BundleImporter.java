@@ -0,0 +1,248 @@
+package com.sap.bo.sync.bundle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.model.FolderTree;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.pipeline.SyncExecutor;
+import com.sap.bo.sync.plan.SyncAction;
+import com.sap.bo.sync.plan.SyncPlanExecutor;
+import com.sap.bo.sync.plan.SyncPlanResult;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports a bundle written by BundleExporter into the target environment.
+ *
+ * The bundle is streamed chunk by chunk and its records are written by a bounded number of concurrent
+ * writers, so neither the bundle nor its objects are ever held in memory as a whole. Records of one group
+ * (one folder level, or one object type) are independent and written concurrently; before the next group
+ * starts all writes of the current one are finished, so every dependency has been written or has failed
+ * by the time a record needs it. Records whose dependency failed are skipped.
+ */
+@Component
+public class BundleImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(BundleImporter.class);
+
+    // Further errors are only logged, so that a failing import of a large bundle stays bounded in memory
+    private static final int MAX_ERRORS = 1000;
+
+    private final SapBoServiceFactory serviceFactory;
+    private final SapBoProperties sapBoProperties;
+    private final SyncPlanExecutor planExecutor;
+    private final ObjectMapper objectMapper;
+    private final SyncExecutor syncExecutor;
+
+    public BundleImporter(SapBoServiceFactory serviceFactory, SapBoProperties sapBoProperties,
+                          SyncPlanExecutor planExecutor, ObjectMapper objectMapper, SyncExecutor syncExecutor) {
+        this.serviceFactory = serviceFactory;
+        this.sapBoProperties = sapBoProperties;
+        this.planExecutor = planExecutor;
+        this.objectMapper = objectMapper;
+        this.syncExecutor = syncExecutor != null ? syncExecutor : SyncExecutor.callerRuns();
+    }
+
+    /**
+     * Import a bundle into the target
+     * @param file Bundle file
+     * @param objectTypes Object types to import, or null for all in the bundle
+     * @param forceUpdate Whether to overwrite connections, universes and reports that already exist in the target
+     * @return Counts of written, failed and skipped records; the plan ID is the bundle ID
+     */
+    public SyncPlanResult importBundle(Path file, List<String> objectTypes, boolean forceUpdate) {
+        long start = System.currentTimeMillis();
+        try (BundleReader reader = BundleReader.open(file, objectMapper)) {
+            BundleIndex index = reader.getIndex();
+            log.info("Importing bundle {} from {} created at {}: {}", index.getBundleId(), index.getSourceUrl(),
+                    index.getCreatedAt(), index.getObjectCounts());
+
+            Import run = new Import(serviceFactory.getTargetService(), objectTypes, forceUpdate);
+            reader.forEach(run::submit);
+            run.drain();
+
+            SyncPlanResult result = new SyncPlanResult();
+            result.setPlanId(index.getBundleId());
+            result.setSucceeded(run.succeeded.get());
+            result.setFailed(run.failed.get());
+            result.setSkipped(run.skipped.get());
+            result.getErrors().putAll(run.errors);
+            result.setDurationMillis(System.currentTimeMillis() - start);
+
+            log.info("Imported bundle {} in {} ms: {} succeeded, {} failed, {} skipped", index.getBundleId(),
+                    result.getDurationMillis(), result.getSucceeded(), result.getFailed(), result.getSkipped());
+            return result;
+        } catch (IOException e) {
+            throw new SapBoApiException("Failed to read bundle " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * State of one import run
+     */
+    private final class Import {
+        private final SapBoService targetService;
+        private final List<String> objectTypes;
+        private final boolean forceUpdate;
+        private final FolderTree targetFolders;
+        private final int writers;
+        private final Semaphore permits;
+
+        private final Map<String, String> createdFolderIds = new ConcurrentHashMap<>();
+        private final Map<Integer, String> errors = new ConcurrentHashMap<>();
+        // Records that were not written because they or one of their dependencies failed
+        private final BitSet notWritten = new BitSet();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+
+        private String group;
+
+        private Import(SapBoService targetService, List<String> objectTypes, boolean forceUpdate) {
+            this.targetService = targetService;
+            this.objectTypes = objectTypes;
+            this.forceUpdate = forceUpdate;
+            this.targetFolders = objectTypes == null || objectTypes.contains("folder")
+                    ? FolderTree.of(targetService.getFolders(null))
+                    : null;
+            int importWriters = sapBoProperties.getSync().getBundle().getImportWriters();
+            this.writers = importWriters > 0 ? importWriters : Math.max(1, syncExecutor.getMaxConcurrency());
+            this.permits = new Semaphore(writers);
+        }
+
+        private void submit(BundleRecord record) {
+            SyncAction action = record.getAction();
+            if (objectTypes != null && !objectTypes.contains(action.getObjectType())) {
+                // Records of other types are neither written nor failed, so their dependents are still written
+                return;
+            }
+
+            String recordGroup = "folder".equals(action.getObjectType())
+                    ? "folder:" + depth(action.getPath())
+                    : action.getObjectType();
+            if (!recordGroup.equals(group)) {
+                drain();
+                group = recordGroup;
+            }
+
+            if (dependencyFailed(action)) {
+                log.warn("Skipping {} because a dependency was not imported", action);
+                markNotWritten(action);
+                skipped.incrementAndGet();
+                return;
+            }
+
+            permits.acquireUninterruptibly();
+            try {
+                syncExecutor.supplyAsync(() -> {
+                    try {
+                        write(action, record.getContent());
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                // Not started, e.g. because the executor was shut down
+                permits.release();
+                throw e;
+            }
+        }
+
+        /**
+         * Wait until all submitted writes have finished
+         */
+        private void drain() {
+            permits.acquireUninterruptibly(writers);
+            permits.release(writers);
+        }
+
+        private void write(SyncAction action, byte[] content) {
+            try {
+                if (exists(action)) {
+                    log.debug("Skipping {} because it already exists in the target", action);
+                    skipped.incrementAndGet();
+                    return;
+                }
+                if (content != null && action.getPayload() instanceof ObjectNode) {
+                    ((ObjectNode) action.getPayload()).put("content", Base64.getEncoder().encodeToString(content));
+                }
+                if ("folder".equals(action.getObjectType()) && targetFolders != null && action.getParentPath() != null) {
+                    SapBoObject parent = targetFolders.get(action.getParentPath());
+                    if (parent != null) {
+                        action.setTargetParentId(parent.getId());
+                    }
+                }
+                planExecutor.write(action, targetService, createdFolderIds);
+                succeeded.incrementAndGet();
+                log.debug("Imported {}", action);
+            } catch (Exception e) {
+                log.error("Error importing {}: {}", action, e.getMessage());
+                markNotWritten(action);
+                failed.incrementAndGet();
+                if (errors.size() < MAX_ERRORS) {
+                    errors.put(action.getId(), e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Whether the object is already in the target and must not be overwritten; existing folders are never
+         * written again, and their dependents are placed into them
+         */
+        private boolean exists(SyncAction action) {
+            switch (action.getObjectType()) {
+                case "folder":
+                    return targetFolders != null && targetFolders.contains(action.getPath());
+                case "connection":
+                    return !forceUpdate && targetService.getConnection(action.getObjectId()) != null;
+                case "universe":
+                    return !forceUpdate && targetService.getUniverse(action.getObjectId()) != null;
+                case "report":
+                    return !forceUpdate && targetService.getReport(action.getObjectId()) != null;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean dependencyFailed(SyncAction action) {
+            synchronized (notWritten) {
+                for (Integer dependency : action.getDependsOn()) {
+                    if (notWritten.get(dependency)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+
+        private void markNotWritten(SyncAction action) {
+            synchronized (notWritten) {
+                notWritten.set(action.getId());
+            }
+        }
+    }
+
+    private static int depth(String path) {
+        int depth = 0;
+        for (String parent = path; parent != null; parent = FolderTree.parentPath(parent)) {
+            depth++;
+        }
+        return depth;
+    }
+}
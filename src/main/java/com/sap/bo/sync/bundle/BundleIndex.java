@@ -0,0 +1,224 @@
+package com.sap.bo.sync.bundle;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table of contents of a bundle, stored at its end: where each chunk starts and which chunk holds each object
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BundleIndex {
+
+    private String bundleId;
+    private Date createdAt;
+    private String sourceUrl;
+    private Map<String, Integer> objectCounts = new LinkedHashMap<>();
+    private long rawBytes;
+    private long compressedBytes;
+    private List<Chunk> chunks = new ArrayList<>();
+    private List<Entry> objects = new ArrayList<>();
+
+    /**
+     * Find the chunk holding an object
+     * @return Chunk number, or -1 if the object is not in the bundle
+     */
+    public int chunkOf(String objectType, String objectId) {
+        for (Entry entry : objects) {
+            if (entry.getObjectType().equals(objectType) && entry.getObjectId().equals(objectId)) {
+                return entry.getChunk();
+            }
+        }
+        return -1;
+    }
+
+    public String getBundleId() {
+        return bundleId;
+    }
+
+    public void setBundleId(String bundleId) {
+        this.bundleId = bundleId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getSourceUrl() {
+        return sourceUrl;
+    }
+
+    public void setSourceUrl(String sourceUrl) {
+        this.sourceUrl = sourceUrl;
+    }
+
+    /**
+     * Number of objects per object type
+     */
+    public Map<String, Integer> getObjectCounts() {
+        return objectCounts;
+    }
+
+    public void setObjectCounts(Map<String, Integer> objectCounts) {
+        this.objectCounts = objectCounts;
+    }
+
+    /**
+     * Size of all chunks before compression
+     */
+    public long getRawBytes() {
+        return rawBytes;
+    }
+
+    public void setRawBytes(long rawBytes) {
+        this.rawBytes = rawBytes;
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    public void setCompressedBytes(long compressedBytes) {
+        this.compressedBytes = compressedBytes;
+    }
+
+    public List<Chunk> getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(List<Chunk> chunks) {
+        this.chunks = chunks;
+    }
+
+    public List<Entry> getObjects() {
+        return objects;
+    }
+
+    public void setObjects(List<Entry> objects) {
+        this.objects = objects;
+    }
+
+    /**
+     * Position and size of one compressed chunk
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Chunk {
+        private long offset; // File position of the chunk header
+        private int size; // Uncompressed size
+        private int compressedSize;
+        private int firstRecord;
+        private int records;
+        private long crc; // CRC-32 of the uncompressed chunk
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public void setOffset(long offset) {
+            this.offset = offset;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public int getCompressedSize() {
+            return compressedSize;
+        }
+
+        public void setCompressedSize(int compressedSize) {
+            this.compressedSize = compressedSize;
+        }
+
+        public int getFirstRecord() {
+            return firstRecord;
+        }
+
+        public void setFirstRecord(int firstRecord) {
+            this.firstRecord = firstRecord;
+        }
+
+        public int getRecords() {
+            return records;
+        }
+
+        public void setRecords(int records) {
+            this.records = records;
+        }
+
+        public long getCrc() {
+            return crc;
+        }
+
+        public void setCrc(long crc) {
+            this.crc = crc;
+        }
+    }
+
+    /**
+     * Object stored in the bundle and the chunk holding it
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Entry {
+        private String objectType;
+        private String objectId;
+        private String name;
+        private int chunk;
+
+        public Entry() {
+        }
+
+        public Entry(String objectType, String objectId, String name, int chunk) {
+            this.objectType = objectType;
+            this.objectId = objectId;
+            this.name = name;
+            this.chunk = chunk;
+        }
+
+        public String getObjectType() {
+            return objectType;
+        }
+
+        public void setObjectType(String objectType) {
+            this.objectType = objectType;
+        }
+
+        public String getObjectId() {
+            return objectId;
+        }
+
+        public void setObjectId(String objectId) {
+            this.objectId = objectId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getChunk() {
+            return chunk;
+        }
+
+        public void setChunk(int chunk) {
+            this.chunk = chunk;
+        }
+    }
+}
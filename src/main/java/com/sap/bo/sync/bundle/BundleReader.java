@@ -0,0 +1,242 @@
+package com.sap.bo.sync.bundle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.plan.SyncAction;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a bundle file written by BundleWriter.
+ *
+ * Opening a bundle only reads its footer and index; chunks are read on demand, either one at a time by
+ * number, e.g. to look up a single object, or all in order by forEach(), which decompresses the next chunk
+ * in the background while the records of the current one are processed. Only one or two chunks are held
+ * in memory at a time.
+ */
+public class BundleReader implements Closeable {
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ObjectMapper objectMapper;
+    private final BundleIndex index;
+
+    private BundleReader(Path file, FileChannel channel, ObjectMapper objectMapper, BundleIndex index) {
+        this.file = file;
+        this.channel = channel;
+        this.objectMapper = objectMapper;
+        this.index = index;
+    }
+
+    /**
+     * Open a bundle and read its index
+     * @throws IOException If the file cannot be read or is not a complete bundle
+     */
+    public static BundleReader open(Path file, ObjectMapper objectMapper) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < BundleWriter.MAGIC.length + 4 + BundleWriter.FOOTER_SIZE) {
+                throw new IOException("Not a bundle file: " + file);
+            }
+            ByteBuffer header = read(channel, 0, BundleWriter.MAGIC.length + 4);
+            byte[] magic = new byte[BundleWriter.MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, BundleWriter.MAGIC)) {
+                throw new IOException("Not a bundle file: " + file);
+            }
+            int version = header.getInt();
+            if (version != BundleWriter.VERSION) {
+                throw new IOException("Unsupported bundle version " + version + ": " + file);
+            }
+
+            ByteBuffer footer = read(channel, size - BundleWriter.FOOTER_SIZE, BundleWriter.FOOTER_SIZE);
+            long indexOffset = footer.getLong();
+            int indexLength = footer.getInt();
+            byte[] footerMagic = new byte[BundleWriter.FOOTER_MAGIC.length];
+            footer.get(footerMagic);
+            if (!Arrays.equals(footerMagic, BundleWriter.FOOTER_MAGIC)) {
+                throw new IOException("Bundle is incomplete or damaged: " + file);
+            }
+
+            byte[] indexBytes = inflate(read(channel, indexOffset, indexLength).array(), -1);
+            BundleIndex index = objectMapper.readValue(indexBytes, BundleIndex.class);
+            return new BundleReader(file, channel, objectMapper, index);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public BundleIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Read the records of one chunk
+     * @param number Chunk number
+     */
+    public List<BundleRecord> readChunk(int number) throws IOException {
+        BundleIndex.Chunk chunk = index.getChunks().get(number);
+        ByteBuffer data = read(channel, chunk.getOffset(), BundleWriter.CHUNK_HEADER_SIZE + chunk.getCompressedSize());
+        int size = data.getInt();
+        int compressedSize = data.getInt();
+        int records = data.getInt();
+        int crc = data.getInt();
+        if (size != chunk.getSize() || compressedSize != chunk.getCompressedSize() || records != chunk.getRecords()) {
+            throw new IOException("Chunk " + number + " does not match the index of " + file);
+        }
+
+        byte[] raw = inflate(Arrays.copyOfRange(data.array(), BundleWriter.CHUNK_HEADER_SIZE, data.capacity()), size);
+        CRC32 checksum = new CRC32();
+        checksum.update(raw);
+        if ((int) checksum.getValue() != crc) {
+            throw new IOException("Checksum mismatch in chunk " + number + " of " + file);
+        }
+
+        List<BundleRecord> result = new ArrayList<>(records);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        for (int i = 0; i < records; i++) {
+            byte[] json = new byte[in.readInt()];
+            in.readFully(json);
+            int contentLength = in.readInt();
+            byte[] content = null;
+            if (contentLength >= 0) {
+                content = new byte[contentLength];
+                in.readFully(content);
+            }
+            result.add(new BundleRecord(objectMapper.readValue(json, SyncAction.class), content));
+        }
+        return result;
+    }
+
+    /**
+     * Find one object using the index
+     * @return Record, or null if the object is not in the bundle
+     */
+    public BundleRecord find(String objectType, String objectId) throws IOException {
+        int chunk = index.chunkOf(objectType, objectId);
+        if (chunk < 0) {
+            return null;
+        }
+        for (BundleRecord record : readChunk(chunk)) {
+            SyncAction action = record.getAction();
+            if (objectType.equals(action.getObjectType()) && objectId.equals(action.getObjectId())) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pass all records to a consumer in bundle order, reading the next chunk ahead
+     */
+    public void forEach(Consumer<BundleRecord> consumer) throws IOException {
+        int chunkCount = index.getChunks().size();
+        if (chunkCount == 0) {
+            return;
+        }
+        ExecutorService readAhead = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sap-bo-bundle-read");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<List<BundleRecord>> next = readAhead.submit(() -> readChunk(0));
+            for (int number = 0; number < chunkCount; number++) {
+                List<BundleRecord> records = await(next);
+                if (number + 1 < chunkCount) {
+                    int following = number + 1;
+                    next = readAhead.submit(() -> readChunk(following));
+                }
+                records.forEach(consumer);
+            }
+        } finally {
+            // Not shutdownNow(): interrupting a read would close the shared file channel
+            readAhead.shutdown();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static List<BundleRecord> await(Future<List<BundleRecord>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading bundle");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to read bundle chunk", e.getCause());
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of bundle");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * @param size Expected uncompressed size, or -1 if unknown
+     */
+    private static byte[] inflate(byte[] data, int size) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            // One spare byte for a known size, so that the end of the stream is reached inside the buffer
+            byte[] result = new byte[size >= 0 ? size + 1 : Math.max(64, data.length * 4)];
+            int length = 0;
+            while (!inflater.finished()) {
+                if (length == result.length) {
+                    if (size >= 0) {
+                        throw new IOException("Chunk is larger than its recorded size");
+                    }
+                    result = Arrays.copyOf(result, result.length * 2);
+                }
+                int inflated = inflater.inflate(result, length, result.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new EOFException("Truncated compressed data");
+                }
+                length += inflated;
+            }
+            if (size >= 0 && length != size) {
+                throw new IOException("Chunk size does not match its recorded size");
+            }
+            return Arrays.copyOf(result, length);
+        } catch (DataFormatException e) {
+            throw new IOException("Damaged compressed data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.sap.bo.sync.bundle;
+
+import com.sap.bo.sync.plan.SyncAction;
+
+/**
+ * One object stored in a bundle: the action writing it, with the object as payload and its dependencies,
+ * plus the binary document content of reports
+ */
+public class BundleRecord {
+
+    private final SyncAction action;
+    private final byte[] content;
+
+    public BundleRecord(SyncAction action, byte[] content) {
+        this.action = action;
+        this.content = content;
+    }
+
+    public SyncAction getAction() {
+        return action;
+    }
+
+    /**
+     * Document content, or null if the object has none
+     */
+    public byte[] getContent() {
+        return content;
+    }
+}
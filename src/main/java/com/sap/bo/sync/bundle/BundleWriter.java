@@ -0,0 +1,262 @@
+package com.sap.bo.sync.bundle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.plan.SyncAction;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a bundle file.
+ *
+ * Layout: an 8-byte magic and a version, then the chunks, then the deflated JSON index, then a fixed-size
+ * footer holding the index position and length and a closing magic. A chunk is a 16-byte header (size,
+ * compressed size, record count, CRC-32) followed by the deflated records; a record is its action as JSON
+ * and its content, both length-prefixed.
+ *
+ * Records are collected into chunks of about chunkSize bytes and each full chunk is compressed on a pool of
+ * threads while the next one is filled. Compressed chunks are written in order, with at most two per thread
+ * in flight, so memory stays bounded however large the bundle grows. The file is written under a temporary
+ * name and moved into place by close(), so a bundle is either complete or absent.
+ */
+public class BundleWriter implements Closeable {
+
+    static final byte[] MAGIC = "SBOBNDL1".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] FOOTER_MAGIC = "SBOBEND1".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int CHUNK_HEADER_SIZE = 16;
+    static final int FOOTER_SIZE = 8 + 4 + 8;
+
+    private final Path file;
+    private final Path tempFile;
+    private final DataOutputStream out;
+    private final ObjectMapper objectMapper;
+    private final BundleIndex index;
+    private final int chunkSize;
+    private final int compressionLevel;
+    private final ExecutorService compressors;
+    private final int maxPending;
+    private final Deque<Future<CompressedChunk>> pending = new ArrayDeque<>();
+
+    private ByteArrayOutputStream buffer;
+    private DataOutputStream bufferData;
+    private int bufferRecords;
+    private int recordCount;
+    private int chunkCount;
+    private long position;
+    private boolean closed;
+
+    /**
+     * @param file Bundle file to create
+     * @param index Index holding the bundle metadata; chunks and objects are added while writing
+     * @param chunkSize Uncompressed bytes of records per chunk
+     * @param compressionLevel Deflate level, 1 to 9
+     * @param threads Threads compressing chunks
+     */
+    public BundleWriter(Path file, BundleIndex index, ObjectMapper objectMapper, int chunkSize, int compressionLevel,
+                        int threads) throws IOException {
+        this.file = file;
+        this.index = index;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(4096, chunkSize);
+        this.compressionLevel = compressionLevel;
+        int threadCount = Math.max(1, threads);
+        this.maxPending = threadCount * 2;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.compressors = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "sap-bo-bundle-compress-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.tempFile = file.resolveSibling(file.getFileName() + ".part");
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile), 1 << 16));
+        out.write(MAGIC);
+        out.writeInt(VERSION);
+        position = MAGIC.length + 4;
+        newBuffer();
+    }
+
+    /**
+     * Append a record
+     * @param action Action writing the object; its ID must be the record number
+     * @param content Document content, or null
+     */
+    public void write(SyncAction action, byte[] content) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(action);
+        bufferData.writeInt(json.length);
+        bufferData.write(json);
+        bufferData.writeInt(content != null ? content.length : -1);
+        if (content != null) {
+            bufferData.write(content);
+        }
+        bufferRecords++;
+        recordCount++;
+
+        index.getObjects().add(new BundleIndex.Entry(action.getObjectType(), action.getObjectId(), action.getName(), chunkCount));
+        index.getObjectCounts().merge(action.getObjectType(), 1, Integer::sum);
+
+        if (buffer.size() >= chunkSize) {
+            submitChunk();
+        }
+    }
+
+    /**
+     * Number of records written so far, which is also the ID the next record gets
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Write the remaining chunks, the index and the footer and move the bundle into place
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (bufferRecords > 0) {
+                submitChunk();
+            }
+            while (!pending.isEmpty()) {
+                writeChunk(await(pending.poll()));
+            }
+
+            long indexOffset = position;
+            byte[] indexBytes = deflate(objectMapper.writeValueAsBytes(index), compressionLevel);
+            out.write(indexBytes);
+            out.writeLong(indexOffset);
+            out.writeInt(indexBytes.length);
+            out.write(FOOTER_MAGIC);
+            out.close();
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            compressors.shutdownNow();
+            out.close();
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Close without completing the bundle, e.g. after the export failed
+     */
+    public void abort() throws IOException {
+        closed = true;
+        compressors.shutdownNow();
+        out.close();
+        Files.deleteIfExists(tempFile);
+    }
+
+    private void submitChunk() throws IOException {
+        byte[] raw = buffer.toByteArray();
+        int records = bufferRecords;
+        int firstRecord = recordCount - records;
+        pending.add(compressors.submit(() -> compress(raw, records, firstRecord)));
+        chunkCount++;
+        newBuffer();
+
+        while (pending.size() > maxPending) {
+            writeChunk(await(pending.poll()));
+        }
+    }
+
+    private CompressedChunk compress(byte[] raw, int records, int firstRecord) {
+        CRC32 crc = new CRC32();
+        crc.update(raw);
+        return new CompressedChunk(deflate(raw, compressionLevel), raw.length, records, firstRecord, crc.getValue());
+    }
+
+    private void writeChunk(CompressedChunk chunk) throws IOException {
+        BundleIndex.Chunk entry = new BundleIndex.Chunk();
+        entry.setOffset(position);
+        entry.setSize(chunk.size);
+        entry.setCompressedSize(chunk.data.length);
+        entry.setFirstRecord(chunk.firstRecord);
+        entry.setRecords(chunk.records);
+        entry.setCrc(chunk.crc);
+        index.getChunks().add(entry);
+        index.setRawBytes(index.getRawBytes() + chunk.size);
+        index.setCompressedBytes(index.getCompressedBytes() + chunk.data.length);
+
+        out.writeInt(chunk.size);
+        out.writeInt(chunk.data.length);
+        out.writeInt(chunk.records);
+        out.writeInt((int) chunk.crc);
+        out.write(chunk.data);
+        position += CHUNK_HEADER_SIZE + chunk.data.length;
+    }
+
+    private void newBuffer() {
+        buffer = new ByteArrayOutputStream(chunkSize + chunkSize / 4);
+        bufferData = new DataOutputStream(buffer);
+        bufferRecords = 0;
+    }
+
+    private static CompressedChunk await(Future<CompressedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing bundle chunk");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to compress bundle chunk", e.getCause());
+        }
+    }
+
+    static byte[] deflate(byte[] data, int level) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, data.length / 3));
+            byte[] block = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                compressed.write(block, 0, deflater.deflate(block));
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static final class CompressedChunk {
+        private final byte[] data;
+        private final int size;
+        private final int records;
+        private final int firstRecord;
+        private final long crc;
+
+        private CompressedChunk(byte[] data, int size, int records, int firstRecord, long crc) {
+            this.data = data;
+            this.size = size;
+            this.records = records;
+            this.firstRecord = firstRecord;
+            this.crc = crc;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.sap.bo.sync.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * On-disk, content-addressed store for binary content.
+ *
+ * Blobs are stored once per SHA-256 hash, so identical content of different objects is kept only once.
+ * Callers look blobs up by their own key, e.g. environment, object ID and modification time; the key to hash
+ * mapping is kept in an append-only journal that is compacted when it grows. Blobs are written to a temporary
+ * file and renamed into place, so a crash never leaves a partial blob behind. When the total size exceeds the
+ * configured maximum, the least recently used blobs are deleted; file modification times record the usage
+ * order across restarts.
+ */
+public class BlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobStore.class);
+
+    private static final String JOURNAL = "index.log";
+
+    private final Path blobDir;
+    private final Path journal;
+    private final long maxBytes;
+
+    // Hash to size of stored blobs, least recently used first
+    private final LinkedHashMap<String, Long> blobs = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> hashesByKey = new HashMap<>();
+
+    private long totalBytes;
+    private int journalLines;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Open a store, creating its directory if needed
+     * @param dir Store directory
+     * @param maxBytes Maximum total size of all blobs
+     */
+    public BlobStore(Path dir, long maxBytes) {
+        this.blobDir = dir.resolve("blobs");
+        this.journal = dir.resolve(JOURNAL);
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(blobDir);
+            loadBlobs();
+            loadJournal();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open blob store in " + dir, e);
+        }
+        log.info("Opened blob store in {} with {} blobs ({} bytes)", dir, blobs.size(), totalBytes);
+    }
+
+    /**
+     * Get the content stored under a key
+     * @param key Caller-defined key
+     * @return Content, or null if the key is unknown or its blob was evicted
+     */
+    public byte[] get(String key) {
+        String hash;
+        synchronized (this) {
+            hash = hashesByKey.get(key);
+            if (hash == null || !blobs.containsKey(hash)) {
+                misses++;
+                return null;
+            }
+        }
+        try {
+            Path file = blobFile(hash);
+            byte[] content = Files.readAllBytes(file);
+            touch(file);
+            synchronized (this) {
+                blobs.get(hash);
+                hits++;
+            }
+            return content;
+        } catch (NoSuchFileException e) {
+            // Evicted concurrently
+            synchronized (this) {
+                misses++;
+            }
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read blob {}: {}", hash, e.getMessage());
+            synchronized (this) {
+                misses++;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Store content under a key. Content that is already stored is not written again.
+     * @param key Caller-defined key
+     * @param content Content to store
+     * @return SHA-256 hash of the content
+     */
+    public String put(String key, byte[] content) {
+        String hash = sha256(content);
+        try {
+            boolean stored;
+            synchronized (this) {
+                stored = blobs.containsKey(hash);
+            }
+            if (stored) {
+                log.debug("Blob {} for {} is already stored", hash, key);
+                touch(blobFile(hash));
+            } else if (content.length <= maxBytes) {
+                writeBlob(hash, content);
+            } else {
+                return hash;
+            }
+            synchronized (this) {
+                if (!hash.equals(hashesByKey.put(key, hash))) {
+                    appendJournal(key, hash);
+                }
+            }
+        } catch (IOException e) {
+            // The store is an optimization; failing to write it must not fail the caller
+            log.warn("Failed to store blob for {}: {}", key, e.getMessage());
+        }
+        return hash;
+    }
+
+    /**
+     * Get hit, miss and eviction statistics; size is the number of blobs and weight their total size
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, 0, blobs.size(), totalBytes, maxBytes);
+    }
+
+    private void writeBlob(String hash, byte[] content) throws IOException {
+        Path file = blobFile(hash);
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), hash, ".tmp");
+        try {
+            Files.write(temp, content);
+            moveAtomically(temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        synchronized (this) {
+            if (blobs.put(hash, (long) content.length) == null) {
+                totalBytes += content.length;
+            }
+            evictIfNeeded();
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Long>> iterator = blobs.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            try {
+                Files.deleteIfExists(blobFile(eldest.getKey()));
+            } catch (IOException e) {
+                log.warn("Failed to delete blob {}: {}", eldest.getKey(), e.getMessage());
+            }
+            totalBytes -= eldest.getValue();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private void appendJournal(String key, String hash) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(hash + "\t" + key + "\n");
+        }
+        journalLines++;
+        if (journalLines > 1024 && journalLines > 2 * hashesByKey.size()) {
+            compactJournal();
+        }
+    }
+
+    /**
+     * Rewrite the journal with the current mappings, dropping superseded ones and those of evicted blobs
+     */
+    private void compactJournal() throws IOException {
+        hashesByKey.values().removeIf(hash -> !blobs.containsKey(hash));
+        Path temp = Files.createTempFile(journal.getParent(), JOURNAL, ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, String> entry : hashesByKey.entrySet()) {
+                    writer.write(entry.getValue() + "\t" + entry.getKey() + "\n");
+                }
+            }
+            moveAtomically(temp, journal);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        journalLines = hashesByKey.size();
+    }
+
+    private void loadBlobs() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(blobDir)) {
+            files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        List<Path> stored = new ArrayList<>();
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(".tmp")) {
+                // Leftover of an interrupted write
+                Files.deleteIfExists(file);
+            } else {
+                stored.add(file);
+            }
+        }
+        stored.sort(Comparator.comparing(BlobStore::lastModified));
+        for (Path file : stored) {
+            long size = Files.size(file);
+            blobs.put(file.getFileName().toString(), size);
+            totalBytes += size;
+        }
+        evictIfNeeded();
+    }
+
+    private void loadJournal() throws IOException {
+        if (!Files.exists(journal)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                // A torn last line from a crash has no key or a short hash
+                if (tab == 64) {
+                    hashesByKey.put(line.substring(tab + 1), line.substring(0, tab));
+                }
+                journalLines++;
+            }
+        }
+    }
+
+    private Path blobFile(String hash) {
+        return blobDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Failed to update access time of {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.sap.bo.sync.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe LRU cache bounded by the total weight of its values.
+ * The least recently used entries are evicted once the configured maximum weight is exceeded,
+ * and entries older than the optional time-to-live are dropped on access.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class BoundedCache<K, V> {
+
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * @param maxWeight Maximum total weight of all cached values
+     * @param weigher Function computing the weight of a value, e.g. its approximate size in bytes
+     */
+    public BoundedCache(long maxWeight, ToLongFunction<V> weigher) {
+        this(maxWeight, weigher, 0);
+    }
+
+    /**
+     * @param maxWeight Maximum total weight of all cached values
+     * @param weigher Function computing the weight of a value, e.g. its approximate size in bytes
+     * @param ttlMillis Time-to-live of an entry after it was written, or 0 for no expiry
+     */
+    public BoundedCache(long maxWeight, ToLongFunction<V> weigher, long ttlMillis) {
+        this(maxWeight, weigher, ttlMillis, System::currentTimeMillis);
+    }
+
+    BoundedCache(long maxWeight, ToLongFunction<V> weigher, long ttlMillis, LongSupplier clock) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Get a cached value and mark it as recently used
+     * @param key Cache key
+     * @return Cached value, or null if not present
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (isExpired(entry)) {
+            remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Remove a value if it matches a condition, e.g. because it is known to be outdated.
+     * Does not count towards hit/miss statistics.
+     * @param key Cache key
+     * @param condition Condition on the cached value
+     * @return true if a value was removed
+     */
+    public synchronized boolean removeIf(K key, Predicate<V> condition) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && condition.test(entry.value)) {
+            remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Add or replace a value. Values heavier than the whole cache are not stored.
+     * @param key Cache key
+     * @param value Value to cache
+     */
+    public synchronized void put(K key, V value) {
+        long valueWeight = Math.max(1, weigher.applyAsLong(value));
+        remove(key);
+        if (valueWeight > maxWeight) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, valueWeight, clock.getAsLong()));
+        weight += valueWeight;
+        evictIfNeeded();
+    }
+
+    /**
+     * Remove a value
+     * @param key Cache key
+     */
+    public synchronized void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    /**
+     * Remove all values
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Get a snapshot of the cache statistics
+     */
+    public synchronized CacheStats stats() {
+        return new CacheStats(hits, misses, evictions, expirations, entries.size(), weight, maxWeight);
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return ttlMillis > 0 && clock.getAsLong() - entry.writtenAt > ttlMillis;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            Entry<V> eldest = iterator.next().getValue();
+            iterator.remove();
+            weight -= eldest.weight;
+            evictions++;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+        private final long writtenAt;
+
+        private Entry(V value, long weight, long writtenAt) {
+            this.value = value;
+            this.weight = weight;
+            this.writtenAt = writtenAt;
+        }
+    }
+}
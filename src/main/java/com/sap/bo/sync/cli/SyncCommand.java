@@ -0,0 +1,273 @@
+package com.sap.bo.sync.cli;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.bundle.BundleExporter;
+import com.sap.bo.sync.bundle.BundleImporter;
+import com.sap.bo.sync.bundle.BundleIndex;
+import com.sap.bo.sync.exception.CircuitOpenException;
+import com.sap.bo.sync.inventory.InventoryLoader;
+import com.sap.bo.sync.plan.SyncPlanResult;
+import com.sap.bo.sync.reconcile.InventoryReconciler;
+import com.sap.bo.sync.reconcile.ReconcileSummary;
+import com.sap.bo.sync.reconcile.ReconcileWriter;
+import com.sap.bo.sync.service.SyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless one-shot sync run, e.g. for a Kubernetes CronJob, export or import of an offline bundle, or
+ * reconciliation report of the source against the target.
+ *
+ * The application is started without a web server and with lazy bean initialization, so only the beans
+ * reachable from the sync service are created; controllers, the scheduler and the async service are
+ * skipped. The run prints a JSON summary line to stdout and its result becomes the process exit code.
+ */
+@Component
+public class SyncCommand {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncCommand.class);
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_UNAVAILABLE = 3;
+
+    private final SyncService syncService;
+    private final BundleExporter bundleExporter;
+    private final BundleImporter bundleImporter;
+    private final InventoryReconciler inventoryReconciler;
+    private final ObjectMapper objectMapper;
+
+    public SyncCommand(SyncService syncService, BundleExporter bundleExporter, BundleImporter bundleImporter,
+                       InventoryReconciler inventoryReconciler, ObjectMapper objectMapper) {
+        this.syncService = syncService;
+        this.bundleExporter = bundleExporter;
+        this.bundleImporter = bundleImporter;
+        this.inventoryReconciler = inventoryReconciler;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Start the application headless, run the sync requested by the arguments and stop it again
+     * @param applicationClass Spring Boot application class
+     * @param args Command line arguments
+     * @return Process exit code
+     */
+    public static int run(Class<?> applicationClass, String[] args) {
+        long start = System.nanoTime();
+
+        SyncCommandOptions options;
+        try {
+            options = SyncCommandOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(SyncCommandOptions.USAGE);
+            return EXIT_USAGE;
+        }
+
+        ConfigurableApplicationContext context;
+        try {
+            context = new SpringApplicationBuilder(applicationClass)
+                    .web(WebApplicationType.NONE)
+                    .lazyInitialization(true)
+                    .bannerMode(Banner.Mode.OFF)
+                    .run(args);
+        } catch (RuntimeException e) {
+            log.error("Failed to start sync run", e);
+            return EXIT_FAILED;
+        }
+
+        long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        int exitCode = context.getBean(SyncCommand.class).execute(options, startupMillis, System.out);
+        return SpringApplication.exit(context, () -> exitCode);
+    }
+
+    /**
+     * Run the sync, export, import or reconciliation and print its summary
+     * @param options Parsed command line options
+     * @param startupMillis Time it took to start the application, reported in the summary
+     * @param out Stream the summary line is printed to
+     * @return Process exit code
+     */
+    public int execute(SyncCommandOptions options, long startupMillis, PrintStream out) {
+        if (SyncCommandOptions.MODE_EXPORT.equals(options.getMode())) {
+            return exportBundle(options, startupMillis, out);
+        }
+        if (SyncCommandOptions.MODE_IMPORT.equals(options.getMode())) {
+            return importBundle(options, startupMillis, out);
+        }
+        if (SyncCommandOptions.MODE_RECONCILE.equals(options.getMode())) {
+            return reconcile(options, startupMillis, out);
+        }
+
+        log.info("Starting sync run for {} objects modified after {}, force update: {}",
+                options.getTypes(), options.getSince() != null ? options.getSince() : "any time", options.isForce());
+        long start = System.nanoTime();
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        int exitCode = EXIT_OK;
+        String error = null;
+        long failedBefore = syncService.getFailedObjects();
+        try {
+            for (String type : options.getTypes()) {
+                counts.put(type, sync(type, options));
+            }
+        } catch (RuntimeException e) {
+            exitCode = CircuitOpenException.find(e) != null ? EXIT_UNAVAILABLE : EXIT_FAILED;
+            error = e.getMessage();
+            log.error("Sync run failed", e);
+        }
+        // Objects that failed one by one are logged and skipped; the run still counts as failed
+        long failed = syncService.getFailedObjects() - failedBefore;
+        if (failed > 0 && exitCode == EXIT_OK) {
+            exitCode = EXIT_FAILED;
+            log.error("Sync run completed with {} failed objects", failed);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("status", exitCode == EXIT_OK ? "OK" : exitCode == EXIT_UNAVAILABLE ? "UNAVAILABLE" : "FAILED");
+        summary.put("exitCode", exitCode);
+        summary.put("types", options.getTypes());
+        summary.put("since", options.getSince() != null ? options.getSince().toInstant().toString() : null);
+        summary.put("synchronized", counts);
+        summary.put("total", counts.values().stream().mapToInt(Integer::intValue).sum());
+        summary.put("failed", failed);
+        summary.put("startupMillis", startupMillis);
+        summary.put("syncMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (error != null) {
+            summary.put("error", error);
+        }
+
+        print(summary, out);
+        return exitCode;
+    }
+
+    private int exportBundle(SyncCommandOptions options, long startupMillis, PrintStream out) {
+        long start = System.nanoTime();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        int exitCode = EXIT_OK;
+        try {
+            BundleIndex index = bundleExporter.export(options.getFile(), options.getObjectTypes(), options.getSince());
+            summary.put("bundleId", index.getBundleId());
+            summary.put("exported", index.getObjectCounts());
+            summary.put("total", index.getObjects().size());
+            summary.put("chunks", index.getChunks().size());
+            summary.put("rawBytes", index.getRawBytes());
+            summary.put("compressedBytes", index.getCompressedBytes());
+        } catch (RuntimeException e) {
+            exitCode = CircuitOpenException.find(e) != null ? EXIT_UNAVAILABLE : EXIT_FAILED;
+            summary.put("error", e.getMessage());
+            log.error("Bundle export failed", e);
+        }
+        print(bundleSummary(options, exitCode, summary, startupMillis, start), out);
+        return exitCode;
+    }
+
+    private int importBundle(SyncCommandOptions options, long startupMillis, PrintStream out) {
+        long start = System.nanoTime();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        int exitCode = EXIT_OK;
+        try {
+            SyncPlanResult result = bundleImporter.importBundle(options.getFile(), options.getObjectTypes(), options.isForce());
+            summary.put("bundleId", result.getPlanId());
+            summary.put("succeeded", result.getSucceeded());
+            summary.put("failed", result.getFailed());
+            summary.put("skipped", result.getSkipped());
+            if (result.getFailed() > 0) {
+                exitCode = EXIT_FAILED;
+                summary.put("errors", result.getErrors());
+            }
+        } catch (RuntimeException e) {
+            exitCode = CircuitOpenException.find(e) != null ? EXIT_UNAVAILABLE : EXIT_FAILED;
+            summary.put("error", e.getMessage());
+            log.error("Bundle import failed", e);
+        }
+        print(bundleSummary(options, exitCode, summary, startupMillis, start), out);
+        return exitCode;
+    }
+
+    private int reconcile(SyncCommandOptions options, long startupMillis, PrintStream out) {
+        long start = System.nanoTime();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        int exitCode = EXIT_OK;
+        List<String> types = options.getObjectTypes() != null ? options.getObjectTypes() : InventoryLoader.ALL_TYPES;
+        String format = options.getFile().toString().toLowerCase().endsWith(".csv")
+                ? ReconcileWriter.FORMAT_CSV : ReconcileWriter.FORMAT_NDJSON;
+        try (OutputStream report = Files.newOutputStream(options.getFile())) {
+            ReconcileSummary result = inventoryReconciler.reconcile(types, null,
+                    ReconcileWriter.of(format, report, objectMapper));
+            summary.put("format", format);
+            summary.put("reconciled", result.getCounts());
+            summary.put("typeCounts", result.getTypeCounts());
+            summary.put("sourceObjects", result.getSourceObjects());
+            summary.put("targetObjects", result.getTargetObjects());
+            summary.put("spilled", result.isSpilled());
+        } catch (IOException | RuntimeException e) {
+            exitCode = CircuitOpenException.find(e) != null ? EXIT_UNAVAILABLE : EXIT_FAILED;
+            summary.put("error", e.getMessage());
+            log.error("Reconciliation failed", e);
+        }
+        print(bundleSummary(options, exitCode, summary, startupMillis, start), out);
+        return exitCode;
+    }
+
+    private static Map<String, Object> bundleSummary(SyncCommandOptions options, int exitCode, Map<String, Object> details,
+                                                     long startupMillis, long start) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("status", exitCode == EXIT_OK ? "OK" : exitCode == EXIT_UNAVAILABLE ? "UNAVAILABLE" : "FAILED");
+        summary.put("exitCode", exitCode);
+        summary.put("mode", options.getMode());
+        summary.put("file", options.getFile().toString());
+        summary.put("types", options.getTypes());
+        summary.putAll(details);
+        summary.put("startupMillis", startupMillis);
+        summary.put("syncMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return summary;
+    }
+
+    private void print(Map<String, Object> summary, PrintStream out) {
+        try {
+            out.println(objectMapper.writeValueAsString(summary));
+        } catch (JsonProcessingException e) {
+            out.println(summary);
+        }
+    }
+
+    private int sync(String type, SyncCommandOptions options) {
+        Map<String, String> syncOptions = Collections.singletonMap("forceUpdate", String.valueOf(options.isForce()));
+        switch (type) {
+            case "folders":
+                if (options.getSince() != null) {
+                    log.warn("Folders are always synchronized completely, ignoring --since");
+                }
+                return syncService.syncFolders(null);
+            case "reports":
+                return syncService.syncReports(null, options.getSince(), syncOptions);
+            case "universes":
+                return syncService.syncUniverses(null, options.getSince(), syncOptions);
+            case "connections":
+                return syncService.syncConnections(options.getSince(), syncOptions);
+            default:
+                return options.getSince() != null
+                        ? syncService.syncIncremental(options.getSince(), null, options.isForce())
+                        : syncService.syncAll(options.isForce());
+        }
+    }
+}
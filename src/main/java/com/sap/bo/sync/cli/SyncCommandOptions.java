@@ -0,0 +1,182 @@
+package com.sap.bo.sync.cli;
+
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Command line options of a one-shot sync run:
+ * --mode=run [--type=all|folders|reports|universes|connections[,...]] [--since=...] [--force]
+ *
+ * and of the offline bundle commands, which take the same options:
+ * --mode=export --file=bundle.sbo [--type=...] [--since=...]
+ * --mode=import --file=bundle.sbo [--type=...] [--force]
+ *
+ * and of the reconciliation report, written as CSV for a .csv file and as NDJSON otherwise:
+ * --mode=reconcile --file=report.csv|report.ndjson [--type=...]
+ */
+public class SyncCommandOptions {
+
+    public static final String MODE_RUN = "run";
+    public static final String MODE_EXPORT = "export";
+    public static final String MODE_IMPORT = "import";
+    public static final String MODE_RECONCILE = "reconcile";
+    public static final List<String> MODES = Collections.unmodifiableList(
+            Arrays.asList(MODE_RUN, MODE_EXPORT, MODE_IMPORT, MODE_RECONCILE));
+    public static final String TYPE_ALL = "all";
+    public static final List<String> TYPES = Collections.unmodifiableList(
+            Arrays.asList(TYPE_ALL, "folders", "reports", "universes", "connections"));
+
+    public static final String USAGE = "Usage: --mode=run|export|import|reconcile [--file=bundle.sbo|report.csv]"
+            + " [--type=all|folders|reports|universes|connections[,...]]"
+            + " [--since=2024-01-31|2024-01-31T18:00:00|2024-01-31T18:00:00Z|P1D|PT6H] [--force]";
+
+    private final String mode;
+    private final List<String> types;
+    private final Date since;
+    private final boolean force;
+    private final Path file;
+
+    SyncCommandOptions(String mode, List<String> types, Date since, boolean force, Path file) {
+        this.mode = mode;
+        this.types = types;
+        this.since = since;
+        this.force = force;
+        this.file = file;
+    }
+
+    /**
+     * Whether the arguments request a one-shot run, export, import or reconciliation instead of starting the server
+     */
+    public static boolean isRunMode(String[] args) {
+        List<String> modes = new DefaultApplicationArguments(args).getOptionValues("mode");
+        return modes != null && modes.stream().anyMatch(MODES::contains);
+    }
+
+    /**
+     * Parse the options of a one-shot run
+     * @throws IllegalArgumentException If an option is invalid
+     */
+    public static SyncCommandOptions parse(String[] args) {
+        return parse(args, Instant.now());
+    }
+
+    static SyncCommandOptions parse(String[] args, Instant now) {
+        DefaultApplicationArguments arguments = new DefaultApplicationArguments(args);
+
+        List<String> modeValues = arguments.getOptionValues("mode");
+        String mode = modeValues != null && !modeValues.isEmpty() ? modeValues.get(0).trim().toLowerCase() : MODE_RUN;
+        if (!MODES.contains(mode)) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+
+        List<String> fileValues = arguments.getOptionValues("file");
+        Path file = fileValues != null && !fileValues.isEmpty() && !fileValues.get(0).trim().isEmpty()
+                ? Paths.get(fileValues.get(0).trim())
+                : null;
+        if (file == null && !MODE_RUN.equals(mode)) {
+            throw new IllegalArgumentException("Mode " + mode + " requires --file");
+        }
+
+        List<String> types = new ArrayList<>();
+        List<String> typeValues = arguments.getOptionValues("type");
+        for (String value : typeValues != null ? typeValues : Collections.singletonList(TYPE_ALL)) {
+            for (String type : value.split(",")) {
+                String normalized = type.trim().toLowerCase();
+                if (!TYPES.contains(normalized)) {
+                    throw new IllegalArgumentException("Unknown type: " + type);
+                }
+                if (!types.contains(normalized)) {
+                    types.add(normalized);
+                }
+            }
+        }
+        if (types.contains(TYPE_ALL) && types.size() > 1) {
+            throw new IllegalArgumentException("Type 'all' cannot be combined with other types");
+        }
+
+        List<String> sinceValues = arguments.getOptionValues("since");
+        Date since = sinceValues != null && !sinceValues.isEmpty() ? parseSince(sinceValues.get(0), now) : null;
+
+        List<String> forceValues = arguments.getOptionValues("force");
+        boolean force = forceValues != null && (forceValues.isEmpty() || Boolean.parseBoolean(forceValues.get(0)));
+
+        return new SyncCommandOptions(mode, types, since, force, file);
+    }
+
+    /**
+     * Parse a point in time given as ISO date, local date-time, instant, or as ISO duration before now
+     */
+    static Date parseSince(String value, Instant now) {
+        String text = value.trim();
+        try {
+            if (text.startsWith("P") || text.startsWith("p")) {
+                return Date.from(now.minus(Duration.parse(text.toUpperCase())));
+            }
+            if (text.endsWith("Z") || text.endsWith("z")) {
+                return Date.from(Instant.parse(text.toUpperCase()));
+            }
+            if (text.contains("T")) {
+                return Date.from(LocalDateTime.parse(text).atZone(ZoneId.systemDefault()).toInstant());
+            }
+            return Date.from(LocalDate.parse(text).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid --since value: " + value, e);
+        }
+    }
+
+    /**
+     * Command to perform: "run", "export" or "import"
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    public List<String> getTypes() {
+        return types;
+    }
+
+    /**
+     * Bundle object types of the selected types ("folder", "report", ...), or null for all
+     */
+    public List<String> getObjectTypes() {
+        if (types.contains(TYPE_ALL)) {
+            return null;
+        }
+        List<String> objectTypes = new ArrayList<>();
+        for (String type : types) {
+            objectTypes.add(type.substring(0, type.length() - 1));
+        }
+        return objectTypes;
+    }
+
+    /**
+     * Only objects modified after this date are synchronized, or all objects if null
+     */
+    public Date getSince() {
+        return since;
+    }
+
+    public boolean isForce() {
+        return force;
+    }
+
+    /**
+     * Bundle file to export to or import from, report file to reconcile to, or null for a sync run
+     */
+    public Path getFile() {
+        return file;
+    }
+}
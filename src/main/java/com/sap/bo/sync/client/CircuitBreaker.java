@@ -0,0 +1,206 @@
+package com.sap.bo.sync.client;
+
+import com.sap.bo.sync.config.ClientProperties;
+import com.sap.bo.sync.exception.CircuitOpenException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker for the requests to one SAP BO environment.
+ *
+ * While closed, the outcomes of the last windowSize requests are tracked. I/O errors, 5xx and 429 responses
+ * count as failures, and requests taking longer than slowCallThreshold as slow. Once enough requests were
+ * seen and either rate reaches its threshold, the breaker opens and requests fail immediately with a
+ * CircuitOpenException instead of waiting for their timeouts. After openDuration it turns half-open and
+ * lets halfOpenProbes requests through: if they all succeed it closes, otherwise it opens again.
+ */
+public class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    // How long callers are told to wait while the half-open probes are in flight
+    private static final long PROBE_WAIT_MILLIS = 1000;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final ClientProperties.CircuitBreakerProperties properties;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int position;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+    private long openCount;
+    private long rejectedCount;
+
+    /**
+     * @param name Name used in log messages and exceptions, e.g. the environment URL
+     * @param properties Breaker configuration
+     */
+    public CircuitBreaker(String name, ClientProperties.CircuitBreakerProperties properties) {
+        this(name, properties, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(String name, ClientProperties.CircuitBreakerProperties properties, LongSupplier clock) {
+        this.name = name;
+        this.properties = properties;
+        this.clock = clock;
+        this.failed = new boolean[Math.max(1, properties.getWindowSize())];
+        this.slow = new boolean[failed.length];
+    }
+
+    /**
+     * Run a request if the breaker permits it and record its outcome
+     * @param request Sends the request
+     * @return Result of the request
+     * @throws CircuitOpenException If the breaker is open
+     */
+    public <T> T execute(Supplier<T> request) {
+        if (!properties.isEnabled()) {
+            return request.get();
+        }
+        boolean probe = acquire();
+        long start = clock.getAsLong();
+        try {
+            T result = request.get();
+            onResult(probe, false, clock.getAsLong() - start);
+            return result;
+        } catch (RuntimeException e) {
+            onResult(probe, isFailure(e), clock.getAsLong() - start);
+            throw e;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Get the state and counters of the breaker
+     */
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.name());
+        stats.put("windowCalls", calls);
+        stats.put("windowFailures", failures);
+        stats.put("windowSlowCalls", slowCalls);
+        stats.put("opened", openCount);
+        stats.put("rejected", rejectedCount);
+        return stats;
+    }
+
+    /**
+     * Check whether a request may be sent
+     * @return true if the request is a half-open probe
+     */
+    private synchronized boolean acquire() {
+        if (state == State.OPEN) {
+            long remaining = openedAt + properties.getOpenDuration() - clock.getAsLong();
+            if (remaining > 0) {
+                rejectedCount++;
+                throw new CircuitOpenException(name, remaining);
+            }
+            log.info("Circuit breaker for {} is half-open, probing with {} requests", name, properties.getHalfOpenProbes());
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= properties.getHalfOpenProbes()) {
+                rejectedCount++;
+                throw new CircuitOpenException(name, PROBE_WAIT_MILLIS);
+            }
+            probesInFlight++;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void onResult(boolean probe, boolean failure, long elapsed) {
+        boolean slowCall = elapsed >= properties.getSlowCallThreshold();
+        if (probe) {
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            probesInFlight--;
+            if (failure || slowCall) {
+                open("probe request " + (failure ? "failed" : "was slow"));
+            } else if (++probeSuccesses >= properties.getHalfOpenProbes()) {
+                log.info("Circuit breaker for {} is closed again", name);
+                state = State.CLOSED;
+                resetWindow();
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            // Started before the breaker opened
+            return;
+        }
+
+        if (calls == failed.length) {
+            failures -= failed[position] ? 1 : 0;
+            slowCalls -= slow[position] ? 1 : 0;
+        } else {
+            calls++;
+        }
+        failed[position] = failure;
+        slow[position] = slowCall;
+        failures += failure ? 1 : 0;
+        slowCalls += slowCall ? 1 : 0;
+        position = (position + 1) % failed.length;
+
+        if (calls >= properties.getMinimumCalls()) {
+            if (failures * 100 >= properties.getFailureRateThreshold() * calls) {
+                open(failures + " of the last " + calls + " requests failed");
+            } else if (slowCalls * 100 >= properties.getSlowCallRateThreshold() * calls) {
+                open(slowCalls + " of the last " + calls + " requests were slow");
+            }
+        }
+    }
+
+    private void open(String reason) {
+        log.warn("Circuit breaker for {} opened for {} ms: {}", name, properties.getOpenDuration(), reason);
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        openCount++;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        position = 0;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    /**
+     * Transport errors, server errors and throttling indicate an unhealthy server; other errors are the request's fault
+     */
+    private static boolean isFailure(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof HttpStatusCodeException) {
+            int status = ((HttpStatusCodeException) e).getRawStatusCode();
+            return status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return false;
+    }
+}
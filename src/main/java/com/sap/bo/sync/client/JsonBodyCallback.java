@@ -0,0 +1,201 @@
+package com.sap.bo.sync.client;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.web.client.RequestCallback;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a JSON request body by serializing the object straight onto the request stream.
+ *
+ * With a streaming request factory the body is written while the request is sent, so the payload never
+ * exists as a String or byte array. Buffering request factories get the same single pass into their own
+ * buffer. The body is serialized again on every attempt, so a retried request sends the same content.
+ *
+ * If bodies of at least a minimum size are to be compressed, the first minimum size bytes are serialized
+ * up front to find out which side of the threshold the body is on, since Content-Encoding has to be set
+ * before the body is written. Smaller bodies are sent from that buffer; larger ones are serialized again
+ * through gzip, which repeats no more than the threshold's worth of work.
+ */
+class JsonBodyCallback implements RequestCallback {
+
+    private final HttpHeaders headers;
+    private final Object body;
+    private final ObjectWriter writer;
+    private final int minCompressSize;
+    private final TransferMetrics transferMetrics;
+
+    private long originalBytes;
+    private long sentBytes;
+    private boolean compressed;
+
+    /**
+     * @param headers Request headers
+     * @param body Object to serialize as the request body
+     * @param writer Writer for the type of the body
+     * @param minCompressSize Bodies of at least this many bytes are sent gzip-encoded, or -1 to never compress
+     * @param transferMetrics Receives the bytes allocated while serializing
+     */
+    JsonBodyCallback(HttpHeaders headers, Object body, ObjectWriter writer, int minCompressSize,
+                     TransferMetrics transferMetrics) {
+        this.headers = headers;
+        this.body = body;
+        this.writer = writer;
+        this.minCompressSize = minCompressSize;
+        this.transferMetrics = transferMetrics;
+    }
+
+    @Override
+    public void doWithRequest(ClientHttpRequest request) throws IOException {
+        request.getHeaders().putAll(headers);
+
+        long start = TransferMetrics.currentThreadAllocatedBytes();
+        byte[] small = minCompressSize >= 0 ? serializeIfSmallerThan(minCompressSize) : null;
+        compressed = minCompressSize >= 0 && small == null;
+        if (compressed) {
+            request.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        if (request instanceof StreamingHttpOutputMessage) {
+            long prepared = allocatedSince(start);
+            ((StreamingHttpOutputMessage) request).setBody(out -> {
+                // Runs while the request is sent, on the same thread
+                long writeStart = TransferMetrics.currentThreadAllocatedBytes();
+                writeBody(out, small);
+                long written = allocatedSince(writeStart);
+                transferMetrics.recordRequestWrite(prepared < 0 || written < 0 ? -1 : prepared + written);
+            });
+        } else {
+            writeBody(request.getBody(), small);
+            transferMetrics.recordRequestWrite(allocatedSince(start));
+        }
+    }
+
+    private static long allocatedSince(long start) {
+        long now = TransferMetrics.currentThreadAllocatedBytes();
+        return start < 0 || now < 0 ? -1 : now - start;
+    }
+
+    private void writeBody(OutputStream target, byte[] small) throws IOException {
+        CountingOutputStream wire = new CountingOutputStream(target);
+        if (small != null) {
+            wire.write(small);
+            originalBytes = small.length;
+        } else if (compressed) {
+            GZIPOutputStream gzip = new GZIPOutputStream(wire, 8192);
+            CountingOutputStream plain = new CountingOutputStream(gzip);
+            writer.writeValue(plain, body);
+            gzip.finish();
+            originalBytes = plain.count;
+        } else {
+            CountingOutputStream plain = new CountingOutputStream(wire);
+            writer.writeValue(plain, body);
+            originalBytes = plain.count;
+        }
+        wire.flush();
+        sentBytes = wire.count;
+    }
+
+    /**
+     * Serialize the body into memory unless it turns out to be at least the given size
+     * @return Serialized body, or null if it is at least limit bytes
+     */
+    private byte[] serializeIfSmallerThan(int limit) throws IOException {
+        BoundedBuffer buffer = new BoundedBuffer(limit);
+        try {
+            writer.writeValue(buffer, body);
+        } catch (IOException | RuntimeException e) {
+            // Jackson may wrap the overflow depending on where serialization stood
+            if (buffer.overflowed) {
+                return null;
+            }
+            throw e;
+        }
+        return buffer.size() < limit ? buffer.toByteArray() : null;
+    }
+
+    long getOriginalBytes() {
+        return originalBytes;
+    }
+
+    long getSentBytes() {
+        return sentBytes;
+    }
+
+    boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * In-memory buffer that fails once its limit is exceeded, ending serialization early
+     */
+    private static final class BoundedBuffer extends ByteArrayOutputStream {
+        private final int limit;
+        private boolean overflowed;
+
+        private BoundedBuffer(int limit) {
+            super(Math.min(Math.max(limit, 32), 1024));
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) {
+            check(1);
+            super.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            check(length);
+            super.write(bytes, offset, length);
+        }
+
+        private void check(int length) {
+            if (count + length >= limit) {
+                overflowed = true;
+                throw new BodyTooLargeException();
+            }
+        }
+    }
+
+    private static final class BodyTooLargeException extends RuntimeException {
+        private BodyTooLargeException() {
+            super("Request body reached the compression threshold", null, false, false);
+        }
+    }
+
+    /**
+     * Counts the bytes written through it; closing it leaves the target open
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
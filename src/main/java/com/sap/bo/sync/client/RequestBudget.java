@@ -0,0 +1,51 @@
+package com.sap.bo.sync.client;
+
+/**
+ * Token bucket limiting extra requests, such as retries or hedges, to a share of the requests sent.
+ *
+ * The bucket starts with reserve tokens. Every request sent adds ratio tokens, up to reserve, and every
+ * extra request takes one. While extra requests are frequent the bucket drains and they are refused, so
+ * they cannot add more than the ratio to the load on the server.
+ */
+public class RequestBudget {
+
+    private final double ratio;
+    private final double reserve;
+    private double tokens;
+
+    /**
+     * @param ratio Extra requests allowed per request sent
+     * @param reserve Extra requests allowed regardless of the ratio, e.g. right after startup
+     */
+    public RequestBudget(double ratio, double reserve) {
+        this.ratio = ratio;
+        this.reserve = reserve;
+        this.tokens = reserve;
+    }
+
+    /**
+     * Record a request sent
+     */
+    public synchronized void deposit() {
+        tokens = Math.min(reserve, tokens + ratio);
+    }
+
+    /**
+     * Take a token for an extra request
+     * @return true if the extra request may be sent
+     */
+    public synchronized boolean withdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    /**
+     * Number of extra requests that may be sent right now
+     */
+    public synchronized long available() {
+        return (long) Math.floor(tokens);
+    }
+}
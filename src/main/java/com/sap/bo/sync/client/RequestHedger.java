@@ -0,0 +1,311 @@
+package com.sap.bo.sync.client;
+
+import com.sap.bo.sync.config.ClientProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedges slow read requests to cut the latency tail of the SAP BO API.
+ *
+ * A hedged request is sent from a worker thread. If it has not completed after the configured percentile
+ * of recent read latencies, an identical request is sent; the first successful response is used and the
+ * other request is aborted. Until minSamples reads were measured, requests are sent directly.
+ *
+ * Hedges draw from a RequestBudget that every hedged request refills by budgetRatio, so hedging adds at
+ * most that share of extra reads even when the whole API slows down.
+ *
+ * A request that lost the race is aborted through the callback registered with track() by the HTTP
+ * request factory; without one it completes in the background and its response is discarded. Its time
+ * until it was aborted is recorded as a latency sample, a lower bound of what it would have taken, so the
+ * slow requests that get hedged still pull the delay up.
+ *
+ * Attempts run on at most maxThreads worker threads, the connections available per server. When all of
+ * them are busy, a request is sent directly from the calling thread and no hedge is sent.
+ */
+public class RequestHedger {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestHedger.class);
+
+    // Recompute the hedge delay after this many new latency samples
+    private static final int RECOMPUTE_INTERVAL = 50;
+
+    private static final ThreadLocal<RequestHedger.Attempt<?>> CURRENT_ATTEMPT = new ThreadLocal<>();
+
+    private final ClientProperties.HedgeProperties properties;
+    private final ExecutorService executor;
+    private final RequestBudget budget;
+
+    private final long[] latencies;
+    private int latencyCount;
+    private int latencyPosition;
+    private int samplesSinceRecompute;
+    private long delay = -1;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+    private final AtomicLong saturated = new AtomicLong();
+
+    /**
+     * @param properties Hedging configuration
+     * @param maxThreads Maximum number of attempts in flight, e.g. the pooled connections per server
+     */
+    public RequestHedger(ClientProperties.HedgeProperties properties, int maxThreads) {
+        this(properties, properties.isEnabled() ? newWorkerPool(maxThreads) : null);
+    }
+
+    RequestHedger(ClientProperties.HedgeProperties properties, ExecutorService executor) {
+        this.properties = properties;
+        this.executor = executor;
+        this.budget = new RequestBudget(properties.getBudgetRatio(), properties.getBudgetReserve());
+        this.latencies = new long[Math.max(1, properties.getSampleSize())];
+    }
+
+    private static ExecutorService newWorkerPool(int maxThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // No queue: an attempt that waited for a thread would measure the wait as latency
+        return new ThreadPoolExecutor(0, Math.max(1, maxThreads), 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "sap-bo-hedge-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Whether a request to the given path may be hedged
+     */
+    public boolean isHedgeable(String path) {
+        return properties.isEnabled() && executor != null && path.startsWith(properties.getPathPrefix());
+    }
+
+    /**
+     * Send a read request, hedging it if it is slower than the configured percentile
+     * @param description Request description for log messages, e.g. "GET /infostore/reports/1"
+     * @param request Sends the request; must be idempotent
+     * @return Result of the first successful attempt
+     * @throws RuntimeException Failure of the first attempt if no attempt succeeded
+     */
+    public <T> T execute(String description, Supplier<T> request) {
+        requests.incrementAndGet();
+        budget.deposit();
+        long hedgeDelay = hedgeDelay();
+        if (hedgeDelay < 0) {
+            long start = System.nanoTime();
+            T result = request.get();
+            recordLatency(start);
+            return result;
+        }
+
+        BlockingQueue<Attempt<T>> completed = new ArrayBlockingQueue<>(2);
+        Attempt<T> primary = start(request, completed);
+        if (primary == null) {
+            saturated.incrementAndGet();
+            long start = System.nanoTime();
+            T result = request.get();
+            recordLatency(start);
+            return result;
+        }
+        Attempt<T> hedge = null;
+        try {
+            Attempt<T> first = completed.poll(hedgeDelay, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                if (budget.withdraw()) {
+                    hedge = start(request, completed);
+                    if (hedge != null) {
+                        hedges.incrementAndGet();
+                        log.debug("Hedging {} after {} ms", description, hedgeDelay);
+                    } else {
+                        saturated.incrementAndGet();
+                    }
+                } else {
+                    budgetExhausted.incrementAndGet();
+                }
+                first = completed.take();
+            }
+
+            Attempt<T> winner = first;
+            if (first.failure != null && hedge != null) {
+                Attempt<T> second = completed.take();
+                if (second.failure == null) {
+                    winner = second;
+                }
+            }
+
+            Attempt<T> loser = winner == primary ? hedge : primary;
+            if (loser != null) {
+                loser.cancel();
+            }
+            if (winner == hedge && winner.failure == null) {
+                hedgeWins.incrementAndGet();
+            }
+            return winner.result();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel();
+            if (hedge != null) {
+                hedge.cancel();
+            }
+            throw new SapBoApiException("Interrupted while waiting for " + description, e);
+        }
+    }
+
+    /**
+     * Register how to abort the HTTP request being created on the current thread.
+     * Called by the HTTP request factory; has no effect outside a hedged request.
+     */
+    public static void track(Runnable abort) {
+        Attempt<?> attempt = CURRENT_ATTEMPT.get();
+        if (attempt != null) {
+            attempt.track(abort);
+        }
+    }
+
+    /**
+     * Get request and hedge counters and the current hedge delay
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("requests", requests.get());
+        stats.put("hedges", hedges.get());
+        stats.put("hedgeWins", hedgeWins.get());
+        stats.put("budgetExhausted", budgetExhausted.get());
+        stats.put("saturated", saturated.get());
+        stats.put("budgetAvailable", budget.available());
+        stats.put("delayMillis", hedgeDelay());
+        return stats;
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Current hedge delay in milliseconds, or -1 while too few latencies were measured
+     */
+    synchronized long hedgeDelay() {
+        return latencyCount >= properties.getMinSamples() ? delay : -1;
+    }
+
+    private void recordLatency(long startNanos) {
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        synchronized (this) {
+            latencies[latencyPosition] = elapsed;
+            latencyPosition = (latencyPosition + 1) % latencies.length;
+            latencyCount = Math.min(latencyCount + 1, latencies.length);
+            if (++samplesSinceRecompute >= RECOMPUTE_INTERVAL || delay < 0) {
+                samplesSinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(latencies, latencyCount);
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(properties.getPercentile() / 100 * sorted.length) - 1;
+                delay = Math.max(properties.getMinDelay(), sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+            }
+        }
+    }
+
+    /**
+     * Start an attempt on a worker thread
+     * @return The attempt, or null if all worker threads are busy
+     */
+    private <T> Attempt<T> start(Supplier<T> request, BlockingQueue<Attempt<T>> completed) {
+        Attempt<T> attempt = new Attempt<>(request, completed);
+        try {
+            executor.execute(attempt);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+        return attempt;
+    }
+
+    /**
+     * One copy of a hedged request, run on a worker thread
+     */
+    private final class Attempt<T> implements Runnable {
+        private final Supplier<T> request;
+        private final BlockingQueue<Attempt<T>> completed;
+        private final AtomicBoolean sampled = new AtomicBoolean();
+        private volatile long startNanos;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+        private volatile Runnable abort;
+        private T value;
+        private Throwable failure;
+
+        Attempt(Supplier<T> request, BlockingQueue<Attempt<T>> completed) {
+            this.request = request;
+            this.completed = completed;
+        }
+
+        @Override
+        public void run() {
+            CURRENT_ATTEMPT.set(this);
+            startNanos = System.nanoTime();
+            try {
+                value = request.get();
+                if (!cancelled) {
+                    sample();
+                }
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                done = true;
+                CURRENT_ATTEMPT.remove();
+                completed.offer(this);
+            }
+        }
+
+        void track(Runnable abort) {
+            this.abort = abort;
+            if (cancelled) {
+                abort.run();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            // A request still running took at least this long
+            if (startNanos != 0 && !done) {
+                sample();
+            }
+            Runnable abortRequest = abort;
+            if (abortRequest != null) {
+                abortRequest.run();
+            }
+        }
+
+        private void sample() {
+            if (sampled.compareAndSet(false, true)) {
+                recordLatency(startNanos);
+            }
+        }
+
+        T result() {
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            return value;
+        }
+    }
+}
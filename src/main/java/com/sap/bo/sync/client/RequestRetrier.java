@@ -0,0 +1,173 @@
+package com.sap.bo.sync.client;
+
+import com.sap.bo.sync.config.ClientProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.net.ConnectException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Retries individual requests to the SAP BO API after transient failures.
+ *
+ * A request is retried when it surely was not processed (429, 503, or a refused connection) or, for idempotent
+ * requests only, when it may have failed in transit (I/O errors, 408, 502, 504). Retries wait for the
+ * Retry-After header if the server sent one, otherwise for an exponentially growing delay with full jitter.
+ *
+ * All retries draw from one budget: a bucket of budgetReserve retries that every request sent refills by
+ * budgetRatio. While the API is down the bucket drains and requests fail after their first attempt,
+ * so retries cannot multiply the load on a struggling server.
+ */
+public class RequestRetrier {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestRetrier.class);
+
+    /**
+     * Waits between attempts; replaced in tests
+     */
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private final ClientProperties.RetryProperties properties;
+    private final Sleeper sleeper;
+    private final LongSupplier clock;
+
+    private final RequestBudget budget;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+
+    public RequestRetrier(ClientProperties.RetryProperties properties) {
+        this(properties, Thread::sleep, System::currentTimeMillis);
+    }
+
+    RequestRetrier(ClientProperties.RetryProperties properties, Sleeper sleeper, LongSupplier clock) {
+        this.properties = properties;
+        this.sleeper = sleeper;
+        this.clock = clock;
+        this.budget = new RequestBudget(properties.getBudgetRatio(), properties.getBudgetReserve());
+    }
+
+    /**
+     * Send a request, retrying it after transient failures
+     * @param description Request description for log messages, e.g. "GET /infostore/reports"
+     * @param idempotent Whether sending the request twice has the same effect as sending it once
+     * @param request Sends the request
+     * @return Result of the first successful attempt
+     * @throws RestClientException Failure of the last attempt
+     */
+    public <T> T execute(String description, boolean idempotent, Supplier<T> request) {
+        requests.incrementAndGet();
+        budget.deposit();
+        int attempt = 1;
+        while (true) {
+            try {
+                return request.get();
+            } catch (RestClientException e) {
+                long delay = retryDelay(e, idempotent, attempt);
+                if (delay < 0) {
+                    throw e;
+                }
+                if (!budget.withdraw()) {
+                    budgetExhausted.incrementAndGet();
+                    log.warn("Not retrying {}: retry budget exhausted", description);
+                    throw e;
+                }
+                retries.incrementAndGet();
+                log.info("Retrying {} in {} ms after attempt {} failed: {}", description, delay, attempt, e.getMessage());
+                try {
+                    sleeper.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Get request, retry and budget counters
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("retries", retries.get());
+        stats.put("budgetExhausted", budgetExhausted.get());
+        stats.put("budgetAvailable", budget.available());
+        return stats;
+    }
+
+    /**
+     * Decide whether and when to retry a failed attempt
+     * @return Delay before the next attempt in milliseconds, or -1 to give up
+     */
+    long retryDelay(RestClientException e, boolean idempotent, int attempt) {
+        if (!properties.isEnabled() || attempt >= properties.getMaxAttempts()) {
+            return -1;
+        }
+
+        if (e instanceof HttpStatusCodeException) {
+            HttpStatusCodeException statusException = (HttpStatusCodeException) e;
+            int status = statusException.getRawStatusCode();
+            boolean notProcessed = status == 429 || status == 503;
+            boolean failedInTransit = status == 408 || status == 502 || status == 504;
+            if (!notProcessed && !(idempotent && failedInTransit)) {
+                return -1;
+            }
+            long retryAfter = retryAfter(statusException.getResponseHeaders());
+            if (retryAfter >= 0) {
+                return retryAfter <= properties.getMaxRetryAfter() ? retryAfter : -1;
+            }
+            return backoff(attempt);
+        }
+
+        if (e instanceof ResourceAccessException) {
+            // A refused connection never reached the server; other I/O errors may have happened after it processed the request
+            boolean notSent = e.getCause() instanceof ConnectException;
+            return idempotent || notSent ? backoff(attempt) : -1;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Exponential backoff with full jitter: a random delay up to initialDelay * 2^(attempt - 1), capped at maxDelay
+     */
+    private long backoff(int attempt) {
+        long cap = properties.getInitialDelay() << Math.min(attempt - 1, 20);
+        cap = Math.min(Math.max(cap, 0), properties.getMaxDelay());
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /**
+     * Parse a Retry-After header given in seconds or as an HTTP date
+     * @return Delay in milliseconds, or -1 if the header is missing or invalid
+     */
+    private long retryAfter(HttpHeaders headers) {
+        String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                long date = headers.getFirstDate(HttpHeaders.RETRY_AFTER);
+                return date < 0 ? -1 : Math.max(0, date - clock.getAsLong());
+            } catch (IllegalArgumentException invalid) {
+                return -1;
+            }
+        }
+    }
+}
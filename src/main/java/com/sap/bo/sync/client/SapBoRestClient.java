@@ -3,24 +3,42 @@ package com.sap.bo.sync.client;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sap.bo.sync.cache.BoundedCache;
+import com.sap.bo.sync.cache.CacheStats;
+import com.sap.bo.sync.config.ClientProperties;
 import com.sap.bo.sync.config.SapBoProperties;
 import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.model.ObjectCodecs;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PreDestroy;
+
+import java.io.IOException;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * REST client for communicating with SAP Business Objects API
@@ -33,13 +51,45 @@ public class SapBoRestClient {
     
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final ClientProperties clientProperties;
+    private final TransferMetrics transferMetrics;
+    private final RequestRetrier retrier;
+    private final RequestHedger hedger;
+    
+    // Authentication token cache; a logon in progress is shared by the threads asking for its token
+    private final Map<String, CompletableFuture<String>> authTokens = new ConcurrentHashMap<>();
+    
+    // Validators and bodies of GET responses, used to issue conditional requests
+    private final BoundedCache<String, CachedResponse> responseCache;
+    
+    // Circuit breaker per environment URL
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    
+    // Environments that rejected a compressed request body with 415 Unsupported Media Type
+    private final Set<String> gzipRejectingEnvironments = ConcurrentHashMap.newKeySet();
     
-    // Authentication token cache
-    private final Map<String, String> authTokens = new HashMap<>();
+    // Request body writers per type, so the serializer of a type is only looked up once
+    private final ObjectCodecs codecs;
     
     public SapBoRestClient(RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this(restTemplate, objectMapper, new ClientProperties());
+    }
+    
+    public SapBoRestClient(RestTemplate restTemplate, ObjectMapper objectMapper, ClientProperties clientProperties) {
+        this(restTemplate, objectMapper, clientProperties, new TransferMetrics());
+    }
+    
+    @Autowired
+    public SapBoRestClient(RestTemplate restTemplate, ObjectMapper objectMapper, ClientProperties clientProperties,
+                           TransferMetrics transferMetrics) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.codecs = new ObjectCodecs(objectMapper);
+        this.clientProperties = clientProperties;
+        this.transferMetrics = transferMetrics;
+        this.retrier = new RequestRetrier(clientProperties.getRetry());
+        this.hedger = new RequestHedger(clientProperties.getHedge(), clientProperties.getMaxConnectionsPerRoute());
+        this.responseCache = new BoundedCache<>(clientProperties.getCache().getMaxBytes(), CachedResponse::getWeight);
     }
     
     /**
@@ -48,10 +98,35 @@ public class SapBoRestClient {
     public String getAuthToken(SapBoProperties.BoEnvironment environment) {
         String cacheKey = environment.getUrl() + ":" + environment.getUsername();
         
-        if (authTokens.containsKey(cacheKey)) {
-            return authTokens.get(cacheKey);
+        // Threads asking for the token of the same environment at once wait for a single logon. The logon runs
+        // outside the map's locks, since retries and circuit breaker waits can hold it up for a long time.
+        CompletableFuture<String> token = authTokens.get(cacheKey);
+        if (token == null) {
+            CompletableFuture<String> pending = new CompletableFuture<>();
+            token = authTokens.putIfAbsent(cacheKey, pending);
+            if (token == null) {
+                token = pending;
+                try {
+                    pending.complete(logon(environment));
+                } catch (RuntimeException e) {
+                    // A failed logon is not cached, so the next request logs on again
+                    authTokens.remove(cacheKey, pending);
+                    pending.completeExceptionally(e);
+                }
+            }
         }
         
+        try {
+            return token.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SapBoApiException("Error authenticating to SAP BO API", e.getCause());
+        }
+    }
+    
+    private String logon(SapBoProperties.BoEnvironment environment) {
         log.info("Authenticating to SAP BO at {}", environment.getUrl());
         
         try {
@@ -66,13 +141,8 @@ public class SapBoRestClient {
             
             HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(authRequest), headers);
             
-            // Make authentication request
-            ResponseEntity<String> response = restTemplate.exchange(
-                    environment.getUrl() + "/logon/long",
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
+            // Make authentication request; logging on twice is harmless, so it is retried like an idempotent request
+            ResponseEntity<String> response = exchange(environment, "/logon/long", HttpMethod.POST, entity, String.class, true);
             
             // Parse response
             JsonNode responseJson = objectMapper.readTree(response.getBody());
@@ -82,9 +152,6 @@ public class SapBoRestClient {
                 throw new SapBoApiException("Failed to obtain authentication token");
             }
             
-            // Cache the token
-            authTokens.put(cacheKey, authToken);
-            
             return authToken;
         } catch (RestClientException | JsonProcessingException e) {
             throw new SapBoApiException("Error authenticating to SAP BO API", e);
@@ -92,85 +159,298 @@ public class SapBoRestClient {
     }
     
     /**
-     * Make a GET request to the SAP BO API
+     * Make a GET request to the SAP BO API.
+     * When the response cache is enabled, a previously returned ETag or Last-Modified value is sent
+     * as If-None-Match/If-Modified-Since and a 304 response is answered from the cache.
      */
     public <T> T get(SapBoProperties.BoEnvironment environment, String path, Class<T> responseType) {
+        boolean cacheEnabled = clientProperties.getCache().isEnabled();
+        String cacheKey = responseCacheKey(environment, path, responseType);
+        CachedResponse cached = cacheEnabled ? responseCache.get(cacheKey) : null;
+        
+        ResponseEntity<T> response = conditionalGet(environment, path, responseType, cached);
+        if (response == null) {
+            log.debug("Serving GET {} from response cache (304 Not Modified)", path);
+            return responseType.cast(cached.copyBody());
+        }
+        
+        if (cacheEnabled) {
+            cacheResponse(cacheKey, response, null, null);
+        }
+        return response.getBody();
+    }
+    
+    /**
+     * Make a GET request to the SAP BO API and parse the response body.
+     * When the response cache is enabled, the parsed value is cached with the response, so a 304 response
+     * for a body parsed with the same parser before is answered without parsing the body again. Cached
+     * values are shared between callers, which must not modify them.
+     * @param parserKey Identifies the parser, e.g. the reader it uses; values parsed with another key are not reused
+     * @param parser Parses the response body
+     */
+    @SuppressWarnings("unchecked")
+    public <T, R> R get(SapBoProperties.BoEnvironment environment, String path, Class<T> responseType,
+                        Object parserKey, ResponseParser<T, R> parser) throws IOException {
+        boolean cacheEnabled = clientProperties.getCache().isEnabled();
+        String cacheKey = responseCacheKey(environment, path, responseType);
+        CachedResponse cached = cacheEnabled ? responseCache.get(cacheKey) : null;
+        
+        ResponseEntity<T> response = conditionalGet(environment, path, responseType, cached);
+        if (response == null) {
+            if (parserKey != null && cached.getParserKey() == parserKey) {
+                log.debug("Serving parsed GET {} from response cache (304 Not Modified)", path);
+                return (R) cached.getParsed();
+            }
+            R parsed = parser.parse(responseType.cast(cached.copyBody()));
+            responseCache.put(cacheKey, cached.withParsed(parserKey, parsed));
+            return parsed;
+        }
+        
+        R parsed = parser.parse(response.getBody());
+        if (cacheEnabled) {
+            cacheResponse(cacheKey, response, parserKey, parsed);
+        }
+        return parsed;
+    }
+    
+    /**
+     * Parses the body of a GET response
+     */
+    @FunctionalInterface
+    public interface ResponseParser<T, R> {
+        R parse(T body) throws IOException;
+    }
+    
+    private static String responseCacheKey(SapBoProperties.BoEnvironment environment, String path, Class<?> responseType) {
+        return environment.getUrl() + ":" + environment.getUsername() + ":" + responseType.getName() + ":" + path;
+    }
+    
+    /**
+     * Make a GET request, conditional on the validators of a cached response
+     * @return The response, or null if it was 304 Not Modified and the cached response is still valid
+     */
+    private <T> ResponseEntity<T> conditionalGet(SapBoProperties.BoEnvironment environment, String path,
+                                                 Class<T> responseType, CachedResponse cached) {
         String authToken = getAuthToken(environment);
         
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.set("X-SAP-LogonToken", authToken);
             headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+            if (cached != null) {
+                if (cached.getEtag() != null) {
+                    headers.setIfNoneMatch(cached.getEtag());
+                }
+                if (cached.getLastModified() > 0) {
+                    headers.setIfModifiedSince(cached.getLastModified());
+                }
+            }
             
             HttpEntity<String> entity = new HttpEntity<>(headers);
             
-            ResponseEntity<T> response = restTemplate.exchange(
-                    environment.getUrl() + path,
-                    HttpMethod.GET,
-                    entity,
-                    responseType
-            );
+            ResponseEntity<T> response = exchange(environment, path, HttpMethod.GET, entity, responseType);
             
-            return response.getBody();
+            return cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED ? null : response;
         } catch (RestClientException e) {
             throw new SapBoApiException("Error making GET request to SAP BO API: " + path, e);
         }
     }
     
     /**
-     * Make a POST request to the SAP BO API
+     * Get statistics of the HTTP response cache
+     */
+    public CacheStats getResponseCacheStats() {
+        return responseCache.stats();
+    }
+    
+    /**
+     * Store a response that carries validators so the next request for it can be conditional
+     * @param parserKey Identifies the parser of the parsed body, or null if the body was not parsed
+     * @param parsed Parsed body, or null
+     */
+    private void cacheResponse(String cacheKey, ResponseEntity<?> response, Object parserKey, Object parsed) {
+        HttpHeaders responseHeaders = response.getHeaders();
+        String etag = responseHeaders.getETag();
+        long lastModified = responseHeaders.getLastModified();
+        Object body = response.getBody();
+        
+        if (body == null || !response.getStatusCode().is2xxSuccessful() || (etag == null && lastModified <= 0)) {
+            responseCache.remove(cacheKey);
+            return;
+        }
+        
+        long contentLength = responseHeaders.getContentLength();
+        responseCache.put(cacheKey, new CachedResponse(etag, lastModified, body, estimateWeight(body, contentLength),
+                parserKey, parsed));
+    }
+    
+    /**
+     * Approximate the heap footprint of a cached body in bytes
+     */
+    private static long estimateWeight(Object body, long contentLength) {
+        if (body instanceof String) {
+            return 2L * ((String) body).length();
+        } else if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        // Parsed trees take several times the size of their serialized form
+        return contentLength > 0 ? contentLength * 4 : 4096;
+    }
+    
+    /**
+     * Make a POST request to the SAP BO API.
+     * The body is serialized straight onto the request stream, see JsonBodyCallback.
      */
     public <T> T post(SapBoProperties.BoEnvironment environment, String path, Object requestBody, Class<T> responseType) {
         String authToken = getAuthToken(environment);
         
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-SAP-LogonToken", authToken);
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+            JsonBodyCallback body = new JsonBodyCallback(jsonHeaders(authToken), requestBody, writerFor(requestBody), -1,
+                    transferMetrics);
             
-            HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(requestBody), headers);
-            
-            ResponseEntity<T> response = restTemplate.exchange(
-                    environment.getUrl() + path,
-                    HttpMethod.POST,
-                    entity,
-                    responseType
-            );
+            ResponseEntity<T> response = execute(environment, path, HttpMethod.POST, body, responseType, false);
             
+            transferMetrics.recordRequest(body.getOriginalBytes(), body.getSentBytes());
             return response.getBody();
-        } catch (RestClientException | JsonProcessingException e) {
+        } catch (RestClientException e) {
             throw new SapBoApiException("Error making POST request to SAP BO API: " + path, e);
         }
     }
     
     /**
-     * Make a PUT request to the SAP BO API
+     * Make a PUT request to the SAP BO API.
+     * The body is serialized straight onto the request stream. When request compression is enabled, large
+     * bodies are sent gzip-encoded. An environment that answers such a request with 415 Unsupported Media Type
+     * gets the plain body and no compressed bodies afterwards.
      */
     public <T> T put(SapBoProperties.BoEnvironment environment, String path, Object requestBody, Class<T> responseType) {
         String authToken = getAuthToken(environment);
+        ObjectWriter writer = writerFor(requestBody);
         
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-SAP-LogonToken", authToken);
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-            
-            HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(requestBody), headers);
-            
-            ResponseEntity<T> response = restTemplate.exchange(
-                    environment.getUrl() + path,
-                    HttpMethod.PUT,
-                    entity,
-                    responseType
-            );
+            if (compressionEnabled(environment)) {
+                JsonBodyCallback body = new JsonBodyCallback(jsonHeaders(authToken), requestBody, writer,
+                        clientProperties.getCompression().getMinRequestSize(), transferMetrics);
+                try {
+                    return putBody(environment, path, body, responseType);
+                } catch (HttpClientErrorException e) {
+                    if (e.getStatusCode() != HttpStatus.UNSUPPORTED_MEDIA_TYPE || !body.isCompressed()) {
+                        throw e;
+                    }
+                    log.info("SAP BO at {} does not accept compressed request bodies, sending them uncompressed",
+                            environment.getUrl());
+                    gzipRejectingEnvironments.add(environment.getUrl());
+                }
+            }
             
-            return response.getBody();
-        } catch (RestClientException | JsonProcessingException e) {
+            return putBody(environment, path, new JsonBodyCallback(jsonHeaders(authToken), requestBody, writer, -1,
+                    transferMetrics), responseType);
+        } catch (RestClientException e) {
             throw new SapBoApiException("Error making PUT request to SAP BO API: " + path, e);
         }
     }
     
+    private <T> T putBody(SapBoProperties.BoEnvironment environment, String path, JsonBodyCallback body,
+                          Class<T> responseType) {
+        ResponseEntity<T> response = execute(environment, path, HttpMethod.PUT, body, responseType, true);
+        
+        transferMetrics.recordRequest(body.getOriginalBytes(), body.getSentBytes());
+        return response.getBody();
+    }
+    
+    private static HttpHeaders jsonHeaders(String authToken) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-SAP-LogonToken", authToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        return headers;
+    }
+    
+    private ObjectWriter writerFor(Object requestBody) {
+        Class<?> type = requestBody != null ? requestBody.getClass() : Object.class;
+        return codecs.writer(type);
+    }
+    
+    private boolean compressionEnabled(SapBoProperties.BoEnvironment environment) {
+        return clientProperties.getCompression().isRequestEnabled()
+                && !gzipRejectingEnvironments.contains(environment.getUrl());
+    }
+    
+    /**
+     * Send a request through the retrier and the circuit breaker of its environment.
+     * GET, PUT and DELETE are idempotent, other methods only if stated.
+     * JSON reads below the configured path prefix are hedged; binary downloads are not, since their
+     * latency depends on the document size rather than on the server.
+     * @throws com.sap.bo.sync.exception.CircuitOpenException If the environment's circuit breaker is open
+     */
+    private <T> ResponseEntity<T> exchange(SapBoProperties.BoEnvironment environment, String path, HttpMethod method,
+                                           HttpEntity<?> entity, Class<T> responseType) {
+        boolean idempotent = method == HttpMethod.GET || method == HttpMethod.PUT || method == HttpMethod.DELETE;
+        return exchange(environment, path, method, entity, responseType, idempotent);
+    }
+    
+    private <T> ResponseEntity<T> exchange(SapBoProperties.BoEnvironment environment, String path, HttpMethod method,
+                                           HttpEntity<?> entity, Class<T> responseType, boolean idempotent) {
+        return send(environment, path, method, responseType, idempotent,
+                () -> restTemplate.exchange(environment.getUrl() + path, method, entity, responseType));
+    }
+    
+    /**
+     * Send a request whose body is written by a callback, with the same retry, circuit breaker and hedging
+     * as exchange
+     */
+    private <T> ResponseEntity<T> execute(SapBoProperties.BoEnvironment environment, String path, HttpMethod method,
+                                          RequestCallback callback, Class<T> responseType, boolean idempotent) {
+        return send(environment, path, method, responseType, idempotent,
+                () -> restTemplate.execute(environment.getUrl() + path, method, callback,
+                        restTemplate.<T>responseEntityExtractor(responseType)));
+    }
+    
+    private <T> ResponseEntity<T> send(SapBoProperties.BoEnvironment environment, String path, HttpMethod method,
+                                       Class<T> responseType, boolean idempotent, Supplier<ResponseEntity<T>> send) {
+        CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(environment.getUrl(),
+                url -> new CircuitBreaker(url, clientProperties.getCircuitBreaker()));
+        String description = method + " " + path;
+        boolean hedged = method == HttpMethod.GET && responseType != byte[].class && hedger.isHedgeable(path);
+        return retrier.execute(description, idempotent, () -> circuitBreaker.execute(
+                () -> hedged ? hedger.execute(description, send) : send.get()));
+    }
+    
+    /**
+     * Get request and hedge counters and the current hedge delay
+     */
+    public Map<String, Object> getHedgeStats() {
+        return hedger.snapshot();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        hedger.shutdown();
+    }
+    
+    /**
+     * Get the state and counters of the circuit breaker of each environment
+     */
+    public Map<String, Object> getCircuitBreakerStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        circuitBreakers.forEach((url, circuitBreaker) -> stats.put(url, circuitBreaker.snapshot()));
+        return stats;
+    }
+    
+    /**
+     * Get request, retry and retry budget counters
+     */
+    public Map<String, Object> getRetryStats() {
+        return retrier.snapshot();
+    }
+    
+    /**
+     * Get byte counters of requests and responses, including savings from compression
+     */
+    public Map<String, Object> getTransferStats() {
+        return transferMetrics.snapshot();
+    }
+    
     /**
      * Make a DELETE request to the SAP BO API
      */
@@ -183,12 +463,7 @@ public class SapBoRestClient {
             
             HttpEntity<String> entity = new HttpEntity<>(headers);
             
-            restTemplate.exchange(
-                    environment.getUrl() + path,
-                    HttpMethod.DELETE,
-                    entity,
-                    Void.class
-            );
+            exchange(environment, path, HttpMethod.DELETE, entity, Void.class);
         } catch (RestClientException e) {
             throw new SapBoApiException("Error making DELETE request to SAP BO API: " + path, e);
         }
@@ -207,16 +482,66 @@ public class SapBoRestClient {
             
             HttpEntity<String> entity = new HttpEntity<>(headers);
             
-            ResponseEntity<byte[]> response = restTemplate.exchange(
-                    environment.getUrl() + path,
-                    HttpMethod.GET,
-                    entity,
-                    byte[].class
-            );
+            ResponseEntity<byte[]> response = exchange(environment, path, HttpMethod.GET, entity, byte[].class);
             
             return response.getBody();
         } catch (RestClientException e) {
             throw new SapBoApiException("Error downloading content from SAP BO API: " + path, e);
         }
     }
+    
+    /**
+     * Cached GET response with its validators and, optionally, its parsed body
+     */
+    private static final class CachedResponse {
+        private final String etag;
+        private final long lastModified;
+        private final Object body;
+        private final long bodyWeight;
+        private final Object parserKey;
+        private final Object parsed;
+        
+        private CachedResponse(String etag, long lastModified, Object body, long bodyWeight, Object parserKey, Object parsed) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+            this.bodyWeight = bodyWeight;
+            this.parserKey = parserKey;
+            this.parsed = parsed;
+        }
+        
+        String getEtag() {
+            return etag;
+        }
+        
+        long getLastModified() {
+            return lastModified;
+        }
+        
+        Object getParserKey() {
+            return parserKey;
+        }
+        
+        Object getParsed() {
+            return parsed;
+        }
+        
+        /**
+         * Parsed objects take about twice the heap of the body they were parsed from
+         */
+        long getWeight() {
+            return parsed != null ? 3 * bodyWeight : bodyWeight;
+        }
+        
+        CachedResponse withParsed(Object parserKey, Object parsed) {
+            return new CachedResponse(etag, lastModified, body, bodyWeight, parserKey, parsed);
+        }
+        
+        /**
+         * Parsed JSON trees are mutable, so callers get their own copy; other bodies are returned as is
+         */
+        Object copyBody() {
+            return body instanceof JsonNode ? ((JsonNode) body).deepCopy() : body;
+        }
+    }
 }
@@ -0,0 +1,170 @@
+package com.sap.bo.sync.client;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for bytes transferred to and from the SAP BO API.
+ *
+ * Response bodies are counted twice while they are streamed: once as received on the wire and once
+ * after content decoding, so the difference is the saving from compressed responses. Request bodies
+ * are recorded by the REST client with their original and sent size, and with the bytes allocated on
+ * the heap while serializing them where the JVM can measure per-thread allocation.
+ */
+@Component
+public class TransferMetrics {
+
+    private final AtomicLong responseWireBytes = new AtomicLong();
+    private final AtomicLong responseDecodedBytes = new AtomicLong();
+    private final AtomicLong compressedResponses = new AtomicLong();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong requestWireBytes = new AtomicLong();
+    private final AtomicLong compressedRequests = new AtomicLong();
+    private final AtomicLong requestBodyWrites = new AtomicLong();
+    private final AtomicLong measuredRequestBodyWrites = new AtomicLong();
+    private final AtomicLong requestBodyAllocatedBytes = new AtomicLong();
+
+    /**
+     * Interceptor to run before content decoding, counting response bytes as received on the wire
+     */
+    public HttpResponseInterceptor wireBytesInterceptor() {
+        return (response, context) -> {
+            HttpEntity entity = response.getEntity();
+            if (entity != null) {
+                if (entity.getContentEncoding() != null) {
+                    compressedResponses.incrementAndGet();
+                }
+                response.setEntity(new CountingEntity(entity, responseWireBytes));
+            }
+        };
+    }
+
+    /**
+     * Interceptor to run after content decoding, counting decoded response bytes
+     */
+    public HttpResponseInterceptor decodedBytesInterceptor() {
+        return (response, context) -> {
+            HttpEntity entity = response.getEntity();
+            if (entity != null) {
+                response.setEntity(new CountingEntity(entity, responseDecodedBytes));
+            }
+        };
+    }
+
+    /**
+     * Record a request body
+     * @param originalBytes Size of the serialized body
+     * @param sentBytes Size of the body as sent, after optional compression
+     */
+    public void recordRequest(long originalBytes, long sentBytes) {
+        requestBytes.addAndGet(originalBytes);
+        requestWireBytes.addAndGet(sentBytes);
+        if (sentBytes != originalBytes) {
+            compressedRequests.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record the serialization of a request body
+     * @param allocatedBytes Bytes allocated on the heap while serializing, or a negative value if not measured
+     */
+    public void recordRequestWrite(long allocatedBytes) {
+        requestBodyWrites.incrementAndGet();
+        if (allocatedBytes >= 0) {
+            measuredRequestBodyWrites.incrementAndGet();
+            requestBodyAllocatedBytes.addAndGet(allocatedBytes);
+        }
+    }
+
+    /**
+     * Get the bytes allocated by the current thread so far
+     * @return Allocated bytes, or -1 if the JVM does not measure allocation per thread
+     */
+    static long currentThreadAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) threads;
+            if (allocation.isThreadAllocatedMemorySupported() && allocation.isThreadAllocatedMemoryEnabled()) {
+                return allocation.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get a snapshot of the transfer counters
+     */
+    public Map<String, Object> snapshot() {
+        long wire = responseWireBytes.get();
+        long decoded = responseDecodedBytes.get();
+        long requestOriginal = requestBytes.get();
+        long requestWire = requestWireBytes.get();
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("responseWireBytes", wire);
+        snapshot.put("responseDecodedBytes", decoded);
+        snapshot.put("responseBytesSaved", Math.max(0, decoded - wire));
+        snapshot.put("compressedResponses", compressedResponses.get());
+        snapshot.put("requestBytes", requestOriginal);
+        snapshot.put("requestWireBytes", requestWire);
+        snapshot.put("requestBytesSaved", Math.max(0, requestOriginal - requestWire));
+        snapshot.put("compressedRequests", compressedRequests.get());
+        long measuredWrites = measuredRequestBodyWrites.get();
+        long allocated = requestBodyAllocatedBytes.get();
+        snapshot.put("requestBodyWrites", requestBodyWrites.get());
+        snapshot.put("requestBodyAllocatedBytes", allocated);
+        snapshot.put("allocatedBytesPerRequestBody", measuredWrites > 0 ? allocated / measuredWrites : 0L);
+        return snapshot;
+    }
+
+    /**
+     * Entity wrapper that adds the number of bytes read from its content to a counter
+     */
+    private static final class CountingEntity extends HttpEntityWrapper {
+        private final AtomicLong counter;
+
+        private CountingEntity(HttpEntity entity, AtomicLong counter) {
+            super(entity);
+            this.counter = counter;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        counter.incrementAndGet();
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = super.read(buffer, offset, length);
+                    if (n > 0) {
+                        counter.addAndGet(n);
+                    }
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return true;
+        }
+    }
+}
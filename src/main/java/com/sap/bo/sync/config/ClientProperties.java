@@ -0,0 +1,379 @@
+package com.sap.bo.sync.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the SAP BO REST client
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "sap.bo.client")
+public class ClientProperties {
+
+    private CacheProperties cache = new CacheProperties();
+    private CompressionProperties compression = new CompressionProperties();
+    private RetryProperties retry = new RetryProperties();
+    private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+    private HedgeProperties hedge = new HedgeProperties();
+    private JsonProperties json = new JsonProperties();
+    private int maxConnectionsPerRoute = 20; // Pooled connections per SAP BO server
+
+    // Explicit getters and setters to ensure they're available during compilation
+    public CacheProperties getCache() {
+        return cache;
+    }
+
+    public void setCache(CacheProperties cache) {
+        this.cache = cache;
+    }
+
+    public CompressionProperties getCompression() {
+        return compression;
+    }
+
+    public void setCompression(CompressionProperties compression) {
+        this.compression = compression;
+    }
+
+    public RetryProperties getRetry() {
+        return retry;
+    }
+
+    public void setRetry(RetryProperties retry) {
+        this.retry = retry;
+    }
+
+    public CircuitBreakerProperties getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreakerProperties circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public HedgeProperties getHedge() {
+        return hedge;
+    }
+
+    public void setHedge(HedgeProperties hedge) {
+        this.hedge = hedge;
+    }
+
+    public JsonProperties getJson() {
+        return json;
+    }
+
+    public void setJson(JsonProperties json) {
+        this.json = json;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    /**
+     * Configuration for the HTTP response cache used for conditional GET requests
+     */
+    @Data
+    public static class CacheProperties {
+        private boolean enabled = true;
+        private long maxBytes = 32L * 1024 * 1024; // Default: 32 MB of cached response bodies
+
+        // Explicit getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+    }
+
+    /**
+     * Configuration for compressing request bodies sent to the SAP BO API
+     */
+    @Data
+    public static class CompressionProperties {
+        private boolean requestEnabled = false;
+        private int minRequestSize = 8192; // Default: only gzip PUT bodies of 8 KB or more
+
+        // Explicit getters and setters
+        public boolean isRequestEnabled() {
+            return requestEnabled;
+        }
+
+        public void setRequestEnabled(boolean requestEnabled) {
+            this.requestEnabled = requestEnabled;
+        }
+
+        public int getMinRequestSize() {
+            return minRequestSize;
+        }
+
+        public void setMinRequestSize(int minRequestSize) {
+            this.minRequestSize = minRequestSize;
+        }
+    }
+
+    /**
+     * Configuration of JSON databinding for SAP BO objects
+     */
+    @Data
+    public static class JsonProperties {
+        private boolean bytecodeAccessors = false; // Generate property accessors instead of calling them reflectively
+
+        // Explicit getters and setters
+        public boolean isBytecodeAccessors() {
+            return bytecodeAccessors;
+        }
+
+        public void setBytecodeAccessors(boolean bytecodeAccessors) {
+            this.bytecodeAccessors = bytecodeAccessors;
+        }
+    }
+
+    /**
+     * Configuration for retrying individual requests to the SAP BO API
+     */
+    @Data
+    public static class RetryProperties {
+        private boolean enabled = true;
+        private int maxAttempts = 3; // Including the first attempt
+        private long initialDelay = 200; // Milliseconds; doubled per retry, with full jitter
+        private long maxDelay = 5000; // Milliseconds
+        private long maxRetryAfter = 30000; // Longer Retry-After values fail the request instead of waiting
+        private double budgetRatio = 0.1; // Retries allowed per request sent
+        private int budgetReserve = 10; // Retries allowed regardless of the ratio, e.g. right after startup
+
+        // Explicit getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialDelay() {
+            return initialDelay;
+        }
+
+        public void setInitialDelay(long initialDelay) {
+            this.initialDelay = initialDelay;
+        }
+
+        public long getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(long maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public long getMaxRetryAfter() {
+            return maxRetryAfter;
+        }
+
+        public void setMaxRetryAfter(long maxRetryAfter) {
+            this.maxRetryAfter = maxRetryAfter;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        public int getBudgetReserve() {
+            return budgetReserve;
+        }
+
+        public void setBudgetReserve(int budgetReserve) {
+            this.budgetReserve = budgetReserve;
+        }
+    }
+
+    /**
+     * Configuration for the circuit breaker kept per SAP BO environment
+     */
+    @Data
+    public static class CircuitBreakerProperties {
+        private boolean enabled = true;
+        private int windowSize = 20; // Number of recent requests the rates are computed over
+        private int minimumCalls = 10; // Requests needed in the window before the breaker can open
+        private int failureRateThreshold = 50; // Percent of failed requests that opens the breaker
+        private long slowCallThreshold = 10000; // Milliseconds after which a request counts as slow
+        private int slowCallRateThreshold = 80; // Percent of slow requests that opens the breaker
+        private long openDuration = 30000; // Milliseconds to fail fast before probing again
+        private int halfOpenProbes = 2; // Successful probe requests needed to close the breaker
+
+        // Explicit getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public int getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public long getSlowCallThreshold() {
+            return slowCallThreshold;
+        }
+
+        public void setSlowCallThreshold(long slowCallThreshold) {
+            this.slowCallThreshold = slowCallThreshold;
+        }
+
+        public int getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public long getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(long openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public int getHalfOpenProbes() {
+            return halfOpenProbes;
+        }
+
+        public void setHalfOpenProbes(int halfOpenProbes) {
+            this.halfOpenProbes = halfOpenProbes;
+        }
+    }
+
+    /**
+     * Configuration for hedging slow read requests with a duplicate request
+     */
+    @Data
+    public static class HedgeProperties {
+        private boolean enabled = false;
+        private String pathPrefix = "/infostore/"; // Only GET requests below this path are hedged
+        private double percentile = 95; // Latency percentile of recent reads after which a hedge is sent
+        private long minDelay = 50; // Milliseconds; lower bound of the hedge delay
+        private int sampleSize = 1000; // Recent read latencies the percentile is computed over
+        private int minSamples = 100; // Reads needed before hedging starts
+        private double budgetRatio = 0.05; // Hedges allowed per hedgeable request sent
+        private int budgetReserve = 10; // Hedges allowed regardless of the ratio
+
+        // Explicit getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPathPrefix() {
+            return pathPrefix;
+        }
+
+        public void setPathPrefix(String pathPrefix) {
+            this.pathPrefix = pathPrefix;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public long getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(long minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        public void setSampleSize(int sampleSize) {
+            this.sampleSize = sampleSize;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        public int getBudgetReserve() {
+            return budgetReserve;
+        }
+
+        public void setBudgetReserve(int budgetReserve) {
+            this.budgetReserve = budgetReserve;
+        }
+    }
+}
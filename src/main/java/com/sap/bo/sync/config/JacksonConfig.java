@@ -0,0 +1,24 @@
+package com.sap.bo.sync.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the application ObjectMapper beyond the Spring Boot defaults
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Replace reflective getter, setter and constructor calls with generated lambdas. Spring Boot registers
+     * the module with the application ObjectMapper, so every reader and writer derived from it uses them.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "sap.bo.client.json", name = "bytecode-accessors", havingValue = "true")
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,26 @@
+package com.sap.bo.sync.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.partition.FilePartitionQueue;
+import com.sap.bo.sync.partition.PartitionQueue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * Configuration for the shared work queue used by partitioned synchronization runs
+ */
+@Configuration
+public class PartitionConfig {
+
+    /**
+     * Create the partition queue in the configured shared directory
+     */
+    @Bean
+    public PartitionQueue partitionQueue(SapBoProperties sapBoProperties, ObjectMapper objectMapper) {
+        SapBoProperties.PartitionProperties partition = sapBoProperties.getSync().getPartition();
+        return new FilePartitionQueue(Paths.get(partition.getQueueDir()), objectMapper,
+                partition.getLeaseTimeout(), partition.getMaxAttempts());
+    }
+}
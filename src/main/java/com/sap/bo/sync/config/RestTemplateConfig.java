@@ -1,7 +1,10 @@
 package com.sap.bo.sync.config;
 
+import com.sap.bo.sync.client.RequestHedger;
+import com.sap.bo.sync.client.TransferMetrics;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.TrustAllStrategy;
@@ -10,12 +13,13 @@ import org.apache.http.ssl.SSLContextBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
+import java.net.URI;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
@@ -26,6 +30,8 @@ import java.security.NoSuchAlgorithmException;
  * This class provides a RestTemplate bean that can be configured to either validate
  * SSL certificates (for production) or skip validation (for development/testing).
  * The behavior is controlled by the 'sap.bo.ssl.validate' property.
+ * Responses are requested with gzip/deflate encoding and decompressed while they are streamed,
+ * and request bodies are streamed to the connection as they are written.
  */
 @Configuration
 public class RestTemplateConfig {
@@ -33,6 +39,12 @@ public class RestTemplateConfig {
     @Autowired
     private SslProperties sslProperties;
     
+    @Autowired
+    private TransferMetrics transferMetrics;
+    
+    @Autowired
+    private ClientProperties clientProperties;
+    
     @Bean
     public RestTemplate restTemplate() throws KeyStoreException, NoSuchAlgorithmException, KeyManagementException {
         // Configure SSL context based on validation setting
@@ -60,14 +72,32 @@ public class RestTemplateConfig {
                 .setSocketTimeout(sslProperties.getSocketTimeout())
                 .build();
         
-        // Build the client with our custom SSL settings
+        // Build the client with our custom SSL settings. Content compression is enabled by default:
+        // requests carry Accept-Encoding: gzip,deflate and responses are decoded as they are read.
+        // The counting interceptors run before and after decoding to measure bytes on the wire.
         HttpClient httpClient = HttpClientBuilder.create()
                 .setSSLSocketFactory(socketFactory)
                 .setDefaultRequestConfig(requestConfig)
+                // The default of two connections per route would serialize concurrent transfers
+                .setMaxConnPerRoute(clientProperties.getMaxConnectionsPerRoute())
+                .setMaxConnTotal(clientProperties.getMaxConnectionsPerRoute() * 2)
+                .addInterceptorFirst(transferMetrics.wireBytesInterceptor())
+                .addInterceptorLast(transferMetrics.decodedBytesInterceptor())
                 .build();
         
-        // Create request factory with our custom client
-        ClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        // Create request factory with our custom client. Requests are registered with the hedger
+        // so that the slower copy of a hedged read can be aborted.
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient) {
+            @Override
+            protected HttpUriRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+                HttpUriRequest request = super.createHttpUriRequest(httpMethod, uri);
+                RequestHedger.track(request::abort);
+                return request;
+            }
+        };
+        // Request bodies are written to the connection while they are serialized (chunked) instead of
+        // being collected in a buffer first
+        requestFactory.setBufferRequestBody(false);
         
         return new RestTemplate(requestFactory);
     }
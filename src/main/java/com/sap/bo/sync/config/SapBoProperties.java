@@ -4,6 +4,13 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Configuration properties for SAP Business Objects environments
  */
@@ -14,7 +21,11 @@ public class SapBoProperties {
     
     private BoEnvironment source;
     private BoEnvironment target;
+    // Further environments by name, e.g. sap.bo.environments.prod.url, for comparisons across environments
+    private Map<String, BoEnvironment> environments = new LinkedHashMap<>();
     private SyncProperties sync = new SyncProperties();
+    private ObjectCacheProperties objectCache = new ObjectCacheProperties();
+    private BlobStoreProperties blobStore = new BlobStoreProperties();
     
     // Explicit getters and setters to ensure they're available during compilation
     public BoEnvironment getSource() {
@@ -33,6 +44,29 @@ public class SapBoProperties {
         this.target = target;
     }
     
+    public Map<String, BoEnvironment> getEnvironments() {
+        return environments;
+    }
+    
+    public void setEnvironments(Map<String, BoEnvironment> environments) {
+        this.environments = environments;
+    }
+    
+    /**
+     * Find an environment by name: "source", "target" or one of the named environments
+     * @param name Environment name
+     * @return Environment, or null if there is none with this name
+     */
+    public BoEnvironment findEnvironment(String name) {
+        if ("source".equalsIgnoreCase(name)) {
+            return source;
+        }
+        if ("target".equalsIgnoreCase(name)) {
+            return target;
+        }
+        return environments != null ? environments.get(name) : null;
+    }
+    
     public SyncProperties getSync() {
         return sync;
     }
@@ -41,6 +75,22 @@ public class SapBoProperties {
         this.sync = sync;
     }
     
+    public ObjectCacheProperties getObjectCache() {
+        return objectCache;
+    }
+    
+    public void setObjectCache(ObjectCacheProperties objectCache) {
+        this.objectCache = objectCache;
+    }
+    
+    public BlobStoreProperties getBlobStore() {
+        return blobStore;
+    }
+    
+    public void setBlobStore(BlobStoreProperties blobStore) {
+        this.blobStore = blobStore;
+    }
+    
     /**
      * Configuration for a single BO environment
      */
@@ -85,6 +135,76 @@ public class SapBoProperties {
         }
     }
     
+    /**
+     * Configuration for the in-memory cache of objects read through a SapBoService
+     */
+    @Data
+    public static class ObjectCacheProperties {
+        private boolean enabled = true;
+        private long maxWeight = 64L * 1024 * 1024; // Approximate bytes of cached objects per environment
+        private long ttl = 300000; // Milliseconds an object is served from the cache after it was read
+        
+        // Explicit getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public long getMaxWeight() {
+            return maxWeight;
+        }
+        
+        public void setMaxWeight(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+        
+        public long getTtl() {
+            return ttl;
+        }
+        
+        public void setTtl(long ttl) {
+            this.ttl = ttl;
+        }
+    }
+    
+    /**
+     * Configuration for the on-disk, content-addressed store of downloaded report documents
+     */
+    @Data
+    public static class BlobStoreProperties {
+        private boolean enabled = true;
+        private String dir = "blob-cache"; // Directory holding the blobs and their index
+        private long maxBytes = 1024L * 1024 * 1024; // Default: 1 GB of stored documents
+        
+        // Explicit getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getDir() {
+            return dir;
+        }
+        
+        public void setDir(String dir) {
+            this.dir = dir;
+        }
+        
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+        
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+    }
+    
     /**
      * Configuration for synchronization properties
      */
@@ -95,6 +215,19 @@ public class SapBoProperties {
         private ScheduleProperties schedule = new ScheduleProperties();
         private ObjectsProperties objects = new ObjectsProperties();
         private int batchSize = 10; // Default batch size
+        private PartitionProperties partition = new PartitionProperties();
+        private PipelineProperties pipeline = new PipelineProperties();
+        private PriorityProperties priority = new PriorityProperties();
+        private PlanProperties plan = new PlanProperties();
+        private BundleProperties bundle = new BundleProperties();
+        private ReconcileProperties reconcile = new ReconcileProperties();
+        private ConfigHistoryProperties configHistory = new ConfigHistoryProperties();
+        private String executor = "platform"; // "platform" or "virtual" threads for per-object transfers
+        private int maxConcurrency = 10; // Maximum concurrent per-object transfers
+        private long maxPause = 1800000; // Milliseconds a sync waits for an unavailable environment before giving up
+        private int idBatchSize = 100; // Object IDs per request when objects are looked up by ID
+        private int idLookupConcurrency = 4; // Concurrent requests of one lookup by ID
+        private int streamPageSize = 200; // Objects per request when search and inventory results are streamed
         
         // Explicit getters and setters
         public boolean isEnabled() {
@@ -136,6 +269,110 @@ public class SapBoProperties {
         public void setBatchSize(int batchSize) {
             this.batchSize = batchSize;
         }
+        
+        public PartitionProperties getPartition() {
+            return partition;
+        }
+        
+        public void setPartition(PartitionProperties partition) {
+            this.partition = partition;
+        }
+        
+        public PipelineProperties getPipeline() {
+            return pipeline;
+        }
+        
+        public void setPipeline(PipelineProperties pipeline) {
+            this.pipeline = pipeline;
+        }
+        
+        public PriorityProperties getPriority() {
+            return priority;
+        }
+        
+        public void setPriority(PriorityProperties priority) {
+            this.priority = priority;
+        }
+        
+        public PlanProperties getPlan() {
+            return plan;
+        }
+        
+        public void setPlan(PlanProperties plan) {
+            this.plan = plan;
+        }
+        
+        public BundleProperties getBundle() {
+            return bundle;
+        }
+        
+        public void setBundle(BundleProperties bundle) {
+            this.bundle = bundle;
+        }
+        
+        public ReconcileProperties getReconcile() {
+            return reconcile;
+        }
+        
+        public void setReconcile(ReconcileProperties reconcile) {
+            this.reconcile = reconcile;
+        }
+        
+        public ConfigHistoryProperties getConfigHistory() {
+            return configHistory;
+        }
+        
+        public void setConfigHistory(ConfigHistoryProperties configHistory) {
+            this.configHistory = configHistory;
+        }
+        
+        public String getExecutor() {
+            return executor;
+        }
+        
+        public void setExecutor(String executor) {
+            this.executor = executor;
+        }
+        
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+        
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+        
+        public long getMaxPause() {
+            return maxPause;
+        }
+        
+        public void setMaxPause(long maxPause) {
+            this.maxPause = maxPause;
+        }
+        
+        public int getIdBatchSize() {
+            return idBatchSize;
+        }
+        
+        public void setIdBatchSize(int idBatchSize) {
+            this.idBatchSize = idBatchSize;
+        }
+        
+        public int getIdLookupConcurrency() {
+            return idLookupConcurrency;
+        }
+        
+        public void setIdLookupConcurrency(int idLookupConcurrency) {
+            this.idLookupConcurrency = idLookupConcurrency;
+        }
+        
+        public int getStreamPageSize() {
+            return streamPageSize;
+        }
+        
+        public void setStreamPageSize(int streamPageSize) {
+            this.streamPageSize = streamPageSize;
+        }
     }
     
     /**
@@ -207,4 +444,387 @@ public class SapBoProperties {
             this.folders = folders;
         }
     }
+    
+    /**
+     * Configuration for precomputed sync plans
+     */
+    @Data
+    public static class PlanProperties {
+        private String dir = "sync-plans"; // Directory holding saved plans
+        
+        // Explicit getters and setters
+        public String getDir() {
+            return dir;
+        }
+        
+        public void setDir(String dir) {
+            this.dir = dir;
+        }
+    }
+    
+    /**
+     * Configuration for the history of server and cluster configuration snapshots
+     */
+    @Data
+    public static class ConfigHistoryProperties {
+        private boolean enabled = false; // Take snapshots periodically
+        private long interval = 3600000; // Milliseconds between snapshots
+        private String dir = "config-history"; // Directory holding the snapshot history per environment
+        private List<String> configTypes = new ArrayList<>(Collections.singletonList("server")); // "server" and/or "cluster"
+        private List<String> environments = new ArrayList<>(); // Environment names; empty for source, target and all named environments
+        private int keyframeInterval = 24; // Every n-th snapshot is stored in full, the others as delta from their predecessor
+        
+        // Explicit getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public long getInterval() {
+            return interval;
+        }
+        
+        public void setInterval(long interval) {
+            this.interval = interval;
+        }
+        
+        public String getDir() {
+            return dir;
+        }
+        
+        public void setDir(String dir) {
+            this.dir = dir;
+        }
+        
+        public List<String> getConfigTypes() {
+            return configTypes;
+        }
+        
+        public void setConfigTypes(List<String> configTypes) {
+            this.configTypes = configTypes;
+        }
+        
+        public List<String> getEnvironments() {
+            return environments;
+        }
+        
+        public void setEnvironments(List<String> environments) {
+            this.environments = environments;
+        }
+        
+        public int getKeyframeInterval() {
+            return keyframeInterval;
+        }
+        
+        public void setKeyframeInterval(int keyframeInterval) {
+            this.keyframeInterval = keyframeInterval;
+        }
+    }
+    
+    /**
+     * Configuration for offline export/import bundles
+     */
+    @Data
+    public static class BundleProperties {
+        private int chunkSize = 1024 * 1024; // Uncompressed bytes of records per compressed chunk
+        private int compressionLevel = 6; // Deflate level, 1 (fastest) to 9 (smallest)
+        private int compressionThreads = 0; // Threads compressing chunks; 0 uses all available processors
+        private int importWriters = 0; // Concurrent writes to the target on import; 0 uses maxConcurrency
+        
+        // Explicit getters and setters
+        public int getChunkSize() {
+            return chunkSize;
+        }
+        
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+        
+        public int getCompressionLevel() {
+            return compressionLevel;
+        }
+        
+        public void setCompressionLevel(int compressionLevel) {
+            this.compressionLevel = compressionLevel;
+        }
+        
+        public int getCompressionThreads() {
+            return compressionThreads;
+        }
+        
+        public void setCompressionThreads(int compressionThreads) {
+            this.compressionThreads = compressionThreads;
+        }
+        
+        public int getImportWriters() {
+            return importWriters;
+        }
+        
+        public void setImportWriters(int importWriters) {
+            this.importWriters = importWriters;
+        }
+    }
+    
+    /**
+     * Configuration for reconciliation reports of the source against the target inventory
+     */
+    @Data
+    public static class ReconcileProperties {
+        private int memoryEntries = 500000; // Source objects joined in memory before partitions are spilled to disk
+        private int partitions = 32; // Spill partitions per level
+        private String spillDir = ""; // Directory for spilled partitions; empty uses the system temporary directory
+        
+        // Explicit getters and setters
+        public int getMemoryEntries() {
+            return memoryEntries;
+        }
+        
+        public void setMemoryEntries(int memoryEntries) {
+            this.memoryEntries = memoryEntries;
+        }
+        
+        public int getPartitions() {
+            return partitions;
+        }
+        
+        public void setPartitions(int partitions) {
+            this.partitions = partitions;
+        }
+        
+        public String getSpillDir() {
+            return spillDir;
+        }
+        
+        public void setSpillDir(String spillDir) {
+            this.spillDir = spillDir;
+        }
+    }
+    
+    /**
+     * Configuration for the staged report pipeline, in which listing, detail fetch, comparison,
+     * content download and target write run concurrently, connected by bounded queues
+     */
+    @Data
+    public static class PipelineProperties {
+        private boolean enabled = false;
+        private int queueCapacity = 50; // Items buffered in front of each stage
+        private int detailWorkers = 4;
+        private int diffWorkers = 4;
+        private int contentWorkers = 4;
+        private int writeWorkers = 2;
+        
+        // Explicit getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+        
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+        
+        public int getDetailWorkers() {
+            return detailWorkers;
+        }
+        
+        public void setDetailWorkers(int detailWorkers) {
+            this.detailWorkers = detailWorkers;
+        }
+        
+        public int getDiffWorkers() {
+            return diffWorkers;
+        }
+        
+        public void setDiffWorkers(int diffWorkers) {
+            this.diffWorkers = diffWorkers;
+        }
+        
+        public int getContentWorkers() {
+            return contentWorkers;
+        }
+        
+        public void setContentWorkers(int contentWorkers) {
+            this.contentWorkers = contentWorkers;
+        }
+        
+        public int getWriteWorkers() {
+            return writeWorkers;
+        }
+        
+        public void setWriteWorkers(int writeWorkers) {
+            this.writeWorkers = writeWorkers;
+        }
+    }
+    
+    /**
+     * Configuration for the order in which the objects of a sync are transferred. The rules are applied
+     * in the order listed in rules; objects that no rule tells apart keep the order of the listing.
+     */
+    @Data
+    public static class PriorityProperties {
+        private boolean enabled = false;
+        private List<String> rules = new ArrayList<>(Arrays.asList("ids", "folders", "types", "modified"));
+        private List<String> ids = new ArrayList<>(); // IDs or CUIDs transferred first, in this order
+        private List<String> folders = new ArrayList<>(); // Folder path prefixes, earlier prefixes first
+        private List<String> types = new ArrayList<>(); // Object types such as Webi or CrystalReport, earlier types first
+        private boolean recentFirst = true; // "modified" rule: most recently modified first, otherwise oldest first
+        private int bufferSize = 10000; // Listed objects reordered at a time before they enter the report pipeline
+        
+        // Explicit getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public List<String> getRules() {
+            return rules;
+        }
+        
+        public void setRules(List<String> rules) {
+            this.rules = rules;
+        }
+        
+        public List<String> getIds() {
+            return ids;
+        }
+        
+        public void setIds(List<String> ids) {
+            this.ids = ids;
+        }
+        
+        public List<String> getFolders() {
+            return folders;
+        }
+        
+        public void setFolders(List<String> folders) {
+            this.folders = folders;
+        }
+        
+        public List<String> getTypes() {
+            return types;
+        }
+        
+        public void setTypes(List<String> types) {
+            this.types = types;
+        }
+        
+        public boolean isRecentFirst() {
+            return recentFirst;
+        }
+        
+        public void setRecentFirst(boolean recentFirst) {
+            this.recentFirst = recentFirst;
+        }
+        
+        public int getBufferSize() {
+            return bufferSize;
+        }
+        
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+    }
+    
+    /**
+     * Configuration for splitting a full synchronization into partitions
+     * that several tool instances claim from a shared work queue
+     */
+    @Data
+    public static class PartitionProperties {
+        private boolean enabled = false;
+        private String strategy = "hash"; // "hash" (CUID hash range) or "folder" (top-level folder subtree)
+        private int count = 8; // Number of hash partitions
+        private String queueDir = "sync-queue"; // Shared directory holding the work queue
+        private String nodeId; // Defaults to host name and process ID
+        private long heartbeatInterval = 10000; // Milliseconds between lease renewals
+        private long leaseTimeout = 60000; // Milliseconds without heartbeat before a partition is re-assigned
+        private long pollInterval = 5000; // Milliseconds between claim attempts while waiting for other nodes
+        private int maxAttempts = 3; // Attempts per partition before it is marked as failed
+        
+        // Explicit getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getStrategy() {
+            return strategy;
+        }
+        
+        public void setStrategy(String strategy) {
+            this.strategy = strategy;
+        }
+        
+        public int getCount() {
+            return count;
+        }
+        
+        public void setCount(int count) {
+            this.count = count;
+        }
+        
+        public String getQueueDir() {
+            return queueDir;
+        }
+        
+        public void setQueueDir(String queueDir) {
+            this.queueDir = queueDir;
+        }
+        
+        public String getNodeId() {
+            return nodeId;
+        }
+        
+        public void setNodeId(String nodeId) {
+            this.nodeId = nodeId;
+        }
+        
+        public long getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+        
+        public void setHeartbeatInterval(long heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+        
+        public long getLeaseTimeout() {
+            return leaseTimeout;
+        }
+        
+        public void setLeaseTimeout(long leaseTimeout) {
+            this.leaseTimeout = leaseTimeout;
+        }
+        
+        public long getPollInterval() {
+            return pollInterval;
+        }
+        
+        public void setPollInterval(long pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+        
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+        
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package com.sap.bo.sync.config;
+
+import com.sap.bo.sync.pipeline.SyncExecutor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the executor running per-object sync transfers
+ */
+@Configuration
+public class SyncExecutorConfig {
+
+    /**
+     * Create the sync executor in the configured mode, virtual or platform threads
+     */
+    @Bean(destroyMethod = "shutdown")
+    public SyncExecutor syncExecutor(SapBoProperties sapBoProperties) {
+        SapBoProperties.SyncProperties sync = sapBoProperties.getSync();
+        return SyncExecutor.create(sync.getExecutor(), sync.getMaxConcurrency());
+    }
+}
@@ -0,0 +1,98 @@
+package com.sap.bo.sync.controller;
+
+import com.sap.bo.sync.drift.ConfigHistoryService;
+import com.sap.bo.sync.drift.ConfigHistoryStore;
+import com.sap.bo.sync.drift.ConfigMatrix;
+import com.sap.bo.sync.drift.ConfigMatrixBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for comparing server and cluster configurations across environments and over time
+ */
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping("/sync/config")
+public class ConfigController {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigController.class);
+
+    private final ConfigMatrixBuilder matrixBuilder;
+    private final ConfigHistoryService configHistoryService;
+
+    public ConfigController(ConfigMatrixBuilder matrixBuilder, ConfigHistoryService configHistoryService) {
+        this.matrixBuilder = matrixBuilder;
+        this.configHistoryService = configHistoryService;
+    }
+
+    /**
+     * Compare the configurations of any number of environments in one matrix
+     */
+    @GetMapping("/matrix")
+    public ResponseEntity<ConfigMatrix> compareMatrix(
+            @RequestParam("environments") List<String> environments,
+            @RequestParam(value = "configType", defaultValue = "server") String configType,
+            @RequestParam(value = "clusterId", required = false) String clusterId,
+            @RequestParam(value = "includeDetails", defaultValue = "true") boolean includeDetails) {
+
+        log.info("Comparing {} configurations of environments {}", configType, environments);
+
+        Map<String, String> options = new HashMap<>();
+        if (clusterId != null) {
+            options.put("clusterId", clusterId);
+        }
+        options.put("includeDetails", String.valueOf(includeDetails));
+
+        return ResponseEntity.ok(matrixBuilder.compare(environments, configType, options));
+    }
+
+    /**
+     * Snapshot the configurations of all environments into the history now
+     */
+    @PostMapping("/history/snapshot")
+    public ResponseEntity<Map<String, String>> snapshot() {
+        log.info("Taking configuration snapshots");
+        return ResponseEntity.ok(configHistoryService.snapshot());
+    }
+
+    /**
+     * List the stored configuration snapshots of an environment
+     */
+    @GetMapping("/history/{environment}")
+    public ResponseEntity<List<ConfigHistoryStore.Entry>> history(
+            @PathVariable("environment") String environment,
+            @RequestParam(value = "configType", defaultValue = "server") String configType) {
+        return ResponseEntity.ok(configHistoryService.list(environment, configType));
+    }
+
+    /**
+     * Compare the configuration of an environment at two points in time using the stored history only
+     */
+    @GetMapping("/history/{environment}/diff")
+    public ResponseEntity<Map<String, Object>> historyDiff(
+            @PathVariable("environment") String environment,
+            @RequestParam(value = "configType", defaultValue = "server") String configType,
+            @RequestParam("since") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date since,
+            @RequestParam(value = "until", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date until) {
+
+        log.info("Comparing {} configuration of {} between {} and {}", configType, environment, since,
+                until != null ? until : "now");
+
+        return ResponseEntity.ok(configHistoryService.diff(environment, configType, since.toInstant(),
+                until != null ? until.toInstant() : null));
+    }
+}
@@ -0,0 +1,101 @@
+package com.sap.bo.sync.controller;
+
+import com.sap.bo.sync.inventory.InventoryDiff;
+import com.sap.bo.sync.inventory.InventoryLoader;
+import com.sap.bo.sync.reconcile.InventoryReconciler;
+import com.sap.bo.sync.reconcile.ReconcileResult;
+import com.sap.bo.sync.reconcile.ReconcileWriter;
+import com.sap.bo.sync.stream.ObjectStreamer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * REST controller for listing and comparing the inventories of the source and target environments
+ */
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping("/sync/inventory")
+public class InventoryController {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryController.class);
+
+    private final InventoryLoader inventoryLoader;
+    private final ObjectStreamer objectStreamer;
+    private final InventoryReconciler inventoryReconciler;
+
+    public InventoryController(InventoryLoader inventoryLoader, ObjectStreamer objectStreamer,
+                               InventoryReconciler inventoryReconciler) {
+        this.inventoryLoader = inventoryLoader;
+        this.objectStreamer = objectStreamer;
+        this.inventoryReconciler = inventoryReconciler;
+    }
+
+    /**
+     * Compare source and target by CUID and content fingerprint
+     */
+    @GetMapping("/diff")
+    public ResponseEntity<Map<String, Object>> diff(
+            @RequestParam(value = "types", required = false) List<String> types,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+        log.info("Comparing inventories for types {}", types != null ? types : InventoryLoader.ALL_TYPES);
+
+        InventoryDiff diff = inventoryLoader.compare(types != null ? types : InventoryLoader.ALL_TYPES);
+        return ResponseEntity.ok(diff.summary(limit));
+    }
+
+    /**
+     * Stream the objects of an environment as NDJSON while they are read, one object type after another
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream(
+            @RequestParam(value = "environment", defaultValue = "source") String environment,
+            @RequestParam(value = "types", required = false) List<String> types,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "0") int limit) {
+
+        log.info("Streaming inventory of {} for types {}", environment, types != null ? types : InventoryLoader.ALL_TYPES);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(objectStreamer.inventory(environment, types != null ? types : InventoryLoader.ALL_TYPES, cursor, limit));
+    }
+
+    /**
+     * Stream a reconciliation report of every object in source and target as CSV or NDJSON while the
+     * inventories are joined; an NDJSON report ends with a line of summary counts
+     */
+    @GetMapping("/reconcile")
+    public ResponseEntity<StreamingResponseBody> reconcile(
+            @RequestParam(value = "types", required = false) List<String> types,
+            @RequestParam(value = "statuses", required = false) List<String> statuses,
+            @RequestParam(value = "format", defaultValue = ReconcileWriter.FORMAT_NDJSON) String format) {
+
+        log.info("Reconciling inventories for types {} as {}", types != null ? types : InventoryLoader.ALL_TYPES, format);
+
+        Set<ReconcileResult.Status> included = EnumSet.noneOf(ReconcileResult.Status.class);
+        if (statuses != null) {
+            for (String status : statuses) {
+                included.add(ReconcileResult.Status.fromValue(status));
+            }
+        }
+        MediaType contentType = ReconcileWriter.FORMAT_CSV.equals(ReconcileWriter.checkFormat(format))
+                ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .body(inventoryReconciler.stream(types != null ? types : InventoryLoader.ALL_TYPES, included, format));
+    }
+}
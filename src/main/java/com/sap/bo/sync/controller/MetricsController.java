@@ -0,0 +1,52 @@
+package com.sap.bo.sync.controller;
+
+import com.sap.bo.sync.client.SapBoRestClient;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * REST controller exposing runtime statistics of the sync tool
+ */
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping("/metrics")
+public class MetricsController {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsController.class);
+
+    private final SapBoRestClient restClient;
+    private final SapBoServiceFactory serviceFactory;
+
+    public MetricsController(SapBoRestClient restClient, SapBoServiceFactory serviceFactory) {
+        this.restClient = restClient;
+        this.serviceFactory = serviceFactory;
+    }
+
+    /**
+     * Get cache, transfer, retry, circuit breaker and hedging statistics
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        log.debug("Metrics requested");
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("httpResponseCache", restClient.getResponseCacheStats());
+        metrics.put("objectCache", serviceFactory.getCacheStats());
+        metrics.put("blobStore", serviceFactory.getBlobStoreStats());
+        metrics.put("transfer", restClient.getTransferStats());
+        metrics.put("retry", restClient.getRetryStats());
+        metrics.put("circuitBreakers", restClient.getCircuitBreakerStats());
+        metrics.put("hedging", restClient.getHedgeStats());
+
+        return ResponseEntity.ok(metrics);
+    }
+}
@@ -6,10 +6,14 @@ import com.sap.bo.sync.scheduler.SyncScheduler;
 import com.sap.bo.sync.service.SapBoService;
 import com.sap.bo.sync.service.SapBoServiceFactory;
 import com.sap.bo.sync.service.SyncService;
+import com.sap.bo.sync.stream.ObjectStreamer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.Date;
@@ -22,6 +26,7 @@ import java.util.concurrent.ExecutionException;
  * REST controller for synchronization operations
  */
 @RestController
+@ConditionalOnWebApplication
 @RequestMapping("/sync")
 public class SyncController {
 
@@ -30,11 +35,14 @@ public class SyncController {
     private final SyncService syncService;
     private final SapBoServiceFactory serviceFactory;
     private final SyncScheduler syncScheduler;
+    private final ObjectStreamer objectStreamer;
     
-    public SyncController(SyncService syncService, SapBoServiceFactory serviceFactory, SyncScheduler syncScheduler) {
+    public SyncController(SyncService syncService, SapBoServiceFactory serviceFactory, SyncScheduler syncScheduler,
+                          ObjectStreamer objectStreamer) {
         this.syncService = syncService;
         this.serviceFactory = serviceFactory;
         this.syncScheduler = syncScheduler;
+        this.objectStreamer = objectStreamer;
     }
     
     /**
@@ -154,6 +162,23 @@ public class SyncController {
         return ResponseEntity.ok(results);
     }
     
+    /**
+     * Stream search results from the source environment as NDJSON while they are read, page by page
+     */
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> searchStream(
+            @RequestParam("query") String query,
+            @RequestParam(value = "types", required = false) List<String> objectTypes,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "0") int limit) {
+        
+        log.info("Streaming search results for query: {} and types: {}", query, objectTypes);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(objectStreamer.search(query, objectTypes, cursor, limit));
+    }
+    
     /**
      * Compare server configurations between source and target environments
      */
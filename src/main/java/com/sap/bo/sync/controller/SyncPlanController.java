@@ -0,0 +1,82 @@
+package com.sap.bo.sync.controller;
+
+import com.sap.bo.sync.plan.SyncPlan;
+import com.sap.bo.sync.plan.SyncPlanExecutor;
+import com.sap.bo.sync.plan.SyncPlanResult;
+import com.sap.bo.sync.plan.SyncPlanStore;
+import com.sap.bo.sync.plan.SyncPlanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST controller for planning a synchronization ahead of time and applying the saved plan later
+ */
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping("/sync/plan")
+public class SyncPlanController {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncPlanController.class);
+
+    private final SyncPlanner syncPlanner;
+    private final SyncPlanStore planStore;
+    private final SyncPlanExecutor planExecutor;
+
+    public SyncPlanController(SyncPlanner syncPlanner, SyncPlanStore planStore, SyncPlanExecutor planExecutor) {
+        this.syncPlanner = syncPlanner;
+        this.planStore = planStore;
+        this.planExecutor = planExecutor;
+    }
+
+    /**
+     * Compare source and target and save the resulting plan
+     */
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createPlan(
+            @RequestParam(value = "forceUpdate", defaultValue = "false") boolean forceUpdate,
+            @RequestParam(value = "includeDeletes", defaultValue = "false") boolean includeDeletes) {
+
+        log.info("Creating sync plan with forceUpdate={}, includeDeletes={}", forceUpdate, includeDeletes);
+
+        SyncPlan plan = syncPlanner.createPlan(forceUpdate, includeDeletes);
+        Path file = planStore.save(plan);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("planId", plan.getPlanId());
+        response.put("file", file.toString());
+        response.put("actions", plan.getActions().size());
+        response.put("actionCounts", plan.getActionCounts());
+        response.put("totalSize", plan.getTotalSize());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get a saved plan
+     */
+    @GetMapping("/{planId}")
+    public ResponseEntity<SyncPlan> getPlan(@PathVariable String planId) {
+        return ResponseEntity.ok(planStore.load(planId));
+    }
+
+    /**
+     * Apply a saved plan to the target environment
+     */
+    @PostMapping("/apply")
+    public ResponseEntity<SyncPlanResult> applyPlan(@RequestParam("planId") String planId) {
+        log.info("Applying sync plan {}", planId);
+        return ResponseEntity.ok(planExecutor.apply(planStore.load(planId)));
+    }
+}
@@ -0,0 +1,147 @@
+package com.sap.bo.sync.drift;
+
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.pipeline.SyncExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Takes configuration snapshots of all environments into the history store and answers point-in-time
+ * questions from the history alone, without contacting the environments.
+ */
+@Component
+public class ConfigHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigHistoryService.class);
+
+    private final ConfigReader configReader;
+    private final ConfigHistoryStore store;
+    private final SapBoProperties sapBoProperties;
+    private final SyncExecutor syncExecutor;
+
+    public ConfigHistoryService(ConfigReader configReader, ConfigHistoryStore store, SapBoProperties sapBoProperties,
+                                SyncExecutor syncExecutor) {
+        this.configReader = configReader;
+        this.store = store;
+        this.sapBoProperties = sapBoProperties;
+        this.syncExecutor = syncExecutor != null ? syncExecutor : SyncExecutor.callerRuns();
+    }
+
+    /**
+     * Snapshot the configured configuration types of the configured environments concurrently.
+     * An environment that cannot be read is logged and skipped, so it does not block the others.
+     * @return Per environment and configuration type ("prod/server"): "changed", "unchanged" or the error
+     */
+    public Map<String, String> snapshot() {
+        SapBoProperties.ConfigHistoryProperties properties = sapBoProperties.getSync().getConfigHistory();
+        long timestamp = System.currentTimeMillis();
+
+        Map<String, CompletableFuture<String>> results = new LinkedHashMap<>();
+        for (String environment : environments(properties)) {
+            for (String configType : properties.getConfigTypes()) {
+                results.put(environment + "/" + configType, syncExecutor.supplyAsync(() -> {
+                    try {
+                        SortedMap<String, String> config = ConfigReader.flatten(
+                                configReader.read(environment, configType, Collections.emptyMap()));
+                        return store.record(environment, configType, config, timestamp) ? "changed" : "unchanged";
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to snapshot {} configuration of {}: {}", configType, environment, e.getMessage());
+                        return "failed: " + e.getMessage();
+                    }
+                }));
+            }
+        }
+
+        Map<String, String> outcome = new LinkedHashMap<>();
+        results.forEach((key, result) -> outcome.put(key, result.join()));
+        log.info("Took configuration snapshots in {} ms: {}", System.currentTimeMillis() - timestamp, outcome);
+        return outcome;
+    }
+
+    /**
+     * List the stored snapshots of an environment
+     */
+    public List<ConfigHistoryStore.Entry> list(String environment, String configType) {
+        return store.list(environment, configType);
+    }
+
+    /**
+     * Compare the configuration of an environment at two points in time
+     * @param from Earlier point in time
+     * @param to Later point in time, or null for the latest snapshot
+     * @return Snapshots in effect at both times and the paths that differ between them, with the values
+     *         under "from" and "to"; an environment without a snapshot at the earlier time is compared
+     *         against an empty configuration
+     */
+    public Map<String, Object> diff(String environment, String configType, Instant from, Instant to) {
+        long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        if (from.toEpochMilli() > toMillis) {
+            throw new SapBoApiException("The start of a comparison must not be after its end");
+        }
+        ConfigHistoryStore.Snapshot before = store.at(environment, configType, from.toEpochMilli());
+        ConfigHistoryStore.Snapshot after = store.at(environment, configType, toMillis);
+        if (after == null) {
+            throw new SapBoApiException("No " + configType + " configuration snapshot of " + environment
+                    + (to != null ? " at " + to : ""));
+        }
+
+        Map<String, String> hashes = new LinkedHashMap<>();
+        hashes.put("from", before != null ? before.getHash() : null);
+        hashes.put("to", after.getHash());
+        List<SortedMap<String, String>> configs = new ArrayList<>(2);
+        configs.add(before != null ? before.getConfig() : Collections.emptySortedMap());
+        configs.add(after.getConfig());
+        ConfigMatrix matrix = ConfigMatrix.of(configType, Arrays.asList("from", "to"), hashes, configs);
+
+        long beforeTimestamp = before != null ? before.getTimestamp() : Long.MIN_VALUE;
+        long snapshots = store.list(environment, configType).stream()
+                .filter(entry -> entry.getTimestamp() > beforeTimestamp && entry.getTimestamp() <= after.getTimestamp())
+                .count();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("environment", environment);
+        result.put("configType", configType);
+        result.put("from", point(from, before));
+        result.put("to", point(to, after));
+        result.put("snapshotsBetween", snapshots);
+        result.put("paths", matrix.getPaths());
+        result.put("hasDifferences", matrix.isHasDifferences());
+        result.put("differences", matrix.getDifferences());
+        return result;
+    }
+
+    private static Map<String, Object> point(Instant requested, ConfigHistoryStore.Snapshot snapshot) {
+        Map<String, Object> point = new LinkedHashMap<>();
+        point.put("requested", requested != null ? requested.toString() : "latest");
+        point.put("snapshot", snapshot != null ? Instant.ofEpochMilli(snapshot.getTimestamp()).toString() : null);
+        point.put("hash", snapshot != null ? snapshot.getHash() : null);
+        return point;
+    }
+
+    private List<String> environments(SapBoProperties.ConfigHistoryProperties properties) {
+        if (properties.getEnvironments() != null && !properties.getEnvironments().isEmpty()) {
+            return properties.getEnvironments();
+        }
+        List<String> environments = new ArrayList<>();
+        if (sapBoProperties.getSource() != null) {
+            environments.add("source");
+        }
+        if (sapBoProperties.getTarget() != null) {
+            environments.add("target");
+        }
+        environments.addAll(sapBoProperties.getEnvironments().keySet());
+        return environments;
+    }
+}
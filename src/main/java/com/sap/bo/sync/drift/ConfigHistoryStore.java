@@ -0,0 +1,394 @@
+package com.sap.bo.sync.drift;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the history of flattened configurations per environment and configuration type.
+ *
+ * Every series is an append-only file of JSON lines. A snapshot is only stored when its content hash differs
+ * from its predecessor, and only as the paths set and removed since then; every keyframeInterval-th snapshot
+ * is stored in full, so rebuilding any point in time replays a bounded number of deltas. The time index of
+ * a series (timestamp, file offset, hash and size of every snapshot) is built once from the file and kept
+ * in memory, so a point-in-time lookup seeks straight to the closest keyframe.
+ */
+@Component
+public class ConfigHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigHistoryStore.class);
+
+    private final Path dir;
+    private final int keyframeInterval;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ConfigHistoryStore(SapBoProperties sapBoProperties, ObjectMapper objectMapper) {
+        this(Paths.get(sapBoProperties.getSync().getConfigHistory().getDir()),
+                sapBoProperties.getSync().getConfigHistory().getKeyframeInterval(), objectMapper);
+    }
+
+    ConfigHistoryStore(Path dir, int keyframeInterval, ObjectMapper objectMapper) {
+        this.dir = dir;
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Record a snapshot if the configuration changed since the previous one
+     * @param environment Environment name
+     * @param configType Configuration type
+     * @param config Flattened configuration
+     * @param timestamp Time the configuration was read, in epoch milliseconds; not before the previous snapshot
+     * @return Whether a snapshot was stored
+     */
+    public boolean record(String environment, String configType, SortedMap<String, String> config, long timestamp) {
+        return seriesOf(environment, configType).record(config, ConfigReader.hash(config), timestamp);
+    }
+
+    /**
+     * Get the configuration as it was at a point in time
+     * @param timestamp Point in time in epoch milliseconds
+     * @return Latest snapshot taken at or before this time, or null if there is none
+     */
+    public Snapshot at(String environment, String configType, long timestamp) {
+        return seriesOf(environment, configType).at(timestamp);
+    }
+
+    /**
+     * List the stored snapshots of a series, oldest first, without their configurations
+     */
+    public List<Entry> list(String environment, String configType) {
+        return seriesOf(environment, configType).entries();
+    }
+
+    private Series seriesOf(String environment, String configType) {
+        String name = sanitize(environment) + "." + sanitize(configType.toLowerCase());
+        return series.computeIfAbsent(name, key -> new Series(dir.resolve(key + ".ndjson")));
+    }
+
+    private static String sanitize(String name) {
+        String sanitized = name.replaceAll("[^A-Za-z0-9_-]", "_");
+        if (sanitized.isEmpty()) {
+            throw new SapBoApiException("Invalid history name: " + name);
+        }
+        return sanitized;
+    }
+
+    /**
+     * A configuration at one point in time
+     */
+    public static class Snapshot {
+        private final long timestamp;
+        private final String hash;
+        private final SortedMap<String, String> config;
+
+        Snapshot(long timestamp, String hash, SortedMap<String, String> config) {
+            this.timestamp = timestamp;
+            this.hash = hash;
+            this.config = config;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public SortedMap<String, String> getConfig() {
+            return config;
+        }
+    }
+
+    /**
+     * Index entry of a stored snapshot
+     */
+    public static class Entry {
+        private final long timestamp;
+        private final String hash;
+        private final boolean keyframe;
+        private final int changes; // Paths set or removed since the previous snapshot
+        private final long offset; // Position of the snapshot line in the series file
+
+        Entry(long timestamp, String hash, boolean keyframe, int changes, long offset) {
+            this.timestamp = timestamp;
+            this.hash = hash;
+            this.keyframe = keyframe;
+            this.changes = changes;
+            this.offset = offset;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public boolean isKeyframe() {
+            return keyframe;
+        }
+
+        public int getChanges() {
+            return changes;
+        }
+    }
+
+    /**
+     * Snapshots of one environment and configuration type
+     */
+    private final class Series {
+        private final Path file;
+        private List<Entry> index;
+        private long length;
+        // Configuration of the latest snapshot, the base of the next delta
+        private SortedMap<String, String> latest;
+        // Damaged lines follow the latest snapshot, so the next one must not be a delta
+        private boolean keyframeNeeded;
+
+        private Series(Path file) {
+            this.file = file;
+        }
+
+        private synchronized boolean record(SortedMap<String, String> config, String hash, long timestamp) {
+            load();
+            Entry previous = index.isEmpty() ? null : index.get(index.size() - 1);
+            if (previous != null && previous.hash.equals(hash)) {
+                return false;
+            }
+            if (previous != null && timestamp < previous.timestamp) {
+                throw new SapBoApiException("Snapshot at " + timestamp + " is older than the latest one in " + file);
+            }
+            if (previous != null && latest == null) {
+                latest = replay(index.size() - 1);
+            }
+
+            boolean keyframe = previous == null || keyframeNeeded || sinceKeyframe() >= keyframeInterval - 1;
+            ObjectNode line = objectMapper.createObjectNode();
+            line.put("timestamp", timestamp);
+            line.put("hash", hash);
+            int changes;
+            if (keyframe) {
+                line.set("config", objectMapper.valueToTree(config));
+                changes = previous == null ? config.size() : countChanges(latest, config);
+            } else {
+                ObjectNode set = line.putObject("set");
+                List<String> removed = new ArrayList<>();
+                for (Map.Entry<String, String> entry : config.entrySet()) {
+                    if (!entry.getValue().equals(latest.get(entry.getKey()))) {
+                        set.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                for (String path : latest.keySet()) {
+                    if (!config.containsKey(path)) {
+                        removed.add(path);
+                    }
+                }
+                line.set("removed", objectMapper.valueToTree(removed));
+                changes = set.size() + removed.size();
+            }
+            line.put("changes", changes);
+
+            try {
+                Files.createDirectories(dir);
+                byte[] bytes = (objectMapper.writeValueAsString(line) + "\n").getBytes(StandardCharsets.UTF_8);
+                try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    out.write(bytes);
+                }
+                index.add(new Entry(timestamp, hash, keyframe, changes, length));
+                length += bytes.length;
+                latest = new TreeMap<>(config);
+                keyframeNeeded = false;
+            } catch (IOException e) {
+                throw new SapBoApiException("Failed to store configuration snapshot in " + file, e);
+            }
+            log.debug("Stored {} of {} with {} changes", keyframe ? "keyframe" : "delta", file, changes);
+            return true;
+        }
+
+        private synchronized Snapshot at(long timestamp) {
+            load();
+            int low = 0;
+            int high = index.size() - 1;
+            int found = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (index.get(middle).timestamp <= timestamp) {
+                    found = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            if (found < 0) {
+                return null;
+            }
+            Entry entry = index.get(found);
+            SortedMap<String, String> config = found == index.size() - 1 && latest != null
+                    ? latest
+                    : replay(found);
+            return new Snapshot(entry.timestamp, entry.hash, Collections.unmodifiableSortedMap(new TreeMap<>(config)));
+        }
+
+        private synchronized List<Entry> entries() {
+            load();
+            return new ArrayList<>(index);
+        }
+
+        private int sinceKeyframe() {
+            int count = 0;
+            for (int i = index.size() - 1; i >= 0 && !index.get(i).keyframe; i--) {
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * Rebuild the configuration of a snapshot from the closest keyframe at or before it
+         */
+        private SortedMap<String, String> replay(int position) {
+            int keyframe = position;
+            while (!index.get(keyframe).keyframe) {
+                keyframe--;
+            }
+            SortedMap<String, String> config = new TreeMap<>();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                channel.position(index.get(keyframe).offset);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+                for (int i = keyframe; i <= position; i++) {
+                    JsonNode line = objectMapper.readTree(reader.readLine());
+                    if (line.has("config")) {
+                        config.clear();
+                        putAll(config, line.get("config"));
+                    } else {
+                        putAll(config, line.path("set"));
+                        for (JsonNode path : line.path("removed")) {
+                            config.remove(path.asText());
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new SapBoApiException("Failed to read configuration history " + file, e);
+            }
+            return config;
+        }
+
+        /**
+         * Build the time index from the file on first use. An incomplete last line, e.g. after a crash while
+         * writing, is cut off. A damaged line inside the file is skipped together with the deltas after it,
+         * which cannot be replayed without it, and the index resumes at the next keyframe.
+         */
+        private void load() {
+            if (index != null) {
+                return;
+            }
+            index = new ArrayList<>();
+            length = 0;
+            if (!Files.isRegularFile(file)) {
+                return;
+            }
+            boolean skipping = false;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String text;
+                String next = reader.readLine();
+                while ((text = next) != null) {
+                    next = reader.readLine();
+                    long offset = length;
+                    length += text.getBytes(StandardCharsets.UTF_8).length + 1;
+                    JsonNode line;
+                    try {
+                        line = objectMapper.readTree(text);
+                    } catch (IOException e) {
+                        line = null;
+                    }
+                    if (line == null || !line.isObject()) {
+                        if (next == null) {
+                            log.warn("Cutting off incomplete last snapshot at offset {} of {}", offset, file);
+                            length = offset;
+                            break;
+                        }
+                        if (!skipping) {
+                            log.warn("Skipping damaged snapshot at offset {} of {} up to the next keyframe", offset, file);
+                        }
+                        skipping = true;
+                        continue;
+                    }
+                    if (skipping && !line.has("config")) {
+                        continue;
+                    }
+                    skipping = false;
+                    index.add(new Entry(line.path("timestamp").asLong(), line.path("hash").asText(), line.has("config"),
+                            line.path("changes").asInt(), offset));
+                }
+            } catch (IOException e) {
+                throw new SapBoApiException("Failed to read configuration history " + file, e);
+            }
+            keyframeNeeded = skipping;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                if (channel.size() > length) {
+                    channel.truncate(length);
+                } else if (channel.size() < length) {
+                    // The last line is complete but its line break is missing
+                    channel.write(ByteBuffer.wrap(new byte[] {'\n'}), channel.size());
+                }
+            } catch (IOException e) {
+                throw new SapBoApiException("Failed to repair configuration history " + file, e);
+            }
+        }
+    }
+
+    private static int countChanges(SortedMap<String, String> before, SortedMap<String, String> after) {
+        int changes = 0;
+        for (Map.Entry<String, String> entry : after.entrySet()) {
+            if (!entry.getValue().equals(before.get(entry.getKey()))) {
+                changes++;
+            }
+        }
+        for (String path : before.keySet()) {
+            if (!after.containsKey(path)) {
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    private static void putAll(SortedMap<String, String> config, JsonNode values) {
+        Iterator<Map.Entry<String, JsonNode>> fields = values.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            config.put(field.getKey(), field.getValue().asText());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.sap.bo.sync.drift;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Differences of one configuration type across several environments.
+ *
+ * Holds one row per configuration path whose value is not the same in all environments, with the value of
+ * every environment, and a matrix with the number of differing paths for every pair of environments.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConfigMatrix {
+
+    private String configType;
+    private List<String> environments;
+    // Content hash of the configuration per environment; equal hashes mean identical configurations
+    private Map<String, String> hashes = new LinkedHashMap<>();
+    private int paths;
+    private List<Row> differences = new ArrayList<>();
+    // Number of differing paths per pair of environments
+    private Map<String, Map<String, Integer>> pairDifferences = new LinkedHashMap<>();
+    private long comparisonTimestamp;
+    private boolean cached;
+
+    /**
+     * Compare flattened configurations in a single merge pass over their sorted paths
+     * @param configType Configuration type
+     * @param environments Environment names, in the order of the configurations
+     * @param hashes Content hash per environment
+     * @param configs Flattened configuration per environment: JSON value text by path
+     */
+    static ConfigMatrix of(String configType, List<String> environments, Map<String, String> hashes,
+                           List<SortedMap<String, String>> configs) {
+        int count = environments.size();
+        ConfigMatrix matrix = new ConfigMatrix();
+        matrix.configType = configType;
+        matrix.environments = environments;
+        matrix.hashes.putAll(hashes);
+        matrix.comparisonTimestamp = System.currentTimeMillis();
+
+        int[][] pairCounts = new int[count][count];
+        List<Iterator<Map.Entry<String, String>>> iterators = new ArrayList<>(count);
+        Map.Entry<String, String>[] heads = newEntries(count);
+        for (int i = 0; i < count; i++) {
+            Iterator<Map.Entry<String, String>> iterator = configs.get(i).entrySet().iterator();
+            iterators.add(iterator);
+            heads[i] = iterator.hasNext() ? iterator.next() : null;
+        }
+
+        String[] values = new String[count];
+        while (true) {
+            String path = null;
+            for (Map.Entry<String, String> head : heads) {
+                if (head != null && (path == null || head.getKey().compareTo(path) < 0)) {
+                    path = head.getKey();
+                }
+            }
+            if (path == null) {
+                break;
+            }
+            matrix.paths++;
+
+            boolean same = true;
+            for (int i = 0; i < count; i++) {
+                if (heads[i] != null && heads[i].getKey().equals(path)) {
+                    values[i] = heads[i].getValue();
+                    heads[i] = iterators.get(i).hasNext() ? iterators.get(i).next() : null;
+                } else {
+                    values[i] = null;
+                }
+                same &= i == 0 || equal(values[0], values[i]);
+            }
+            if (same) {
+                continue;
+            }
+
+            Row row = new Row();
+            row.path = path;
+            for (int i = 0; i < count; i++) {
+                row.values.put(environments.get(i), values[i]);
+                for (int j = i + 1; j < count; j++) {
+                    if (!equal(values[i], values[j])) {
+                        pairCounts[i][j]++;
+                    }
+                }
+            }
+            matrix.differences.add(row);
+        }
+
+        for (int i = 0; i < count; i++) {
+            Map<String, Integer> row = new LinkedHashMap<>();
+            for (int j = 0; j < count; j++) {
+                row.put(environments.get(j), i < j ? pairCounts[i][j] : pairCounts[j][i]);
+            }
+            matrix.pairDifferences.put(environments.get(i), row);
+        }
+        return matrix;
+    }
+
+    /**
+     * Copy of this matrix marked as served from the cache
+     */
+    ConfigMatrix asCached() {
+        ConfigMatrix copy = new ConfigMatrix();
+        copy.configType = configType;
+        copy.environments = environments;
+        copy.hashes = hashes;
+        copy.paths = paths;
+        copy.differences = differences;
+        copy.pairDifferences = pairDifferences;
+        copy.comparisonTimestamp = comparisonTimestamp;
+        copy.cached = true;
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map.Entry<String, String>[] newEntries(int count) {
+        return new Map.Entry[count];
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    public String getConfigType() {
+        return configType;
+    }
+
+    public List<String> getEnvironments() {
+        return environments;
+    }
+
+    public Map<String, String> getHashes() {
+        return hashes;
+    }
+
+    /**
+     * Number of distinct paths across all environments
+     */
+    public int getPaths() {
+        return paths;
+    }
+
+    public boolean isHasDifferences() {
+        return !differences.isEmpty();
+    }
+
+    public List<Row> getDifferences() {
+        return differences;
+    }
+
+    public Map<String, Map<String, Integer>> getPairDifferences() {
+        return pairDifferences;
+    }
+
+    public long getComparisonTimestamp() {
+        return comparisonTimestamp;
+    }
+
+    /**
+     * Whether the matrix was computed earlier for configurations with the same content hashes
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Values of one configuration path per environment; a missing path has a null value
+     */
+    public static class Row {
+        private String path;
+        private Map<String, String> values = new LinkedHashMap<>();
+
+        public String getPath() {
+            return path;
+        }
+
+        public Map<String, String> getValues() {
+            return values;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.sap.bo.sync.drift;
+
+import com.sap.bo.sync.cache.BoundedCache;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.pipeline.SyncExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Compares the configuration of one type across any number of environments.
+ *
+ * The configurations of all environments are read concurrently on the sync executor and compared in one
+ * merge pass over their sorted paths, instead of one request pair and comparison per pair of environments.
+ * Matrices are cached by the content hashes of the compared configurations, so repeating a comparison of
+ * unchanged environments only costs the reads.
+ */
+@Component
+public class ConfigMatrixBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigMatrixBuilder.class);
+
+    private static final int CACHED_MATRICES = 64;
+
+    private final ConfigReader configReader;
+    private final SyncExecutor syncExecutor;
+    private final BoundedCache<String, ConfigMatrix> matrices = new BoundedCache<>(CACHED_MATRICES, matrix -> 1);
+
+    public ConfigMatrixBuilder(ConfigReader configReader, SyncExecutor syncExecutor) {
+        this.configReader = configReader;
+        this.syncExecutor = syncExecutor != null ? syncExecutor : SyncExecutor.callerRuns();
+    }
+
+    /**
+     * Compare the configurations of several environments
+     * @param environments Environment names: "source", "target" or names under sap.bo.environments
+     * @param configType "server" or "cluster"
+     * @param options Request options; "clusterId" selects the cluster of a cluster configuration
+     * @return Matrix of the paths that differ between the environments
+     */
+    public ConfigMatrix compare(List<String> environments, String configType, Map<String, String> options) {
+        List<String> names = new ArrayList<>(new LinkedHashSet<>(environments));
+        if (names.size() < 2) {
+            throw new SapBoApiException("At least two environments are required for a comparison");
+        }
+        log.info("Comparing {} configurations of environments {}", configType, names);
+        long start = System.currentTimeMillis();
+
+        List<CompletableFuture<SortedMap<String, String>>> reads = new ArrayList<>(names.size());
+        for (String name : names) {
+            reads.add(syncExecutor.supplyAsync(() -> ConfigReader.flatten(configReader.read(name, configType, options))));
+        }
+
+        List<SortedMap<String, String>> configs = new ArrayList<>(names.size());
+        Map<String, String> hashes = new LinkedHashMap<>();
+        StringBuilder key = new StringBuilder(configType.toLowerCase());
+        if (options != null && options.get("clusterId") != null) {
+            key.append('|').append(options.get("clusterId"));
+        }
+        for (int i = 0; i < names.size(); i++) {
+            SortedMap<String, String> config = join(reads.get(i), names.get(i));
+            String hash = ConfigReader.hash(config);
+            configs.add(config);
+            hashes.put(names.get(i), hash);
+            key.append('|').append(names.get(i)).append('=').append(hash);
+        }
+
+        ConfigMatrix cached = matrices.get(key.toString());
+        if (cached != null) {
+            log.info("Configurations of {} are unchanged, using the cached comparison", names);
+            return cached.asCached();
+        }
+
+        ConfigMatrix matrix = ConfigMatrix.of(configType, names, hashes, configs);
+        matrices.put(key.toString(), matrix);
+        log.info("Compared {} configurations of {} environments in {} ms: {} of {} paths differ", configType,
+                names.size(), System.currentTimeMillis() - start, matrix.getDifferences().size(), matrix.getPaths());
+        return matrix;
+    }
+
+    private static <T> T join(CompletableFuture<T> future, String environment) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SapBoApiException) {
+                throw (SapBoApiException) e.getCause();
+            }
+            throw new SapBoApiException("Failed to read the configuration of " + environment, e.getCause());
+        }
+    }
+}
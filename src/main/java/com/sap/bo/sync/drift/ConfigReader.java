@@ -0,0 +1,116 @@
+package com.sap.bo.sync.drift;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Reads server and cluster configurations of named environments and reduces them to flat, comparable form
+ */
+@Component
+public class ConfigReader {
+
+    private final SapBoServiceFactory serviceFactory;
+    private final SapBoProperties sapBoProperties;
+    private final ObjectMapper objectMapper;
+
+    public ConfigReader(SapBoServiceFactory serviceFactory, SapBoProperties sapBoProperties, ObjectMapper objectMapper) {
+        this.serviceFactory = serviceFactory;
+        this.sapBoProperties = sapBoProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Read the configuration of an environment
+     * @param environment Environment name: "source", "target" or a name under sap.bo.environments
+     * @param configType "server" or "cluster"
+     * @param options Request options; "clusterId" selects the cluster of a cluster configuration
+     * @return Configuration, or an empty object if the environment returned none
+     */
+    public JsonNode read(String environment, String configType, Map<String, String> options) {
+        SapBoProperties.BoEnvironment boEnvironment = sapBoProperties.findEnvironment(environment);
+        if (boEnvironment == null) {
+            throw new SapBoApiException("Environment not found: " + environment);
+        }
+        SapBoService service = serviceFactory.getService(boEnvironment);
+
+        JsonNode config;
+        if ("server".equalsIgnoreCase(configType)) {
+            config = service.getServerConfig(configType, options);
+        } else if ("cluster".equalsIgnoreCase(configType)) {
+            config = service.getClusterConfig(options != null ? options.get("clusterId") : null, options);
+        } else {
+            throw new SapBoApiException("Unsupported configuration type: " + configType);
+        }
+        return config != null ? config : objectMapper.createObjectNode();
+    }
+
+    /**
+     * Content hash of a configuration: SHA-256 over its flattened form, so that the order of object fields
+     * does not change the hash
+     */
+    public static String hash(SortedMap<String, String> flattened) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, String> entry : flattened.entrySet()) {
+                digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Flatten a configuration into its leaf values by path, e.g. "/servers/0/port" -> "6400".
+     * Values are kept as JSON text, so the string "1" and the number 1 differ; empty objects and arrays are
+     * leaves of their own.
+     */
+    public static SortedMap<String, String> flatten(JsonNode config) {
+        SortedMap<String, String> flattened = new TreeMap<>();
+        flatten("", config, flattened);
+        return flattened;
+    }
+
+    private static void flatten(String path, JsonNode node, SortedMap<String, String> flattened) {
+        if (node.isObject() && node.size() > 0) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                flatten(path + "/" + escape(field.getKey()), field.getValue(), flattened);
+            }
+        } else if (node.isArray() && node.size() > 0) {
+            for (int i = 0; i < node.size(); i++) {
+                flatten(path + "/" + i, node.get(i), flattened);
+            }
+        } else {
+            flattened.put(path.isEmpty() ? "/" : path, node.toString());
+        }
+    }
+
+    /**
+     * Escape a field name as in a JSON pointer
+     */
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,43 @@
+package com.sap.bo.sync.exception;
+
+/**
+ * Exception thrown without contacting the SAP BO API because its circuit breaker is open
+ */
+public class CircuitOpenException extends SapBoApiException {
+
+    private final String environmentUrl;
+    private final long retryAfterMillis;
+
+    public CircuitOpenException(String environmentUrl, long retryAfterMillis) {
+        super("SAP BO API at " + environmentUrl + " is unavailable, circuit breaker is open");
+        this.environmentUrl = environmentUrl;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public String getEnvironmentUrl() {
+        return environmentUrl;
+    }
+
+    /**
+     * Time until the breaker lets requests through again, in milliseconds
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    /**
+     * Find a CircuitOpenException in the cause chain of an exception, e.g. one wrapped by a service
+     * @return Exception found, or null
+     */
+    public static CircuitOpenException find(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CircuitOpenException) {
+                return (CircuitOpenException) cause;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return null;
+    }
+}
@@ -2,6 +2,8 @@ package com.sap.bo.sync.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -16,10 +18,29 @@ import java.util.Map;
  * Global exception handler for the application
  */
 @ControllerAdvice
+@ConditionalOnWebApplication
 public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    /**
+     * Handle CircuitOpenException: the API is unavailable, so tell the caller when to try again
+     */
+    @ExceptionHandler(CircuitOpenException.class)
+    public ResponseEntity<Object> handleCircuitOpenException(CircuitOpenException ex, WebRequest request) {
+        log.warn("SAP BO API unavailable: {}", ex.getMessage());
+        
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "SAP BO API Unavailable");
+        body.put("message", ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (ex.getRetryAfterMillis() + 999) / 1000)))
+                .body(body);
+    }
+
     /**
      * Handle SapBoApiException
      */
@@ -0,0 +1,95 @@
+package com.sap.bo.sync.inventory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of comparing a source inventory against a target inventory.
+ * Holds entry positions only; keys and attributes are read from the indexes on demand.
+ */
+public class InventoryDiff {
+
+    private final InventoryIndex source;
+    private final InventoryIndex target;
+    private final int[] added;
+    private final int[] changed;
+    private final int[] removed;
+
+    InventoryDiff(InventoryIndex source, InventoryIndex target, int[] added, int[] changed, int[] removed) {
+        this.source = source;
+        this.target = target;
+        this.added = added;
+        this.changed = changed;
+        this.removed = removed;
+    }
+
+    public InventoryIndex getSource() {
+        return source;
+    }
+
+    public InventoryIndex getTarget() {
+        return target;
+    }
+
+    /**
+     * Positions in the source index of objects missing in the target
+     */
+    public int[] getAdded() {
+        return added;
+    }
+
+    /**
+     * Positions in the source index of objects whose content differs from the target copy
+     */
+    public int[] getChanged() {
+        return changed;
+    }
+
+    /**
+     * Positions in the target index of objects missing in the source
+     */
+    public int[] getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Number of source objects present in the target with identical content
+     */
+    public int getUnchangedCount() {
+        return source.size() - added.length - changed.length;
+    }
+
+    /**
+     * Summarize the diff, listing the keys of up to a limited number of objects per category
+     * @param limit Maximum number of keys per category
+     * @return Counts and keys of added, changed and removed objects
+     */
+    public Map<String, Object> summary(int limit) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("sourceCount", source.size());
+        summary.put("targetCount", target.size());
+        summary.put("unchanged", getUnchangedCount());
+        summary.put("added", category(source, added, limit));
+        summary.put("changed", category(source, changed, limit));
+        summary.put("removed", category(target, removed, limit));
+        return summary;
+    }
+
+    private static Map<String, Object> category(InventoryIndex index, int[] positions, int limit) {
+        List<Map<String, Object>> objects = new ArrayList<>();
+        for (int i = 0; i < positions.length && i < limit; i++) {
+            int position = positions[i];
+            Map<String, Object> object = new LinkedHashMap<>();
+            object.put("cuid", index.getCuid(position));
+            object.put("id", index.getId(position));
+            object.put("type", index.getType(position));
+            objects.add(object);
+        }
+        Map<String, Object> category = new LinkedHashMap<>();
+        category.put("count", positions.length);
+        category.put("objects", objects);
+        return category;
+    }
+}
@@ -0,0 +1,365 @@
+package com.sap.bo.sync.inventory;
+
+import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.ObjectType;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.model.Universe;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compact inventory of one environment, keyed by CUID.
+ *
+ * Only what is needed to compare two environments is kept: CUID, ID and parent CUID as UTF-8 bytes in a
+ * shared pool, plus a type code, the modification timestamp and a 64-bit fingerprint of the content
+ * fields in primitive arrays. An entry takes around 100 bytes instead of the kilobyte or more of a
+ * listed object, so the inventories of environments with millions of objects fit in a small heap.
+ * Objects without a CUID are keyed by ID. Adding an object with a known key replaces the entry.
+ *
+ * Not thread-safe; build an index from one thread and share it read-only afterwards.
+ */
+public class InventoryIndex {
+
+    private static final int EMPTY = -1;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final ObjectType[] OBJECT_TYPES = ObjectType.values();
+
+    private int size;
+    private byte[] pool;
+    private int poolSize;
+
+    // Per entry: start of CUID, ID and parent CUID in the pool and end of the parent CUID
+    private int[] cuidStart;
+    private int[] idStart;
+    private int[] parentStart;
+    private int[] parentEnd;
+    private byte[] typeCodes;
+    private long[] modified;
+    private long[] fingerprints;
+
+    // Open-addressing hash table of entry positions, kept at most half full
+    private int[] slots;
+
+    public InventoryIndex() {
+        this(1024);
+    }
+
+    /**
+     * @param expectedSize Expected number of objects, to avoid growing the arrays while adding
+     */
+    public InventoryIndex(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        pool = new byte[capacity * 48];
+        cuidStart = new int[capacity];
+        idStart = new int[capacity];
+        parentStart = new int[capacity];
+        parentEnd = new int[capacity];
+        typeCodes = new byte[capacity];
+        modified = new long[capacity];
+        fingerprints = new long[capacity];
+        slots = newSlots(Integer.highestOneBit(capacity * 2 - 1) << 1);
+    }
+
+    /**
+     * Add an object, replacing an existing entry with the same key
+     * @param object Object to add; objects without CUID and ID are ignored
+     * @return Position of the entry, or -1 if the object was ignored
+     */
+    public int add(SapBoObject object) {
+        String key = object.getCuid() != null ? object.getCuid() : object.getId();
+        if (key == null) {
+            return -1;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(keyBytes, 0, keyBytes.length);
+        int slot = findSlot(keyBytes, 0, keyBytes.length, hash);
+        int position = slots[slot];
+        if (position == EMPTY) {
+            ensureCapacity(size + 1);
+            position = size++;
+            slots[slot] = position;
+            if (size * 2 > slots.length) {
+                rehash(slots.length * 2);
+            }
+        }
+
+        // A replaced entry leaves its old strings behind in the pool; replacements are rare in listings
+        cuidStart[position] = append(keyBytes);
+        idStart[position] = append(bytes(object.getId()));
+        parentStart[position] = append(bytes(object.getParentCuid()));
+        parentEnd[position] = poolSize;
+        typeCodes[position] = (byte) ObjectType.of(object).ordinal();
+        modified[position] = object.getModifiedMillis();
+        fingerprints[position] = fingerprint(object);
+        return position;
+    }
+
+    /**
+     * Add all objects of a listing
+     */
+    public InventoryIndex addAll(Iterable<? extends SapBoObject> objects) {
+        for (SapBoObject object : objects) {
+            add(object);
+        }
+        return this;
+    }
+
+    /**
+     * Find the entry for a key
+     * @param cuid CUID, or ID for objects without CUID
+     * @return Position of the entry, or -1 if not present
+     */
+    public int indexOf(String cuid) {
+        if (cuid == null) {
+            return -1;
+        }
+        byte[] keyBytes = cuid.getBytes(StandardCharsets.UTF_8);
+        return slots[findSlot(keyBytes, 0, keyBytes.length, hash(keyBytes, 0, keyBytes.length))];
+    }
+
+    /**
+     * Number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    public String getCuid(int position) {
+        return string(cuidStart[position], idStart[position]);
+    }
+
+    public String getId(int position) {
+        return string(idStart[position], parentStart[position]);
+    }
+
+    public String getParentCuid(int position) {
+        return string(parentStart[position], parentEnd[position]);
+    }
+
+    public ObjectType getObjectType(int position) {
+        return OBJECT_TYPES[typeCodes[position]];
+    }
+
+    public String getType(int position) {
+        return getObjectType(position).getValue();
+    }
+
+    /**
+     * Modification timestamp in epoch milliseconds, SapBoObject.NO_TIMESTAMP if unknown
+     */
+    public long getModified(int position) {
+        return modified[position];
+    }
+
+    public long getFingerprint(int position) {
+        return fingerprints[position];
+    }
+
+    /**
+     * Number of entries per object type
+     */
+    public Map<String, Integer> getTypeCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            counts.merge(getType(i), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Approximate heap footprint of the index in bytes
+     */
+    public long estimateBytes() {
+        return pool.length + 4L * (cuidStart.length * 4L + slots.length)
+                + typeCodes.length + 8L * (modified.length + fingerprints.length);
+    }
+
+    /**
+     * Compare this index, as the source, against a target index.
+     * Entries are matched by key; a matched entry has changed when its fingerprint differs.
+     * Modification timestamps are not compared since copies are usually written later than their source.
+     * @param target Target inventory
+     * @return Positions of added and changed entries in this index and of removed entries in the target
+     */
+    public InventoryDiff diff(InventoryIndex target) {
+        IntList added = new IntList();
+        IntList changed = new IntList();
+        boolean[] matched = new boolean[target.size];
+
+        for (int i = 0; i < size; i++) {
+            int start = cuidStart[i];
+            int end = idStart[i];
+            int j = target.slots[target.findSlot(pool, start, end, hash(pool, start, end))];
+            if (j == EMPTY) {
+                added.add(i);
+            } else {
+                matched[j] = true;
+                if (fingerprints[i] != target.fingerprints[j]) {
+                    changed.add(i);
+                }
+            }
+        }
+
+        IntList removed = new IntList();
+        for (int j = 0; j < target.size; j++) {
+            if (!matched[j]) {
+                removed.add(j);
+            }
+        }
+        return new InventoryDiff(this, target, added.toArray(), changed.toArray(), removed.toArray());
+    }
+
+    /**
+     * Compute a 64-bit FNV-1a fingerprint of the fields that are copied by a sync.
+     * IDs, owners and timestamps are left out since they differ between environments for identical objects;
+     * the universe of a report and the connection of a universe are compared by name for the same reason.
+     * Document content is not loaded for listed objects, so reports are compared by their size instead.
+     */
+    public static long fingerprint(SapBoObject object) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, object.getName());
+        hash = mix(hash, object.getDescription());
+        hash = mix(hash, object.getType());
+        hash = mix(hash, object.getParentCuid());
+        hash = mix(hash, object.getPath());
+        if (object instanceof Report) {
+            Report report = (Report) object;
+            hash = mix(hash, report.getUniverseName());
+            hash = mix(hash, report.getSize() != null ? report.getSize().toString() : null);
+        } else if (object instanceof Universe) {
+            Universe universe = (Universe) object;
+            hash = mix(hash, universe.getConnectionName());
+            hash = mix(hash, universe.getDataSourceType());
+        } else if (object instanceof Connection) {
+            Connection connection = (Connection) object;
+            hash = mix(hash, connection.getDataSourceType());
+            hash = mix(hash, connection.getServer());
+            hash = mix(hash, connection.getDatabase());
+            hash = mix(hash, connection.getAuthentication());
+            if (connection.getParameters() != null) {
+                for (Map.Entry<String, String> parameter : new TreeMap<>(connection.getParameters()).entrySet()) {
+                    hash = mix(hash, parameter.getKey());
+                    hash = mix(hash, parameter.getValue());
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= FNV_PRIME;
+            }
+        }
+        // Field separator, so that ("ab", "c") and ("a", "bc") differ
+        hash ^= 0xff;
+        return hash * FNV_PRIME;
+    }
+
+    private static int hash(byte[] bytes, int start, int end) {
+        int hash = 0x811c9dc5;
+        for (int i = start; i < end; i++) {
+            hash ^= bytes[i];
+            hash *= 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Find the slot holding a key, or the empty slot where it would be inserted
+     */
+    private int findSlot(byte[] keyBytes, int start, int end, int hash) {
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while (slots[slot] != EMPTY && !keyEquals(slots[slot], keyBytes, start, end)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean keyEquals(int position, byte[] keyBytes, int start, int end) {
+        int from = cuidStart[position];
+        int to = idStart[position];
+        return Arrays.equals(pool, from, to, keyBytes, start, end);
+    }
+
+    private void rehash(int capacity) {
+        slots = newSlots(capacity);
+        int mask = capacity - 1;
+        for (int position = 0; position < size; position++) {
+            int slot = hash(pool, cuidStart[position], idStart[position]) & mask;
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = position;
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= cuidStart.length) {
+            return;
+        }
+        int capacity = Math.max(required, cuidStart.length + (cuidStart.length >> 1));
+        cuidStart = Arrays.copyOf(cuidStart, capacity);
+        idStart = Arrays.copyOf(idStart, capacity);
+        parentStart = Arrays.copyOf(parentStart, capacity);
+        parentEnd = Arrays.copyOf(parentEnd, capacity);
+        typeCodes = Arrays.copyOf(typeCodes, capacity);
+        modified = Arrays.copyOf(modified, capacity);
+        fingerprints = Arrays.copyOf(fingerprints, capacity);
+    }
+
+    private int append(byte[] bytes) {
+        int start = poolSize;
+        if (poolSize + bytes.length > pool.length) {
+            long grown = Math.max((long) poolSize + bytes.length, pool.length + ((long) pool.length >> 1));
+            if (grown > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Inventory index exceeds the maximum pool size");
+            }
+            pool = Arrays.copyOf(pool, (int) grown);
+        }
+        System.arraycopy(bytes, 0, pool, poolSize, bytes.length);
+        poolSize += bytes.length;
+        return start;
+    }
+
+    private String string(int start, int end) {
+        return start == end ? null : new String(pool, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+
+    /**
+     * Growable list of primitive ints
+     */
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.sap.bo.sync.inventory;
+
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import com.sap.bo.sync.stream.PageSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds compact inventories of the source and target environments and compares them.
+ * Listings are read one page at a time, see PageSource, and only their index entries are retained,
+ * so the full objects of one page are the most that is held in memory at once.
+ */
+@Component
+public class InventoryLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryLoader.class);
+
+    public static final List<String> ALL_TYPES = Arrays.asList("folder", "connection", "universe", "report");
+
+    private final SapBoServiceFactory serviceFactory;
+    private final SapBoProperties sapBoProperties;
+
+    public InventoryLoader(SapBoServiceFactory serviceFactory, SapBoProperties sapBoProperties) {
+        this.serviceFactory = serviceFactory;
+        this.sapBoProperties = sapBoProperties;
+    }
+
+    /**
+     * Compare the source and target inventories
+     * @param types Object types to include: folder, connection, universe and/or report
+     * @return Diff of the source against the target
+     */
+    public InventoryDiff compare(Collection<String> types) {
+        InventoryIndex source = load(serviceFactory.getSourceService(), types);
+        InventoryIndex target = load(serviceFactory.getTargetService(), types);
+        InventoryDiff diff = source.diff(target);
+        log.info("Compared {} source with {} target objects: {} added, {} changed, {} removed",
+                source.size(), target.size(), diff.getAdded().length, diff.getChanged().length, diff.getRemoved().length);
+        return diff;
+    }
+
+    /**
+     * Build the inventory of one environment
+     * @param service Service of the environment
+     * @param types Object types to include
+     * @return Inventory index
+     */
+    public InventoryIndex load(SapBoService service, Collection<String> types) {
+        InventoryIndex index = new InventoryIndex();
+        int pageSize = Math.max(1, sapBoProperties.getSync().getStreamPageSize());
+        try {
+            for (String type : types) {
+                PageSource.of(service, type).forEach(pageSize, index::add);
+            }
+        } catch (SapBoApiException | IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SapBoApiException("Failed to load inventory", e);
+        }
+        log.debug("Loaded inventory of {} objects (~{} bytes): {}", index.size(), index.estimateBytes(), index.getTypeCounts());
+        return index;
+    }
+}
@@ -3,9 +3,11 @@ package com.sap.bo.sync.model;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -18,27 +20,33 @@ import java.util.Map;
 public class Connection extends SapBoObject {
     
     @JsonProperty("type")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String type;
     
     @JsonProperty("dataSourceType")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String dataSourceType;
     
     @JsonProperty("server")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String server;
     
     @JsonProperty("database")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String database;
     
     @JsonProperty("username")
     private String username;
     
     @JsonProperty("authentication")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String authentication;
     
     @JsonProperty("parameters")
     private Map<String, String> parameters;
     
     @JsonProperty("status")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String status;
     
     // Explicit getters and setters to ensure they're available during compilation
@@ -107,4 +115,13 @@ public class Connection extends SapBoObject {
     public void setStatus(String status) {
         this.status = status;
     }
+    
+    @Override
+    public Connection copy() {
+        Connection copy = (Connection) super.copy();
+        if (parameters != null) {
+            copy.parameters = new LinkedHashMap<>(parameters);
+        }
+        return copy;
+    }
 }
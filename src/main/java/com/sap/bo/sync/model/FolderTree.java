@@ -0,0 +1,141 @@
+package com.sap.bo.sync.model;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory folder hierarchy of one environment, indexed by folder path.
+ *
+ * Paths are taken from the folders themselves when present, otherwise they are derived from
+ * the names along the parent chain. Folders whose parent is not part of the listing are roots.
+ */
+public class FolderTree {
+
+    private final Map<String, SapBoObject> foldersByPath = new LinkedHashMap<>();
+    private final Map<String, String> pathsById = new HashMap<>();
+
+    private FolderTree() {
+    }
+
+    /**
+     * Build a tree from a flat folder listing
+     * @param folders Folders of one environment
+     * @return Path-indexed folder tree
+     */
+    public static FolderTree of(Collection<SapBoObject> folders) {
+        FolderTree tree = new FolderTree();
+        Map<String, SapBoObject> foldersById = new HashMap<>();
+        for (SapBoObject folder : folders) {
+            if (folder.getId() != null) {
+                foldersById.put(folder.getId(), folder);
+            }
+        }
+        for (SapBoObject folder : folders) {
+            String path = tree.resolvePath(folder, foldersById, 0);
+            tree.foldersByPath.put(path, folder);
+        }
+        return tree;
+    }
+
+    /**
+     * Get the folder at a path
+     * @param path Folder path
+     * @return Folder, or null if the tree has no folder at this path
+     */
+    public SapBoObject get(String path) {
+        return foldersByPath.get(normalize(path));
+    }
+
+    /**
+     * Check whether the tree has a folder at a path
+     */
+    public boolean contains(String path) {
+        return foldersByPath.containsKey(normalize(path));
+    }
+
+    /**
+     * Get the path of a folder in this tree
+     * @param folderId Folder ID
+     * @return Path, or null if the folder is not part of the tree
+     */
+    public String getPath(String folderId) {
+        return pathsById.get(folderId);
+    }
+
+    /**
+     * Number of folders in the tree
+     */
+    public int size() {
+        return foldersByPath.size();
+    }
+
+    /**
+     * Collect the folders of this tree that are missing in another tree, grouped by depth.
+     * Every level only depends on folders of earlier levels or folders that already exist in the other tree,
+     * so the levels can be created in order and the folders of one level in parallel.
+     * @param other Tree to compare against
+     * @return Missing folders per level, shallowest level first
+     */
+    public List<List<SapBoObject>> missingIn(FolderTree other) {
+        TreeMap<Integer, List<SapBoObject>> levels = new TreeMap<>();
+        for (Map.Entry<String, SapBoObject> entry : foldersByPath.entrySet()) {
+            if (!other.contains(entry.getKey())) {
+                levels.computeIfAbsent(depth(entry.getKey()), depth -> new ArrayList<>()).add(entry.getValue());
+            }
+        }
+        return new ArrayList<>(levels.values());
+    }
+
+    /**
+     * Get the path of the parent folder
+     * @param path Folder path
+     * @return Parent path, or null for a top-level path
+     */
+    public static String parentPath(String path) {
+        String normalized = normalize(path);
+        int index = normalized.lastIndexOf('/');
+        return index <= 0 ? null : normalized.substring(0, index);
+    }
+
+    private String resolvePath(SapBoObject folder, Map<String, SapBoObject> foldersById, int depth) {
+        if (folder.getId() != null && pathsById.containsKey(folder.getId())) {
+            return pathsById.get(folder.getId());
+        }
+
+        String path;
+        SapBoObject parent = folder.getParentId() != null ? foldersById.get(folder.getParentId()) : null;
+        if (StringUtils.isNotBlank(folder.getPath())) {
+            path = normalize(folder.getPath());
+        } else if (parent != null && parent != folder && depth < foldersById.size()) {
+            path = resolvePath(parent, foldersById, depth + 1) + "/" + folder.getName();
+        } else {
+            path = "/" + folder.getName();
+        }
+
+        if (folder.getId() != null) {
+            pathsById.put(folder.getId(), path);
+        }
+        return path;
+    }
+
+    private static int depth(String path) {
+        return StringUtils.countMatches(path, '/');
+    }
+
+    private static String normalize(String path) {
+        if (path == null) {
+            return "";
+        }
+        String normalized = path.startsWith("/") ? path : "/" + path;
+        return normalized.length() > 1 && normalized.endsWith("/")
+                ? normalized.substring(0, normalized.length() - 1)
+                : normalized;
+    }
+}
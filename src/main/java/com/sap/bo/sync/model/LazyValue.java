@@ -0,0 +1,125 @@
+package com.sap.bo.sync.model;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Handle for a heavy attribute that is only loaded when it is first read.
+ *
+ * A handle is either loaded, holding its value, or deferred. A deferred handle loads its value through
+ * a loader on first access; the loader can be bound after the handle was created, e.g. once the service
+ * that read a listing knows how to fetch the details of each listed object. A deferred handle without a
+ * loader yields null.
+ *
+ * @param <T> Value type
+ */
+public final class LazyValue<T> {
+
+    private volatile boolean loaded;
+    private volatile T value;
+    private Supplier<? extends T> loader;
+
+    private LazyValue(boolean loaded, T value, Supplier<? extends T> loader) {
+        this.loaded = loaded;
+        this.value = value;
+        this.loader = loader;
+    }
+
+    /**
+     * Create a loaded handle
+     */
+    public static <T> LazyValue<T> of(T value) {
+        return new LazyValue<>(true, value, null);
+    }
+
+    /**
+     * Create a handle that loads its value on first access
+     */
+    public static <T> LazyValue<T> deferred(Supplier<? extends T> loader) {
+        return new LazyValue<>(false, null, loader);
+    }
+
+    /**
+     * Create a deferred handle whose loader is bound later
+     */
+    public static <T> LazyValue<T> unbound() {
+        return new LazyValue<>(false, null, null);
+    }
+
+    /**
+     * Get the value, loading it if needed
+     */
+    public T get() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    value = loader != null ? loader.get() : null;
+                    loader = null;
+                    loaded = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Get the value if it is loaded, without loading it
+     * @return Value, or null if not loaded
+     */
+    public T peek() {
+        return loaded ? value : null;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Set the loader of a deferred handle. Has no effect on a loaded handle.
+     */
+    public synchronized void bind(Supplier<? extends T> loader) {
+        if (!loaded) {
+            this.loader = loader;
+        }
+    }
+
+    /**
+     * Create a handle of its own for the same value: a loaded handle shares the value, a deferred handle
+     * gets the same loader, which it calls itself on first access
+     */
+    public synchronized LazyValue<T> copy() {
+        return loaded ? of(value) : deferred(loader);
+    }
+
+    /**
+     * Handles are equal if both are loaded with equal values; deferred handles are only equal to themselves
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LazyValue)) {
+            return false;
+        }
+        LazyValue<?> other = (LazyValue<?>) o;
+        return loaded && other.loaded && Objects.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return loaded ? Objects.hashCode(value) : System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        if (!loaded) {
+            return "<not loaded>";
+        }
+        // Payloads can be large; only show their size
+        if (value instanceof String) {
+            return "<" + ((String) value).length() + " chars>";
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,66 @@
+package com.sap.bo.sync.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Deserializer for LazyValue attributes.
+ *
+ * By default the value is deserialized right away into a loaded handle. When the reader carries the
+ * SKIP_PAYLOADS attribute, as set by listingReader(), the value is skipped without being decoded and an
+ * unbound handle is returned; the service that read the listing binds a loader to it afterwards.
+ */
+public class LazyValueDeserializer extends StdDeserializer<LazyValue<?>> implements ContextualDeserializer {
+
+    /**
+     * Reader attribute requesting that lazy attributes are skipped
+     */
+    public static final String SKIP_PAYLOADS = LazyValueDeserializer.class.getName() + ".skipPayloads";
+
+    private final JavaType valueType;
+
+    public LazyValueDeserializer() {
+        this(null);
+    }
+
+    private LazyValueDeserializer(JavaType valueType) {
+        super(LazyValue.class);
+        this.valueType = valueType;
+    }
+
+    /**
+     * Derive a reader for listings, where heavy attributes are skipped
+     */
+    public static ObjectReader listingReader(ObjectReader reader) {
+        return reader.withAttribute(SKIP_PAYLOADS, Boolean.TRUE);
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+        JavaType type = property != null ? property.getType().containedType(0) : null;
+        return new LazyValueDeserializer(type != null ? type : ctxt.constructType(Object.class));
+    }
+
+    @Override
+    public LazyValue<?> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (Boolean.TRUE.equals(ctxt.getAttribute(SKIP_PAYLOADS))) {
+            // Strings are decoded lazily by the parser, so skipping one never materializes it
+            p.skipChildren();
+            return LazyValue.unbound();
+        }
+        return LazyValue.of(ctxt.readValue(p, valueType));
+    }
+
+    @Override
+    public LazyValue<?> getNullValue(DeserializationContext ctxt) {
+        return LazyValue.of(null);
+    }
+}
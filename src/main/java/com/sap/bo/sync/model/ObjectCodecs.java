@@ -0,0 +1,84 @@
+package com.sap.bo.sync.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Readers and writers per type, derived once from an ObjectMapper.
+ *
+ * ObjectMapper.readValue and treeToValue resolve the deserializer of the requested type on every call;
+ * a reader for a type resolves it when the reader is built. The model types are prebuilt, other types
+ * get their reader or writer on first use. Readers and writers are immutable and can be shared by all
+ * threads.
+ */
+public final class ObjectCodecs {
+
+    /**
+     * Types whose readers and writers are built up front
+     */
+    public static final List<Class<? extends SapBoObject>> MODEL_TYPES = Collections.unmodifiableList(
+            Arrays.asList(SapBoObject.class, Report.class, Universe.class, Connection.class));
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> listingReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public ObjectCodecs(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (Class<?> type : MODEL_TYPES) {
+            reader(type);
+            listingReader(type);
+            writer(type);
+        }
+    }
+
+    /**
+     * Get the reader for a type
+     */
+    public ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    /**
+     * Get the reader for listings of a type, which skips heavy attributes
+     * @see LazyValueDeserializer#listingReader(ObjectReader)
+     */
+    public ObjectReader listingReader(Class<?> type) {
+        return listingReaders.computeIfAbsent(type, key -> LazyValueDeserializer.listingReader(reader(key)));
+    }
+
+    /**
+     * Get the writer for a type
+     */
+    public ObjectWriter writer(Class<?> type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
+    /**
+     * Read a JSON document as the given type
+     */
+    public <T> T read(String json, Class<T> type) throws IOException {
+        return reader(type).readValue(json);
+    }
+
+    /**
+     * Convert a JSON tree to the given type
+     */
+    public <T> T treeToValue(JsonNode node, Class<T> type) throws IOException {
+        return reader(type).readValue(node);
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+}
@@ -0,0 +1,63 @@
+package com.sap.bo.sync.model;
+
+/**
+ * Kinds of SAP BO objects handled by the sync
+ */
+public enum ObjectType {
+    FOLDER("folder"),
+    REPORT("report"),
+    UNIVERSE("universe"),
+    CONNECTION("connection"),
+    OTHER("other");
+
+    private final String value;
+
+    ObjectType(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Lower-case name as used in plans, partitions and API parameters
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Determine the kind of an object from its class, or from its type attribute for plain objects
+     */
+    public static ObjectType of(SapBoObject object) {
+        if (object instanceof Report) {
+            return REPORT;
+        } else if (object instanceof Universe) {
+            return UNIVERSE;
+        } else if (object instanceof Connection) {
+            return CONNECTION;
+        }
+        return fromType(object.getType());
+    }
+
+    /**
+     * Map a type attribute returned by the SAP BO API
+     * @param type Type attribute, e.g. "Folder" or "Webi"
+     * @return Matching constant, OTHER if unknown
+     */
+    public static ObjectType fromType(String type) {
+        if (type == null) {
+            return OTHER;
+        }
+        switch (type.toLowerCase()) {
+            case "folder":
+                return FOLDER;
+            case "report":
+            case "webi":
+                return REPORT;
+            case "universe":
+                return UNIVERSE;
+            case "connection":
+                return CONNECTION;
+            default:
+                return OTHER;
+        }
+    }
+}
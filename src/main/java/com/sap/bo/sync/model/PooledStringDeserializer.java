@@ -0,0 +1,71 @@
+package com.sap.bo.sync.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import java.io.IOException;
+
+/**
+ * String deserializer that shares instances of repetitive values such as types, owners and folder paths.
+ *
+ * Values are looked up in a fixed-size, direct-mapped pool by their characters straight from the parser
+ * buffer, so a value seen before costs no allocation at all. A colliding value replaces the pooled one,
+ * which keeps the pool bounded no matter how many distinct values pass through it. Races between threads
+ * at worst produce an unshared copy.
+ */
+public class PooledStringDeserializer extends StdDeserializer<String> {
+
+    private static final int POOL_SIZE = 8192;
+    private static final int MAX_LENGTH = 256;
+
+    private static final String[] POOL = new String[POOL_SIZE];
+
+    public PooledStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_STRING) {
+            return StringDeserializer.instance.deserialize(p, ctxt);
+        }
+        int length = p.getTextLength();
+        if (length > MAX_LENGTH) {
+            return p.getText();
+        }
+        return pooled(p.getTextCharacters(), p.getTextOffset(), length);
+    }
+
+    /**
+     * Get the pooled instance for a character sequence, adding it to the pool if needed
+     */
+    static String pooled(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (POOL_SIZE - 1);
+        String pooled = POOL[slot];
+        if (pooled != null && matches(pooled, chars, offset, length)) {
+            return pooled;
+        }
+        String value = new String(chars, offset, length);
+        POOL[slot] = value;
+        return value;
+    }
+
+    private static boolean matches(String pooled, char[] chars, int offset, int length) {
+        if (pooled.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (pooled.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,13 +1,18 @@
 package com.sap.bo.sync.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 /**
  * Represents a SAP Business Objects Report
+ *
+ * The document content is held in a LazyValue: reports read from a listing only carry a handle that fetches
+ * the content when it is first read, and the JSON form only includes content that has been loaded.
  */
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -16,15 +21,17 @@ import lombok.EqualsAndHashCode;
 public class Report extends SapBoObject {
     
     @JsonProperty("universeId")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String universeId;
     
     @JsonProperty("universeName")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String universeName;
     
-    @JsonProperty("content")
-    private String content;
+    private LazyValue<String> content = LazyValue.of(null);
     
     @JsonProperty("format")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String format;
     
     @JsonProperty("size")
@@ -37,6 +44,7 @@ public class Report extends SapBoObject {
     private String lastRun;
     
     @JsonProperty("status")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String status;
     
     // Explicit getters and setters to ensure they're available during compilation
@@ -56,12 +64,48 @@ public class Report extends SapBoObject {
         this.universeName = universeName;
     }
     
+    /**
+     * Get the content, fetching it first if it has not been loaded yet
+     */
+    @JsonIgnore
     public String getContent() {
-        return content;
+        return content.get();
     }
     
+    @JsonIgnore
     public void setContent(String content) {
-        this.content = content;
+        this.content = LazyValue.of(content);
+    }
+    
+    /**
+     * Get the handle of the content, e.g. to check whether it has been loaded
+     */
+    @JsonIgnore
+    public LazyValue<String> getContentValue() {
+        return content;
+    }
+    
+    @JsonProperty("content")
+    @JsonDeserialize(using = LazyValueDeserializer.class)
+    public void setContentValue(LazyValue<String> content) {
+        this.content = content != null ? content : LazyValue.of(null);
+    }
+    
+    @JsonProperty("content")
+    private String getLoadedContent() {
+        return content.peek();
+    }
+    
+    @Override
+    public void loadPayload() {
+        content.get();
+    }
+    
+    @Override
+    public Report copy() {
+        Report copy = (Report) super.copy();
+        copy.content = content.copy();
+        return copy;
     }
     
     public String getFormat() {
@@ -1,21 +1,33 @@
 package com.sap.bo.sync.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Data;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Base class for SAP Business Objects objects
+ *
+ * Timestamps are held as epoch milliseconds and only wrapped in a Date when read through the Date accessors.
+ * Repetitive values such as type, owner and path are pooled while deserializing, see PooledStringDeserializer.
  */
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public class SapBoObject {
+public class SapBoObject implements Cloneable {
+    
+    /**
+     * Value of the epoch millisecond accessors for an unset timestamp
+     */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
     
     @JsonProperty("id")
     private String id;
@@ -30,24 +42,28 @@ public class SapBoObject {
     private String description;
     
     @JsonProperty("type")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String type;
     
     @JsonProperty("parentId")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String parentId;
     
     @JsonProperty("parentCuid")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String parentCuid;
     
-    @JsonProperty("created")
-    private Date created;
+    // Epoch milliseconds, NO_TIMESTAMP if not set
+    private long createdMillis = NO_TIMESTAMP;
     
-    @JsonProperty("modified")
-    private Date modified;
+    private long modifiedMillis = NO_TIMESTAMP;
     
     @JsonProperty("owner")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String owner;
     
     @JsonProperty("path")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String path;
     
     // Explicit setter methods to ensure they're available during compilation
@@ -79,12 +95,24 @@ public class SapBoObject {
         this.parentCuid = parentCuid;
     }
     
+    @JsonProperty("created")
     public void setCreated(Date created) {
-        this.created = created;
+        this.createdMillis = created != null ? created.getTime() : NO_TIMESTAMP;
     }
     
+    @JsonProperty("modified")
     public void setModified(Date modified) {
-        this.modified = modified;
+        this.modifiedMillis = modified != null ? modified.getTime() : NO_TIMESTAMP;
+    }
+    
+    @JsonIgnore
+    public void setCreatedMillis(long createdMillis) {
+        this.createdMillis = createdMillis;
+    }
+    
+    @JsonIgnore
+    public void setModifiedMillis(long modifiedMillis) {
+        this.modifiedMillis = modifiedMillis;
     }
     
     public void setOwner(String owner) {
@@ -130,12 +158,44 @@ public class SapBoObject {
         return parentCuid;
     }
     
+    /**
+     * Get the creation timestamp as a new Date, or null if not set
+     */
+    @JsonProperty("created")
     public Date getCreated() {
-        return created;
+        return createdMillis != NO_TIMESTAMP ? new Date(createdMillis) : null;
     }
     
+    /**
+     * Get the modification timestamp as a new Date, or null if not set
+     */
+    @JsonProperty("modified")
     public Date getModified() {
-        return modified;
+        return modifiedMillis != NO_TIMESTAMP ? new Date(modifiedMillis) : null;
+    }
+    
+    /**
+     * Get the creation timestamp without allocating, NO_TIMESTAMP if not set
+     */
+    @JsonIgnore
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+    
+    /**
+     * Get the modification timestamp without allocating, NO_TIMESTAMP if not set
+     */
+    @JsonIgnore
+    public long getModifiedMillis() {
+        return modifiedMillis;
+    }
+    
+    /**
+     * Get the object type as an enum constant
+     */
+    @JsonIgnore
+    public ObjectType getObjectType() {
+        return ObjectType.of(this);
     }
     
     public String getOwner() {
@@ -154,6 +214,35 @@ public class SapBoObject {
         this.properties = properties;
     }
     
+    /**
+     * Load lazily held attributes, so that they are included when the object is serialized
+     */
+    public void loadPayload() {
+    }
+    
+    /**
+     * Copy this object so the copy can be modified on its own. Properties and children are copied,
+     * lazily held attributes get handles of their own, see LazyValue.copy.
+     */
+    public SapBoObject copy() {
+        SapBoObject copy;
+        try {
+            copy = (SapBoObject) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        if (properties != null) {
+            copy.properties = new LinkedHashMap<>(properties);
+        }
+        if (children != null) {
+            copy.children = new ArrayList<>(children.size());
+            for (SapBoObject child : children) {
+                copy.children.add(child != null ? child.copy() : null);
+            }
+        }
+        return copy;
+    }
+    
     public List<SapBoObject> getChildren() {
         return children;
     }
@@ -1,8 +1,10 @@
 package com.sap.bo.sync.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -10,6 +12,9 @@ import java.util.List;
 
 /**
  * Represents a SAP Business Objects Universe
+ *
+ * Content and objects are held in LazyValues: universes read from a listing only carry handles that fetch
+ * them when first read, and the JSON form only includes what has been loaded.
  */
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -18,19 +23,20 @@ import java.util.List;
 public class Universe extends SapBoObject {
     
     @JsonProperty("connectionId")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String connectionId;
     
     @JsonProperty("connectionName")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String connectionName;
     
     @JsonProperty("dataSourceType")
+    @JsonDeserialize(using = PooledStringDeserializer.class)
     private String dataSourceType;
     
-    @JsonProperty("content")
-    private String content;
+    private LazyValue<String> content = LazyValue.of(null);
     
-    @JsonProperty("objects")
-    private List<UniverseObject> objects;
+    private LazyValue<List<UniverseObject>> objects = LazyValue.of(null);
     
     // Explicit getters and setters to ensure they're available during compilation
     public String getConnectionId() {
@@ -57,20 +63,76 @@ public class Universe extends SapBoObject {
         this.dataSourceType = dataSourceType;
     }
     
+    /**
+     * Get the content, fetching it first if it has not been loaded yet
+     */
+    @JsonIgnore
     public String getContent() {
-        return content;
+        return content.get();
     }
     
+    @JsonIgnore
     public void setContent(String content) {
-        this.content = content;
+        this.content = LazyValue.of(content);
     }
     
+    /**
+     * Get the objects, fetching them first if they have not been loaded yet
+     */
+    @JsonIgnore
     public List<UniverseObject> getObjects() {
-        return objects;
+        return objects.get();
     }
     
+    @JsonIgnore
     public void setObjects(List<UniverseObject> objects) {
-        this.objects = objects;
+        this.objects = LazyValue.of(objects);
+    }
+    
+    @JsonIgnore
+    public LazyValue<String> getContentValue() {
+        return content;
+    }
+    
+    @JsonProperty("content")
+    @JsonDeserialize(using = LazyValueDeserializer.class)
+    public void setContentValue(LazyValue<String> content) {
+        this.content = content != null ? content : LazyValue.of(null);
+    }
+    
+    @JsonIgnore
+    public LazyValue<List<UniverseObject>> getObjectsValue() {
+        return objects;
+    }
+    
+    @JsonProperty("objects")
+    @JsonDeserialize(using = LazyValueDeserializer.class)
+    public void setObjectsValue(LazyValue<List<UniverseObject>> objects) {
+        this.objects = objects != null ? objects : LazyValue.of(null);
+    }
+    
+    @JsonProperty("content")
+    private String getLoadedContent() {
+        return content.peek();
+    }
+    
+    @JsonProperty("objects")
+    private List<UniverseObject> getLoadedObjects() {
+        return objects.peek();
+    }
+    
+    @Override
+    public void loadPayload() {
+        content.get();
+        objects.get();
+    }
+    
+    @Override
+    public Universe copy() {
+        Universe copy = (Universe) super.copy();
+        copy.content = content.copy();
+        copy.objects = objects.copy();
+        return copy;
     }
     
     /**
@@ -0,0 +1,304 @@
+package com.sap.bo.sync.partition;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.exception.SapBoApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Partition queue backed by a JSON state file in a shared directory.
+ *
+ * Every operation takes an exclusive lock on a lock file, reads the state, applies the change
+ * and writes the state back through a temporary file and an atomic rename. This is a stand-in
+ * for a database-backed queue and works for instances sharing a local or network file system.
+ * The object IDs of hash partitions are kept in one file per partition next to the state, so the
+ * state file that every claim and heartbeat rewrites stays small.
+ */
+public class FilePartitionQueue implements PartitionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(FilePartitionQueue.class);
+
+    private static final String STATE_FILE = "partitions.json";
+    private static final String LOCK_FILE = "partitions.lock";
+    private static final String IDS_SUFFIX = ".ids.json";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final long leaseTimeout;
+    private final int maxAttempts;
+    private final LongSupplier clock;
+
+    // File locks are held per JVM, so threads of this instance also serialize on a local lock
+    private final ReentrantLock localLock = new ReentrantLock();
+
+    public FilePartitionQueue(Path directory, ObjectMapper objectMapper, long leaseTimeout, int maxAttempts) {
+        this(directory, objectMapper, leaseTimeout, maxAttempts, System::currentTimeMillis);
+    }
+
+    FilePartitionQueue(Path directory, ObjectMapper objectMapper, long leaseTimeout, int maxAttempts, LongSupplier clock) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.leaseTimeout = leaseTimeout;
+        this.maxAttempts = maxAttempts;
+        this.clock = clock;
+    }
+
+    @Override
+    public PartitionRun publish(PartitionRun run) {
+        return withState(state -> {
+            if (state != null && !state.isFinished()) {
+                log.info("Joining partitioned run {} already in progress", state.getRunId());
+                return new Result<>(null, state);
+            }
+            log.info("Publishing partitioned run {} with {} partitions", run.getRunId(), run.getPartitions().size());
+            deleteObjectIds();
+            for (SyncPartition partition : run.getPartitions()) {
+                if (partition.getObjectIds() != null) {
+                    writeObjectIds(partition);
+                    partition.setObjectIds(null);
+                }
+            }
+            return new Result<>(run, run);
+        });
+    }
+
+    @Override
+    public Optional<PartitionRun> getActiveRun() {
+        return Optional.ofNullable(withState(state -> new Result<>(null, state)));
+    }
+
+    @Override
+    public Optional<SyncPartition> claim(String runId, String nodeId) {
+        Optional<SyncPartition> claimed = Optional.ofNullable(withState(state -> {
+            if (state == null || !state.getRunId().equals(runId)) {
+                return new Result<>(null, null);
+            }
+            long now = clock.getAsLong();
+            Map<String, SyncPartition.Status> statuses = new HashMap<>();
+            for (SyncPartition partition : state.getPartitions()) {
+                statuses.put(partition.getId(), partition.getStatus());
+            }
+
+            boolean changed = false;
+            for (SyncPartition partition : state.getPartitions()) {
+                boolean expired = partition.getStatus() == SyncPartition.Status.CLAIMED
+                        && now - partition.getHeartbeatAt() > leaseTimeout;
+                if (expired && partition.getAttempts() >= maxAttempts) {
+                    // The partition took down its owner on every attempt; do not hand it to another node
+                    log.error("Lease of partition {} held by {} expired after {} attempts, giving up",
+                            partition.getId(), partition.getOwner(), partition.getAttempts());
+                    partition.setStatus(SyncPartition.Status.FAILED);
+                    partition.setOwner(null);
+                    partition.setLastError("Lease expired after " + partition.getAttempts() + " attempts");
+                    statuses.put(partition.getId(), SyncPartition.Status.FAILED);
+                    changed = true;
+                    continue;
+                }
+                String dependency = partition.getStatus() == SyncPartition.Status.PENDING
+                        ? pendingDependency(partition, statuses) : null;
+                if (dependency != null) {
+                    if (statuses.get(dependency) == SyncPartition.Status.FAILED) {
+                        log.error("Partition {} cannot run because partition {} failed", partition.getId(), dependency);
+                        partition.setStatus(SyncPartition.Status.FAILED);
+                        partition.setLastError("Partition " + dependency + " failed");
+                        statuses.put(partition.getId(), SyncPartition.Status.FAILED);
+                        changed = true;
+                    }
+                    continue;
+                }
+                if (partition.getStatus() == SyncPartition.Status.PENDING || expired) {
+                    if (expired) {
+                        log.warn("Lease of partition {} held by {} expired, re-assigning to {}",
+                                partition.getId(), partition.getOwner(), nodeId);
+                    }
+                    partition.setStatus(SyncPartition.Status.CLAIMED);
+                    partition.setOwner(nodeId);
+                    partition.setClaimedAt(now);
+                    partition.setHeartbeatAt(now);
+                    partition.setAttempts(partition.getAttempts() + 1);
+                    return new Result<>(state, partition);
+                }
+            }
+            return new Result<>(changed ? state : null, null);
+        }));
+        claimed.ifPresent(partition -> partition.setObjectIds(readObjectIds(partition.getId())));
+        return claimed;
+    }
+
+    /**
+     * Find a dependency of a partition that has not completed, preferring a failed one
+     * @return ID of the dependency, or null if all dependencies completed
+     */
+    private static String pendingDependency(SyncPartition partition, Map<String, SyncPartition.Status> statuses) {
+        String pending = null;
+        if (partition.getDependsOn() != null) {
+            for (String id : partition.getDependsOn()) {
+                SyncPartition.Status status = statuses.get(id);
+                if (status == SyncPartition.Status.FAILED) {
+                    return id;
+                }
+                if (status != null && status != SyncPartition.Status.COMPLETED && pending == null) {
+                    pending = id;
+                }
+            }
+        }
+        return pending;
+    }
+
+    @Override
+    public boolean heartbeat(String partitionId, String nodeId) {
+        return withOwnedPartition(partitionId, nodeId, partition -> {
+            partition.setHeartbeatAt(clock.getAsLong());
+            return true;
+        });
+    }
+
+    @Override
+    public boolean complete(String partitionId, String nodeId, int syncedCount) {
+        return withOwnedPartition(partitionId, nodeId, partition -> {
+            partition.setStatus(SyncPartition.Status.COMPLETED);
+            partition.setSyncedCount(syncedCount);
+            partition.setLastError(null);
+            return true;
+        });
+    }
+
+    @Override
+    public void fail(String partitionId, String nodeId, String error) {
+        withOwnedPartition(partitionId, nodeId, partition -> {
+            partition.setLastError(error);
+            partition.setOwner(null);
+            if (partition.getAttempts() >= maxAttempts) {
+                log.error("Partition {} failed after {} attempts: {}", partitionId, partition.getAttempts(), error);
+                partition.setStatus(SyncPartition.Status.FAILED);
+            } else {
+                partition.setStatus(SyncPartition.Status.PENDING);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Apply a change to a partition if it is still claimed by the given node
+     */
+    private boolean withOwnedPartition(String partitionId, String nodeId, Function<SyncPartition, Boolean> change) {
+        Boolean result = withState(state -> {
+            if (state == null) {
+                return new Result<>(null, false);
+            }
+            for (SyncPartition partition : state.getPartitions()) {
+                if (partition.getId().equals(partitionId)) {
+                    if (partition.getStatus() != SyncPartition.Status.CLAIMED || !nodeId.equals(partition.getOwner())) {
+                        log.warn("Node {} no longer owns partition {}", nodeId, partitionId);
+                        return new Result<>(null, false);
+                    }
+                    return new Result<>(state, change.apply(partition));
+                }
+            }
+            return new Result<>(null, false);
+        });
+        return Boolean.TRUE.equals(result);
+    }
+
+    /**
+     * Run an operation on the queue state while holding the queue lock
+     */
+    private <T> T withState(Function<PartitionRun, Result<T>> operation) {
+        localLock.lock();
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                Result<T> result = operation.apply(readState());
+                if (result.newState != null) {
+                    writeState(result.newState);
+                }
+                return result.value;
+            }
+        } catch (IOException e) {
+            throw new SapBoApiException("Error accessing partition queue in " + directory, e);
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    private void writeObjectIds(SyncPartition partition) {
+        Path file = directory.resolve(partition.getId() + IDS_SUFFIX);
+        try {
+            objectMapper.writeValue(file.toFile(), partition.getObjectIds());
+        } catch (IOException e) {
+            throw new SapBoApiException("Error writing object IDs of partition " + partition.getId(), e);
+        }
+    }
+
+    private Map<String, List<String>> readObjectIds(String partitionId) {
+        Path file = directory.resolve(partitionId + IDS_SUFFIX);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), new TypeReference<Map<String, List<String>>>() { });
+        } catch (IOException e) {
+            throw new SapBoApiException("Error reading object IDs of partition " + partitionId, e);
+        }
+    }
+
+    /**
+     * Delete the object IDs of the previous run
+     */
+    private void deleteObjectIds() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + IDS_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete object IDs of the previous run in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private PartitionRun readState() throws IOException {
+        Path stateFile = directory.resolve(STATE_FILE);
+        if (!Files.exists(stateFile)) {
+            return null;
+        }
+        return objectMapper.readValue(stateFile.toFile(), PartitionRun.class);
+    }
+
+    private void writeState(PartitionRun state) throws IOException {
+        Path tempFile = Files.createTempFile(directory, STATE_FILE, ".tmp");
+        objectMapper.writeValue(tempFile.toFile(), state);
+        Files.move(tempFile, directory.resolve(STATE_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Outcome of a queue operation: the state to persist (null to leave it unchanged) and the return value
+     */
+    private static final class Result<T> {
+        private final PartitionRun newState;
+        private final T value;
+
+        private Result(PartitionRun newState, T value) {
+            this.newState = newState;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.sap.bo.sync.partition;
+
+import java.util.Optional;
+
+/**
+ * Shared work queue from which tool instances claim partitions of a synchronization run.
+ * Claims are leases: a partition whose owner stops sending heartbeats becomes claimable again.
+ */
+public interface PartitionQueue {
+
+    /**
+     * Publish a new run unless an unfinished run already exists
+     * @param run Run to publish
+     * @return The run that is active after the call, either the published one or the one already in progress
+     */
+    PartitionRun publish(PartitionRun run);
+
+    /**
+     * Get the run currently held by the queue
+     * @return Active run, or empty if the queue holds no run
+     */
+    Optional<PartitionRun> getActiveRun();
+
+    /**
+     * Claim the next pending partition, or a claimed partition whose lease has expired
+     * @param runId Run to claim from
+     * @param nodeId Identifier of the claiming node
+     * @return Claimed partition, or empty if nothing is claimable right now
+     */
+    Optional<SyncPartition> claim(String runId, String nodeId);
+
+    /**
+     * Renew the lease on a claimed partition
+     * @param partitionId Partition ID
+     * @param nodeId Identifier of the owning node
+     * @return false if the node no longer owns the partition
+     */
+    boolean heartbeat(String partitionId, String nodeId);
+
+    /**
+     * Mark a partition as completed
+     * @param partitionId Partition ID
+     * @param nodeId Identifier of the owning node
+     * @param syncedCount Number of objects synchronized
+     * @return false if the node no longer owns the partition
+     */
+    boolean complete(String partitionId, String nodeId, int syncedCount);
+
+    /**
+     * Release a partition after a failure so it can be retried, or mark it failed once attempts are exhausted
+     * @param partitionId Partition ID
+     * @param nodeId Identifier of the owning node
+     * @param error Failure description
+     */
+    void fail(String partitionId, String nodeId, String error);
+}
@@ -0,0 +1,76 @@
+package com.sap.bo.sync.partition;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A partitioned synchronization run as stored in the shared work queue
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PartitionRun {
+
+    private String runId;
+    private String createdBy;
+    private long createdAt;
+    private boolean forceUpdate;
+    private List<SyncPartition> partitions = new ArrayList<>();
+
+    /**
+     * A run is finished when every partition is either completed or failed
+     */
+    @JsonIgnore
+    public boolean isFinished() {
+        return partitions.stream().allMatch(SyncPartition::isFinished);
+    }
+
+    /**
+     * Total number of objects synchronized by all completed partitions
+     */
+    @JsonIgnore
+    public int getSyncedCount() {
+        return partitions.stream().mapToInt(SyncPartition::getSyncedCount).sum();
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public void setRunId(String runId) {
+        this.runId = runId;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public boolean isForceUpdate() {
+        return forceUpdate;
+    }
+
+    public void setForceUpdate(boolean forceUpdate) {
+        this.forceUpdate = forceUpdate;
+    }
+
+    public List<SyncPartition> getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(List<SyncPartition> partitions) {
+        this.partitions = partitions;
+    }
+}
@@ -0,0 +1,178 @@
+package com.sap.bo.sync.partition;
+
+import com.sap.bo.sync.config.SapBoProperties;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the work loop of a partitioned synchronization run on this node:
+ * claims partitions from the shared queue, keeps their leases alive with heartbeats
+ * while they are processed and reports the outcome back to the queue.
+ */
+@Component
+public class PartitionedSyncRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedSyncRunner.class);
+
+    /**
+     * Processes a single claimed partition.
+     * A processor checks SyncPartition.isLeaseLost while it works and stops once the lease was lost.
+     */
+    @FunctionalInterface
+    public interface PartitionProcessor {
+        /**
+         * @param partition Claimed partition
+         * @param forceUpdate Force update flag of the run
+         * @return Number of objects synchronized
+         */
+        int process(SyncPartition partition, boolean forceUpdate);
+    }
+
+    private final PartitionQueue queue;
+    private final SapBoProperties.PartitionProperties properties;
+    private final String nodeId;
+    private final ScheduledExecutorService heartbeatExecutor;
+
+    public PartitionedSyncRunner(PartitionQueue queue, SapBoProperties sapBoProperties) {
+        this.queue = queue;
+        this.properties = sapBoProperties.getSync().getPartition();
+        this.nodeId = StringUtils.isNotBlank(properties.getNodeId()) ? properties.getNodeId() : defaultNodeId();
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sap-bo-sync-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Whether partitioned synchronization is enabled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public String getStrategy() {
+        return properties.getStrategy();
+    }
+
+    public int getPartitionCount() {
+        return properties.getCount();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Publish a run (or join the one already in progress), work on it until every partition
+     * is finished and return the number of objects synchronized by all nodes
+     */
+    public int run(PartitionRun run, PartitionProcessor processor) {
+        run.setCreatedBy(nodeId);
+        run.setCreatedAt(System.currentTimeMillis());
+        PartitionRun activeRun = queue.publish(run);
+
+        work(activeRun, processor, true);
+
+        PartitionRun finishedRun = queue.getActiveRun().orElse(activeRun);
+        long failed = finishedRun.getPartitions().stream()
+                .filter(p -> p.getStatus() == SyncPartition.Status.FAILED)
+                .count();
+        if (failed > 0) {
+            log.error("Partitioned run {} finished with {} failed partitions", finishedRun.getRunId(), failed);
+        }
+        return finishedRun.getSyncedCount();
+    }
+
+    /**
+     * Claim and process partitions of the run in progress, if any, until none are left to claim
+     * @return Number of objects synchronized by this node
+     */
+    public int join(PartitionProcessor processor) {
+        Optional<PartitionRun> activeRun = queue.getActiveRun().filter(run -> !run.isFinished());
+        if (!activeRun.isPresent()) {
+            return 0;
+        }
+        log.info("Node {} joining partitioned run {}", nodeId, activeRun.get().getRunId());
+        return work(activeRun.get(), processor, false);
+    }
+
+    private int work(PartitionRun run, PartitionProcessor processor, boolean waitForCompletion) {
+        int count = 0;
+        while (true) {
+            Optional<SyncPartition> claimed = queue.claim(run.getRunId(), nodeId);
+            if (claimed.isPresent()) {
+                count += process(claimed.get(), run.isForceUpdate(), processor);
+                continue;
+            }
+            if (!waitForCompletion || queue.getActiveRun().map(PartitionRun::isFinished).orElse(true)) {
+                return count;
+            }
+            // Other nodes still hold partitions; wait and re-check so expired leases get re-assigned
+            try {
+                Thread.sleep(properties.getPollInterval());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while waiting for partitioned run {}", run.getRunId());
+                return count;
+            }
+        }
+    }
+
+    private int process(SyncPartition partition, boolean forceUpdate, PartitionProcessor processor) {
+        log.info("Node {} processing partition {} (attempt {})", nodeId, partition.getId(), partition.getAttempts());
+
+        ScheduledFuture<?> heartbeat = heartbeatExecutor.scheduleAtFixedRate(() -> {
+            try {
+                if (!queue.heartbeat(partition.getId(), nodeId)) {
+                    // Another node may own the partition now; the processor stops before its next objects
+                    log.warn("Lost lease on partition {}, stopping", partition.getId());
+                    partition.markLeaseLost();
+                }
+            } catch (Exception e) {
+                log.warn("Heartbeat for partition {} failed: {}", partition.getId(), e.getMessage());
+            }
+        }, properties.getHeartbeatInterval(), properties.getHeartbeatInterval(), TimeUnit.MILLISECONDS);
+
+        try {
+            int count = processor.process(partition, forceUpdate);
+            heartbeat.cancel(false);
+            if (queue.complete(partition.getId(), nodeId, count)) {
+                log.info("Partition {} completed with {} objects synchronized", partition.getId(), count);
+                return count;
+            }
+            return 0;
+        } catch (Exception e) {
+            heartbeat.cancel(false);
+            log.error("Error processing partition {}: {}", partition.getId(), e.getMessage());
+            queue.fail(partition.getId(), nodeId, e.getMessage());
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
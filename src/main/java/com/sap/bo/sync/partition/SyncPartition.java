@@ -0,0 +1,281 @@
+package com.sap.bo.sync.partition;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sap.bo.sync.model.SapBoObject;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A unit of work of a partitioned synchronization run.
+ * A partition either covers a range of CUID hashes, a top-level folder subtree or the objects outside all
+ * folder subtrees.
+ * Partitions listed in dependsOn must be finished before the partition can be claimed.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncPartition {
+
+    /**
+     * Lifecycle of a partition in the work queue
+     */
+    public enum Status {
+        PENDING, CLAIMED, COMPLETED, FAILED
+    }
+
+    private String id;
+    private String runId;
+    private String strategy;
+
+    // Inclusive/exclusive bounds of the unsigned 32-bit CUID hash range (hash strategy)
+    private Long hashFrom;
+    private Long hashTo;
+
+    // Root folder of the subtree (folder strategy)
+    private String folderId;
+
+    // Partition that only carries connections, which do not live in folders and are synchronized first
+    private boolean connectionsOnly;
+
+    // IDs of the objects in the partition by object type, listed once when the run is created
+    private Map<String, List<String>> objectIds;
+
+    // Partitions that must be finished first, e.g. the connections referenced by universes and reports
+    private List<String> dependsOn;
+
+    private Status status = Status.PENDING;
+    private String owner;
+    private long claimedAt;
+    private long heartbeatAt;
+    private int attempts;
+    private int syncedCount;
+    private String lastError;
+
+    // Set by the owning node when the lease was lost, so processing stops before another node writes the objects
+    @JsonIgnore
+    private volatile boolean leaseLost;
+
+    /**
+     * Create a partition covering the hash range [hashFrom, hashTo)
+     */
+    public static SyncPartition forHashRange(String runId, int index, long hashFrom, long hashTo) {
+        SyncPartition partition = new SyncPartition();
+        partition.setId(runId + "-h" + index);
+        partition.setRunId(runId);
+        partition.setStrategy("hash");
+        partition.setHashFrom(hashFrom);
+        partition.setHashTo(hashTo);
+        return partition;
+    }
+
+    /**
+     * Create a partition covering a folder subtree
+     */
+    public static SyncPartition forFolder(String runId, String folderId) {
+        SyncPartition partition = new SyncPartition();
+        partition.setId(runId + "-f" + folderId);
+        partition.setRunId(runId);
+        partition.setStrategy("folder");
+        partition.setFolderId(folderId);
+        return partition;
+    }
+
+    /**
+     * Create the partition for the objects that are not in any top-level folder subtree
+     */
+    public static SyncPartition forUnfiled(String runId) {
+        SyncPartition partition = new SyncPartition();
+        partition.setId(runId + "-unfiled");
+        partition.setRunId(runId);
+        partition.setStrategy("folder");
+        return partition;
+    }
+
+    /**
+     * Create the partition that carries all connections of a run
+     */
+    public static SyncPartition forConnections(String runId) {
+        SyncPartition partition = new SyncPartition();
+        partition.setId(runId + "-connections");
+        partition.setRunId(runId);
+        partition.setStrategy("connections");
+        partition.setConnectionsOnly(true);
+        return partition;
+    }
+
+    /**
+     * Unsigned 32-bit hash used to assign an object to a hash partition.
+     * String.hashCode is specified by the JLS, so every node computes the same value.
+     */
+    public static long hashOf(SapBoObject object) {
+        String key = object.getCuid() != null ? object.getCuid() : object.getId();
+        return key == null ? 0L : key.hashCode() & 0xffffffffL;
+    }
+
+    /**
+     * Check whether an object belongs to this hash partition
+     */
+    public boolean containsHash(SapBoObject object) {
+        if (hashFrom == null || hashTo == null) {
+            return true;
+        }
+        long hash = hashOf(object);
+        return hash >= hashFrom && hash < hashTo;
+    }
+
+    /**
+     * IDs of the objects of one type in this partition
+     * @param type Object type: connection, universe or report
+     * @return IDs, or null if the partition was created without listing its objects
+     */
+    public List<String> getObjectIds(String type) {
+        return objectIds != null ? objectIds.get(type) : null;
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public void setRunId(String runId) {
+        this.runId = runId;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    public Long getHashFrom() {
+        return hashFrom;
+    }
+
+    public void setHashFrom(Long hashFrom) {
+        this.hashFrom = hashFrom;
+    }
+
+    public Long getHashTo() {
+        return hashTo;
+    }
+
+    public void setHashTo(Long hashTo) {
+        this.hashTo = hashTo;
+    }
+
+    public String getFolderId() {
+        return folderId;
+    }
+
+    public void setFolderId(String folderId) {
+        this.folderId = folderId;
+    }
+
+    public boolean isConnectionsOnly() {
+        return connectionsOnly;
+    }
+
+    public void setConnectionsOnly(boolean connectionsOnly) {
+        this.connectionsOnly = connectionsOnly;
+    }
+
+    public Map<String, List<String>> getObjectIds() {
+        return objectIds;
+    }
+
+    public void setObjectIds(Map<String, List<String>> objectIds) {
+        this.objectIds = objectIds;
+    }
+
+    public List<String> getDependsOn() {
+        return dependsOn;
+    }
+
+    public void setDependsOn(List<String> dependsOn) {
+        this.dependsOn = dependsOn;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public long getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(long claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    public long getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(long heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public int getSyncedCount() {
+        return syncedCount;
+    }
+
+    public void setSyncedCount(int syncedCount) {
+        this.syncedCount = syncedCount;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    /**
+     * Whether this node lost the lease while processing the partition
+     */
+    @JsonIgnore
+    public boolean isLeaseLost() {
+        return leaseLost;
+    }
+
+    public void markLeaseLost() {
+        this.leaseLost = true;
+    }
+}
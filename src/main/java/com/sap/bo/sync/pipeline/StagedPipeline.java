@@ -0,0 +1,228 @@
+package com.sap.bo.sync.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Producer/consumer pipeline of processing stages connected by bounded queues.
+ *
+ * The producer runs on the calling thread and every stage has its own worker threads. A full queue
+ * blocks the stage feeding it, so a slow stage throttles everything upstream down to the producer
+ * instead of letting items pile up in memory. A stage drops an item by returning null; an item whose
+ * stage throws is logged and dropped as well. Items do not keep their order.
+ *
+ * @param <T> Type of the items passed between stages
+ */
+public class StagedPipeline<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(StagedPipeline.class);
+
+    // Marks the end of a queue; every worker of the consuming stage receives one
+    private static final Object END = new Object();
+
+    private final String name;
+    private final int queueCapacity;
+    private final List<Stage<T>> stages = new ArrayList<>();
+
+    /**
+     * @param name Pipeline name, used for thread names and logging
+     * @param queueCapacity Maximum number of items waiting in front of each stage
+     */
+    public StagedPipeline(String name, int queueCapacity) {
+        this.name = name;
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * Append a stage
+     * @param stageName Stage name, used for thread names and logging
+     * @param workers Number of threads processing items of this stage
+     * @param function Processing step returning the item for the next stage, or null to drop it
+     * @return This pipeline
+     */
+    public StagedPipeline<T> stage(String stageName, int workers, UnaryOperator<T> function) {
+        stages.add(new Stage<>(stageName, Math.max(1, workers), function));
+        return this;
+    }
+
+    /**
+     * Run the pipeline until the producer is done and all emitted items have passed through every stage
+     * @param producer Emits items into the first stage; may block when the pipeline is saturated
+     * @return Number of items that passed the last stage
+     * @throws IllegalStateException if a worker was interrupted, which stops all workers
+     */
+    public int run(Consumer<Consumer<T>> producer) {
+        if (stages.isEmpty()) {
+            throw new IllegalStateException("Pipeline " + name + " has no stages");
+        }
+
+        List<BlockingQueue<Object>> queues = new ArrayList<>();
+        int totalWorkers = 0;
+        for (Stage<T> stage : stages) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+            stage.running.set(stage.workers);
+            totalWorkers += stage.workers;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(totalWorkers, runnable -> {
+            Thread thread = new Thread(runnable, name + "-pipeline-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicBoolean aborted = new AtomicBoolean();
+        AtomicLong completed = new AtomicLong();
+
+        for (int i = 0; i < stages.size(); i++) {
+            for (int w = 0; w < stages.get(i).workers; w++) {
+                int index = i;
+                pool.execute(() -> work(index, queues, pool, aborted, completed));
+            }
+        }
+
+        long emitted = 0;
+        try {
+            AtomicLong counter = new AtomicLong();
+            producer.accept(item -> {
+                if (item != null) {
+                    put(queues.get(0), item, pool);
+                    counter.incrementAndGet();
+                }
+            });
+            emitted = counter.get();
+        } catch (RuntimeException e) {
+            // Workers discard what is still queued so the pipeline can drain
+            aborted.set(true);
+            throw e;
+        } finally {
+            try {
+                for (int w = 0; w < stages.get(0).workers; w++) {
+                    put(queues.get(0), END, pool);
+                }
+                pool.shutdown();
+                while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                    log.debug("Waiting for pipeline {} to drain", name);
+                }
+            } catch (RuntimeException e) {
+                pool.shutdownNow();
+            } catch (InterruptedException e) {
+                pool.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (aborted.get()) {
+            throw new IllegalStateException("Pipeline " + name + " was aborted after a worker was interrupted");
+        }
+
+        for (Stage<T> stage : stages) {
+            log.info("Pipeline {} stage {}: {} processed, {} dropped, {} failed",
+                    name, stage.name, stage.processed.get(), stage.dropped.get(), stage.failed.get());
+        }
+        log.info("Pipeline {} completed {} of {} items", name, completed.get(), emitted);
+        return (int) completed.get();
+    }
+
+    /**
+     * Number of items whose stage threw, over all stages and runs
+     */
+    public long getFailed() {
+        long failed = 0;
+        for (Stage<T> stage : stages) {
+            failed += stage.failed.get();
+        }
+        return failed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void work(int index, List<BlockingQueue<Object>> queues, ExecutorService pool, AtomicBoolean aborted,
+                      AtomicLong completed) {
+        Stage<T> stage = stages.get(index);
+        BlockingQueue<Object> input = queues.get(index);
+        BlockingQueue<Object> output = index + 1 < queues.size() ? queues.get(index + 1) : null;
+        try {
+            Object item;
+            while ((item = input.take()) != END) {
+                if (aborted.get()) {
+                    continue;
+                }
+                T result;
+                try {
+                    result = stage.function.apply((T) item);
+                } catch (Exception e) {
+                    log.error("Pipeline {} stage {} failed for {}: {}", name, stage.name, item, e.getMessage());
+                    stage.failed.incrementAndGet();
+                    continue;
+                }
+                if (result == null) {
+                    stage.dropped.incrementAndGet();
+                    continue;
+                }
+                stage.processed.incrementAndGet();
+                if (output != null) {
+                    output.put(result);
+                } else {
+                    completed.incrementAndGet();
+                }
+            }
+            // The last worker of a stage to finish closes the next queue
+            if (stage.running.decrementAndGet() == 0 && output != null) {
+                for (int w = 0; w < stages.get(index + 1).workers; w++) {
+                    output.put(END);
+                }
+            }
+        } catch (InterruptedException e) {
+            // This worker can neither pass items on nor close the next queue, so the other workers are
+            // stopped as well rather than left waiting for items that never come
+            log.error("Pipeline {} stage {} was interrupted, aborting", name, stage.name);
+            aborted.set(true);
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Feed the first queue, giving up once the workers were stopped
+     */
+    private static void put(BlockingQueue<Object> queue, Object item, ExecutorService pool) {
+        try {
+            while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                if (pool.isShutdown()) {
+                    throw new IllegalStateException("Pipeline was aborted");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while feeding pipeline", e);
+        }
+    }
+
+    private static final class Stage<T> {
+        private final String name;
+        private final int workers;
+        private final UnaryOperator<T> function;
+        private final AtomicInteger running;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        private Stage(String name, int workers, UnaryOperator<T> function) {
+            this.name = name;
+            this.workers = workers;
+            this.function = function;
+            this.running = new AtomicInteger();
+        }
+    }
+}
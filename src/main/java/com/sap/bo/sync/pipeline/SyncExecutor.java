@@ -0,0 +1,151 @@
+package com.sap.bo.sync.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the per-object transfers of the sync engine.
+ *
+ * In platform mode tasks run on a fixed pool of platform threads. In virtual mode every task gets its own
+ * virtual thread and concurrency is bounded by a semaphore instead of the pool size, so blocking REST calls
+ * do not tie up carrier threads. Virtual threads are looked up reflectively, and JDKs without them fall back
+ * to platform mode. In both modes tasks start in the order they were submitted.
+ */
+public class SyncExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncExecutor.class);
+
+    public static final String MODE_PLATFORM = "platform";
+    public static final String MODE_VIRTUAL = "virtual";
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final boolean virtual;
+    private final int maxConcurrency;
+
+    private SyncExecutor(ExecutorService executor, Semaphore permits, boolean virtual, int maxConcurrency) {
+        this.executor = executor;
+        this.permits = permits;
+        this.virtual = virtual;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Create an executor
+     * @param mode "virtual" for virtual threads if the JDK supports them, otherwise platform threads
+     * @param maxConcurrency Maximum number of tasks running at the same time
+     */
+    public static SyncExecutor create(String mode, int maxConcurrency) {
+        int concurrency = Math.max(1, maxConcurrency);
+        if (MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            ExecutorService virtualExecutor = newVirtualThreadExecutor();
+            if (virtualExecutor != null) {
+                log.info("Sync executor uses virtual threads with at most {} concurrent transfers", concurrency);
+                // Fair, so that transfers start in the order they were submitted
+                return new SyncExecutor(virtualExecutor, new Semaphore(concurrency, true), true, concurrency);
+            }
+            log.warn("Virtual threads are not available on Java {}, falling back to platform threads",
+                    System.getProperty("java.version"));
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "sync-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Sync executor uses {} platform threads", concurrency);
+        return new SyncExecutor(pool, null, false, concurrency);
+    }
+
+    /**
+     * Create an executor that runs every task on the calling thread
+     */
+    public static SyncExecutor callerRuns() {
+        return new SyncExecutor(null, null, false, 1);
+    }
+
+    /**
+     * Run a task asynchronously
+     * @param task Task producing a result
+     * @return Future completed with the result of the task
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        if (permits == null) {
+            return CompletableFuture.supplyAsync(task, executor);
+        }
+        // The permit is taken on the virtual thread, where blocking is cheap
+        return CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                return task.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Check whether tasks run on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Stop accepting tasks and wait briefly for running ones
+     */
+    public void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Check whether the running JDK has virtual threads, i.e. whether virtual mode would use them
+     */
+    public static boolean virtualThreadsAvailable() {
+        ExecutorService executor = newVirtualThreadExecutor();
+        if (executor == null) {
+            return false;
+        }
+        executor.shutdown();
+        return true;
+    }
+
+    /**
+     * Create a virtual-thread-per-task executor, or return null if the running JDK has none
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            // Missing before Java 19 and a disabled preview feature on Java 19 and 20
+            return null;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.sap.bo.sync.pipeline;
+
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.model.SapBoObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Order in which the objects of a sync are handed to the sync workers, so that important objects reach
+ * the target first.
+ *
+ * The rules are applied in the configured order until one tells two objects apart:
+ * "ids" puts the objects of the explicit priority list first, in list order; "folders" puts objects under
+ * the configured folder path prefixes first, earlier prefixes first; "types" does the same for object
+ * types; "modified" puts the most recently modified objects first, or the oldest first. Sorting is stable,
+ * so objects that no rule tells apart keep the order of the listing.
+ *
+ * Lists that are already in memory are sorted; a stream of objects is reordered by a Buffer, which holds a
+ * bounded window of objects and is exact only while the window holds the whole stream.
+ */
+public class SyncPriority {
+
+    public static final String RULE_IDS = "ids";
+    public static final String RULE_FOLDERS = "folders";
+    public static final String RULE_TYPES = "types";
+    public static final String RULE_MODIFIED = "modified";
+
+    private static final SyncPriority LISTING_ORDER = new SyncPriority(null);
+
+    // Null if objects keep the order of the listing
+    private final Comparator<SapBoObject> comparator;
+
+    private SyncPriority(Comparator<SapBoObject> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Create the order defined by the given rules
+     * @param properties Priority rules, or null to keep the order of the listing
+     * @throws IllegalArgumentException if a rule name is unknown
+     */
+    public static SyncPriority of(SapBoProperties.PriorityProperties properties) {
+        if (properties == null || !properties.isEnabled() || properties.getRules() == null) {
+            return LISTING_ORDER;
+        }
+
+        Comparator<SapBoObject> comparator = null;
+        for (String rule : properties.getRules()) {
+            Comparator<SapBoObject> next;
+            switch (rule.trim().toLowerCase(Locale.ROOT)) {
+                case RULE_IDS:
+                    next = Comparator.comparingInt(idRank(properties.getIds()));
+                    break;
+                case RULE_FOLDERS:
+                    next = Comparator.comparingInt(folderRank(properties.getFolders()));
+                    break;
+                case RULE_TYPES:
+                    next = Comparator.comparingInt(typeRank(properties.getTypes()));
+                    break;
+                case RULE_MODIFIED:
+                    next = modified(properties.isRecentFirst());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown sync priority rule: " + rule + ", expected one of "
+                            + RULE_IDS + ", " + RULE_FOLDERS + ", " + RULE_TYPES + ", " + RULE_MODIFIED);
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator != null ? new SyncPriority(comparator) : LISTING_ORDER;
+    }
+
+    /**
+     * Check whether objects are reordered at all
+     */
+    public boolean isEnabled() {
+        return comparator != null;
+    }
+
+    /**
+     * Sort objects into the order in which they should be transferred
+     * @return New sorted list, or the given list if priorities are disabled
+     */
+    public <T extends SapBoObject> List<T> sort(List<T> objects) {
+        if (comparator == null || objects.size() < 2) {
+            return objects;
+        }
+        List<T> sorted = new ArrayList<>(objects);
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    /**
+     * Create a buffer that reorders a stream of objects within a window of at most capacity objects
+     * @param capacity Objects held before the first one is passed on
+     * @param downstream Receives the objects in priority order within the window
+     */
+    public <T extends SapBoObject> Buffer<T> buffer(int capacity, Consumer<? super T> downstream) {
+        return new Buffer<>(comparator, Math.max(1, capacity), downstream);
+    }
+
+    /**
+     * Passes objects on in priority order. Once the window is full, every new object passes on the object
+     * of the highest priority in the window; flush passes on the rest. Without priorities objects are passed
+     * on right away.
+     */
+    public static final class Buffer<T extends SapBoObject> implements Consumer<T> {
+        private final Comparator<SapBoObject> comparator;
+        private final int capacity;
+        private final Consumer<? super T> downstream;
+        private final PriorityQueue<Sequenced<T>> window;
+        private long sequence;
+
+        private Buffer(Comparator<SapBoObject> comparator, int capacity, Consumer<? super T> downstream) {
+            this.comparator = comparator;
+            this.capacity = capacity;
+            this.downstream = downstream;
+            // Objects that no rule tells apart keep the order in which they were added
+            this.window = comparator == null ? null : new PriorityQueue<>(Math.min(capacity, 1024),
+                    Comparator.<Sequenced<T>, SapBoObject>comparing(entry -> entry.object, comparator)
+                            .thenComparingLong(entry -> entry.sequence));
+        }
+
+        @Override
+        public void accept(T object) {
+            if (comparator == null) {
+                downstream.accept(object);
+                return;
+            }
+            window.add(new Sequenced<>(object, sequence++));
+            if (window.size() > capacity) {
+                downstream.accept(window.poll().object);
+            }
+        }
+
+        /**
+         * Pass on all objects still in the window
+         */
+        public void flush() {
+            if (window != null) {
+                while (!window.isEmpty()) {
+                    downstream.accept(window.poll().object);
+                }
+            }
+        }
+    }
+
+    private static final class Sequenced<T> {
+        private final T object;
+        private final long sequence;
+
+        private Sequenced(T object, long sequence) {
+            this.object = object;
+            this.sequence = sequence;
+        }
+    }
+
+    private static ToIntFunction<SapBoObject> idRank(List<String> ids) {
+        Map<String, Integer> ranks = ranks(ids, false);
+        return object -> Math.min(ranks.getOrDefault(object.getId(), Integer.MAX_VALUE),
+                ranks.getOrDefault(object.getCuid(), Integer.MAX_VALUE));
+    }
+
+    private static ToIntFunction<SapBoObject> typeRank(List<String> types) {
+        Map<String, Integer> ranks = ranks(types, true);
+        return object -> object.getType() != null
+                ? ranks.getOrDefault(object.getType().toLowerCase(Locale.ROOT), Integer.MAX_VALUE)
+                : Integer.MAX_VALUE;
+    }
+
+    private static ToIntFunction<SapBoObject> folderRank(List<String> folders) {
+        List<String> prefixes = new ArrayList<>();
+        if (folders != null) {
+            for (String folder : folders) {
+                String prefix = folder.trim().toLowerCase(Locale.ROOT);
+                while (prefix.endsWith("/")) {
+                    prefix = prefix.substring(0, prefix.length() - 1);
+                }
+                if (!prefix.isEmpty()) {
+                    prefixes.add(prefix);
+                }
+            }
+        }
+        return object -> {
+            if (object.getPath() == null) {
+                return Integer.MAX_VALUE;
+            }
+            String path = object.getPath().toLowerCase(Locale.ROOT);
+            for (int i = 0; i < prefixes.size(); i++) {
+                // "/Finance" matches /Finance and everything below it, but not /FinanceArchive
+                String prefix = prefixes.get(i);
+                if (path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                    return i;
+                }
+            }
+            return Integer.MAX_VALUE;
+        };
+    }
+
+    private static Comparator<SapBoObject> modified(boolean recentFirst) {
+        return (a, b) -> {
+            long left = a.getModifiedMillis();
+            long right = b.getModifiedMillis();
+            // Objects without a modification time go last either way
+            if (left == SapBoObject.NO_TIMESTAMP || right == SapBoObject.NO_TIMESTAMP) {
+                return Boolean.compare(left == SapBoObject.NO_TIMESTAMP, right == SapBoObject.NO_TIMESTAMP);
+            }
+            return recentFirst ? Long.compare(right, left) : Long.compare(left, right);
+        };
+    }
+
+    private static Map<String, Integer> ranks(List<String> values, boolean ignoreCase) {
+        Map<String, Integer> ranks = new HashMap<>();
+        if (values != null) {
+            for (String value : values) {
+                String key = ignoreCase ? value.trim().toLowerCase(Locale.ROOT) : value.trim();
+                if (!key.isEmpty()) {
+                    ranks.putIfAbsent(key, ranks.size());
+                }
+            }
+        }
+        return ranks;
+    }
+}
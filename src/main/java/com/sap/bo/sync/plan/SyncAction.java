@@ -0,0 +1,133 @@
+package com.sap.bo.sync.plan;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single step of a sync plan: creating, updating or deleting one object in the target environment
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class SyncAction {
+
+    /**
+     * Kind of change applied to the target
+     */
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+
+    private int id;
+    private Type type;
+    private String objectType; // "folder", "connection", "universe" or "report"
+    private String objectId; // Source ID for creates and updates, target ID for deletes
+    private String name;
+
+    // Folder placement: the parent is either created by an earlier action or already exists in the target
+    private String path;
+    private String parentPath;
+    private String targetParentId;
+
+    private long size; // Serialized size of the object in bytes
+    private List<Integer> dependsOn = new ArrayList<>();
+
+    // Source object as read at planning time; applying a plan does not read the source again
+    private JsonNode payload;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getObjectType() {
+        return objectType;
+    }
+
+    public void setObjectType(String objectType) {
+        this.objectType = objectType;
+    }
+
+    public String getObjectId() {
+        return objectId;
+    }
+
+    public void setObjectId(String objectId) {
+        this.objectId = objectId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getParentPath() {
+        return parentPath;
+    }
+
+    public void setParentPath(String parentPath) {
+        this.parentPath = parentPath;
+    }
+
+    public String getTargetParentId() {
+        return targetParentId;
+    }
+
+    public void setTargetParentId(String targetParentId) {
+        this.targetParentId = targetParentId;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public List<Integer> getDependsOn() {
+        return dependsOn;
+    }
+
+    public void setDependsOn(List<Integer> dependsOn) {
+        this.dependsOn = dependsOn;
+    }
+
+    public JsonNode getPayload() {
+        return payload;
+    }
+
+    public void setPayload(JsonNode payload) {
+        this.payload = payload;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + objectType + " " + (name != null ? name : objectId);
+    }
+}
@@ -0,0 +1,104 @@
+package com.sap.bo.sync.plan;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed differences between the source and target environments.
+ * Actions are ordered so that every action comes after the actions it depends on.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncPlan {
+
+    private String planId;
+    private Date createdAt;
+    private String sourceUrl;
+    private String targetUrl;
+    private boolean forceUpdate;
+    private boolean includeDeletes;
+    private List<SyncAction> actions = new ArrayList<>();
+
+    /**
+     * Count the actions per action type and object type, e.g. "CREATE report"
+     */
+    @JsonIgnore
+    public Map<String, Integer> getActionCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (SyncAction action : actions) {
+            counts.merge(action.getType() + " " + action.getObjectType(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Total serialized size of all objects written by the plan
+     */
+    @JsonIgnore
+    public long getTotalSize() {
+        return actions.stream().mapToLong(SyncAction::getSize).sum();
+    }
+
+    public String getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(String planId) {
+        this.planId = planId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getSourceUrl() {
+        return sourceUrl;
+    }
+
+    public void setSourceUrl(String sourceUrl) {
+        this.sourceUrl = sourceUrl;
+    }
+
+    public String getTargetUrl() {
+        return targetUrl;
+    }
+
+    public void setTargetUrl(String targetUrl) {
+        this.targetUrl = targetUrl;
+    }
+
+    public boolean isForceUpdate() {
+        return forceUpdate;
+    }
+
+    public void setForceUpdate(boolean forceUpdate) {
+        this.forceUpdate = forceUpdate;
+    }
+
+    public boolean isIncludeDeletes() {
+        return includeDeletes;
+    }
+
+    public void setIncludeDeletes(boolean includeDeletes) {
+        this.includeDeletes = includeDeletes;
+    }
+
+    public List<SyncAction> getActions() {
+        return actions;
+    }
+
+    public void setActions(List<SyncAction> actions) {
+        this.actions = actions;
+    }
+}
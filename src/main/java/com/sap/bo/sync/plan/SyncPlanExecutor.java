@@ -0,0 +1,173 @@
+package com.sap.bo.sync.plan;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.model.Universe;
+import com.sap.bo.sync.pipeline.SyncExecutor;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies a sync plan to the target environment.
+ *
+ * Every action starts as soon as the actions it depends on have succeeded, so independent actions run with
+ * the full concurrency of the sync executor. Actions whose dependencies failed are skipped. Only the target
+ * environment is contacted; the objects to write are taken from the plan.
+ */
+@Component
+public class SyncPlanExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncPlanExecutor.class);
+
+    private enum Outcome {
+        SUCCEEDED, FAILED, SKIPPED
+    }
+
+    private final SapBoServiceFactory serviceFactory;
+    private final ObjectMapper objectMapper;
+    private final SyncExecutor syncExecutor;
+
+    public SyncPlanExecutor(SapBoServiceFactory serviceFactory, ObjectMapper objectMapper, SyncExecutor syncExecutor) {
+        this.serviceFactory = serviceFactory;
+        this.objectMapper = objectMapper;
+        this.syncExecutor = syncExecutor != null ? syncExecutor : SyncExecutor.callerRuns();
+    }
+
+    /**
+     * Apply all actions of a plan
+     * @param plan Plan to apply
+     * @return Counts of succeeded, failed and skipped actions
+     */
+    public SyncPlanResult apply(SyncPlan plan) {
+        log.info("Applying sync plan {} with {} actions", plan.getPlanId(), plan.getActions().size());
+        long start = System.currentTimeMillis();
+
+        SapBoService targetService = serviceFactory.getTargetService();
+        Map<String, String> createdFolderIds = new ConcurrentHashMap<>();
+        Map<Integer, String> errors = new ConcurrentHashMap<>();
+        Map<Integer, CompletableFuture<Outcome>> outcomes = new HashMap<>();
+
+        // Actions come after their dependencies, so the futures of all dependencies already exist
+        for (SyncAction action : plan.getActions()) {
+            List<CompletableFuture<Outcome>> dependencies = new ArrayList<>();
+            for (Integer dependencyId : action.getDependsOn()) {
+                CompletableFuture<Outcome> dependency = outcomes.get(dependencyId);
+                if (dependency == null) {
+                    throw new SapBoApiException("Action " + action.getId() + " depends on unknown or later action " + dependencyId);
+                }
+                dependencies.add(dependency);
+            }
+
+            CompletableFuture<Outcome> outcome = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]))
+                    .thenCompose(ignored -> {
+                        if (dependencies.stream().anyMatch(dependency -> dependency.join() != Outcome.SUCCEEDED)) {
+                            log.warn("Skipping {} because a dependency was not applied", action);
+                            return CompletableFuture.completedFuture(Outcome.SKIPPED);
+                        }
+                        return syncExecutor.supplyAsync(() -> execute(action, targetService, createdFolderIds, errors));
+                    });
+            outcomes.put(action.getId(), outcome);
+        }
+
+        SyncPlanResult result = new SyncPlanResult();
+        result.setPlanId(plan.getPlanId());
+        for (CompletableFuture<Outcome> outcome : outcomes.values()) {
+            switch (outcome.join()) {
+                case SUCCEEDED:
+                    result.setSucceeded(result.getSucceeded() + 1);
+                    break;
+                case FAILED:
+                    result.setFailed(result.getFailed() + 1);
+                    break;
+                default:
+                    result.setSkipped(result.getSkipped() + 1);
+            }
+        }
+        result.getErrors().putAll(errors);
+        result.setDurationMillis(System.currentTimeMillis() - start);
+
+        log.info("Applied sync plan {} in {} ms: {} succeeded, {} failed, {} skipped", plan.getPlanId(),
+                result.getDurationMillis(), result.getSucceeded(), result.getFailed(), result.getSkipped());
+        return result;
+    }
+
+    private Outcome execute(SyncAction action, SapBoService targetService, Map<String, String> createdFolderIds,
+                            Map<Integer, String> errors) {
+        try {
+            if (action.getType() == SyncAction.Type.DELETE) {
+                delete(action, targetService);
+            } else {
+                write(action, targetService, createdFolderIds);
+            }
+            log.debug("Applied {}", action);
+            return Outcome.SUCCEEDED;
+        } catch (Exception e) {
+            log.error("Error applying {}: {}", action, e.getMessage());
+            errors.put(action.getId(), e.getMessage());
+            return Outcome.FAILED;
+        }
+    }
+
+    /**
+     * Create or update the object of an action in the target
+     * @param createdFolderIds Target IDs of the folders created so far by path; a created folder is added
+     */
+    public void write(SyncAction action, SapBoService targetService, Map<String, String> createdFolderIds)
+            throws JsonProcessingException {
+        switch (action.getObjectType()) {
+            case "folder":
+                SapBoObject folder = objectMapper.treeToValue(action.getPayload(), SapBoObject.class);
+                folder.setParentId(action.getTargetParentId() != null
+                        ? action.getTargetParentId()
+                        : createdFolderIds.get(action.getParentPath()));
+                SapBoObject created = targetService.createFolder(folder);
+                if (created == null || created.getId() == null) {
+                    // Actions in the folder and its subfolders need its ID, so they are skipped
+                    throw new SapBoApiException("No folder ID returned for " + action.getPath());
+                }
+                createdFolderIds.put(action.getPath(), created.getId());
+                break;
+            case "connection":
+                targetService.saveConnection(objectMapper.treeToValue(action.getPayload(), Connection.class));
+                break;
+            case "universe":
+                targetService.saveUniverse(objectMapper.treeToValue(action.getPayload(), Universe.class));
+                break;
+            case "report":
+                targetService.saveReport(objectMapper.treeToValue(action.getPayload(), Report.class));
+                break;
+            default:
+                throw new SapBoApiException("Unsupported object type: " + action.getObjectType());
+        }
+    }
+
+    private void delete(SyncAction action, SapBoService targetService) {
+        switch (action.getObjectType()) {
+            case "connection":
+                targetService.deleteConnection(action.getObjectId());
+                break;
+            case "universe":
+                targetService.deleteUniverse(action.getObjectId());
+                break;
+            case "report":
+                targetService.deleteReport(action.getObjectId());
+                break;
+            default:
+                throw new SapBoApiException("Unsupported object type for delete: " + action.getObjectType());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.sap.bo.sync.plan;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of applying a sync plan
+ */
+public class SyncPlanResult {
+
+    private String planId;
+    private int succeeded;
+    private int failed;
+    private int skipped;
+    private long durationMillis;
+
+    // Error message per failed action ID
+    private Map<Integer, String> errors = new LinkedHashMap<>();
+
+    public String getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(String planId) {
+        this.planId = planId;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public Map<Integer, String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<Integer, String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,86 @@
+package com.sap.bo.sync.plan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores sync plans as gzip-compressed JSON files in the configured plan directory
+ */
+@Component
+public class SyncPlanStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncPlanStore.class);
+
+    private final Path planDir;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public SyncPlanStore(SapBoProperties sapBoProperties, ObjectMapper objectMapper) {
+        this(Paths.get(sapBoProperties.getSync().getPlan().getDir()), objectMapper);
+    }
+
+    SyncPlanStore(Path planDir, ObjectMapper objectMapper) {
+        this.planDir = planDir;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Save a plan, replacing an earlier plan with the same ID
+     * @return Path of the plan file
+     */
+    public Path save(SyncPlan plan) {
+        try {
+            Files.createDirectories(planDir);
+            Path file = fileOf(plan.getPlanId());
+            Path temp = Files.createTempFile(planDir, plan.getPlanId(), ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                objectMapper.writeValue(out, plan);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Saved sync plan {} to {} ({} bytes)", plan.getPlanId(), file, Files.size(file));
+            return file;
+        } catch (IOException e) {
+            throw new SapBoApiException("Failed to save sync plan " + plan.getPlanId(), e);
+        }
+    }
+
+    /**
+     * Load a saved plan
+     * @param planId Plan ID
+     * @return Plan
+     */
+    public SyncPlan load(String planId) {
+        Path file = fileOf(planId);
+        if (!Files.isRegularFile(file)) {
+            throw new SapBoApiException("Sync plan not found: " + planId);
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return objectMapper.readValue(in, SyncPlan.class);
+        } catch (IOException e) {
+            throw new SapBoApiException("Failed to load sync plan " + planId, e);
+        }
+    }
+
+    private Path fileOf(String planId) {
+        // Plan IDs are generated UUIDs; anything else must not escape the plan directory
+        if (planId == null || !planId.matches("[A-Za-z0-9-]+")) {
+            throw new SapBoApiException("Invalid sync plan ID: " + planId);
+        }
+        return planDir.resolve(planId + ".json.gz");
+    }
+}
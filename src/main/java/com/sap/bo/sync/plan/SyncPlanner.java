@@ -0,0 +1,262 @@
+package com.sap.bo.sync.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.FolderTree;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.model.Universe;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Computes sync plans by comparing the complete source and target inventories.
+ *
+ * Objects are matched by ID. A source object missing in the target becomes a create, and an existing one
+ * becomes an update when forced or when the source copy was modified later. Target objects missing in the
+ * source become deletes only on request. Dependencies follow the object model: folders on their parent,
+ * universes on their connection and reports on their universe; deletes run in the opposite direction.
+ */
+@Component
+public class SyncPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncPlanner.class);
+
+    private final SapBoServiceFactory serviceFactory;
+    private final SapBoProperties sapBoProperties;
+    private final ObjectMapper objectMapper;
+
+    public SyncPlanner(SapBoServiceFactory serviceFactory, SapBoProperties sapBoProperties, ObjectMapper objectMapper) {
+        this.serviceFactory = serviceFactory;
+        this.sapBoProperties = sapBoProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Compare source and target and record the actions needed to bring the target up to date
+     * @param forceUpdate If true, plan updates for all objects that exist in both environments
+     * @param includeDeletes If true, plan deletes for reports, universes and connections missing in the source
+     * @return Sync plan
+     */
+    public SyncPlan createPlan(boolean forceUpdate, boolean includeDeletes) {
+        log.info("Creating sync plan with forceUpdate={}, includeDeletes={}", forceUpdate, includeDeletes);
+
+        SapBoService sourceService = serviceFactory.getSourceService();
+        SapBoService targetService = serviceFactory.getTargetService();
+
+        SyncPlan plan = new SyncPlan();
+        plan.setPlanId(UUID.randomUUID().toString());
+        plan.setCreatedAt(new Date());
+        plan.setSourceUrl(sapBoProperties.getSource().getUrl());
+        plan.setTargetUrl(sapBoProperties.getTarget().getUrl());
+        plan.setForceUpdate(forceUpdate);
+        plan.setIncludeDeletes(includeDeletes);
+
+        try {
+            FolderTree sourceTree = FolderTree.of(sourceService.getFolders(null));
+            Map<String, SyncAction> folderActions = planFolders(plan, sourceTree, FolderTree.of(targetService.getFolders(null)));
+
+            Map<String, Connection> targetConnections = byId(targetService.getConnections(null, null));
+            Map<String, Universe> targetUniverses = byId(targetService.getUniverses(null, null, null));
+            Map<String, Report> targetReports = byId(targetService.getReports(null, null, null));
+            Map<String, Connection> sourceConnections = byId(sourceService.getConnections(null, null));
+            Map<String, Universe> sourceUniverses = byId(sourceService.getUniverses(null, null, null));
+            Map<String, Report> sourceReports = byId(sourceService.getReports(null, null, null));
+
+            Map<String, SyncAction> connectionActions = planObjects(plan, "connection", sourceConnections, targetConnections,
+                    forceUpdate, connection -> null, new HashMap<>(), sourceTree, new HashMap<>());
+            Map<String, SyncAction> universeActions = planObjects(plan, "universe", sourceUniverses, targetUniverses,
+                    forceUpdate, Universe::getConnectionId, connectionActions, sourceTree, folderActions);
+            planObjects(plan, "report", sourceReports, targetReports, forceUpdate, Report::getUniverseId, universeActions,
+                    sourceTree, folderActions);
+
+            if (includeDeletes) {
+                Map<String, List<SyncAction>> reportDeletes = planDeletes(plan, "report", sourceReports, targetReports,
+                        Report::getUniverseId, new HashMap<>());
+                Map<String, List<SyncAction>> universeDeletes = planDeletes(plan, "universe", sourceUniverses, targetUniverses,
+                        Universe::getConnectionId, reportDeletes);
+                planDeletes(plan, "connection", sourceConnections, targetConnections, connection -> null, universeDeletes);
+            }
+        } catch (SapBoApiException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SapBoApiException("Failed to create sync plan", e);
+        }
+
+        log.info("Sync plan {} has {} actions ({} bytes): {}", plan.getPlanId(), plan.getActions().size(),
+                plan.getTotalSize(), plan.getActionCounts());
+        return plan;
+    }
+
+    /**
+     * Plan creates of the folders missing in the target
+     * @return Planned folder creates by path
+     */
+    private Map<String, SyncAction> planFolders(SyncPlan plan, FolderTree sourceTree, FolderTree targetTree) {
+        Map<String, SyncAction> actionsByPath = new HashMap<>();
+        for (List<SapBoObject> level : sourceTree.missingIn(targetTree)) {
+            for (SapBoObject folder : level) {
+                String path = sourceTree.getPath(folder.getId());
+                String parentPath = FolderTree.parentPath(path);
+
+                SapBoObject newFolder = new SapBoObject();
+                newFolder.setName(folder.getName());
+                newFolder.setDescription(folder.getDescription());
+                newFolder.setType(folder.getType());
+                newFolder.setCuid(folder.getCuid());
+                newFolder.setParentCuid(folder.getParentCuid());
+                newFolder.setPath(path);
+
+                SyncAction action = newAction(plan, SyncAction.Type.CREATE, "folder", folder.getId(), folder.getName());
+                action.setPath(path);
+                action.setParentPath(parentPath);
+                setPayload(action, newFolder);
+                if (parentPath != null) {
+                    SapBoObject existingParent = targetTree.get(parentPath);
+                    if (existingParent != null) {
+                        action.setTargetParentId(existingParent.getId());
+                    } else if (actionsByPath.containsKey(parentPath)) {
+                        action.getDependsOn().add(actionsByPath.get(parentPath).getId());
+                    }
+                }
+                actionsByPath.put(path, action);
+            }
+        }
+        return actionsByPath;
+    }
+
+    /**
+     * Plan creates and updates of one object type
+     * @param dependencyOf Reference to the object this type depends on, e.g. the connection of a universe
+     * @param dependencyActions Planned actions of the referenced type by object ID
+     * @param sourceTree Source folders, to find the folder of an object
+     * @param folderActions Planned folder creates by path; an object in a created folder waits for it
+     * @return Planned actions of this type by object ID
+     */
+    private <T extends SapBoObject> Map<String, SyncAction> planObjects(SyncPlan plan, String objectType,
+                                                                       Map<String, T> source, Map<String, T> target,
+                                                                       boolean forceUpdate, Function<T, String> dependencyOf,
+                                                                       Map<String, SyncAction> dependencyActions,
+                                                                       FolderTree sourceTree,
+                                                                       Map<String, SyncAction> folderActions) {
+        Map<String, SyncAction> actions = new HashMap<>();
+        for (T object : source.values()) {
+            T existing = target.get(object.getId());
+            SyncAction.Type type;
+            if (existing == null) {
+                type = SyncAction.Type.CREATE;
+            } else if (forceUpdate || isNewer(object, existing)) {
+                type = SyncAction.Type.UPDATE;
+            } else {
+                continue;
+            }
+
+            SyncAction action = newAction(plan, type, objectType, object.getId(), object.getName());
+            setPayload(action, object);
+            SyncAction dependency = dependencyActions.get(dependencyOf.apply(object));
+            if (dependency != null) {
+                action.getDependsOn().add(dependency.getId());
+            }
+            SyncAction folder = folderActions.get(folderPath(object, sourceTree));
+            if (folder != null) {
+                action.getDependsOn().add(folder.getId());
+            }
+            actions.put(object.getId(), action);
+        }
+        return actions;
+    }
+
+    /**
+     * Plan deletes of one object type
+     * @param referenceOf Reference to the object this type depends on, e.g. the connection of a universe
+     * @param dependentDeletes Planned deletes of objects referencing this type, by referenced ID
+     * @return Planned deletes of this type by the ID they reference
+     */
+    private <T extends SapBoObject> Map<String, List<SyncAction>> planDeletes(SyncPlan plan, String objectType,
+                                                                             Map<String, T> source, Map<String, T> target,
+                                                                             Function<T, String> referenceOf,
+                                                                             Map<String, List<SyncAction>> dependentDeletes) {
+        Map<String, List<SyncAction>> deletesByReference = new HashMap<>();
+        for (T object : target.values()) {
+            if (source.containsKey(object.getId())) {
+                continue;
+            }
+            SyncAction action = newAction(plan, SyncAction.Type.DELETE, objectType, object.getId(), object.getName());
+            // Objects referencing this one are deleted first
+            for (SyncAction dependent : dependentDeletes.getOrDefault(object.getId(), new ArrayList<>())) {
+                action.getDependsOn().add(dependent.getId());
+            }
+            String reference = referenceOf.apply(object);
+            if (reference != null) {
+                deletesByReference.computeIfAbsent(reference, key -> new ArrayList<>()).add(action);
+            }
+        }
+        return deletesByReference;
+    }
+
+    private SyncAction newAction(SyncPlan plan, SyncAction.Type type, String objectType, String objectId, String name) {
+        SyncAction action = new SyncAction();
+        action.setId(plan.getActions().size());
+        action.setType(type);
+        action.setObjectType(objectType);
+        action.setObjectId(objectId);
+        action.setName(name);
+        plan.getActions().add(action);
+        return action;
+    }
+
+    private void setPayload(SyncAction action, SapBoObject object) {
+        try {
+            // Listed objects carry their heavy attributes as handles; only planned objects load them
+            object.loadPayload();
+            byte[] serialized = objectMapper.writeValueAsBytes(object);
+            JsonNode payload = objectMapper.readTree(serialized);
+            action.setPayload(payload);
+            action.setSize(serialized.length);
+        } catch (IOException e) {
+            throw new SapBoApiException("Failed to serialize " + action, e);
+        }
+    }
+
+    /**
+     * Path of the folder holding an object, from its parent ID or else from its own path
+     */
+    private static String folderPath(SapBoObject object, FolderTree sourceTree) {
+        String path = object.getParentId() != null ? sourceTree.getPath(object.getParentId()) : null;
+        if (path == null && object.getPath() != null) {
+            path = FolderTree.parentPath(object.getPath());
+        }
+        return path;
+    }
+
+    private static boolean isNewer(SapBoObject source, SapBoObject target) {
+        return source.getModifiedMillis() != SapBoObject.NO_TIMESTAMP && target.getModifiedMillis() != SapBoObject.NO_TIMESTAMP
+                && source.getModifiedMillis() > target.getModifiedMillis();
+    }
+
+    private static <T extends SapBoObject> Map<String, T> byId(List<T> objects) {
+        Map<String, T> byId = new LinkedHashMap<>();
+        for (T object : objects) {
+            if (object.getId() != null) {
+                byId.put(object.getId(), object);
+            }
+        }
+        return byId;
+    }
+}
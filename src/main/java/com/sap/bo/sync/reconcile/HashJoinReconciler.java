@@ -0,0 +1,353 @@
+package com.sap.bo.sync.reconcile;
+
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.inventory.InventoryIndex;
+import com.sap.bo.sync.model.ObjectType;
+import com.sap.bo.sync.model.SapBoObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Joins the source and target inventories by CUID with a hash join whose memory is bounded by a number of entries.
+ *
+ * The source is the build side: its objects are reduced to compact entries (key, ID, type, name, path and the
+ * content fingerprint of InventoryIndex) and held in a hash table, which the target objects then probe while
+ * they are read. When the source has more than memoryEntries objects, the table and the rest of the source are
+ * spilled to partition files by a hash of the key, the target is partitioned the same way, and the partitions
+ * are joined one pair at a time. A partition that is still too large is partitioned again with another hash,
+ * so every object is read from each environment only once and at most memoryEntries entries are held in memory.
+ *
+ * Objects are keyed by CUID, or by ID without CUID, and objects with neither are skipped. When a listing holds
+ * an object twice, the last source entry and the first matching target entry are used. Results are emitted
+ * while the join runs: equal, changed and extra objects while the target is probed, missing objects after.
+ */
+public class HashJoinReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(HashJoinReconciler.class);
+
+    // Partitioning levels before a partition is joined in memory regardless of its size
+    private static final int MAX_LEVELS = 4;
+
+    private final int memoryEntries;
+    private final int partitions;
+    private final Path spillDir;
+
+    /**
+     * @param memoryEntries Source entries held in memory before partitions are spilled
+     * @param partitions Partitions per level when spilling
+     * @param spillDir Directory for partition files
+     */
+    public HashJoinReconciler(int memoryEntries, int partitions, Path spillDir) {
+        this.memoryEntries = Math.max(1, memoryEntries);
+        this.partitions = Math.max(2, partitions);
+        this.spillDir = spillDir;
+    }
+
+    /**
+     * Join the source and target inventories and classify every object
+     * @param source Reads all source objects
+     * @param target Reads all target objects
+     * @param results Receives every classified object
+     * @return Counts per status and type
+     */
+    public ReconcileSummary reconcile(ObjectSource source, ObjectSource target, Consumer<ReconcileResult> results) {
+        long startTime = System.currentTimeMillis();
+        ReconcileSummary summary = new ReconcileSummary();
+        Consumer<ReconcileResult> emit = result -> {
+            summary.count(result);
+            results.accept(result);
+        };
+
+        // Build: the source in memory until the budget is exceeded, then in partition files
+        Map<String, JoinEntry> table = new HashMap<>();
+        SpillFiles[] sourceSpill = new SpillFiles[1];
+        long[] sourceObjects = new long[1];
+        try {
+            source.forEach(object -> {
+                JoinEntry entry = JoinEntry.of(object);
+                if (entry == null) {
+                    return;
+                }
+                sourceObjects[0]++;
+                if (sourceSpill[0] != null) {
+                    sourceSpill[0].write(entry);
+                    return;
+                }
+                table.put(entry.key, entry);
+                if (table.size() > memoryEntries) {
+                    log.info("Source inventory exceeds {} entries, spilling to {} partitions in {}",
+                            memoryEntries, partitions, spillDir);
+                    sourceSpill[0] = new SpillFiles("source", partitions, 0);
+                    table.values().forEach(sourceSpill[0]::write);
+                    table.clear();
+                }
+            });
+            summary.setSourceObjects(sourceObjects[0]);
+
+            // Probe: the target against the table, or into partition files as well
+            if (sourceSpill[0] == null) {
+                summary.setTargetObjects(probe(table, target, emit));
+                emitMissing(table, emit);
+            } else {
+                try (SpillFiles sourceFiles = sourceSpill[0];
+                     SpillFiles targetFiles = new SpillFiles("target", partitions, 0)) {
+                    long[] targetObjects = new long[1];
+                    target.forEach(object -> {
+                        JoinEntry entry = JoinEntry.of(object);
+                        if (entry != null) {
+                            targetObjects[0]++;
+                            targetFiles.write(entry);
+                        }
+                    });
+                    summary.setTargetObjects(targetObjects[0]);
+                    joinPartitions(sourceFiles, targetFiles, 1, summary, emit);
+                }
+            }
+        } catch (IOException e) {
+            throw new SapBoApiException("Failed to spill reconciliation partitions", e);
+        } finally {
+            if (sourceSpill[0] != null) {
+                sourceSpill[0].delete();
+            }
+        }
+
+        summary.setDurationMillis(System.currentTimeMillis() - startTime);
+        return summary;
+    }
+
+    private void joinPartitions(SpillFiles sourceFiles, SpillFiles targetFiles, int level,
+                                ReconcileSummary summary, Consumer<ReconcileResult> emit) throws IOException {
+        sourceFiles.finish(summary);
+        targetFiles.finish(summary);
+        for (int partition = 0; partition < partitions; partition++) {
+            long sourceCount = sourceFiles.counts[partition];
+            if (sourceCount > memoryEntries && level < MAX_LEVELS) {
+                // Still too large: partition this pair again with another hash
+                log.debug("Repartitioning partition {} of {} source entries at level {}", partition, sourceCount, level);
+                try (SpillFiles sourceParts = new SpillFiles("source", partitions, level);
+                     SpillFiles targetParts = new SpillFiles("target", partitions, level)) {
+                    sourceFiles.read(partition, sourceParts::write);
+                    targetFiles.read(partition, targetParts::write);
+                    sourceFiles.delete(partition);
+                    targetFiles.delete(partition);
+                    joinPartitions(sourceParts, targetParts, level + 1, summary, emit);
+                }
+                continue;
+            }
+            if (sourceCount > memoryEntries) {
+                log.warn("Joining partition {} of {} source entries in memory after {} levels", partition, sourceCount, level);
+            }
+
+            Map<String, JoinEntry> table = new HashMap<>();
+            sourceFiles.read(partition, entry -> table.put(entry.key, entry));
+            sourceFiles.delete(partition);
+            targetFiles.read(partition, entry -> probe(table, entry, emit));
+            targetFiles.delete(partition);
+            emitMissing(table, emit);
+        }
+    }
+
+    private static long probe(Map<String, JoinEntry> table, ObjectSource target, Consumer<ReconcileResult> emit) {
+        long[] targetObjects = new long[1];
+        target.forEach(object -> {
+            JoinEntry entry = JoinEntry.of(object);
+            if (entry != null) {
+                targetObjects[0]++;
+                probe(table, entry, emit);
+            }
+        });
+        return targetObjects[0];
+    }
+
+    private static void probe(Map<String, JoinEntry> table, JoinEntry target, Consumer<ReconcileResult> emit) {
+        JoinEntry source = table.get(target.key);
+        if (source == null) {
+            emit.accept(new ReconcileResult(ReconcileResult.Status.EXTRA, target.type, target.key,
+                    null, target.id, target.name, target.path));
+        } else if (!source.matched) {
+            source.matched = true;
+            ReconcileResult.Status status = source.fingerprint == target.fingerprint
+                    ? ReconcileResult.Status.EQUAL : ReconcileResult.Status.CHANGED;
+            emit.accept(new ReconcileResult(status, source.type, source.key, source.id, target.id, source.name, source.path));
+        }
+    }
+
+    private static void emitMissing(Map<String, JoinEntry> table, Consumer<ReconcileResult> emit) {
+        for (JoinEntry source : table.values()) {
+            if (!source.matched) {
+                emit.accept(new ReconcileResult(ReconcileResult.Status.MISSING, source.type, source.key,
+                        source.id, null, source.name, source.path));
+            }
+        }
+    }
+
+    /**
+     * Partition of a key at a level; every level uses a different hash so a partition splits up again
+     */
+    static int partition(String key, int level, int partitions) {
+        int hash = key.hashCode() * 0x9E3779B9 + level * 0x85EBCA6B;
+        hash ^= hash >>> 15;
+        hash *= 0x2C1B3C6D;
+        hash ^= hash >>> 12;
+        return Math.floorMod(hash, partitions);
+    }
+
+    /**
+     * Reads all objects of an inventory, one at a time
+     */
+    @FunctionalInterface
+    public interface ObjectSource {
+        void forEach(Consumer<? super SapBoObject> action);
+    }
+
+    /**
+     * What the join keeps of an object
+     */
+    private static final class JoinEntry {
+        private final String key;
+        private final String id;
+        private final String type;
+        private final String name;
+        private final String path;
+        private final long fingerprint;
+        private boolean matched;
+
+        private JoinEntry(String key, String id, String type, String name, String path, long fingerprint) {
+            this.key = key;
+            this.id = id;
+            this.type = type;
+            this.name = name;
+            this.path = path;
+            this.fingerprint = fingerprint;
+        }
+
+        private static JoinEntry of(SapBoObject object) {
+            String key = object.getCuid() != null ? object.getCuid() : object.getId();
+            if (key == null) {
+                return null;
+            }
+            return new JoinEntry(key, object.getId(), ObjectType.of(object).getValue(), object.getName(),
+                    object.getPath(), InventoryIndex.fingerprint(object));
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            out.writeUTF(key);
+            writeString(out, id);
+            out.writeUTF(type);
+            writeString(out, name);
+            writeString(out, path);
+            out.writeLong(fingerprint);
+        }
+
+        private static JoinEntry read(DataInputStream in) throws IOException {
+            return new JoinEntry(in.readUTF(), readString(in), in.readUTF(), readString(in), readString(in), in.readLong());
+        }
+
+        private static void writeString(DataOutputStream out, String value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+        }
+
+        private static String readString(DataInputStream in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+    }
+
+    /**
+     * Partition files of one side of the join at one level, created when the first entry of a partition is written
+     */
+    private final class SpillFiles implements AutoCloseable {
+        private final String side;
+        private final int level;
+        private final Path[] files;
+        private final DataOutputStream[] outputs;
+        private final long[] counts;
+
+        private SpillFiles(String side, int partitions, int level) {
+            this.side = side;
+            this.level = level;
+            this.files = new Path[partitions];
+            this.outputs = new DataOutputStream[partitions];
+            this.counts = new long[partitions];
+        }
+
+        private void write(JoinEntry entry) {
+            int partition = partition(entry.key, level, files.length);
+            try {
+                if (outputs[partition] == null) {
+                    Files.createDirectories(spillDir);
+                    files[partition] = Files.createTempFile(spillDir, "reconcile-" + side + "-" + level + "-", ".part");
+                    outputs[partition] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(files[partition]), 65536));
+                }
+                entry.write(outputs[partition]);
+                counts[partition]++;
+            } catch (IOException e) {
+                throw new SapBoApiException("Failed to spill reconciliation partition " + files[partition], e);
+            }
+        }
+
+        /**
+         * Close all partitions for writing and count them as spilled
+         */
+        private void finish(ReconcileSummary summary) throws IOException {
+            for (int partition = 0; partition < outputs.length; partition++) {
+                if (outputs[partition] != null) {
+                    outputs[partition].close();
+                    outputs[partition] = null;
+                    summary.addSpillFile(Files.size(files[partition]));
+                }
+            }
+        }
+
+        private void read(int partition, Consumer<JoinEntry> action) throws IOException {
+            if (files[partition] == null) {
+                return;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(files[partition]), 65536))) {
+                for (long i = 0; i < counts[partition]; i++) {
+                    action.accept(JoinEntry.read(in));
+                }
+            }
+        }
+
+        private void delete(int partition) {
+            if (files[partition] == null) {
+                return;
+            }
+            try {
+                if (outputs[partition] != null) {
+                    outputs[partition].close();
+                    outputs[partition] = null;
+                }
+                Files.deleteIfExists(files[partition]);
+            } catch (IOException e) {
+                log.warn("Failed to delete reconciliation partition {}: {}", files[partition], e.getMessage());
+            }
+            files[partition] = null;
+        }
+
+        private void delete() {
+            for (int partition = 0; partition < files.length; partition++) {
+                delete(partition);
+            }
+        }
+
+        @Override
+        public void close() {
+            delete();
+        }
+    }
+}
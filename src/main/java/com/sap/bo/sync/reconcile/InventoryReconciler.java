@@ -0,0 +1,123 @@
+package com.sap.bo.sync.reconcile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import com.sap.bo.sync.stream.PageSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reconciliation reports of the source against the target inventory.
+ *
+ * Both environments are read page by page, one object type after another, and joined by CUID with a
+ * HashJoinReconciler, so neither the full listings nor the report are ever held in memory. Every object is
+ * classified as missing, extra, changed or equal and written to the report as soon as it is classified.
+ */
+@Component
+public class InventoryReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryReconciler.class);
+
+    private final SapBoServiceFactory serviceFactory;
+    private final SapBoProperties sapBoProperties;
+    private final ObjectMapper objectMapper;
+
+    public InventoryReconciler(SapBoServiceFactory serviceFactory, SapBoProperties sapBoProperties, ObjectMapper objectMapper) {
+        this.serviceFactory = serviceFactory;
+        this.sapBoProperties = sapBoProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Stream a reconciliation report
+     * @param types Object types to include: folder, connection, universe and/or report
+     * @param statuses Statuses of the objects to write, or null for all; the summary counts all objects
+     * @param format csv or ndjson
+     */
+    public StreamingResponseBody stream(Collection<String> types, Set<ReconcileResult.Status> statuses, String format) {
+        // Reject unsupported types and formats before the response is committed
+        ReconcileWriter.checkFormat(format);
+        sources(serviceFactory.getSourceService(), types);
+        return out -> reconcile(types, statuses, ReconcileWriter.of(format, out, objectMapper));
+    }
+
+    /**
+     * Write a reconciliation report
+     * @param types Object types to include: folder, connection, universe and/or report
+     * @param statuses Statuses of the objects to write, or null for all; the summary counts all objects
+     * @param writer Report to write to
+     * @return Counts per status and type
+     */
+    public ReconcileSummary reconcile(Collection<String> types, Set<ReconcileResult.Status> statuses,
+                                      ReconcileWriter writer) throws IOException {
+        SapBoProperties.ReconcileProperties properties = sapBoProperties.getSync().getReconcile();
+        String spillDir = properties.getSpillDir();
+        Path spillPath = spillDir != null && !spillDir.trim().isEmpty()
+                ? Paths.get(spillDir.trim()) : Paths.get(System.getProperty("java.io.tmpdir"));
+        HashJoinReconciler reconciler = new HashJoinReconciler(properties.getMemoryEntries(), properties.getPartitions(), spillPath);
+        Set<ReconcileResult.Status> included = statuses != null && !statuses.isEmpty()
+                ? EnumSet.copyOf(statuses) : EnumSet.allOf(ReconcileResult.Status.class);
+        int pageSize = Math.max(1, sapBoProperties.getSync().getStreamPageSize());
+
+        log.info("Reconciling inventories for types {}", types);
+        ReconcileSummary summary;
+        try {
+            summary = reconciler.reconcile(
+                    inventory(sources(serviceFactory.getSourceService(), types), pageSize),
+                    inventory(sources(serviceFactory.getTargetService(), types), pageSize),
+                    result -> {
+                        if (included.contains(result.getStatus())) {
+                            try {
+                                writer.write(result);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+                    });
+        } catch (UncheckedIOException e) {
+            // Typically the client went away; a report cut short has no summary
+            log.error("Writing reconciliation report failed after {} rows: {}", writer.getRows(), e.getMessage());
+            throw e.getCause();
+        } catch (SapBoApiException e) {
+            log.error("Reconciliation failed after {} rows: {}", writer.getRows(), e.getMessage());
+            throw e;
+        }
+        writer.finish(summary);
+
+        log.info("Reconciled {} source with {} target objects in {} ms{}: {}", summary.getSourceObjects(),
+                summary.getTargetObjects(), summary.getDurationMillis(),
+                summary.isSpilled() ? " (" + summary.getSpillFiles() + " partition files spilled)" : "", summary.getCounts());
+        return summary;
+    }
+
+    private static List<PageSource> sources(SapBoService service, Collection<String> types) {
+        List<PageSource> sources = new ArrayList<>();
+        for (String type : types) {
+            sources.add(PageSource.of(service, type));
+        }
+        return sources;
+    }
+
+    private static HashJoinReconciler.ObjectSource inventory(List<PageSource> sources, int pageSize) {
+        return action -> {
+            for (PageSource source : sources) {
+                source.forEach(pageSize, action);
+            }
+        };
+    }
+}
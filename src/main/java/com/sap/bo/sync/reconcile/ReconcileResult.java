@@ -0,0 +1,105 @@
+package com.sap.bo.sync.reconcile;
+
+/**
+ * One object of a reconciliation report, classified by comparing its source and target entries
+ */
+public class ReconcileResult {
+
+    /**
+     * Outcome of comparing an object in the source and target environments
+     */
+    public enum Status {
+        MISSING("missing"), // In the source only
+        EXTRA("extra"), // In the target only
+        CHANGED("changed"), // In both, with different content
+        EQUAL("equal"); // In both, with the same content
+
+        private final String value;
+
+        Status(String value) {
+            this.value = value;
+        }
+
+        /**
+         * Lower-case name as used in reports and API parameters
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Look up a status by its value, ignoring case
+         * @throws IllegalArgumentException if the value is unknown
+         */
+        public static Status fromValue(String value) {
+            for (Status status : values()) {
+                if (status.value.equalsIgnoreCase(value.trim())) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown reconciliation status: " + value
+                    + ", expected missing, extra, changed or equal");
+        }
+    }
+
+    private final Status status;
+    private final String type;
+    private final String cuid;
+    private final String sourceId;
+    private final String targetId;
+    private final String name;
+    private final String path;
+
+    ReconcileResult(Status status, String type, String cuid, String sourceId, String targetId, String name, String path) {
+        this.status = status;
+        this.type = type;
+        this.cuid = cuid;
+        this.sourceId = sourceId;
+        this.targetId = targetId;
+        this.name = name;
+        this.path = path;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * CUID, or ID for objects without CUID
+     */
+    public String getCuid() {
+        return cuid;
+    }
+
+    /**
+     * ID in the source, null for extra objects
+     */
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    /**
+     * ID in the target, null for missing objects
+     */
+    public String getTargetId() {
+        return targetId;
+    }
+
+    /**
+     * Name in the source, or in the target for extra objects
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Path in the source, or in the target for extra objects
+     */
+    public String getPath() {
+        return path;
+    }
+}
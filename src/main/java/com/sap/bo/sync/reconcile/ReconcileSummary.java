@@ -0,0 +1,99 @@
+package com.sap.bo.sync.reconcile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts of a reconciliation: objects per status, overall and per object type, and how the join was done
+ */
+public class ReconcileSummary {
+
+    private final Map<String, Long> counts = newCounts();
+    private final Map<String, Map<String, Long>> typeCounts = new TreeMap<>();
+    private long sourceObjects;
+    private long targetObjects;
+    private boolean spilled;
+    private int spillFiles;
+    private long spillBytes;
+    private long durationMillis;
+
+    void count(ReconcileResult result) {
+        String status = result.getStatus().getValue();
+        counts.merge(status, 1L, Long::sum);
+        typeCounts.computeIfAbsent(result.getType(), type -> newCounts()).merge(status, 1L, Long::sum);
+    }
+
+    void setSourceObjects(long sourceObjects) {
+        this.sourceObjects = sourceObjects;
+    }
+
+    void setTargetObjects(long targetObjects) {
+        this.targetObjects = targetObjects;
+    }
+
+    void addSpillFile(long bytes) {
+        spilled = true;
+        spillFiles++;
+        spillBytes += bytes;
+    }
+
+    void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Number of objects per status
+     */
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+
+    /**
+     * Number of objects per status for each object type
+     */
+    public Map<String, Map<String, Long>> getTypeCounts() {
+        return typeCounts;
+    }
+
+    /**
+     * Number of objects read from the source, including duplicate listings
+     */
+    public long getSourceObjects() {
+        return sourceObjects;
+    }
+
+    /**
+     * Number of objects read from the target, including duplicate listings
+     */
+    public long getTargetObjects() {
+        return targetObjects;
+    }
+
+    /**
+     * Whether the source did not fit in memory and the inventories were joined in partitions on disk
+     */
+    public boolean isSpilled() {
+        return spilled;
+    }
+
+    public int getSpillFiles() {
+        return spillFiles;
+    }
+
+    public long getSpillBytes() {
+        return spillBytes;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    private static Map<String, Long> newCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (ReconcileResult.Status status : ReconcileResult.Status.values()) {
+            counts.put(status.getValue(), 0L);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,183 @@
+package com.sap.bo.sync.reconcile;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Writes the rows of a reconciliation report as they are produced, flushing every FLUSH_ROWS rows so a
+ * client sees the report grow instead of waiting for the whole join.
+ *
+ * CSV reports have a header line and one line per object. NDJSON reports have one JSON object per line and
+ * end with a {"summary": {...}} line holding the counts.
+ */
+public abstract class ReconcileWriter {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    static final int FLUSH_ROWS = 1000;
+
+    private long rows;
+
+    /**
+     * Create a writer for a report format
+     * @param format csv or ndjson
+     * @param out Stream to write to; it is flushed but not closed
+     * @param objectMapper Mapper for the NDJSON summary
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    public static ReconcileWriter of(String format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return FORMAT_CSV.equals(checkFormat(format)) ? new Csv(out) : new Ndjson(out, objectMapper);
+    }
+
+    /**
+     * Check that a report format is supported
+     * @return The format in lower case
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    public static String checkFormat(String format) {
+        String normalized = format != null ? format.trim().toLowerCase(Locale.ROOT) : "";
+        if (!FORMAT_CSV.equals(normalized) && !FORMAT_NDJSON.equals(normalized)) {
+            throw new IllegalArgumentException("Unsupported reconciliation report format: " + format
+                    + ", expected " + FORMAT_CSV + " or " + FORMAT_NDJSON);
+        }
+        return normalized;
+    }
+
+    /**
+     * Write one row
+     */
+    public void write(ReconcileResult result) throws IOException {
+        writeRow(result);
+        if (++rows % FLUSH_ROWS == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Complete the report and flush it
+     * @param summary Counts of the reconciliation
+     */
+    public abstract void finish(ReconcileSummary summary) throws IOException;
+
+    /**
+     * Number of rows written
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    protected abstract void writeRow(ReconcileResult result) throws IOException;
+
+    protected abstract void flush() throws IOException;
+
+    private static final class Csv extends ReconcileWriter {
+        private final Writer writer;
+
+        private Csv(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 65536);
+            writer.write("status,type,cuid,sourceId,targetId,name,path\n");
+        }
+
+        @Override
+        protected void writeRow(ReconcileResult result) throws IOException {
+            writer.write(result.getStatus().getValue());
+            writer.write(',');
+            writeField(result.getType());
+            writer.write(',');
+            writeField(result.getCuid());
+            writer.write(',');
+            writeField(result.getSourceId());
+            writer.write(',');
+            writeField(result.getTargetId());
+            writer.write(',');
+            writeField(result.getName());
+            writer.write(',');
+            writeField(result.getPath());
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            // Fields with separators, quotes or line breaks are quoted as in RFC 4180
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        protected void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void finish(ReconcileSummary summary) throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class Ndjson extends ReconcileWriter {
+        private final ObjectMapper objectMapper;
+        private final JsonGenerator generator;
+
+        private Ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.objectMapper = objectMapper;
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        protected void writeRow(ReconcileResult result) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("status", result.getStatus().getValue());
+            generator.writeStringField("type", result.getType());
+            generator.writeStringField("cuid", result.getCuid());
+            writeOptional("sourceId", result.getSourceId());
+            writeOptional("targetId", result.getTargetId());
+            writeOptional("name", result.getName());
+            writeOptional("path", result.getPath());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeOptional(String field, String value) throws IOException {
+            if (value != null) {
+                generator.writeStringField(field, value);
+            }
+        }
+
+        @Override
+        protected void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish(ReconcileSummary summary) throws IOException {
+            generator.writeStartObject();
+            generator.writeFieldName("summary");
+            objectMapper.writeValue(generator, summary);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            generator.flush();
+        }
+    }
+}
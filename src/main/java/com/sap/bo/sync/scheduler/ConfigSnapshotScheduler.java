@@ -0,0 +1,41 @@
+package com.sap.bo.sync.scheduler;
+
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.drift.ConfigHistoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler for periodic configuration snapshots
+ */
+@Component
+public class ConfigSnapshotScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigSnapshotScheduler.class);
+
+    private final ConfigHistoryService configHistoryService;
+    private final SapBoProperties sapBoProperties;
+
+    public ConfigSnapshotScheduler(ConfigHistoryService configHistoryService, SapBoProperties sapBoProperties) {
+        this.configHistoryService = configHistoryService;
+        this.sapBoProperties = sapBoProperties;
+    }
+
+    /**
+     * Scheduled task to snapshot the configurations of all environments
+     */
+    @Scheduled(fixedDelayString = "${sap.bo.sync.config-history.interval:3600000}", initialDelay = 60000)
+    public void scheduledSnapshot() {
+        if (!sapBoProperties.getSync().getConfigHistory().isEnabled()) {
+            return;
+        }
+
+        try {
+            configHistoryService.snapshot();
+        } catch (Exception e) {
+            log.error("Error taking configuration snapshots", e);
+        }
+    }
+}
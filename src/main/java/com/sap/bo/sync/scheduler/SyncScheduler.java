@@ -74,6 +74,38 @@ public class SyncScheduler {
         }
     }
     
+    /**
+     * Scheduled task to pick up partitions of a run published by another node
+     */
+    @Scheduled(fixedDelayString = "${sap.bo.sync.partition.poll-interval:5000}")
+    public void joinPartitionedRun() {
+        if (!sapBoProperties.getSync().getPartition().isEnabled() || syncInProgress) {
+            return;
+        }
+        
+        syncInProgress = true;
+        
+        try {
+            CompletableFuture<Integer> future = asyncSapBoService.asyncJoinPartitionedRun();
+            
+            future.whenComplete((count, throwable) -> {
+                syncInProgress = false;
+                
+                if (throwable != null) {
+                    log.error("Partitioned synchronization work failed", throwable);
+                } else if (count > 0) {
+                    lastSyncTime = LocalDateTime.now();
+                    lastSyncCount = count;
+                    log.info("Finished work on partitioned run at {}. Objects synchronized by this node: {}", 
+                            lastSyncTime, count);
+                }
+            });
+        } catch (Exception e) {
+            syncInProgress = false;
+            log.error("Error joining partitioned synchronization", e);
+        }
+    }
+    
     /**
      * Manually trigger synchronization
      * @param forceUpdate If true, update objects even if they already exist
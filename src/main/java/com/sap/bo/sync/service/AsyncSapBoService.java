@@ -39,4 +39,10 @@ public interface AsyncSapBoService {
      * @return CompletableFuture with the number of connections synchronized
      */
     CompletableFuture<Integer> asyncSyncConnections(List<String> connectionIds, Map<String, String> options);
+    
+    /**
+     * Asynchronously join a partitioned synchronization run started by another node
+     * @return CompletableFuture with the number of objects synchronized by this node
+     */
+    CompletableFuture<Integer> asyncJoinPartitionedRun();
 }
@@ -23,6 +23,13 @@ public interface SapBoService {
      */
     List<SapBoObject> getFolders(String path);
     
+    /**
+     * Create a folder
+     * @param folder Folder to create, with the ID of its parent folder in this environment
+     * @return Created folder
+     */
+    SapBoObject createFolder(SapBoObject folder);
+    
     /**
      * Get a list of reports
      * @param folderId Optional folder ID to get reports from
@@ -39,6 +46,13 @@ public interface SapBoService {
      */
     Report getReport(String reportId);
     
+    /**
+     * Get reports with their details by ID, looked up in chunks of many IDs per request
+     * @param reportIds Report IDs
+     * @return Reports found, in the order of the IDs; unknown IDs are left out
+     */
+    List<Report> getReportsByIds(List<String> reportIds);
+    
     /**
      * Get report content
      * @param reportId Report ID
@@ -46,6 +60,13 @@ public interface SapBoService {
      */
     byte[] getReportContent(String reportId);
     
+    /**
+     * Get report content, allowing implementations to reuse previously downloaded content of the same version
+     * @param report Report with ID and modification date
+     * @return Report content as byte array
+     */
+    byte[] getReportContent(Report report);
+    
     /**
      * Create or update a report
      * @param report Report to create or update
@@ -53,6 +74,12 @@ public interface SapBoService {
      */
     Report saveReport(Report report);
     
+    /**
+     * Delete a report
+     * @param reportId Report ID
+     */
+    void deleteReport(String reportId);
+    
     /**
      * Get a list of universes
      * @param folderId Optional folder ID to get universes from
@@ -69,6 +96,13 @@ public interface SapBoService {
      */
     Universe getUniverse(String universeId);
     
+    /**
+     * Get universes with their details by ID, looked up in chunks of many IDs per request
+     * @param universeIds Universe IDs
+     * @return Universes found, in the order of the IDs; unknown IDs are left out
+     */
+    List<Universe> getUniversesByIds(List<String> universeIds);
+    
     /**
      * Create or update a universe
      * @param universe Universe to create or update
@@ -76,6 +110,12 @@ public interface SapBoService {
      */
     Universe saveUniverse(Universe universe);
     
+    /**
+     * Delete a universe
+     * @param universeId Universe ID
+     */
+    void deleteUniverse(String universeId);
+    
     /**
      * Get a list of connections
      * @param modifiedAfter Optional date to filter connections modified after this date
@@ -91,6 +131,13 @@ public interface SapBoService {
      */
     Connection getConnection(String connectionId);
     
+    /**
+     * Get connections by ID, looked up in chunks of many IDs per request
+     * @param connectionIds Connection IDs
+     * @return Connections found, in the order of the IDs; unknown IDs are left out
+     */
+    List<Connection> getConnectionsByIds(List<String> connectionIds);
+    
     /**
      * Create or update a connection
      * @param connection Connection to create or update
@@ -98,6 +145,12 @@ public interface SapBoService {
      */
     Connection saveConnection(Connection connection);
     
+    /**
+     * Delete a connection
+     * @param connectionId Connection ID
+     */
+    void deleteConnection(String connectionId);
+    
     /**
      * Search for objects by name or other criteria
      * @param query Search query
@@ -1,13 +1,26 @@
 package com.sap.bo.sync.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.cache.BlobStore;
+import com.sap.bo.sync.cache.CacheStats;
 import com.sap.bo.sync.client.SapBoRestClient;
 import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.service.impl.CachingSapBoService;
 import com.sap.bo.sync.service.impl.SapBoServiceImpl;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
- * Factory for creating SapBoService instances for different environments
+ * Factory for SapBoService instances for different environments.
+ * One service instance is kept per environment so that its object cache is reused across calls and runs.
+ * All environments share one blob store for report documents and one pool for lookups by ID.
  */
 @Component
 public class SapBoServiceFactory {
@@ -16,10 +29,26 @@ public class SapBoServiceFactory {
     private final SapBoProperties sapBoProperties;
     private final ObjectMapper objectMapper;
     
+    // Service instances keyed by environment URL and user
+    private final Map<String, SapBoService> services = new ConcurrentHashMap<>();
+    
+    private final BlobStore blobStore;
+    
+    // Runs the chunks of lookups by ID; only REST calls run here, so waiting on it from sync workers is safe
+    private final ExecutorService lookupExecutor;
+    
     public SapBoServiceFactory(SapBoRestClient restClient, SapBoProperties sapBoProperties, ObjectMapper objectMapper) {
         this.restClient = restClient;
         this.sapBoProperties = sapBoProperties;
         this.objectMapper = objectMapper;
+        
+        SapBoProperties.BlobStoreProperties blobStoreProperties = sapBoProperties.getBlobStore();
+        this.blobStore = blobStoreProperties != null && blobStoreProperties.isEnabled()
+                ? new BlobStore(Paths.get(blobStoreProperties.getDir()), blobStoreProperties.getMaxBytes())
+                : null;
+        
+        int lookupConcurrency = sapBoProperties.getSync() != null ? sapBoProperties.getSync().getIdLookupConcurrency() : 1;
+        this.lookupExecutor = lookupConcurrency > 1 ? newLookupPool(lookupConcurrency) : null;
     }
     
     /**
@@ -27,7 +56,7 @@ public class SapBoServiceFactory {
      * @return SapBoService for source environment
      */
     public SapBoService getSourceService() {
-        return new SapBoServiceImpl(restClient, sapBoProperties, objectMapper, sapBoProperties.getSource());
+        return getService(sapBoProperties.getSource());
     }
     
     /**
@@ -35,7 +64,7 @@ public class SapBoServiceFactory {
      * @return SapBoService for target environment
      */
     public SapBoService getTargetService() {
-        return new SapBoServiceImpl(restClient, sapBoProperties, objectMapper, sapBoProperties.getTarget());
+        return getService(sapBoProperties.getTarget());
     }
     
     /**
@@ -44,6 +73,54 @@ public class SapBoServiceFactory {
      * @return SapBoService for the specified environment
      */
     public SapBoService getService(SapBoProperties.BoEnvironment environment) {
-        return new SapBoServiceImpl(restClient, sapBoProperties, objectMapper, environment);
+        return services.computeIfAbsent(environmentKey(environment), key -> createService(environment));
+    }
+    
+    /**
+     * Get object cache statistics per environment
+     * @return Cache statistics keyed by environment URL and user
+     */
+    public Map<String, CacheStats> getCacheStats() {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        services.forEach((key, service) -> {
+            if (service instanceof CachingSapBoService) {
+                stats.put(key, ((CachingSapBoService) service).getCacheStats());
+            }
+        });
+        return stats;
+    }
+    
+    /**
+     * Get statistics of the report document blob store
+     * @return Blob store statistics, or null if the blob store is disabled
+     */
+    public CacheStats getBlobStoreStats() {
+        return blobStore != null ? blobStore.stats() : null;
+    }
+    
+    private SapBoService createService(SapBoProperties.BoEnvironment environment) {
+        SapBoService service = new SapBoServiceImpl(restClient, sapBoProperties, objectMapper, environment, lookupExecutor);
+        SapBoProperties.ObjectCacheProperties cacheProperties = sapBoProperties.getObjectCache();
+        if (cacheProperties == null) {
+            cacheProperties = new SapBoProperties.ObjectCacheProperties();
+            cacheProperties.setEnabled(false);
+        }
+        if (cacheProperties.isEnabled() || blobStore != null) {
+            return new CachingSapBoService(service, cacheProperties, blobStore, environmentKey(environment));
+        }
+        return service;
+    }
+    
+    private static ExecutorService newLookupPool(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sap-bo-lookup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    private static String environmentKey(SapBoProperties.BoEnvironment environment) {
+        return environment.getUrl() + "|" + environment.getUsername();
     }
 }
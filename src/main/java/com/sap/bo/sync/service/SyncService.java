@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.sap.bo.sync.partition.SyncPartition;
 
 /**
  * Service interface for synchronizing SAP Business Objects between environments
@@ -18,6 +19,27 @@ public interface SyncService {
      */
     int syncAll(boolean forceUpdate);
     
+    /**
+     * Synchronize the objects covered by a single partition of a partitioned run
+     * @param partition Partition to synchronize
+     * @param forceUpdate If true, update objects even if they already exist
+     * @return Number of objects synchronized
+     */
+    int syncPartition(SyncPartition partition, boolean forceUpdate);
+    
+    /**
+     * Claim and synchronize partitions of a partitioned run started by another node
+     * @return Number of objects synchronized by this node
+     */
+    int joinPartitionedRun();
+    
+    /**
+     * Get the number of objects whose transfer failed since this service was created.
+     * Per-object failures are logged and do not fail a run, so callers compare this count before and after.
+     * @return Number of failed objects
+     */
+    long getFailedObjects();
+    
     /**
      * Synchronize folders between source and target environments
      * @param path Optional path to synchronize from
@@ -100,4 +100,20 @@ public class AsyncSapBoServiceImpl implements AsyncSapBoService {
             return future;
         }
     }
+
+    @Async
+    @Override
+    public CompletableFuture<Integer> asyncJoinPartitionedRun() {
+        log.debug("Checking for a partitioned synchronization run to join");
+        
+        try {
+            int result = syncService.joinPartitionedRun();
+            return CompletableFuture.completedFuture(result);
+        } catch (Exception e) {
+            log.error("Error while working on partitioned synchronization run", e);
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            future.completeExceptionally(new SapBoApiException("Error while working on partitioned synchronization run", e));
+            return future;
+        }
+    }
 }
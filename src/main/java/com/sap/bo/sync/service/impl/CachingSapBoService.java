@@ -0,0 +1,310 @@
+package com.sap.bo.sync.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sap.bo.sync.cache.BlobStore;
+import com.sap.bo.sync.cache.BoundedCache;
+import com.sap.bo.sync.cache.CacheStats;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.model.Universe;
+import com.sap.bo.sync.service.SapBoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * SapBoService decorator that keeps recently read reports, universes and connections in memory.
+ *
+ * Entries are keyed by object type and ID and remember the modification timestamp they were read with.
+ * A listing that reports a different timestamp for a cached object evicts it, and so does saving the
+ * object through this service. Callers get copies of the cached objects, see SapBoObject.copy, so the objects
+ * they modify, e.g. by loading lazily held attributes, are never the cached ones.
+ *
+ * Report documents are kept in an optional on-disk blob store, keyed by environment, report ID and
+ * modification timestamp, so an unchanged document is only downloaded once.
+ */
+public class CachingSapBoService implements SapBoService {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingSapBoService.class);
+
+    private final SapBoService delegate;
+    private final BoundedCache<String, SapBoObject> cache;
+    private final boolean objectCacheEnabled;
+    private final BlobStore blobStore;
+    private final String environmentKey;
+
+    public CachingSapBoService(SapBoService delegate, SapBoProperties.ObjectCacheProperties properties) {
+        this(delegate, properties, null, null);
+    }
+
+    /**
+     * @param delegate Service performing the actual calls
+     * @param properties Object cache configuration; objects are not cached if it is disabled
+     * @param blobStore Store for report documents, or null to always download them
+     * @param environmentKey Identifies the environment in blob store keys
+     */
+    public CachingSapBoService(SapBoService delegate, SapBoProperties.ObjectCacheProperties properties,
+                               BlobStore blobStore, String environmentKey) {
+        this.delegate = delegate;
+        this.cache = new BoundedCache<>(properties.getMaxWeight(), CachingSapBoService::estimateWeight, properties.getTtl());
+        this.objectCacheEnabled = properties.isEnabled();
+        this.blobStore = blobStore;
+        this.environmentKey = environmentKey;
+    }
+
+    /**
+     * Get hit, miss and eviction statistics of the object cache
+     */
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    @Override
+    public List<SapBoObject> getFolders(String path) {
+        return delegate.getFolders(path);
+    }
+
+    @Override
+    public SapBoObject createFolder(SapBoObject folder) {
+        return delegate.createFolder(folder);
+    }
+
+    @Override
+    public List<Report> getReports(String folderId, Date modifiedAfter, Map<String, String> options) {
+        return evictOutdated("report", delegate.getReports(folderId, modifiedAfter, options));
+    }
+
+    @Override
+    public Report getReport(String reportId) {
+        return getCached("report", reportId, () -> delegate.getReport(reportId));
+    }
+
+    @Override
+    public List<Report> getReportsByIds(List<String> reportIds) {
+        return getCachedByIds("report", reportIds, delegate::getReportsByIds);
+    }
+
+    @Override
+    public byte[] getReportContent(String reportId) {
+        return delegate.getReportContent(reportId);
+    }
+
+    @Override
+    public byte[] getReportContent(Report report) {
+        // Without a modification timestamp a stored document cannot be known to be current
+        if (blobStore == null || report.getId() == null || report.getModifiedMillis() == SapBoObject.NO_TIMESTAMP) {
+            return delegate.getReportContent(report);
+        }
+        String key = environmentKey + "|report|" + report.getId() + "|" + report.getModifiedMillis();
+        byte[] content = blobStore.get(key);
+        if (content != null) {
+            log.debug("Serving content of report {} from blob store", report.getId());
+            return content;
+        }
+        content = delegate.getReportContent(report);
+        if (content != null) {
+            blobStore.put(key, content);
+        }
+        return content;
+    }
+
+    @Override
+    public Report saveReport(Report report) {
+        invalidate("report", report.getId());
+        return delegate.saveReport(report);
+    }
+
+    @Override
+    public void deleteReport(String reportId) {
+        invalidate("report", reportId);
+        delegate.deleteReport(reportId);
+    }
+
+    @Override
+    public List<Universe> getUniverses(String folderId, Date modifiedAfter, Map<String, String> options) {
+        return evictOutdated("universe", delegate.getUniverses(folderId, modifiedAfter, options));
+    }
+
+    @Override
+    public Universe getUniverse(String universeId) {
+        return getCached("universe", universeId, () -> delegate.getUniverse(universeId));
+    }
+
+    @Override
+    public List<Universe> getUniversesByIds(List<String> universeIds) {
+        return getCachedByIds("universe", universeIds, delegate::getUniversesByIds);
+    }
+
+    @Override
+    public Universe saveUniverse(Universe universe) {
+        invalidate("universe", universe.getId());
+        return delegate.saveUniverse(universe);
+    }
+
+    @Override
+    public void deleteUniverse(String universeId) {
+        invalidate("universe", universeId);
+        delegate.deleteUniverse(universeId);
+    }
+
+    @Override
+    public List<Connection> getConnections(Date modifiedAfter, Map<String, String> options) {
+        return evictOutdated("connection", delegate.getConnections(modifiedAfter, options));
+    }
+
+    @Override
+    public Connection getConnection(String connectionId) {
+        return getCached("connection", connectionId, () -> delegate.getConnection(connectionId));
+    }
+
+    @Override
+    public List<Connection> getConnectionsByIds(List<String> connectionIds) {
+        return getCachedByIds("connection", connectionIds, delegate::getConnectionsByIds);
+    }
+
+    @Override
+    public Connection saveConnection(Connection connection) {
+        invalidate("connection", connection.getId());
+        return delegate.saveConnection(connection);
+    }
+
+    @Override
+    public void deleteConnection(String connectionId) {
+        invalidate("connection", connectionId);
+        delegate.deleteConnection(connectionId);
+    }
+
+    @Override
+    public List<SapBoObject> search(String query, List<String> objectTypes, Date modifiedAfter, Map<String, String> options) {
+        return delegate.search(query, objectTypes, modifiedAfter, options);
+    }
+
+    @Override
+    public List<SapBoObject> getDependencies(String universeId, List<String> dependencyTypes) {
+        return delegate.getDependencies(universeId, dependencyTypes);
+    }
+
+    @Override
+    public JsonNode getServerConfig(String configType, Map<String, String> options) {
+        return delegate.getServerConfig(configType, options);
+    }
+
+    @Override
+    public JsonNode getClusterConfig(String clusterId, Map<String, String> options) {
+        return delegate.getClusterConfig(clusterId, options);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends SapBoObject> T getCached(String type, String id, Supplier<T> loader) {
+        if (id == null || !objectCacheEnabled) {
+            return loader.get();
+        }
+        String key = type + ":" + id;
+        SapBoObject cached = cache.get(key);
+        if (cached != null) {
+            log.debug("Serving {} {} from object cache", type, id);
+            return (T) cached.copy();
+        }
+        T loaded = loader.get();
+        if (loaded != null) {
+            cache.put(key, loaded);
+            return (T) loaded.copy();
+        }
+        return null;
+    }
+
+    /**
+     * Serve cached objects and look up only the missing IDs in one bulk call
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends SapBoObject> List<T> getCachedByIds(String type, List<String> ids,
+                                                           Function<List<String>, List<T>> loader) {
+        if (ids == null || !objectCacheEnabled) {
+            return loader.apply(ids);
+        }
+        Map<String, T> found = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : ids) {
+            SapBoObject cached = id != null ? cache.get(type + ":" + id) : null;
+            if (cached != null) {
+                found.put(id, (T) cached.copy());
+            } else if (id != null) {
+                missing.add(id);
+            }
+        }
+        log.debug("Serving {} of {} {} objects from object cache", found.size(), ids.size(), type);
+        if (!missing.isEmpty()) {
+            for (T loaded : loader.apply(new ArrayList<>(missing))) {
+                if (loaded.getId() != null) {
+                    cache.put(type + ":" + loaded.getId(), loaded);
+                    found.put(loaded.getId(), (T) loaded.copy());
+                }
+            }
+        }
+        List<T> objects = new ArrayList<>(found.size());
+        for (String id : ids) {
+            T object = id != null ? found.remove(id) : null;
+            if (object != null) {
+                objects.add(object);
+            }
+        }
+        return objects;
+    }
+
+    private void invalidate(String type, String id) {
+        if (id != null) {
+            cache.remove(type + ":" + id);
+        }
+    }
+
+    /**
+     * Drop cached objects whose modification timestamp differs from the one in a fresh listing
+     */
+    private <T extends SapBoObject> List<T> evictOutdated(String type, List<T> listed) {
+        for (T object : listed) {
+            if (object.getId() != null && object.getModifiedMillis() != SapBoObject.NO_TIMESTAMP) {
+                long modified = object.getModifiedMillis();
+                cache.removeIf(type + ":" + object.getId(), cached -> cached.getModifiedMillis() != modified);
+            }
+        }
+        return listed;
+    }
+
+    /**
+     * Approximate the heap footprint of an object in bytes
+     */
+    static long estimateWeight(SapBoObject object) {
+        long weight = 256 + 2L * (length(object.getName()) + length(object.getDescription()) + length(object.getPath()));
+        // Only loaded payloads count; weighing must not fetch deferred ones
+        if (object instanceof Report) {
+            weight += 2L * length(((Report) object).getContentValue().peek());
+        } else if (object instanceof Universe) {
+            Universe universe = (Universe) object;
+            weight += 2L * length(universe.getContentValue().peek());
+            List<Universe.UniverseObject> universeObjects = universe.getObjectsValue().peek();
+            if (universeObjects != null) {
+                for (Universe.UniverseObject universeObject : universeObjects) {
+                    weight += 128 + 2L * (length(universeObject.getName()) + length(universeObject.getSql()));
+                }
+            }
+        } else if (object instanceof Connection && ((Connection) object).getParameters() != null) {
+            weight += 128L * ((Connection) object).getParameters().size();
+        }
+        return weight;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -1,11 +1,16 @@
 package com.sap.bo.sync.service.impl;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.sap.bo.sync.client.SapBoRestClient;
 import com.sap.bo.sync.config.SapBoProperties;
 import com.sap.bo.sync.exception.SapBoApiException;
 import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.LazyValue;
+import com.sap.bo.sync.model.ObjectCodecs;
 import com.sap.bo.sync.model.Report;
 import com.sap.bo.sync.model.SapBoObject;
 import com.sap.bo.sync.model.Universe;
@@ -15,10 +20,18 @@ import org.slf4j.LoggerFactory;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * Implementation of the SAP Business Objects service
@@ -32,8 +45,14 @@ public class SapBoServiceImpl implements SapBoService {
     private SapBoProperties sapBoProperties;
     private ObjectMapper objectMapper;
     
+    // Prebuilt readers of the model types, created on first use
+    private volatile ObjectCodecs codecs;
+    
     // Environment to use for this service instance
     private SapBoProperties.BoEnvironment environment;
+    
+    // Runs the chunks of a lookup by ID concurrently; chunks run one after another if null
+    private Executor lookupExecutor;
 
     /**
      * No-arg constructor for Spring bean instantiation
@@ -61,10 +80,20 @@ public class SapBoServiceImpl implements SapBoService {
      */
     public SapBoServiceImpl(SapBoRestClient restClient, SapBoProperties sapBoProperties, ObjectMapper objectMapper, 
                            SapBoProperties.BoEnvironment environment) {
+        this(restClient, sapBoProperties, objectMapper, environment, null);
+    }
+    
+    /**
+     * Constructor that uses the specified environment and looks objects up by ID concurrently
+     * @param lookupExecutor Executor for the chunks of a lookup by ID, or null to request them one after another
+     */
+    public SapBoServiceImpl(SapBoRestClient restClient, SapBoProperties sapBoProperties, ObjectMapper objectMapper, 
+                           SapBoProperties.BoEnvironment environment, Executor lookupExecutor) {
         this.restClient = restClient;
         this.sapBoProperties = sapBoProperties;
         this.objectMapper = objectMapper;
         this.environment = environment;
+        this.lookupExecutor = lookupExecutor;
     }
 
     @Override
@@ -77,24 +106,28 @@ public class SapBoServiceImpl implements SapBoService {
         }
         
         try {
-            String response = restClient.get(environment, endpoint, String.class);
-            JsonNode rootNode = objectMapper.readTree(response);
-            JsonNode entriesNode = rootNode.path("entries");
-            
-            List<SapBoObject> folders = new ArrayList<>();
-            if (entriesNode.isArray()) {
-                for (JsonNode entryNode : entriesNode) {
-                    SapBoObject folder = objectMapper.treeToValue(entryNode, SapBoObject.class);
-                    folders.add(folder);
-                }
-            }
-            
-            return folders;
+            return readPage(endpoint, codecs().reader(SapBoObject.class));
         } catch (Exception e) {
             throw new SapBoApiException("Error getting folders", e);
         }
     }
 
+    @Override
+    public SapBoObject createFolder(SapBoObject folder) {
+        if (folder == null || StringUtils.isBlank(folder.getName())) {
+            throw new SapBoApiException("Folder name cannot be empty");
+        }
+        
+        log.debug("Creating folder: {} under parent: {}", folder.getName(), folder.getParentId());
+        
+        try {
+            String response = restClient.post(environment, "/infostore/folders", folder, String.class);
+            return response != null ? codecs().read(response, SapBoObject.class) : null;
+        } catch (Exception e) {
+            throw new SapBoApiException("Error creating folder " + folder.getName(), e);
+        }
+    }
+
     @Override
     public List<Report> getReports(String folderId, Date modifiedAfter, Map<String, String> options) {
         log.debug("Getting reports from folder: {}", folderId);
@@ -127,15 +160,20 @@ public class SapBoServiceImpl implements SapBoService {
         String endpoint = endpointBuilder.toString();
         
         try {
-            String response = restClient.get(environment, endpoint, String.class);
-            JsonNode rootNode = objectMapper.readTree(response);
-            JsonNode entriesNode = rootNode.path("entries");
+            List<Report> reports = readPage(endpoint, codecs().listingReader(Report.class));
             
-            List<Report> reports = new ArrayList<>();
-            if (entriesNode.isArray()) {
-                for (JsonNode entryNode : entriesNode) {
-                    Report report = objectMapper.treeToValue(entryNode, Report.class);
-                    reports.add(report);
+            // Content is skipped in listings and fetched with the report details when first read
+            for (Report report : reports) {
+                String reportId = report.getId();
+                if (reportId != null) {
+                    report.getContentValue().bind(() -> {
+                        // The report may have been deleted since it was listed
+                        Report details = getReport(reportId);
+                        if (details == null) {
+                            throw new SapBoApiException("Report " + reportId + " not found when loading its content");
+                        }
+                        return details.getContent();
+                    });
                 }
             }
             
@@ -157,12 +195,17 @@ public class SapBoServiceImpl implements SapBoService {
         
         try {
             String response = restClient.get(environment, endpoint, String.class);
-            return objectMapper.readValue(response, Report.class);
+            return codecs().read(response, Report.class);
         } catch (Exception e) {
             throw new SapBoApiException("Error getting report", e);
         }
     }
 
+    @Override
+    public List<Report> getReportsByIds(List<String> reportIds) {
+        return getByIds("/infostore/reports", "reports", reportIds, Report.class);
+    }
+
     @Override
     public byte[] getReportContent(String reportId) {
         log.debug("Getting content for report with ID: {}", reportId);
@@ -180,6 +223,11 @@ public class SapBoServiceImpl implements SapBoService {
         }
     }
 
+    @Override
+    public byte[] getReportContent(Report report) {
+        return getReportContent(report.getId());
+    }
+
     @Override
     public Report saveReport(Report report) {
         if (report == null) {
@@ -203,6 +251,7 @@ public class SapBoServiceImpl implements SapBoService {
             }
             
             String response;
+            report.loadPayload();
             
             // Implementation for saving report would go here
             if (method == HttpMethod.POST) {
@@ -211,12 +260,27 @@ public class SapBoServiceImpl implements SapBoService {
                 response = restClient.put(environment, endpoint, report, String.class);
             }
             
-            return objectMapper.readValue(response, Report.class);
+            return codecs().read(response, Report.class);
         } catch (Exception e) {
             throw new SapBoApiException("Error saving report", e);
         }
     }
 
+    @Override
+    public void deleteReport(String reportId) {
+        log.debug("Deleting report with ID: {}", reportId);
+        
+        if (StringUtils.isBlank(reportId)) {
+            throw new SapBoApiException("Report ID cannot be empty");
+        }
+        
+        try {
+            restClient.delete(environment, "/infostore/reports/" + reportId);
+        } catch (Exception e) {
+            throw new SapBoApiException("Error deleting report", e);
+        }
+    }
+
     @Override
     public List<Universe> getUniverses(String folderId, Date modifiedAfter, Map<String, String> options) {
         log.debug("Getting universes from folder: {}", folderId);
@@ -249,15 +313,22 @@ public class SapBoServiceImpl implements SapBoService {
         String endpoint = endpointBuilder.toString();
         
         try {
-            String response = restClient.get(environment, endpoint, String.class);
-            JsonNode rootNode = objectMapper.readTree(response);
-            JsonNode entriesNode = rootNode.path("entries");
+            List<Universe> universes = readPage(endpoint, codecs().listingReader(Universe.class));
             
-            List<Universe> universes = new ArrayList<>();
-            if (entriesNode.isArray()) {
-                for (JsonNode entryNode : entriesNode) {
-                    Universe universe = objectMapper.treeToValue(entryNode, Universe.class);
-                    universes.add(universe);
+            // Content and objects are skipped in listings and fetched with the universe details when first read
+            for (Universe universe : universes) {
+                String universeId = universe.getId();
+                if (universeId != null) {
+                    LazyValue<Universe> details = LazyValue.deferred(() -> {
+                        // The universe may have been deleted since it was listed
+                        Universe universeDetails = getUniverse(universeId);
+                        if (universeDetails == null) {
+                            throw new SapBoApiException("Universe " + universeId + " not found when loading its details");
+                        }
+                        return universeDetails;
+                    });
+                    universe.getContentValue().bind(() -> details.get().getContent());
+                    universe.getObjectsValue().bind(() -> details.get().getObjects());
                 }
             }
             
@@ -279,12 +350,17 @@ public class SapBoServiceImpl implements SapBoService {
         
         try {
             String response = restClient.get(environment, endpoint, String.class);
-            return objectMapper.readValue(response, Universe.class);
+            return codecs().read(response, Universe.class);
         } catch (Exception e) {
             throw new SapBoApiException("Error getting universe", e);
         }
     }
 
+    @Override
+    public List<Universe> getUniversesByIds(List<String> universeIds) {
+        return getByIds("/infostore/universes", "universes", universeIds, Universe.class);
+    }
+
     @Override
     public Universe saveUniverse(Universe universe) {
         if (universe == null) {
@@ -308,6 +384,7 @@ public class SapBoServiceImpl implements SapBoService {
             }
             
             String response;
+            universe.loadPayload();
             
             // Implementation for saving report would go here
             if (method == HttpMethod.POST) {
@@ -316,12 +393,27 @@ public class SapBoServiceImpl implements SapBoService {
                 response = restClient.put(environment, endpoint, universe, String.class);
             }
             
-            return objectMapper.readValue(response, Universe.class);
+            return codecs().read(response, Universe.class);
         } catch (Exception e) {
             throw new SapBoApiException("Error saving universe", e);
         }
     }
 
+    @Override
+    public void deleteUniverse(String universeId) {
+        log.debug("Deleting universe with ID: {}", universeId);
+        
+        if (StringUtils.isBlank(universeId)) {
+            throw new SapBoApiException("Universe ID cannot be empty");
+        }
+        
+        try {
+            restClient.delete(environment, "/infostore/universes/" + universeId);
+        } catch (Exception e) {
+            throw new SapBoApiException("Error deleting universe", e);
+        }
+    }
+
     @Override
     public List<Connection> getConnections(Date modifiedAfter, Map<String, String> options) {
         log.debug("Getting all connections");
@@ -348,19 +440,7 @@ public class SapBoServiceImpl implements SapBoService {
         String endpoint = endpointBuilder.toString();
         
         try {
-            String response = restClient.get(environment, endpoint, String.class);
-            JsonNode rootNode = objectMapper.readTree(response);
-            JsonNode entriesNode = rootNode.path("entries");
-            
-            List<Connection> connections = new ArrayList<>();
-            if (entriesNode.isArray()) {
-                for (JsonNode entryNode : entriesNode) {
-                    Connection connection = objectMapper.treeToValue(entryNode, Connection.class);
-                    connections.add(connection);
-                }
-            }
-            
-            return connections;
+            return readPage(endpoint, codecs().reader(Connection.class));
         } catch (Exception e) {
             throw new SapBoApiException("Error getting connections", e);
         }
@@ -378,12 +458,17 @@ public class SapBoServiceImpl implements SapBoService {
         
         try {
             String response = restClient.get(environment, endpoint, String.class);
-            return objectMapper.readValue(response, Connection.class);
+            return codecs().read(response, Connection.class);
         } catch (Exception e) {
             throw new SapBoApiException("Error getting connection", e);
         }
     }
 
+    @Override
+    public List<Connection> getConnectionsByIds(List<String> connectionIds) {
+        return getByIds("/infostore/connections", "connections", connectionIds, Connection.class);
+    }
+
     @Override
     public Connection saveConnection(Connection connection) {
         if (connection == null) {
@@ -415,12 +500,27 @@ public class SapBoServiceImpl implements SapBoService {
                 response = restClient.put(environment, endpoint, connection, String.class);
             }
             
-            return objectMapper.readValue(response, Connection.class);
+            return codecs().read(response, Connection.class);
         } catch (Exception e) {
             throw new SapBoApiException("Error saving connection", e);
         }
     }
 
+    @Override
+    public void deleteConnection(String connectionId) {
+        log.debug("Deleting connection with ID: {}", connectionId);
+        
+        if (StringUtils.isBlank(connectionId)) {
+            throw new SapBoApiException("Connection ID cannot be empty");
+        }
+        
+        try {
+            restClient.delete(environment, "/infostore/connections/" + connectionId);
+        } catch (Exception e) {
+            throw new SapBoApiException("Error deleting connection", e);
+        }
+    }
+
     @Override
     public List<SapBoObject> search(String query, List<String> objectTypes, Date modifiedAfter, Map<String, String> options) {
         log.debug("Searching for objects with query: {} and types: {}", query, objectTypes);
@@ -451,19 +551,7 @@ public class SapBoServiceImpl implements SapBoService {
         String endpoint = endpointBuilder.toString();
         
         try {
-            String response = restClient.get(environment, endpoint, String.class);
-            JsonNode rootNode = objectMapper.readTree(response);
-            JsonNode entriesNode = rootNode.path("entries");
-            
-            List<SapBoObject> results = new ArrayList<>();
-            if (entriesNode.isArray()) {
-                for (JsonNode entryNode : entriesNode) {
-                    SapBoObject object = objectMapper.treeToValue(entryNode, SapBoObject.class);
-                    results.add(object);
-                }
-            }
-            
-            return results;
+            return readPage(endpoint, codecs().reader(SapBoObject.class));
         } catch (Exception e) {
             throw new SapBoApiException("Error searching for objects", e);
         }
@@ -505,13 +593,13 @@ public class SapBoServiceImpl implements SapBoService {
                     
                     // Convert to appropriate type based on the object type
                     if ("report".equals(type)) {
-                        dependency = objectMapper.treeToValue(entryNode, Report.class);
+                        dependency = codecs().treeToValue(entryNode, Report.class);
                     } else if ("universe".equals(type)) {
-                        dependency = objectMapper.treeToValue(entryNode, Universe.class);
+                        dependency = codecs().treeToValue(entryNode, Universe.class);
                     } else if ("connection".equals(type)) {
-                        dependency = objectMapper.treeToValue(entryNode, Connection.class);
+                        dependency = codecs().treeToValue(entryNode, Connection.class);
                     } else {
-                        dependency = objectMapper.treeToValue(entryNode, SapBoObject.class);
+                        dependency = codecs().treeToValue(entryNode, SapBoObject.class);
                     }
                     
                     dependencies.add(dependency);
@@ -550,8 +638,8 @@ public class SapBoServiceImpl implements SapBoService {
         String endpoint = endpointBuilder.toString();
         
         try {
-            String response = restClient.get(environment, endpoint, String.class);
-            return objectMapper.readTree(response);
+            // Request the parsed tree so that unchanged responses are served from the client's cache without re-parsing
+            return restClient.get(environment, endpoint, JsonNode.class);
         } catch (Exception e) {
             throw new SapBoApiException("Error getting server configuration", e);
         }
@@ -583,10 +671,135 @@ public class SapBoServiceImpl implements SapBoService {
         String endpoint = endpointBuilder.toString();
         
         try {
-            String response = restClient.get(environment, endpoint, String.class);
-            return objectMapper.readTree(response);
+            return restClient.get(environment, endpoint, JsonNode.class);
         } catch (Exception e) {
             throw new SapBoApiException("Error getting cluster configuration", e);
         }
     }
+
+    private ObjectCodecs codecs() {
+        ObjectCodecs current = codecs;
+        if (current == null) {
+            // Built at most a few times under contention, all equivalent
+            current = new ObjectCodecs(objectMapper);
+            codecs = current;
+        }
+        return current;
+    }
+
+    /**
+     * Get a listing page and read its entries. The REST client keeps the parsed entries with its cached
+     * response, so a page answered with 304 is not parsed again; callers modify the objects they get, e.g.
+     * bind their lazy attributes, so they always get copies of the parsed entries.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends SapBoObject> List<T> readPage(String endpoint, ObjectReader reader) throws IOException {
+        List<SapBoObject> entries = restClient.get(environment, endpoint, String.class, reader,
+                response -> readEntries(response, reader));
+        List<T> objects = new ArrayList<>(entries.size());
+        for (SapBoObject entry : entries) {
+            objects.add((T) entry.copy());
+        }
+        return objects;
+    }
+    
+    /**
+     * Look objects up by ID with their details. The distinct IDs are split into chunks of idBatchSize IDs,
+     * each fetched with one request; the chunks run concurrently on the lookup executor.
+     * @param path Collection endpoint, queried with ?ids=
+     * @param what Object kind for log and error messages
+     * @return Objects found, in the order of the IDs
+     */
+    private <T extends SapBoObject> List<T> getByIds(String path, String what, List<String> ids, Class<T> type) {
+        Set<String> distinct = new LinkedHashSet<>();
+        if (ids != null) {
+            for (String id : ids) {
+                if (StringUtils.isNotBlank(id)) {
+                    distinct.add(id);
+                }
+            }
+        }
+        if (distinct.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<String> idList = new ArrayList<>(distinct);
+        int batchSize = idBatchSize();
+        List<CompletableFuture<List<T>>> chunks = new ArrayList<>();
+        for (int from = 0; from < idList.size(); from += batchSize) {
+            List<String> chunk = idList.subList(from, Math.min(from + batchSize, idList.size()));
+            Supplier<List<T>> lookup = () -> getChunk(path, what, chunk, type);
+            // A single chunk is fetched on the calling thread
+            chunks.add(lookupExecutor != null && idList.size() > batchSize
+                    ? CompletableFuture.supplyAsync(lookup, lookupExecutor)
+                    : CompletableFuture.completedFuture(lookup.get()));
+        }
+        log.debug("Getting {} {} by ID in {} requests", idList.size(), what, chunks.size());
+        
+        Map<String, T> found = new HashMap<>();
+        for (CompletableFuture<List<T>> chunk : chunks) {
+            try {
+                for (T object : chunk.join()) {
+                    if (object.getId() != null) {
+                        found.put(object.getId(), object);
+                    }
+                }
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof SapBoApiException
+                        ? (SapBoApiException) e.getCause()
+                        : new SapBoApiException("Error getting " + what + " by ID", e.getCause());
+            }
+        }
+        
+        // Responses may hold the objects in any order, and objects that were not asked for are ignored
+        List<T> objects = new ArrayList<>(found.size());
+        for (String id : idList) {
+            T object = found.get(id);
+            if (object != null) {
+                objects.add(object);
+            }
+        }
+        return objects;
+    }
+    
+    private <T extends SapBoObject> List<T> getChunk(String path, String what, List<String> ids, Class<T> type) {
+        String endpoint = path + "?ids=" + String.join(",", ids);
+        try {
+            String response = restClient.get(environment, endpoint, String.class);
+            return readEntries(response, codecs().reader(type));
+        } catch (Exception e) {
+            throw new SapBoApiException("Error getting " + what + " by ID", e);
+        }
+    }
+    
+    private int idBatchSize() {
+        if (sapBoProperties == null || sapBoProperties.getSync() == null) {
+            return 100;
+        }
+        return Math.max(1, sapBoProperties.getSync().getIdBatchSize());
+    }
+    
+    /**
+     * Read the objects in the "entries" array of a response one at a time
+     */
+    private <T extends SapBoObject> List<T> readEntries(String response, ObjectReader reader) throws IOException {
+        List<T> objects = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return objects;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("entries".equals(field) && parser.currentToken() == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        objects.add(reader.readValue(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return objects;
+    }
 }
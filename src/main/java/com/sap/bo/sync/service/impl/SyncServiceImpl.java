@@ -4,30 +4,46 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.CircuitOpenException;
 import com.sap.bo.sync.exception.SapBoApiException;
 import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.FolderTree;
 import com.sap.bo.sync.model.Report;
 import com.sap.bo.sync.model.SapBoObject;
 import com.sap.bo.sync.model.Universe;
+import com.sap.bo.sync.partition.PartitionRun;
+import com.sap.bo.sync.partition.PartitionedSyncRunner;
+import com.sap.bo.sync.partition.SyncPartition;
+import com.sap.bo.sync.pipeline.StagedPipeline;
+import com.sap.bo.sync.pipeline.SyncExecutor;
+import com.sap.bo.sync.pipeline.SyncPriority;
 import com.sap.bo.sync.service.SapBoService;
 import com.sap.bo.sync.service.SapBoServiceFactory;
 import com.sap.bo.sync.service.SyncService;
+import com.sap.bo.sync.stream.PageSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -37,10 +53,20 @@ import java.util.stream.Collectors;
 public class SyncServiceImpl implements SyncService {
     
     private static final Logger log = LoggerFactory.getLogger(SyncServiceImpl.class);
+    
+    private static final long MIN_PAUSE_MILLIS = 100;
 
     private final SapBoServiceFactory serviceFactory;
     private final SapBoProperties sapBoProperties;
     private final ObjectMapper objectMapper;
+    private final PartitionedSyncRunner partitionRunner;
+    private final SyncExecutor syncExecutor;
+    
+    // Start of the current outage of an environment, 0 while all environments are available
+    private final AtomicLong unavailableSince = new AtomicLong();
+    
+    // Objects whose transfer failed, see getFailedObjects
+    private final AtomicLong failedObjects = new AtomicLong();
 
     /**
      * Constructor with all required dependencies
@@ -48,17 +74,27 @@ public class SyncServiceImpl implements SyncService {
      * @param serviceFactory Factory for creating SAP BO service instances
      * @param sapBoProperties SAP BO configuration properties
      * @param objectMapper JSON object mapper
+     * @param partitionRunner Runner for partitioned synchronization across nodes
+     * @param syncExecutor Executor for per-object transfers; tasks run on the caller's thread if null
      */
-    public SyncServiceImpl(SapBoServiceFactory serviceFactory, SapBoProperties sapBoProperties, ObjectMapper objectMapper) {
+    public SyncServiceImpl(SapBoServiceFactory serviceFactory, SapBoProperties sapBoProperties, ObjectMapper objectMapper,
+                           PartitionedSyncRunner partitionRunner,
+                           SyncExecutor syncExecutor) {
         this.serviceFactory = serviceFactory;
         this.sapBoProperties = sapBoProperties;
         this.objectMapper = objectMapper;
+        this.partitionRunner = partitionRunner;
+        this.syncExecutor = syncExecutor != null ? syncExecutor : SyncExecutor.callerRuns();
     }
 
     @Override
     public int syncAll(boolean forceUpdate) {
         log.info("Starting full synchronization with forceUpdate={}", forceUpdate);
         
+        if (partitionRunner != null && partitionRunner.isEnabled()) {
+            return syncAllPartitioned(forceUpdate);
+        }
+        
         int totalCount = 0;
         
         try {
@@ -83,6 +119,181 @@ public class SyncServiceImpl implements SyncService {
         }
     }
 
+    /**
+     * Synchronize all objects by publishing partitions to the shared work queue
+     * and processing them together with any other nodes that join the run
+     */
+    private int syncAllPartitioned(boolean forceUpdate) {
+        try {
+            // Folder structure is created once by the publishing node before any partition runs
+            int totalCount = syncFolders(null);
+            
+            String runId = "run-" + System.currentTimeMillis();
+            PartitionRun run = new PartitionRun();
+            run.setRunId(runId);
+            run.setForceUpdate(forceUpdate);
+            run.setPartitions(createPartitions(runId));
+            
+            totalCount += partitionRunner.run(run, this::syncPartition);
+            
+            log.info("Partitioned synchronization completed. Total objects synchronized: {}", totalCount);
+            return totalCount;
+        } catch (Exception e) {
+            log.error("Error during partitioned synchronization", e);
+            throw new SapBoApiException("Error during partitioned synchronization", e);
+        }
+    }
+    
+    /**
+     * Split the object space according to the configured partitioning strategy
+     */
+    private List<SyncPartition> createPartitions(String runId) {
+        List<SyncPartition> partitions = new ArrayList<>();
+        SapBoService sourceService = serviceFactory.getSourceService();
+        
+        // Universes and reports reference connections, so all connections go first in a partition of their own
+        SyncPartition connections = SyncPartition.forConnections(runId);
+        partitions.add(connections);
+        List<String> dependsOn = Collections.singletonList(connections.getId());
+        
+        int pageSize = Math.max(1, sapBoProperties.getSync().getStreamPageSize());
+        if ("folder".equalsIgnoreCase(partitionRunner.getStrategy())) {
+            // One partition per top-level folder subtree, and one for the objects outside all of them
+            List<SapBoObject> folders = sourceService.getFolders(null);
+            Map<String, String> parentIds = new HashMap<>();
+            for (SapBoObject folder : folders) {
+                parentIds.put(folder.getId(), folder.getParentId());
+            }
+            Map<String, SyncPartition> subtrees = new LinkedHashMap<>();
+            for (SapBoObject folder : folders) {
+                if (StringUtils.isBlank(folder.getParentId()) || !parentIds.containsKey(folder.getParentId())) {
+                    subtrees.put(folder.getId(), withObjectIds(SyncPartition.forFolder(runId, folder.getId()), dependsOn));
+                }
+            }
+            SyncPartition unfiled = withObjectIds(SyncPartition.forUnfiled(runId), dependsOn);
+            
+            // The source is listed once and every object goes to the subtree of the top-level folder above it,
+            // so objects in nested folders are covered without relying on recursive folder listings
+            for (String type : Arrays.asList("universe", "report")) {
+                PageSource.of(sourceService, type).forEach(pageSize, object -> {
+                    SyncPartition subtree = subtreeOf(object.getParentId(), parentIds, subtrees);
+                    (subtree != null ? subtree : unfiled).getObjectIds(type).add(object.getId());
+                });
+            }
+            partitions.addAll(subtrees.values());
+            partitions.add(unfiled);
+        } else {
+            // Equal ranges of the unsigned 32-bit CUID hash space
+            int count = Math.max(1, partitionRunner.getPartitionCount());
+            long rangeSize = (1L << 32) / count;
+            List<SyncPartition> ranges = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                long from = i * rangeSize;
+                long to = i == count - 1 ? 1L << 32 : from + rangeSize;
+                ranges.add(withObjectIds(SyncPartition.forHashRange(runId, i, from, to), dependsOn));
+            }
+            
+            // The source is listed once, page by page, and every partition keeps the IDs of its objects,
+            // so partitions look up their objects by ID instead of each listing the whole source again
+            for (String type : Arrays.asList("universe", "report")) {
+                PageSource.of(sourceService, type).forEach(pageSize, object -> {
+                    int index = (int) Math.min(count - 1, SyncPartition.hashOf(object) / rangeSize);
+                    ranges.get(index).getObjectIds(type).add(object.getId());
+                });
+            }
+            partitions.addAll(ranges);
+        }
+        
+        log.info("Created {} {} partitions for run {}", partitions.size(), partitionRunner.getStrategy(), runId);
+        return partitions;
+    }
+    
+    private static SyncPartition withObjectIds(SyncPartition partition, List<String> dependsOn) {
+        partition.setDependsOn(dependsOn);
+        Map<String, List<String>> objectIds = new HashMap<>();
+        objectIds.put("universe", new ArrayList<>());
+        objectIds.put("report", new ArrayList<>());
+        partition.setObjectIds(objectIds);
+        return partition;
+    }
+    
+    /**
+     * Partition of the top-level folder above a folder, or null if the folder is not in the folder listing
+     */
+    private static SyncPartition subtreeOf(String folderId, Map<String, String> parentIds, Map<String, SyncPartition> subtrees) {
+        // Bounded by the number of folders in case the listing has a cycle
+        for (int depth = 0; folderId != null && depth <= parentIds.size(); depth++) {
+            SyncPartition subtree = subtrees.get(folderId);
+            if (subtree != null || !parentIds.containsKey(folderId)) {
+                return subtree;
+            }
+            folderId = parentIds.get(folderId);
+        }
+        return null;
+    }
+    
+    @Override
+    public int syncPartition(SyncPartition partition, boolean forceUpdate) {
+        log.info("Synchronizing partition {}", partition.getId());
+        
+        SapBoService sourceService = serviceFactory.getSourceService();
+        SapBoService targetService = serviceFactory.getTargetService();
+        
+        if (partition.isConnectionsOnly()) {
+            return syncInChunks(partition, sourceService.getConnections(null, null),
+                    chunk -> syncConnectionList(chunk, targetService, forceUpdate));
+        }
+        
+        // Folder partitions published without object IDs list their subtree root
+        if (partition.getObjectIds() == null && partition.getFolderId() != null) {
+            return syncInChunks(partition, sourceService.getUniverses(partition.getFolderId(), null, null),
+                    chunk -> syncUniverseList(chunk, targetService, forceUpdate))
+                    + syncInChunks(partition, sourceService.getReports(partition.getFolderId(), null, null),
+                    chunk -> syncReportList(chunk, sourceService, targetService, forceUpdate));
+        }
+        
+        // Other partitions look up the objects listed for them when the run was created
+        List<String> universeIds = partition.getObjectIds("universe");
+        List<String> reportIds = partition.getObjectIds("report");
+        List<Universe> universes = universeIds == null || universeIds.isEmpty()
+                ? Collections.emptyList() : sourceService.getUniversesByIds(universeIds);
+        List<Report> reports = reportIds == null || reportIds.isEmpty()
+                ? Collections.emptyList() : sourceService.getReportsByIds(reportIds);
+        
+        return syncInChunks(partition, universes, chunk -> syncUniverseList(chunk, targetService, forceUpdate))
+                + syncInChunks(partition, reports, chunk -> syncReportList(chunk, sourceService, targetService, forceUpdate));
+    }
+    
+    /**
+     * Synchronize the objects of a partition a chunk at a time and stop once the node lost the lease,
+     * so two nodes never write the same objects
+     */
+    private <T extends SapBoObject> int syncInChunks(SyncPartition partition, List<T> objects, ToIntFunction<List<T>> sync) {
+        List<T> sorted = syncPriority().sort(objects);
+        int chunkSize = Math.max(1, sapBoProperties.getSync().getMaxConcurrency()) * 10;
+        int count = 0;
+        for (int from = 0; from < sorted.size(); from += chunkSize) {
+            if (partition.isLeaseLost()) {
+                throw new SapBoApiException("Lost lease on partition " + partition.getId() + " after " + count + " objects");
+            }
+            count += sync.applyAsInt(sorted.subList(from, Math.min(sorted.size(), from + chunkSize)));
+        }
+        return count;
+    }
+    
+    @Override
+    public int joinPartitionedRun() {
+        if (partitionRunner == null || !partitionRunner.isEnabled()) {
+            return 0;
+        }
+        return partitionRunner.join(this::syncPartition);
+    }
+
+    @Override
+    public long getFailedObjects() {
+        return failedObjects.get();
+    }
+
     @Override
     public int syncFolders(String path) {
         log.info("Synchronizing folders from path: {}", path);
@@ -91,34 +302,37 @@ public class SyncServiceImpl implements SyncService {
         SapBoService targetService = serviceFactory.getTargetService();
         
         try {
-            List<SapBoObject> sourceFolders = sourceService.getFolders(path);
-            log.info("Found {} folders in source environment", sourceFolders.size());
+            // Fetch both hierarchies once and compare them by path
+            FolderTree sourceTree = FolderTree.of(sourceService.getFolders(path));
+            FolderTree targetTree = FolderTree.of(targetService.getFolders(path));
+            log.info("Found {} folders in source and {} folders in target environment", sourceTree.size(), targetTree.size());
+            
+            List<List<SapBoObject>> missingLevels = sourceTree.missingIn(targetTree);
+            
+            // A subtree listing lacks the target ancestors of its top folders, which are looked up in the full tree
+            FolderTree parentTree = StringUtils.isNotBlank(path) && hasUnlistedParent(missingLevels, sourceTree, targetTree)
+                    ? FolderTree.of(targetService.getFolders(null)) : targetTree;
+            
+            // Target IDs of folders by path, filled in as folders get created
+            Map<String, String> targetIdsByPath = new ConcurrentHashMap<>();
+            Set<String> failedPaths = ConcurrentHashMap.newKeySet();
             
             int syncCount = 0;
-            for (SapBoObject folder : sourceFolders) {
-                try {
-                    // Check if folder exists in target
-                    List<SapBoObject> targetFolders = targetService.search(folder.getName(), 
-                            Collections.singletonList("folder"), null, null);
-                    boolean exists = targetFolders.stream()
-                            .anyMatch(tf -> tf.getName().equals(folder.getName()) && 
-                                    (StringUtils.isBlank(folder.getParentId()) || 
-                                     StringUtils.equals(tf.getParentId(), folder.getParentId())));
-                    
-                    if (!exists) {
-                        // Create folder in target - implementation would depend on actual API
-                        // This is a placeholder as the interface doesn't have a createFolder method
-                        // targetService.saveFolder(folder);
+            for (List<SapBoObject> level : missingLevels) {
+                // Folders of one level only depend on earlier levels, so a level is created in parallel
+                List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+                for (SapBoObject folder : level) {
+                    futures.add(syncExecutor.supplyAsync(() -> createFolder(folder, sourceTree, parentTree,
+                            targetService, targetIdsByPath, failedPaths)));
+                }
+                for (CompletableFuture<Boolean> future : futures) {
+                    if (future.join()) {
                         syncCount++;
-                        log.debug("Created folder: {}", folder.getName());
-                    } else {
-                        log.debug("Folder already exists: {}", folder.getName());
                     }
-                } catch (Exception e) {
-                    log.error("Error processing folder {}: {}", folder.getName(), e.getMessage());
                 }
             }
             
+            failedObjects.addAndGet(failedPaths.size());
             log.info("Synchronized {} folders", syncCount);
             return syncCount;
         } catch (Exception e) {
@@ -126,16 +340,88 @@ public class SyncServiceImpl implements SyncService {
             throw new SapBoApiException("Failed to synchronize folders", e);
         }
     }
+    
+    /**
+     * Check whether a missing folder has a parent that is neither in the target listing nor missing itself
+     */
+    private static boolean hasUnlistedParent(List<List<SapBoObject>> missingLevels, FolderTree sourceTree, FolderTree targetTree) {
+        Set<String> missingPaths = new HashSet<>();
+        for (List<SapBoObject> level : missingLevels) {
+            for (SapBoObject folder : level) {
+                missingPaths.add(sourceTree.getPath(folder.getId()));
+            }
+        }
+        for (String missingPath : missingPaths) {
+            String parentPath = FolderTree.parentPath(missingPath);
+            if (parentPath != null && !targetTree.contains(parentPath) && !missingPaths.contains(parentPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Create a single missing folder under its parent in the target environment
+     * @param parentTree Target folders that existing parents are looked up in
+     * @return true if the folder was created
+     */
+    private boolean createFolder(SapBoObject folder, FolderTree sourceTree, FolderTree parentTree, SapBoService targetService,
+                                 Map<String, String> targetIdsByPath, Set<String> failedPaths) {
+        String path = sourceTree.getPath(folder.getId());
+        String parentPath = FolderTree.parentPath(path);
+        
+        if (parentPath != null && failedPaths.contains(parentPath)) {
+            log.warn("Skipping folder {} because its parent could not be created", path);
+            failedPaths.add(path);
+            return false;
+        }
+        
+        SapBoObject newFolder = new SapBoObject();
+        newFolder.setName(folder.getName());
+        newFolder.setDescription(folder.getDescription());
+        newFolder.setType(folder.getType());
+        newFolder.setCuid(folder.getCuid());
+        newFolder.setParentCuid(folder.getParentCuid());
+        newFolder.setPath(path);
+        
+        // Parent is either an existing target folder or one created in an earlier level
+        if (parentPath != null) {
+            SapBoObject existingParent = parentTree.get(parentPath);
+            String parentId = existingParent != null ? existingParent.getId() : targetIdsByPath.get(parentPath);
+            if (parentId == null) {
+                // Without its parent the folder would end up at the top level of the target
+                log.error("Skipping folder {} because its parent {} was not found in the target", path, parentPath);
+                failedPaths.add(path);
+                return false;
+            }
+            newFolder.setParentId(parentId);
+        }
+        
+        try {
+            SapBoObject created = targetService.createFolder(newFolder);
+            if (created == null || created.getId() == null) {
+                // Without an ID the subfolders could not be created under it
+                log.error("Error creating folder {}: no folder ID returned", path);
+                failedPaths.add(path);
+                return false;
+            }
+            targetIdsByPath.put(path, created.getId());
+            log.debug("Created folder: {}", path);
+            return true;
+        } catch (Exception e) {
+            log.error("Error creating folder {}: {}", path, e.getMessage());
+            failedPaths.add(path);
+            return false;
+        }
+    }
 
     @Override
-    @Retryable(value = {SapBoApiException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public int syncReports(List<String> reportIds, Map<String, String> options) {
         // Call the overloaded method with null for modifiedAfter parameter
         return syncReports(reportIds, null, options);
     }
     
     @Override
-    @Retryable(value = {SapBoApiException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public int syncReports(List<String> folderIds, Date modifiedAfter, Map<String, String> options) {
         log.info("Synchronizing reports with folderIds: {}, modifiedAfter: {}", 
                 folderIds != null ? folderIds : "all", modifiedAfter);
@@ -146,13 +432,21 @@ public class SyncServiceImpl implements SyncService {
         boolean forceUpdate = options != null && "true".equals(options.get("forceUpdate"));
         
         try {
+            if (sapBoProperties.getSync().getPipeline().isEnabled()) {
+                // Stream the listing through the pipeline instead of materializing it first
+                boolean byId = folderIds != null && !folderIds.isEmpty() && folderIds.stream().allMatch(id -> !id.contains("/"));
+                int totalCount = syncReportsPipelined(emit -> listReports(sourceService, folderIds, modifiedAfter, options, emit),
+                        byId, sourceService, targetService, forceUpdate);
+                log.info("Synchronized {} reports", totalCount);
+                return totalCount;
+            }
+            
             List<Report> sourceReports = new ArrayList<>();
             
             if (folderIds != null && !folderIds.isEmpty() && folderIds.stream().allMatch(id -> !id.contains("/"))) {
                 // Specific report IDs requested (if the IDs don't contain slashes, they're likely object IDs not folder IDs)
-                for (String id : folderIds) {
-                    sourceReports.add(sourceService.getReport(id));
-                }
+                sourceReports.addAll(sourceService.getReportsByIds(folderIds));
+                warnIfMissing("reports", folderIds, sourceReports.size());
             } else if (folderIds != null && !folderIds.isEmpty()) {
                 // Reports from specific folders
                 for (String folderId : folderIds) {
@@ -165,25 +459,7 @@ public class SyncServiceImpl implements SyncService {
             
             log.info("Found {} reports in source environment", sourceReports.size());
             
-            // Create batches for parallel processing
-            int batchSize = sapBoProperties.getSync().getBatchSize();
-            List<List<Report>> batches = createBatches(sourceReports, batchSize);
-            
-            // Process batches in parallel
-            List<CompletableFuture<Integer>> futures = new ArrayList<>();
-            for (List<Report> batch : batches) {
-                futures.add(processBatch(batch, targetService, forceUpdate));
-            }
-            
-            // Wait for all batches to complete and count total
-            int totalCount = 0;
-            for (CompletableFuture<Integer> future : futures) {
-                try {
-                    totalCount += future.get();
-                } catch (InterruptedException | ExecutionException e) {
-                    log.error("Error waiting for batch completion: {}", e.getMessage());
-                }
-            }
+            int totalCount = syncReportList(sourceReports, sourceService, targetService, forceUpdate);
             
             log.info("Synchronized {} reports", totalCount);
             return totalCount;
@@ -194,14 +470,12 @@ public class SyncServiceImpl implements SyncService {
     }
 
     @Override
-    @Retryable(value = {SapBoApiException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public int syncUniverses(List<String> universeIds, Map<String, String> options) {
         // Call the overloaded method with null for modifiedAfter parameter
         return syncUniverses(universeIds, null, options);
     }
     
     @Override
-    @Retryable(value = {SapBoApiException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public int syncUniverses(List<String> folderIds, Date modifiedAfter, Map<String, String> options) {
         log.info("Synchronizing universes with folderIds: {}, modifiedAfter: {}", 
                 folderIds != null ? folderIds : "all", modifiedAfter);
@@ -216,9 +490,8 @@ public class SyncServiceImpl implements SyncService {
             
             if (folderIds != null && !folderIds.isEmpty() && folderIds.stream().allMatch(id -> !id.contains("/"))) {
                 // Specific universe IDs requested (if the IDs don't contain slashes, they're likely object IDs not folder IDs)
-                for (String id : folderIds) {
-                    sourceUniverses.add(sourceService.getUniverse(id));
-                }
+                sourceUniverses.addAll(sourceService.getUniversesByIds(folderIds));
+                warnIfMissing("universes", folderIds, sourceUniverses.size());
             } else if (folderIds != null && !folderIds.isEmpty()) {
                 // Universes from specific folders
                 for (String folderId : folderIds) {
@@ -231,25 +504,7 @@ public class SyncServiceImpl implements SyncService {
             
             log.info("Found {} universes in source environment", sourceUniverses.size());
             
-            int totalCount = 0;
-            for (Universe universe : sourceUniverses) {
-                try {
-                    // Check if universe exists in target
-                    Universe targetUniverse = targetService.getUniverse(universe.getId());
-                    boolean exists = targetUniverse != null;
-                    
-                    if (!exists || forceUpdate) {
-                        // Create or update universe in target
-                        targetService.saveUniverse(universe);
-                        totalCount++;
-                        log.debug("{}d universe: {}", exists ? "Update" : "Create", universe.getName());
-                    } else {
-                        log.debug("Universe already exists and forceUpdate is false: {}", universe.getName());
-                    }
-                } catch (Exception e) {
-                    log.error("Error processing universe {}: {}", universe.getName(), e.getMessage());
-                }
-            }
+            int totalCount = syncUniverseList(sourceUniverses, targetService, forceUpdate);
             
             log.info("Synchronized {} universes", totalCount);
             return totalCount;
@@ -260,7 +515,6 @@ public class SyncServiceImpl implements SyncService {
     }
     
     @Override
-    @Retryable(value = {SapBoApiException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public int syncUniverseDependencies(String universeId, List<String> dependencyTypes) {
         log.info("Synchronizing dependencies for universe: {}", universeId);
         
@@ -306,6 +560,7 @@ public class SyncServiceImpl implements SyncService {
                         log.warn("Unsupported dependency type: {} for ID: {}", type, id);
                     }
                 } catch (Exception e) {
+                    failedObjects.incrementAndGet();
                     log.error("Error synchronizing dependency {} of type {}: {}", id, type, e.getMessage());
                 }
             }
@@ -319,15 +574,35 @@ public class SyncServiceImpl implements SyncService {
     }
     
     @Override
-    @Retryable(value = {SapBoApiException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public int syncConnections(List<String> connectionIds, Map<String, String> options) {
-        // Call the overloaded method with null for modifiedAfter parameter
-        Date modifiedAfter = null;
-        return syncConnections(modifiedAfter, options);
+        if (connectionIds == null || connectionIds.isEmpty()) {
+            // Call the overloaded method with null for modifiedAfter parameter
+            Date modifiedAfter = null;
+            return syncConnections(modifiedAfter, options);
+        }
+        
+        log.info("Synchronizing connections with IDs: {}", connectionIds);
+        
+        SapBoService sourceService = serviceFactory.getSourceService();
+        SapBoService targetService = serviceFactory.getTargetService();
+        
+        boolean forceUpdate = options != null && "true".equals(options.get("forceUpdate"));
+        
+        try {
+            List<Connection> sourceConnections = sourceService.getConnectionsByIds(connectionIds);
+            warnIfMissing("connections", connectionIds, sourceConnections.size());
+            
+            int totalCount = syncConnectionList(sourceConnections, targetService, forceUpdate);
+            
+            log.info("Synchronized {} connections", totalCount);
+            return totalCount;
+        } catch (Exception e) {
+            log.error("Error synchronizing connections: {}", e.getMessage());
+            throw new SapBoApiException("Failed to synchronize connections", e);
+        }
     }
     
     @Override
-    @Retryable(value = {SapBoApiException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public int syncConnections(Date modifiedAfter, Map<String, String> options) {
         log.info("Synchronizing connections with modifiedAfter: {}", modifiedAfter);
         
@@ -342,25 +617,7 @@ public class SyncServiceImpl implements SyncService {
             
             log.info("Found {} connections in source environment", sourceConnections.size());
             
-            int totalCount = 0;
-            for (Connection connection : sourceConnections) {
-                try {
-                    // Check if connection exists in target
-                    Connection targetConnection = targetService.getConnection(connection.getId());
-                    boolean exists = targetConnection != null;
-                    
-                    if (!exists || forceUpdate) {
-                        // Create or update connection in target
-                        targetService.saveConnection(connection);
-                        totalCount++;
-                        log.debug("{}d connection: {}", exists ? "Update" : "Create", connection.getName());
-                    } else {
-                        log.debug("Connection already exists and forceUpdate is false: {}", connection.getName());
-                    }
-                } catch (Exception e) {
-                    log.error("Error processing connection {}: {}", connection.getName(), e.getMessage());
-                }
-            }
+            int totalCount = syncConnectionList(sourceConnections, targetService, forceUpdate);
             
             log.info("Synchronized {} connections", totalCount);
             return totalCount;
@@ -371,54 +628,272 @@ public class SyncServiceImpl implements SyncService {
     }
     
     /**
-     * Process a batch of reports asynchronously
+     * Log requested objects that the source environment does not have
      */
-    @Async
-    private CompletableFuture<Integer> processBatch(List<Report> batch, SapBoService targetService, boolean forceUpdate) {
-        int count = 0;
-        for (Report report : batch) {
+    private void warnIfMissing(String what, List<String> requestedIds, int found) {
+        long requested = requestedIds.stream().distinct().count();
+        if (found < requested) {
+            log.warn("{} of {} requested {} were not found in source environment", requested - found, requested, what);
+        }
+    }
+    
+    /**
+     * Emit the reports to synchronize for the staged pipeline.
+     * Requested report IDs are looked up with their details in bulk, so the pipeline does not fetch them again.
+     */
+    private void listReports(SapBoService sourceService, List<String> folderIds, Date modifiedAfter,
+                             Map<String, String> options, Consumer<Report> emit) {
+        // With priorities reports are reordered in a bounded window on their way into the pipeline, so the
+        // listing is not collected first; the order is exact for listings that fit into the window
+        SyncPriority.Buffer<Report> target = syncPriority().buffer(priorityBufferSize(), emit);
+        
+        if (folderIds != null && !folderIds.isEmpty() && folderIds.stream().allMatch(id -> !id.contains("/"))) {
+            List<Report> reports = sourceService.getReportsByIds(folderIds);
+            warnIfMissing("reports", folderIds, reports.size());
+            reports.forEach(target);
+        } else if (folderIds != null && !folderIds.isEmpty()) {
+            for (String folderId : folderIds) {
+                sourceService.getReports(folderId, modifiedAfter, options).forEach(target);
+            }
+        } else {
+            sourceService.getReports(null, modifiedAfter, options).forEach(target);
+        }
+        target.flush();
+    }
+    
+    /**
+     * Get the order in which objects are handed to the sync workers
+     */
+    private SyncPriority syncPriority() {
+        SapBoProperties.SyncProperties sync = sapBoProperties.getSync();
+        return SyncPriority.of(sync != null ? sync.getPriority() : null);
+    }
+    
+    private int priorityBufferSize() {
+        SapBoProperties.SyncProperties sync = sapBoProperties.getSync();
+        return sync != null && sync.getPriority() != null ? sync.getPriority().getBufferSize() : 1;
+    }
+    
+    /**
+     * Synchronize reports through the staged pipeline: details, diff, content and write run concurrently
+     * with their own workers, and the bounded queues between them throttle the listing to the write rate
+     * @param producer Emits the source reports
+     * @param detailed Whether the emitted reports already carry their details
+     * @return Number of reports created or updated
+     */
+    private int syncReportsPipelined(Consumer<Consumer<Report>> producer, boolean detailed, SapBoService sourceService,
+                                     SapBoService targetService, boolean forceUpdate) {
+        SapBoProperties.PipelineProperties properties = sapBoProperties.getSync().getPipeline();
+        
+        StagedPipeline<ReportSyncItem> pipeline = new StagedPipeline<ReportSyncItem>("reports", properties.getQueueCapacity())
+                .stage("details", properties.getDetailWorkers(), item -> pauseWhileCircuitOpen(item, () -> {
+                    if (detailed) {
+                        return item;
+                    }
+                    Report details = sourceService.getReport(item.report.getId());
+                    if (details != null) {
+                        item.report = details;
+                    }
+                    return item;
+                }))
+                .stage("diff", properties.getDiffWorkers(), item -> pauseWhileCircuitOpen(item, () -> {
+                    item.exists = targetService.getReport(item.report.getId()) != null;
+                    if (item.exists && !forceUpdate) {
+                        log.debug("Report already exists and forceUpdate is false: {}", item.report.getName());
+                        return null;
+                    }
+                    return item;
+                }))
+                .stage("content", properties.getContentWorkers(), item -> pauseWhileCircuitOpen(item, () -> {
+                    // Only reports that will be written get their document downloaded
+                    if (item.report.getContentValue().peek() == null) {
+                        byte[] content = sourceService.getReportContent(item.report);
+                        if (content != null) {
+                            item.content = Base64.getEncoder().encodeToString(content);
+                        }
+                    }
+                    return item;
+                }))
+                .stage("write", properties.getWriteWorkers(), item -> pauseWhileCircuitOpen(item, () -> {
+                    targetService.saveReport(item.toReport(objectMapper));
+                    log.debug("{}d report: {}", item.exists ? "Update" : "Create", item.report.getName());
+                    return item;
+                }));
+        
+        try {
+            return pipeline.run(emit -> producer.accept(report -> emit.accept(new ReportSyncItem(report))));
+        } finally {
+            failedObjects.addAndGet(pipeline.getFailed());
+        }
+    }
+    
+    /**
+     * Create or update the given reports in the target, one concurrent transfer per report or through the staged pipeline
+     */
+    private int syncReportList(List<Report> reports, SapBoService sourceService, SapBoService targetService, boolean forceUpdate) {
+        reports = syncPriority().sort(reports);
+        if (sapBoProperties.getSync().getPipeline().isEnabled()) {
+            return syncReportsPipelined(reports::forEach, false, sourceService, targetService, forceUpdate);
+        }
+        
+        return transferAll(reports, report -> syncReport(report, targetService, forceUpdate));
+    }
+    
+    /**
+     * Create or update the given universes in the target
+     */
+    private int syncUniverseList(List<Universe> universes, SapBoService targetService, boolean forceUpdate) {
+        return transferAll(syncPriority().sort(universes), universe -> {
             try {
-                // Check if report exists in target
-                Report targetReport = targetService.getReport(report.getId());
-                boolean exists = targetReport != null;
+                // Check if universe exists in target
+                Universe targetUniverse = targetService.getUniverse(universe.getId());
+                boolean exists = targetUniverse != null;
                 
                 if (!exists || forceUpdate) {
-                    // Create or update report in target
-                    targetService.saveReport(report);
-                    count++;
-                    log.debug("{}d report: {}", exists ? "Update" : "Create", report.getName());
-                } else {
-                    log.debug("Report already exists and forceUpdate is false: {}", report.getName());
+                    // Create or update universe in target
+                    targetService.saveUniverse(universe);
+                    log.debug("{}d universe: {}", exists ? "Update" : "Create", universe.getName());
+                    return 1;
                 }
+                log.debug("Universe already exists and forceUpdate is false: {}", universe.getName());
             } catch (Exception e) {
-                log.error("Error processing report {}: {}", report.getName(), e.getMessage());
+                rethrowIfCircuitOpen(e);
+                failedObjects.incrementAndGet();
+                log.error("Error processing universe {}: {}", universe.getName(), e.getMessage());
             }
+            return 0;
+        });
+    }
+    
+    /**
+     * Create or update the given connections in the target
+     */
+    private int syncConnectionList(List<Connection> connections, SapBoService targetService, boolean forceUpdate) {
+        return transferAll(syncPriority().sort(connections), connection -> {
+            try {
+                // Check if connection exists in target
+                Connection targetConnection = targetService.getConnection(connection.getId());
+                boolean exists = targetConnection != null;
+                
+                if (!exists || forceUpdate) {
+                    // Create or update connection in target
+                    targetService.saveConnection(connection);
+                    log.debug("{}d connection: {}", exists ? "Update" : "Create", connection.getName());
+                    return 1;
+                }
+                log.debug("Connection already exists and forceUpdate is false: {}", connection.getName());
+            } catch (Exception e) {
+                rethrowIfCircuitOpen(e);
+                failedObjects.incrementAndGet();
+                log.error("Error processing connection {}: {}", connection.getName(), e.getMessage());
+            }
+            return 0;
+        });
+    }
+    
+    /**
+     * Create or update a single report in the target
+     * @return 1 if the report was written, otherwise 0
+     */
+    private int syncReport(Report report, SapBoService targetService, boolean forceUpdate) {
+        try {
+            // Check if report exists in target
+            Report targetReport = targetService.getReport(report.getId());
+            boolean exists = targetReport != null;
+            
+            if (!exists || forceUpdate) {
+                // Create or update report in target
+                targetService.saveReport(report);
+                log.debug("{}d report: {}", exists ? "Update" : "Create", report.getName());
+                return 1;
+            }
+            log.debug("Report already exists and forceUpdate is false: {}", report.getName());
+        } catch (Exception e) {
+            rethrowIfCircuitOpen(e);
+            failedObjects.incrementAndGet();
+            log.error("Error processing report {}: {}", report.getName(), e.getMessage());
         }
-        return CompletableFuture.completedFuture(count);
+        return 0;
     }
     
     /**
-     * Create batches from a list
+     * Run one transfer per object on the sync executor and wait for all of them.
+     * Transfers start in the order of the list.
+     * @return Sum of the transfer results
      */
-    private <T> List<List<T>> createBatches(List<T> items, int batchSize) {
-        if (items == null || items.isEmpty()) {
-            return Collections.emptyList();
+    private <T> int transferAll(List<T> objects, ToIntFunction<T> transfer) {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(objects.size());
+        for (T object : objects) {
+            futures.add(syncExecutor.supplyAsync(() -> pauseWhileCircuitOpen(object, () -> transfer.applyAsInt(object))));
         }
         
-        int totalItems = items.size();
-        // Calculate total batches for logging purposes
-        int totalBatches = (totalItems + batchSize - 1) / batchSize; // Ceiling division
-        log.debug("Processing {} items in {} batches of size {}", totalItems, totalBatches, batchSize);
-        
-        return new ArrayList<>(
-                items.stream()
-                        .collect(Collectors.groupingBy(item -> items.indexOf(item) / batchSize))
-                        .values()
-        );
+        int totalCount = 0;
+        for (CompletableFuture<Integer> future : futures) {
+            try {
+                totalCount += future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SapBoApiException("Interrupted while waiting for transfers", e);
+            } catch (ExecutionException e) {
+                failedObjects.incrementAndGet();
+                log.error("Error waiting for transfer completion: {}", e.getMessage());
+            }
+        }
+        return totalCount;
+    }
+    
+    /**
+     * Run the work for one object, pausing while the circuit breaker of an environment is open and
+     * resuming once it lets requests through again. If an environment stays unavailable for longer than
+     * sap.bo.sync.maxPause, the remaining work fails fast instead.
+     */
+    private <R> R pauseWhileCircuitOpen(Object object, Supplier<R> work) {
+        while (true) {
+            try {
+                R result = work.get();
+                long pausedSince = unavailableSince.getAndSet(0);
+                if (pausedSince > 0) {
+                    log.info("SAP BO is available again, resuming sync after {} ms", System.currentTimeMillis() - pausedSince);
+                }
+                return result;
+            } catch (RuntimeException e) {
+                CircuitOpenException circuitOpen = CircuitOpenException.find(e);
+                if (circuitOpen == null) {
+                    throw e;
+                }
+                long now = System.currentTimeMillis();
+                if (unavailableSince.compareAndSet(0, now)) {
+                    log.warn("Pausing sync: {}", circuitOpen.getMessage());
+                }
+                long pausedSince = unavailableSince.get();
+                if (pausedSince > 0 && now - pausedSince > sapBoProperties.getSync().getMaxPause()) {
+                    log.error("Giving up on {}: SAP BO unavailable for {} ms", object, now - pausedSince);
+                    throw circuitOpen;
+                }
+                
+                long wait = Math.max(MIN_PAUSE_MILLIS, circuitOpen.getRetryAfterMillis());
+                log.debug("Pausing {} for {} ms", object, wait);
+                try {
+                    Thread.sleep(wait);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new SapBoApiException("Interrupted while paused", interrupted);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Let an open circuit through per-object error handling so that the transfer is paused instead of skipped
+     */
+    private static void rethrowIfCircuitOpen(Exception e) {
+        CircuitOpenException circuitOpen = CircuitOpenException.find(e);
+        if (circuitOpen != null) {
+            throw circuitOpen;
+        }
     }
     
     @Override
-    @Retryable(value = {SapBoApiException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public int syncIncremental(Date modifiedAfter, List<String> folderIds, boolean forceUpdate) {
         log.info("Starting incremental synchronization with modifiedAfter: {}, folderIds: {}, forceUpdate: {}", 
                 modifiedAfter, folderIds != null ? folderIds : "all", forceUpdate);
@@ -564,15 +1039,11 @@ public class SyncServiceImpl implements SyncService {
      * Get environment by name
      */
     private SapBoProperties.BoEnvironment getEnvironmentByName(String name) {
-        if ("source".equalsIgnoreCase(name)) {
-            return sapBoProperties.getSource();
-        } else if ("target".equalsIgnoreCase(name)) {
-            return sapBoProperties.getTarget();
-        } else {
-            // Custom environment lookup logic could be added here
+        SapBoProperties.BoEnvironment environment = sapBoProperties.findEnvironment(name);
+        if (environment == null) {
             log.warn("Unknown environment name: {}", name);
-            return null;
         }
+        return environment;
     }
     
     /**
@@ -587,4 +1058,34 @@ public class SyncServiceImpl implements SyncService {
         
         return differences;
     }
+    
+    /**
+     * Report passing through the staged pipeline
+     */
+    private static final class ReportSyncItem {
+        private Report report;
+        private boolean exists;
+        private String content; // Base64-encoded document downloaded by the content stage
+        
+        private ReportSyncItem(Report report) {
+            this.report = report;
+        }
+        
+        /**
+         * Report to write; source objects may be shared with the object cache, so content goes onto a copy
+         */
+        private Report toReport(ObjectMapper objectMapper) {
+            if (content == null) {
+                return report;
+            }
+            Report copy = objectMapper.convertValue(report, Report.class);
+            copy.setContent(content);
+            return copy;
+        }
+        
+        @Override
+        public String toString() {
+            return "report " + report.getId();
+        }
+    }
 }
@@ -0,0 +1,192 @@
+package com.sap.bo.sync.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streams search results and inventories as newline-delimited JSON, one object per line.
+ *
+ * Objects are requested from the environment one page of streamPageSize objects at a time and every page
+ * is written and flushed before the next one is requested, so the first rows reach the client at once and
+ * the server holds at most one page in memory. When a row limit cuts the results short, the last line is
+ * {"nextCursor": "..."}; passing the cursor back continues right after the last row written. Without that
+ * line the results are complete.
+ */
+@Component
+public class ObjectStreamer {
+
+    private static final Logger log = LoggerFactory.getLogger(ObjectStreamer.class);
+
+    public static final String NEXT_CURSOR = "nextCursor";
+
+    private final SapBoServiceFactory serviceFactory;
+    private final SapBoProperties sapBoProperties;
+    private final ObjectWriter writer;
+
+    public ObjectStreamer(SapBoServiceFactory serviceFactory, SapBoProperties sapBoProperties, ObjectMapper objectMapper) {
+        this.serviceFactory = serviceFactory;
+        this.sapBoProperties = sapBoProperties;
+        // Rows are flushed per page, not per object
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Stream the results of a search in the source environment
+     * @param query Search query
+     * @param objectTypes Object types to search for, or null for all
+     * @param cursor Cursor returned by a previous call, or null to start at the first result
+     * @param limit Maximum number of objects to write, or 0 for all
+     */
+    public StreamingResponseBody search(String query, List<String> objectTypes, String cursor, int limit) {
+        SapBoService service = serviceFactory.getSourceService();
+        List<PageSource> sources = Collections.singletonList(
+                new PageSource("search", true, page -> service.search(query, objectTypes, null, page)));
+        return stream("search results", sources, Cursor.decode(cursor, sources.size()), limit);
+    }
+
+    /**
+     * Stream the inventory of an environment, one object type after another
+     * @param environment Environment name: "source", "target" or a named environment
+     * @param types Object types to include: folder, connection, universe and/or report
+     * @param cursor Cursor returned by a previous call, or null to start at the first object
+     * @param limit Maximum number of objects to write, or 0 for all
+     */
+    public StreamingResponseBody inventory(String environment, List<String> types, String cursor, int limit) {
+        SapBoProperties.BoEnvironment boEnvironment = sapBoProperties.findEnvironment(environment);
+        if (boEnvironment == null) {
+            throw new SapBoApiException("Unknown environment: " + environment);
+        }
+        SapBoService service = serviceFactory.getService(boEnvironment);
+
+        List<PageSource> sources = new ArrayList<>();
+        for (String type : types) {
+            sources.add(PageSource.of(service, type));
+        }
+        return stream("inventory of " + environment, sources, Cursor.decode(cursor, sources.size()), limit);
+    }
+
+    private StreamingResponseBody stream(String what, List<PageSource> sources, Cursor start, int limit) {
+        int pageSize = Math.max(1, sapBoProperties.getSync().getStreamPageSize());
+        long maxRows = limit > 0 ? limit : Long.MAX_VALUE;
+
+        return out -> {
+            long startTime = System.currentTimeMillis();
+            int source = start.source;
+            long offset = start.offset;
+            long written = 0;
+
+            try (JsonGenerator generator = writer.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                while (source < sources.size() && written < maxRows) {
+                    PageSource pageSource = sources.get(source);
+                    boolean pageable = pageSource.isPageable();
+                    boolean exhausted = false;
+                    String previousFirstId = null;
+
+                    // Pages of one object type until it runs out or the row limit is reached
+                    while (written < maxRows) {
+                        int page = pageable ? (int) (offset / pageSize) + 1 : 1;
+                        List<? extends SapBoObject> objects = pageSource.fetch(page, pageSize);
+                        if (pageable) {
+                            // A server that ignores paging returns the first page again
+                            String firstId = objects.isEmpty() ? null : objects.get(0).getId();
+                            if (page > 1 && firstId != null && firstId.equals(previousFirstId)) {
+                                exhausted = true;
+                                break;
+                            }
+                            previousFirstId = firstId;
+                        }
+
+                        long skip = pageable ? offset % pageSize : offset;
+                        int position = (int) Math.min(skip, objects.size());
+                        for (; position < objects.size() && written < maxRows; position++) {
+                            writer.writeValue(generator, objects.get(position));
+                            generator.writeRaw('\n');
+                            written++;
+                            offset++;
+                        }
+                        generator.flush();
+
+                        if (position < objects.size()) {
+                            break;
+                        }
+                        if (!pageable || objects.size() < pageSize) {
+                            exhausted = true;
+                            break;
+                        }
+                    }
+
+                    if (!exhausted) {
+                        break;
+                    }
+                    source++;
+                    offset = 0;
+                }
+
+                if (source < sources.size()) {
+                    generator.writeStartObject();
+                    generator.writeStringField(NEXT_CURSOR, new Cursor(source, offset).encode());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+            } catch (IOException | RuntimeException e) {
+                // The response is already committed; the client sees a truncated stream without a cursor
+                log.error("Streaming {} failed after {} objects: {}", what, written, e.getMessage());
+                throw e;
+            }
+            log.info("Streamed {} objects of {} in {} ms", written, what, System.currentTimeMillis() - startTime);
+        };
+    }
+
+    /**
+     * Position in a stream: the object type and the number of its objects already written
+     */
+    static final class Cursor {
+        private final int source;
+        private final long offset;
+
+        Cursor(int source, long offset) {
+            this.source = source;
+            this.offset = offset;
+        }
+
+        String encode() {
+            String position = source + ":" + offset;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor, int sources) {
+            if (cursor == null || cursor.isEmpty()) {
+                return new Cursor(0, 0);
+            }
+            try {
+                String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+                Cursor decoded = new Cursor(Integer.parseInt(position[0]), Long.parseLong(position[1]));
+                if (position.length != 2 || decoded.source < 0 || decoded.source > sources || decoded.offset < 0) {
+                    throw new IllegalArgumentException("Cursor out of range");
+                }
+                return decoded;
+            } catch (RuntimeException e) {
+                throw new SapBoApiException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.sap.bo.sync.stream;
+
+import com.sap.bo.sync.inventory.InventoryLoader;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.service.SapBoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * One object type of an environment, read page by page through the page and pagesize listing options
+ */
+public final class PageSource {
+
+    private static final Logger log = LoggerFactory.getLogger(PageSource.class);
+
+    private final String name;
+    private final boolean pageable;
+    private final PageFetcher fetcher;
+
+    PageSource(String name, boolean pageable, PageFetcher fetcher) {
+        this.name = name;
+        this.pageable = pageable;
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Create the source of all objects of one type in an environment
+     * @param service Service of the environment
+     * @param type Object type: folder, connection, universe or report
+     * @throws IllegalArgumentException if the type is not supported
+     */
+    public static PageSource of(SapBoService service, String type) {
+        switch (type) {
+            case "folder":
+                // The folder tree is read in one request
+                return new PageSource(type, false, page -> service.getFolders(null));
+            case "connection":
+                return new PageSource(type, true, page -> service.getConnections(null, page));
+            case "universe":
+                return new PageSource(type, true, page -> service.getUniverses(null, null, page));
+            case "report":
+                return new PageSource(type, true, page -> service.getReports(null, null, page));
+            default:
+                throw new IllegalArgumentException("Unsupported object type: " + type
+                        + ", expected one of " + InventoryLoader.ALL_TYPES);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Whether the objects are read in pages; otherwise every fetch returns all of them
+     */
+    public boolean isPageable() {
+        return pageable;
+    }
+
+    /**
+     * Fetch one page
+     * @param page Page number, starting at 1
+     * @param pageSize Objects per page
+     */
+    public List<? extends SapBoObject> fetch(int page, int pageSize) {
+        Map<String, String> options = new HashMap<>();
+        options.put("page", String.valueOf(page));
+        options.put("pagesize", String.valueOf(pageSize));
+        log.debug("Fetching page {} of {}", page, name);
+        return fetcher.fetch(options);
+    }
+
+    /**
+     * Read all objects, one page at a time, so only one page is held in memory
+     * @param pageSize Objects per page
+     * @param action Receives every object
+     * @return Number of objects read
+     */
+    public long forEach(int pageSize, Consumer<? super SapBoObject> action) {
+        long count = 0;
+        String previousFirstId = null;
+        for (int page = 1; ; page++) {
+            List<? extends SapBoObject> objects = fetch(page, pageSize);
+            if (pageable) {
+                // A server that ignores paging returns the first page again
+                String firstId = objects.isEmpty() ? null : objects.get(0).getId();
+                if (page > 1 && firstId != null && firstId.equals(previousFirstId)) {
+                    return count;
+                }
+                previousFirstId = firstId;
+            }
+            objects.forEach(action);
+            count += objects.size();
+            if (!pageable || objects.size() < pageSize) {
+                return count;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface PageFetcher {
+        List<? extends SapBoObject> fetch(Map<String, String> pageOptions);
+    }
+}
@@ -0,0 +1,143 @@
+package com.sap.bo.sync.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.sap.bo.sync.client.SapBoRestClient;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.ObjectCodecs;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.service.impl.SapBoServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark of JSON databinding for SAP BO objects: ObjectMapper lookups per call against prebuilt
+ * readers and writers, each with reflective and with generated accessors. Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+public class DatabindBenchmarkTest {
+
+    private static final int CONNECTIONS = 500;
+    private static final long RUN_MILLIS = 2000;
+
+    @Test
+    public void benchmarkDatabinding() throws IOException {
+        ObjectMapper plain = new ObjectMapper();
+        ObjectMapper accelerated = new ObjectMapper().registerModule(new BlackbirdModule());
+        List<Connection> connections = connections();
+        String listing = plain.writeValueAsString(Collections.singletonMap("entries", connections));
+        String report = plain.writeValueAsString(report());
+
+        System.out.println("Java " + System.getProperty("java.version") + ", listing of " + CONNECTIONS
+                + " connections (" + listing.length() + " bytes), report of " + report.length() + " bytes");
+        System.out.printf("%-28s %-12s %14s%n", "operation", "accessors", "ops/s");
+
+        for (ObjectMapper mapper : new ObjectMapper[] {plain, accelerated}) {
+            String accessors = mapper == plain ? "reflection" : "generated";
+            ObjectCodecs codecs = new ObjectCodecs(mapper);
+            SapBoServiceImpl service = service(mapper, listing);
+
+            run("listing, mapper per entry", accessors, () -> treeListing(mapper, listing).size());
+            run("listing, prebuilt reader", accessors, () -> service.getConnections(null, null).size());
+            run("report, mapper.readValue", accessors, () -> mapper.readValue(report, Report.class).getSize());
+            run("report, prebuilt reader", accessors, () -> codecs.read(report, Report.class).getSize());
+            run("connections, mapper write", accessors, () -> mapper.writeValueAsBytes(connections).length);
+            run("connections, prebuilt writer", accessors, () -> codecs.writer(List.class).writeValueAsBytes(connections).length);
+        }
+        assertEquals(CONNECTIONS, service(accelerated, listing).getConnections(null, null).size());
+    }
+
+    private void run(String operation, String accessors, Operation op) throws IOException {
+        // Warm up, then count operations in a fixed time
+        long warmupEnd = System.currentTimeMillis() + RUN_MILLIS / 2;
+        while (System.currentTimeMillis() < warmupEnd) {
+            op.run();
+        }
+        long ops = 0;
+        long sink = 0;
+        long start = System.nanoTime();
+        long end = start + RUN_MILLIS * 1_000_000;
+        while (System.nanoTime() < end) {
+            sink += op.run();
+            ops++;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-28s %-12s %14.0f%n", operation, accessors, ops / seconds);
+        if (sink == Long.MIN_VALUE) {
+            System.out.println(sink);
+        }
+    }
+
+    /**
+     * Listing as the service read it before: a tree of the response, converted entry by entry
+     */
+    private static List<Connection> treeListing(ObjectMapper mapper, String listing) throws IOException {
+        List<Connection> connections = new ArrayList<>();
+        for (JsonNode entry : mapper.readTree(listing).path("entries")) {
+            connections.add(mapper.treeToValue(entry, Connection.class));
+        }
+        return connections;
+    }
+
+    private static SapBoServiceImpl service(ObjectMapper mapper, String listing) throws IOException {
+        SapBoRestClient restClient = mock(SapBoRestClient.class);
+        when(restClient.get(any(), anyString(), eq(String.class))).thenReturn(listing);
+        when(restClient.get(any(), anyString(), eq(String.class), any(), any())).thenAnswer(invocation ->
+                invocation.<SapBoRestClient.ResponseParser<String, ?>>getArgument(4).parse(listing));
+        return new SapBoServiceImpl(restClient, new SapBoProperties(), mapper, new SapBoProperties.BoEnvironment());
+    }
+
+    private static List<Connection> connections() {
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            Connection connection = new Connection();
+            connection.setId("conn" + i);
+            connection.setName("Connection " + i);
+            connection.setDescription("Sales data warehouse connection number " + i);
+            connection.setType("Relational");
+            connection.setDataSourceType("Oracle");
+            connection.setServer("db-server-" + (i % 10) + ".example.com");
+            connection.setDatabase("SALES");
+            connection.setUsername("reader");
+            connection.setStatus("Active");
+            Map<String, String> parameters = Collections.singletonMap("port", String.valueOf(1521 + i % 3));
+            connection.setParameters(parameters);
+            connections.add(connection);
+        }
+        return connections;
+    }
+
+    private static Report report() {
+        Report report = new Report();
+        report.setId("report1");
+        report.setName("Quarterly Sales");
+        report.setDescription("Sales by region and quarter");
+        report.setType("Webi");
+        report.setUniverseId("universe1");
+        report.setUniverseName("Sales");
+        report.setFormat("webi");
+        report.setSize(2048L);
+        report.setStatus("Active");
+        return report;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        long run() throws IOException;
+    }
+}
@@ -0,0 +1,199 @@
+package com.sap.bo.sync.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.client.SapBoRestClient;
+import com.sap.bo.sync.config.ClientProperties;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.model.Connection;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark of the heap allocated per PUT request when the body is first serialized to a String, as the
+ * client used to do, against serializing it straight onto a streaming request. The requests go to a
+ * simulated connection that discards the body, so only the client side is measured.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+public class RequestBodyBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int REQUESTS = 1000;
+    private static final String URL = "http://bo-server:6405/biprws";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void benchmarkRequestBodies() throws IOException {
+        System.out.println("Java " + System.getProperty("java.version") + ", " + REQUESTS + " PUT requests per run");
+        System.out.printf("%-12s %10s %12s %16s %12s%n", "body", "bytes", "mode", "allocated/req", "millis");
+
+        for (int objects : new int[] {10, 200, 2000}) {
+            List<Connection> body = connections(objects);
+            int size = objectMapper.writeValueAsBytes(body).length;
+            long buffered = run(objects, size, "string", bufferedPut(body));
+            long streamed = run(objects, size, "streamed", streamedPut(body));
+            run(objects, size, "gzip", gzipPut(body));
+            if (objects >= 200) {
+                assertTrue(streamed < buffered, "Streamed bodies should allocate less than String bodies");
+            }
+        }
+    }
+
+    private long run(int objects, int size, String mode, Runnable put) {
+        for (int i = 0; i < WARMUP; i++) {
+            put.run();
+        }
+        long start = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < REQUESTS; i++) {
+            put.run();
+        }
+        long allocated = (allocatedBytes() - allocatedBefore) / REQUESTS;
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%-12s %10d %12s %16d %12d%n", objects + " objects", size, mode, allocated, millis);
+        return allocated;
+    }
+
+    private Runnable bufferedPut(List<Connection> body) {
+        RestTemplate restTemplate = new RestTemplate(new DiscardingRequestFactory());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return () -> {
+            try {
+                String json = objectMapper.writeValueAsString(body);
+                restTemplate.exchange(URL + "/infostore/connections", HttpMethod.PUT, new HttpEntity<>(json, headers), String.class);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private Runnable streamedPut(List<Connection> body) {
+        return put(body, new ClientProperties());
+    }
+
+    private Runnable gzipPut(List<Connection> body) {
+        ClientProperties clientProperties = new ClientProperties();
+        clientProperties.getCompression().setRequestEnabled(true);
+        return put(body, clientProperties);
+    }
+
+    private Runnable put(List<Connection> body, ClientProperties clientProperties) {
+        SapBoRestClient restClient = new SapBoRestClient(new RestTemplate(new DiscardingRequestFactory()),
+                objectMapper, clientProperties);
+        SapBoProperties.BoEnvironment environment = new SapBoProperties.BoEnvironment();
+        environment.setUrl(URL);
+        environment.setUsername("admin");
+        environment.setPassword("password");
+        environment.setAuthType("secEnterprise");
+        return () -> restClient.put(environment, "/infostore/connections", body, String.class);
+    }
+
+    private static List<Connection> connections(int count) {
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Connection connection = new Connection();
+            connection.setId("conn" + i);
+            connection.setName("Connection " + i);
+            connection.setDescription("Sales data warehouse connection number " + i);
+            connection.setType("Relational");
+            connection.setServer("db-server-" + (i % 10) + ".example.com");
+            connection.setDatabase("SALES");
+            connection.setParameters(Collections.singletonMap("port", String.valueOf(1521 + i % 3)));
+            connections.add(connection);
+        }
+        return connections;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Streaming requests whose body is written to nowhere and that all get the same small JSON response
+     */
+    private static final class DiscardingRequestFactory implements ClientHttpRequestFactory {
+        private static final byte[] RESPONSE = "{\"logonToken\": \"token\"}".getBytes(StandardCharsets.UTF_8);
+
+        @Override
+        public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+            return new DiscardingRequest(uri, httpMethod);
+        }
+
+        private static final class DiscardingRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+            private final URI uri;
+            private final HttpMethod method;
+            private final HttpHeaders headers = new HttpHeaders();
+            private Body body;
+
+            private DiscardingRequest(URI uri, HttpMethod method) {
+                this.uri = uri;
+                this.method = method;
+            }
+
+            @Override
+            public void setBody(Body body) {
+                this.body = body;
+            }
+
+            @Override
+            public OutputStream getBody() {
+                return OutputStream.nullOutputStream();
+            }
+
+            @Override
+            public ClientHttpResponse execute() throws IOException {
+                if (body != null) {
+                    body.writeTo(OutputStream.nullOutputStream());
+                }
+                MockClientHttpResponse response = new MockClientHttpResponse(RESPONSE, HttpStatus.OK);
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                return response;
+            }
+
+            @Override
+            public HttpMethod getMethod() {
+                return method;
+            }
+
+            @Override
+            public String getMethodValue() {
+                return method.name();
+            }
+
+            @Override
+            public URI getURI() {
+                return uri;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.sap.bo.sync.benchmark;
+
+import com.sap.bo.sync.SapBoSyncToolApplication;
+import com.sap.bo.sync.cli.SyncCommand;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Benchmark of the application startup as web server and as headless one-shot sync run,
+ * both against the mock SAP BO client. Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+public class StartupBenchmarkTest {
+
+    private static final int ITERATIONS = 5;
+
+    @Test
+    public void benchmarkStartup() {
+        // Load the shared classes once, so that neither mode pays for it alone
+        start(WebApplicationType.SERVLET, false).close();
+
+        long[] web = new long[ITERATIONS];
+        long[] headless = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            web[i] = measure(WebApplicationType.SERVLET, false);
+            headless[i] = measure(WebApplicationType.NONE, true);
+        }
+
+        System.out.println("Java " + System.getProperty("java.version") + ", median of " + ITERATIONS + " context startups");
+        System.out.printf("%-22s %10s %10s%n", "mode", "median ms", "min ms");
+        System.out.printf("%-22s %10d %10d%n", "web server", median(web), Arrays.stream(web).min().getAsLong());
+        System.out.printf("%-22s %10d %10d%n", "headless (--mode=run)", median(headless), Arrays.stream(headless).min().getAsLong());
+    }
+
+    private long measure(WebApplicationType type, boolean lazy) {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = start(type, lazy)) {
+            if (lazy) {
+                // Include the beans a sync run creates on first use
+                assertNotNull(context.getBean(SyncCommand.class));
+            }
+            return (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+
+    private ConfigurableApplicationContext start(WebApplicationType type, boolean lazy) {
+        return new SpringApplicationBuilder(SapBoSyncToolApplication.class)
+                .web(type)
+                .lazyInitialization(lazy)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--spring.profiles.active=mock", "--server.port=0", "--logging.level.root=WARN",
+                        "--logging.level.com.sap.bo.sync=WARN", "--sap.bo.blobStore.dir=target/blob-cache");
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,98 @@
+package com.sap.bo.sync.benchmark;
+
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.pipeline.SyncExecutor;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import com.sap.bo.sync.service.impl.SyncServiceImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark of the platform and virtual thread sync executors against a simulated SAP BO server
+ * that answers every call after a fixed latency. Run with: mvn test -Pbenchmark
+ *
+ * Virtual threads need Java 21. On older JDKs virtual mode falls back to platform threads, so every row
+ * measures platform threads and the output is labelled as such.
+ */
+@Tag("benchmark")
+public class SyncExecutorBenchmarkTest {
+
+    private static final int OBJECTS = 1000;
+    private static final long LATENCY_MILLIS = 20;
+
+    @Test
+    public void benchmarkExecutorModes() {
+        System.out.println("Java " + System.getProperty("java.version") + ", " + OBJECTS
+                + " connections, " + LATENCY_MILLIS + " ms per call (lookup + save)");
+        if (!SyncExecutor.virtualThreadsAvailable()) {
+            System.out.println("Virtual threads are not available: platform-only measurement, virtual rows are fallbacks");
+        }
+        System.out.printf("%-10s %-20s %-12s %10s %12s%n", "mode", "threads", "concurrency", "millis", "objects/s");
+
+        run(SyncExecutor.MODE_PLATFORM, 10);
+        run(SyncExecutor.MODE_PLATFORM, 200);
+        run(SyncExecutor.MODE_VIRTUAL, 10);
+        run(SyncExecutor.MODE_VIRTUAL, 200);
+    }
+
+    private void run(String mode, int concurrency) {
+        SyncExecutor executor = SyncExecutor.create(mode, concurrency);
+        try {
+            SyncServiceImpl syncService = new SyncServiceImpl(simulatedFactory(), new SapBoProperties(), null, null, executor);
+
+            long start = System.nanoTime();
+            int synced = syncService.syncConnections((Date) null, Collections.singletonMap("forceUpdate", "true"));
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(OBJECTS, synced);
+            String threads = executor.isVirtual() ? "virtual"
+                    : SyncExecutor.MODE_VIRTUAL.equals(mode) ? "platform (fallback)" : "platform";
+            System.out.printf("%-10s %-20s %-12d %10d %12.0f%n",
+                    mode, threads, concurrency, millis, OBJECTS * 1000.0 / Math.max(1, millis));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private SapBoServiceFactory simulatedFactory() {
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < OBJECTS; i++) {
+            Connection connection = new Connection();
+            connection.setId("conn" + i);
+            connection.setName("Connection " + i);
+            connections.add(connection);
+        }
+
+        SapBoService source = mock(SapBoService.class);
+        when(source.getConnections(any(), any())).thenReturn(connections);
+
+        SapBoService target = mock(SapBoService.class);
+        doAnswer(invocation -> {
+            Thread.sleep(LATENCY_MILLIS);
+            return null;
+        }).when(target).getConnection(anyString());
+        doAnswer(invocation -> {
+            Thread.sleep(LATENCY_MILLIS);
+            return invocation.getArgument(0);
+        }).when(target).saveConnection(any(Connection.class));
+
+        SapBoServiceFactory factory = mock(SapBoServiceFactory.class);
+        when(factory.getSourceService()).thenReturn(source);
+        when(factory.getTargetService()).thenReturn(target);
+        return factory;
+    }
+}
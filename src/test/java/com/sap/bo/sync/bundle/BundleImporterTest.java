@@ -0,0 +1,135 @@
+package com.sap.bo.sync.bundle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.model.Universe;
+import com.sap.bo.sync.plan.SyncPlanExecutor;
+import com.sap.bo.sync.plan.SyncPlanResult;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the BundleExporter and BundleImporter classes
+ */
+public class BundleImporterTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SapBoService sourceService;
+    private SapBoService targetService;
+    private BundleExporter exporter;
+    private BundleImporter importer;
+
+    @BeforeEach
+    public void setUp() {
+        sourceService = mock(SapBoService.class);
+        targetService = mock(SapBoService.class);
+        SapBoServiceFactory serviceFactory = mock(SapBoServiceFactory.class);
+        when(serviceFactory.getSourceService()).thenReturn(sourceService);
+        when(serviceFactory.getTargetService()).thenReturn(targetService);
+
+        SapBoProperties properties = new SapBoProperties();
+        properties.getSync().getBundle().setChunkSize(4096);
+        exporter = new BundleExporter(serviceFactory, properties, objectMapper, null);
+        importer = new BundleImporter(serviceFactory, properties,
+                new SyncPlanExecutor(serviceFactory, objectMapper, null), objectMapper, null);
+    }
+
+    private static SapBoObject folder(String id, String name, String parentId) {
+        SapBoObject folder = new SapBoObject();
+        folder.setId(id);
+        folder.setName(name);
+        folder.setParentId(parentId);
+        return folder;
+    }
+
+    private void givenSource() {
+        Connection connection = new Connection();
+        connection.setId("c1");
+        connection.setName("Warehouse");
+        Universe universe = new Universe();
+        universe.setId("u1");
+        universe.setName("Sales");
+        universe.setConnectionId("c1");
+        Report report = new Report();
+        report.setId("r1");
+        report.setName("Revenue");
+        report.setUniverseId("u1");
+
+        when(sourceService.getFolders(null)).thenReturn(Arrays.asList(
+                folder("f1", "Root", null), folder("f2", "Finance", "f1")));
+        when(sourceService.getConnections(isNull(), isNull())).thenReturn(Collections.singletonList(connection));
+        when(sourceService.getUniverses(isNull(), isNull(), isNull())).thenReturn(Collections.singletonList(universe));
+        when(sourceService.getUniverse("u1")).thenReturn(universe);
+        when(sourceService.getReports(isNull(), isNull(), isNull())).thenReturn(Collections.singletonList(report));
+        when(sourceService.getReportContent(any(Report.class))).thenReturn("document".getBytes());
+    }
+
+    @Test
+    public void testExportedBundleIsImportedInDependencyOrder() {
+        // Arrange
+        givenSource();
+        when(targetService.getFolders(null)).thenReturn(Collections.singletonList(folder("t1", "Root", null)));
+        when(targetService.createFolder(any(SapBoObject.class))).thenReturn(folder("t2", "Finance", "t1"));
+        Path file = dir.resolve("promotion.sbo");
+
+        // Act
+        BundleIndex index = exporter.export(file, null, null);
+        SyncPlanResult result = importer.importBundle(file, null, false);
+
+        // Assert
+        assertEquals(5, index.getObjects().size());
+        assertEquals(index.getBundleId(), result.getPlanId());
+        assertEquals(3 + 1, result.getSucceeded());
+        assertEquals(1, result.getSkipped()); // The root folder already exists
+        assertEquals(0, result.getFailed());
+        verify(targetService).createFolder(argThat(folder -> "Finance".equals(folder.getName())
+                && "t1".equals(folder.getParentId())));
+        verify(targetService).saveReport(argThat(report -> "u1".equals(report.getUniverseId())
+                && Base64.getEncoder().encodeToString("document".getBytes()).equals(report.getContent())));
+    }
+
+    @Test
+    public void testDependentsOfFailedRecordsAreSkipped() {
+        // Arrange
+        givenSource();
+        when(targetService.saveConnection(any(Connection.class))).thenThrow(new RuntimeException("Connection refused"));
+        Path file = dir.resolve("promotion.sbo");
+        exporter.export(file, Arrays.asList("connection", "universe", "report"), null);
+
+        // Act
+        SyncPlanResult result = importer.importBundle(file, null, false);
+
+        // Assert
+        assertEquals(0, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getSkipped());
+        assertEquals("Connection refused", result.getErrors().get(0));
+        verify(targetService, never()).saveUniverse(any(Universe.class));
+        verify(targetService, never()).getReport(anyString());
+    }
+}
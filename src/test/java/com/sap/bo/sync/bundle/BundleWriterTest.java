@@ -0,0 +1,149 @@
+package com.sap.bo.sync.bundle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.plan.SyncAction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the BundleWriter and BundleReader classes
+ */
+public class BundleWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SyncAction action(int id, String objectType) {
+        SapBoObject object = new SapBoObject();
+        object.setId(objectType + "-" + id);
+        object.setName("Object " + id + " with a description that compresses well");
+
+        SyncAction action = new SyncAction();
+        action.setId(id);
+        action.setType(SyncAction.Type.CREATE);
+        action.setObjectType(objectType);
+        action.setObjectId(object.getId());
+        action.setName(object.getName());
+        action.setPayload(objectMapper.valueToTree(object));
+        return action;
+    }
+
+    private Path write(int records, int chunkSize, int threads) throws IOException {
+        Path file = dir.resolve("export.sbo");
+        BundleIndex index = new BundleIndex();
+        index.setBundleId("bundle-1");
+        try (BundleWriter writer = new BundleWriter(file, index, objectMapper, chunkSize, 6, threads)) {
+            for (int i = 0; i < records; i++) {
+                byte[] content = i % 3 == 0 ? ("document " + i).getBytes() : null;
+                writer.write(action(writer.getRecordCount(), i % 2 == 0 ? "report" : "universe"), content);
+            }
+        }
+        return file;
+    }
+
+    @Test
+    public void testRecordsAreReadBackInOrderAcrossChunks() throws IOException {
+        // Arrange
+        Path file = write(2000, 4096, 4);
+
+        // Act
+        List<BundleRecord> records = new ArrayList<>();
+        BundleIndex index;
+        try (BundleReader reader = BundleReader.open(file, objectMapper)) {
+            index = reader.getIndex();
+            reader.forEach(records::add);
+        }
+
+        // Assert
+        assertEquals("bundle-1", index.getBundleId());
+        assertTrue(index.getChunks().size() > 10);
+        assertTrue(index.getCompressedBytes() < index.getRawBytes());
+        assertEquals(1000, index.getObjectCounts().get("report").intValue());
+        assertEquals(2000, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i, records.get(i).getAction().getId());
+        }
+        assertArrayEquals("document 3".getBytes(), records.get(3).getContent());
+        assertNull(records.get(1).getContent());
+        assertFalse(Files.exists(dir.resolve("export.sbo.part")));
+    }
+
+    @Test
+    public void testSingleObjectIsFoundThroughIndex() throws IOException {
+        // Arrange
+        Path file = write(500, 4096, 2);
+
+        // Act & Assert
+        try (BundleReader reader = BundleReader.open(file, objectMapper)) {
+            BundleRecord record = reader.find("universe", "universe-377");
+            assertEquals(377, record.getAction().getId());
+            assertEquals("universe-377", record.getAction().getPayload().path("id").asText());
+            assertNull(reader.find("universe", "universe-378"));
+        }
+    }
+
+    @Test
+    public void testDamagedChunkIsDetected() throws IOException {
+        // Arrange
+        Path file = write(200, 4096, 1);
+        long offset;
+        try (BundleReader reader = BundleReader.open(file, objectMapper)) {
+            offset = reader.getIndex().getChunks().get(1).getOffset();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(offset + 12); // CRC of the second chunk
+            raf.writeInt(0);
+        }
+
+        // Act & Assert
+        try (BundleReader reader = BundleReader.open(file, objectMapper)) {
+            assertFalse(reader.readChunk(0).isEmpty());
+            assertThrows(IOException.class, () -> reader.readChunk(1));
+        }
+    }
+
+    @Test
+    public void testTruncatedBundleIsRejected() throws IOException {
+        // Arrange
+        Path file = write(200, 4096, 1);
+        byte[] data = Files.readAllBytes(file);
+        Path truncated = dir.resolve("truncated.sbo");
+        Files.write(truncated, Arrays.copyOf(data, data.length - 100));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> BundleReader.open(truncated, objectMapper));
+    }
+
+    @Test
+    public void testAbortRemovesIncompleteBundle() throws IOException {
+        // Arrange
+        Path file = dir.resolve("aborted.sbo");
+        BundleWriter writer = new BundleWriter(file, new BundleIndex(), objectMapper, 4096, 6, 2);
+        writer.write(action(0, "report"), null);
+
+        // Act
+        writer.abort();
+
+        // Assert
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(dir.resolve("aborted.sbo.part")));
+    }
+}
@@ -0,0 +1,96 @@
+package com.sap.bo.sync.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for the BlobStore class
+ */
+public class BlobStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long countBlobs() throws IOException {
+        try (Stream<Path> files = Files.walk(dir.resolve("blobs"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    public void testIdenticalContentIsStoredOnce() throws IOException {
+        // Arrange
+        BlobStore store = new BlobStore(dir, 1024);
+
+        // Act
+        String first = store.put("env|report|1|100", bytes("document"));
+        String second = store.put("env|report|2|200", bytes("document"));
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(1, countBlobs());
+        assertArrayEquals(bytes("document"), store.get("env|report|2|200"));
+        assertNull(store.get("env|report|3|300"));
+    }
+
+    @Test
+    public void testIndexSurvivesRestart() {
+        // Arrange
+        new BlobStore(dir, 1024).put("env|report|1|100", bytes("document"));
+
+        // Act
+        BlobStore reopened = new BlobStore(dir, 1024);
+
+        // Assert
+        assertArrayEquals(bytes("document"), reopened.get("env|report|1|100"));
+        assertEquals(1, reopened.stats().getHits());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedBlobIsEvicted() {
+        // Arrange
+        BlobStore store = new BlobStore(dir, 10);
+        store.put("a", bytes("aaaa"));
+        store.put("b", bytes("bbbb"));
+        store.get("a");
+
+        // Act
+        store.put("c", bytes("cccc"));
+
+        // Assert
+        assertNotNull(store.get("a"));
+        assertNull(store.get("b"));
+        assertNotNull(store.get("c"));
+        assertEquals(1, store.stats().getEvictions());
+        assertEquals(8, store.stats().getWeight());
+    }
+
+    @Test
+    public void testLeftoverTempFilesAreRemoved() throws IOException {
+        // Arrange
+        Files.createDirectories(dir.resolve("blobs").resolve("ab"));
+        Files.write(dir.resolve("blobs").resolve("ab").resolve("abc123.tmp"), bytes("partial"));
+
+        // Act
+        BlobStore store = new BlobStore(dir, 1024);
+
+        // Assert
+        assertEquals(0, countBlobs());
+        assertEquals(0, store.stats().getSize());
+    }
+}
@@ -0,0 +1,84 @@
+package com.sap.bo.sync.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for the BoundedCache class
+ */
+public class BoundedCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsedByWeight() {
+        // Arrange
+        BoundedCache<String, String> cache = new BoundedCache<>(10, String::length);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.get("a");
+
+        // Act
+        cache.put("c", "cccc");
+
+        // Assert
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(8, cache.stats().getWeight());
+    }
+
+    @Test
+    public void testSkipsValuesHeavierThanCache() {
+        // Arrange
+        BoundedCache<String, String> cache = new BoundedCache<>(3, String::length);
+
+        // Act
+        cache.put("a", "aaaa");
+
+        // Assert
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.stats().getSize());
+    }
+
+    @Test
+    public void testStats() {
+        // Arrange
+        BoundedCache<String, String> cache = new BoundedCache<>(100, String::length);
+        cache.put("a", "value");
+
+        // Act
+        cache.get("a");
+        cache.get("missing");
+
+        // Assert
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    @Test
+    public void testEntriesExpireAfterTtl() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(0);
+        BoundedCache<String, String> cache = new BoundedCache<>(100, String::length, 50, clock::get);
+        cache.put("a", "value");
+
+        // Act
+        clock.set(40);
+        String beforeExpiry = cache.get("a");
+        clock.set(60);
+        String afterExpiry = cache.get("a");
+
+        // Assert
+        assertNotNull(beforeExpiry);
+        assertNull(afterExpiry);
+        assertEquals(1, cache.stats().getExpirations());
+        assertEquals(0, cache.stats().getWeight());
+    }
+}
@@ -0,0 +1,249 @@
+package com.sap.bo.sync.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.bundle.BundleExporter;
+import com.sap.bo.sync.bundle.BundleImporter;
+import com.sap.bo.sync.bundle.BundleIndex;
+import com.sap.bo.sync.exception.CircuitOpenException;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.inventory.InventoryLoader;
+import com.sap.bo.sync.plan.SyncPlanResult;
+import com.sap.bo.sync.reconcile.InventoryReconciler;
+import com.sap.bo.sync.reconcile.ReconcileSummary;
+import com.sap.bo.sync.service.SyncService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the SyncCommand and SyncCommandOptions classes
+ */
+public class SyncCommandTest {
+
+    private static final Instant NOW = Instant.parse("2024-02-01T12:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    private SyncService syncService;
+    private BundleExporter bundleExporter;
+    private BundleImporter bundleImporter;
+    private InventoryReconciler inventoryReconciler;
+    private SyncCommand command;
+
+    @BeforeEach
+    public void setUp() {
+        syncService = mock(SyncService.class);
+        bundleExporter = mock(BundleExporter.class);
+        bundleImporter = mock(BundleImporter.class);
+        inventoryReconciler = mock(InventoryReconciler.class);
+        command = new SyncCommand(syncService, bundleExporter, bundleImporter, inventoryReconciler, objectMapper);
+    }
+
+    private JsonNode summary() throws Exception {
+        return objectMapper.readTree(new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private int execute(String... args) {
+        return command.execute(SyncCommandOptions.parse(args, NOW), 1234,
+                new PrintStream(output, true));
+    }
+
+    @Test
+    public void testRunMode() {
+        // Assert
+        assertTrue(SyncCommandOptions.isRunMode(new String[] {"--mode=run", "--type=reports"}));
+        assertTrue(SyncCommandOptions.isRunMode(new String[] {"--mode=export", "--file=bundle.sbo"}));
+        assertFalse(SyncCommandOptions.isRunMode(new String[] {"--server.port=8081"}));
+    }
+
+    @Test
+    public void testParseOptions() {
+        // Act
+        SyncCommandOptions options = SyncCommandOptions.parse(
+                new String[] {"--mode=run", "--type=reports,universes", "--since=PT6H", "--force"}, NOW);
+
+        // Assert
+        assertEquals(Arrays.asList("reports", "universes"), options.getTypes());
+        assertEquals(Date.from(Instant.parse("2024-02-01T06:00:00Z")), options.getSince());
+        assertTrue(options.isForce());
+    }
+
+    @Test
+    public void testParseDefaultsAndDates() {
+        // Act
+        SyncCommandOptions defaults = SyncCommandOptions.parse(new String[] {"--mode=run"}, NOW);
+
+        // Assert
+        assertEquals(Arrays.asList("all"), defaults.getTypes());
+        assertNull(defaults.getSince());
+        assertFalse(defaults.isForce());
+        assertEquals(Date.from(Instant.parse("2024-01-31T18:00:00Z")),
+                SyncCommandOptions.parseSince("2024-01-31T18:00:00Z", NOW));
+        assertEquals(Date.from(Instant.parse("2024-01-31T12:00:00Z")), SyncCommandOptions.parseSince("P1D", NOW));
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        // Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> SyncCommandOptions.parse(new String[] {"--mode=run", "--type=dashboards"}, NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> SyncCommandOptions.parse(new String[] {"--mode=run", "--type=all,reports"}, NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> SyncCommandOptions.parse(new String[] {"--mode=run", "--since=yesterday"}, NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> SyncCommandOptions.parse(new String[] {"--mode=import"}, NOW));
+        assertThrows(IllegalArgumentException.class,
+                () -> SyncCommandOptions.parse(new String[] {"--mode=restore", "--file=bundle.sbo"}, NOW));
+    }
+
+    @Test
+    public void testRunSelectedTypes() throws Exception {
+        // Arrange
+        when(syncService.syncReports(isNull(), any(Date.class), anyMap())).thenReturn(3);
+        when(syncService.syncConnections(any(Date.class), anyMap())).thenReturn(2);
+
+        // Act
+        int exitCode = execute("--mode=run", "--type=reports,connections", "--since=2024-01-31T00:00:00Z");
+
+        // Assert
+        assertEquals(SyncCommand.EXIT_OK, exitCode);
+        JsonNode summary = summary();
+        assertEquals("OK", summary.path("status").asText());
+        assertEquals(3, summary.path("synchronized").path("reports").asInt());
+        assertEquals(2, summary.path("synchronized").path("connections").asInt());
+        assertEquals(5, summary.path("total").asInt());
+        assertEquals(0, summary.path("failed").asInt());
+        assertEquals(1234, summary.path("startupMillis").asLong());
+    }
+
+    @Test
+    public void testRunAllIncrementally() {
+        // Arrange
+        Date since = Date.from(Instant.parse("2024-01-31T00:00:00Z"));
+        when(syncService.syncIncremental(since, null, true)).thenReturn(7);
+
+        // Act
+        int exitCode = execute("--mode=run", "--since=2024-01-31T00:00:00Z", "--force");
+
+        // Assert
+        assertEquals(SyncCommand.EXIT_OK, exitCode);
+        verify(syncService).syncIncremental(eq(since), isNull(), eq(true));
+    }
+
+    @Test
+    public void testFailureExitCodes() throws Exception {
+        // Arrange
+        when(syncService.syncAll(false)).thenThrow(new SapBoApiException("Failed to synchronize all objects"));
+        when(syncService.syncFolders(null)).thenThrow(
+                new SapBoApiException("Failed to synchronize folders", new CircuitOpenException("http://source", 1000)));
+
+        // Act & Assert
+        assertEquals(SyncCommand.EXIT_FAILED, execute("--mode=run"));
+        assertEquals("Failed to synchronize all objects", summary().path("error").asText());
+        output.reset();
+        assertEquals(SyncCommand.EXIT_UNAVAILABLE, execute("--mode=run", "--type=folders"));
+        assertEquals("UNAVAILABLE", summary().path("status").asText());
+    }
+
+    @Test
+    public void testRunWithFailedObjectsFails() throws Exception {
+        // Arrange - two reports fail during the run, after one failure of an earlier run
+        when(syncService.getFailedObjects()).thenReturn(1L, 3L);
+        when(syncService.syncReports(isNull(), isNull(), anyMap())).thenReturn(5);
+
+        // Act
+        int exitCode = execute("--mode=run", "--type=reports");
+
+        // Assert
+        assertEquals(SyncCommand.EXIT_FAILED, exitCode);
+        JsonNode summary = summary();
+        assertEquals("FAILED", summary.path("status").asText());
+        assertEquals(5, summary.path("synchronized").path("reports").asInt());
+        assertEquals(2, summary.path("failed").asInt());
+    }
+
+    @Test
+    public void testExportBundle() throws Exception {
+        // Arrange
+        BundleIndex index = new BundleIndex();
+        index.setBundleId("bundle-1");
+        index.getObjectCounts().put("report", 4);
+        when(bundleExporter.export(eq(Paths.get("out/bundle.sbo")), eq(Arrays.asList("report")), any(Date.class)))
+                .thenReturn(index);
+
+        // Act
+        int exitCode = execute("--mode=export", "--file=out/bundle.sbo", "--type=reports", "--since=P1D");
+
+        // Assert
+        assertEquals(SyncCommand.EXIT_OK, exitCode);
+        JsonNode summary = summary();
+        assertEquals("export", summary.path("mode").asText());
+        assertEquals("bundle-1", summary.path("bundleId").asText());
+        assertEquals(4, summary.path("exported").path("report").asInt());
+    }
+
+    @Test
+    public void testImportBundleWithFailures() throws Exception {
+        // Arrange
+        SyncPlanResult result = new SyncPlanResult();
+        result.setPlanId("bundle-1");
+        result.setSucceeded(5);
+        result.setFailed(1);
+        result.getErrors().put(3, "Connection refused");
+        when(bundleImporter.importBundle(Paths.get("bundle.sbo"), null, true)).thenReturn(result);
+
+        // Act
+        int exitCode = execute("--mode=import", "--file=bundle.sbo", "--force");
+
+        // Assert
+        assertEquals(SyncCommand.EXIT_FAILED, exitCode);
+        JsonNode summary = summary();
+        assertEquals("FAILED", summary.path("status").asText());
+        assertEquals(5, summary.path("succeeded").asInt());
+        assertEquals("Connection refused", summary.path("errors").path("3").asText());
+    }
+
+    @Test
+    public void testReconcileToCsvReport(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path report = tempDir.resolve("report.csv");
+        when(inventoryReconciler.reconcile(eq(InventoryLoader.ALL_TYPES), isNull(), any())).thenReturn(new ReconcileSummary());
+
+        // Act
+        int exitCode = execute("--mode=reconcile", "--file=" + report);
+
+        // Assert
+        assertEquals(SyncCommand.EXIT_OK, exitCode);
+        assertTrue(Files.exists(report));
+        JsonNode summary = summary();
+        assertEquals("reconcile", summary.path("mode").asText());
+        assertEquals("csv", summary.path("format").asText());
+        assertEquals(0, summary.path("reconciled").path("missing").asInt(-1));
+    }
+}
@@ -0,0 +1,159 @@
+package com.sap.bo.sync.client;
+
+import com.sap.bo.sync.config.ClientProperties;
+import com.sap.bo.sync.exception.CircuitOpenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the CircuitBreaker class
+ */
+public class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1000);
+
+    private ClientProperties.CircuitBreakerProperties properties;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new ClientProperties.CircuitBreakerProperties();
+        properties.setWindowSize(10);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setOpenDuration(30000);
+        properties.setHalfOpenProbes(2);
+        breaker = new CircuitBreaker("http://source", properties, now::get);
+    }
+
+    private void fail(RuntimeException e) {
+        assertThrows(e.getClass(), () -> breaker.execute(() -> {
+            throw e;
+        }));
+    }
+
+    private void succeed() {
+        assertEquals("ok", breaker.execute(() -> "ok"));
+    }
+
+    private void open() {
+        succeed();
+        succeed();
+        fail(new ResourceAccessException("Connection refused"));
+        fail(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    public void testOpensWhenFailureRateIsReached() {
+        // Arrange
+        succeed();
+        succeed();
+        fail(new ResourceAccessException("Connection refused"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // Act
+        fail(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(1L, breaker.snapshot().get("opened"));
+    }
+
+    @Test
+    public void testFailsFastWhileOpen() {
+        // Arrange
+        open();
+        now.addAndGet(10000);
+
+        // Act
+        CircuitOpenException exception = assertThrows(CircuitOpenException.class, () -> breaker.execute(() -> {
+            throw new AssertionError("Request must not be sent while the breaker is open");
+        }));
+
+        // Assert
+        assertEquals("http://source", exception.getEnvironmentUrl());
+        assertEquals(20000, exception.getRetryAfterMillis());
+        assertEquals(1L, breaker.snapshot().get("rejected"));
+    }
+
+    @Test
+    public void testSuccessfulProbesCloseTheBreaker() {
+        // Arrange
+        open();
+        now.addAndGet(30000);
+
+        // Act
+        succeed();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        succeed();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.snapshot().get("windowCalls"));
+    }
+
+    @Test
+    public void testFailedProbeReopensTheBreaker() {
+        // Arrange
+        open();
+        now.addAndGet(30000);
+
+        // Act
+        fail(new ResourceAccessException("Read timed out"));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2L, breaker.snapshot().get("opened"));
+        assertThrows(CircuitOpenException.class, this::succeed);
+    }
+
+    @Test
+    public void testClientErrorsDoNotCountAsFailures() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            fail(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.snapshot().get("windowFailures"));
+    }
+
+    @Test
+    public void testSlowCallsOpenTheBreaker() {
+        // Arrange
+        properties.setSlowCallThreshold(5000);
+        properties.setSlowCallRateThreshold(75);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(() -> now.addAndGet(6000));
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testDisabledBreakerPassesRequestsThrough() {
+        // Arrange
+        properties.setEnabled(false);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            fail(new ResourceAccessException("Connection refused"));
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,194 @@
+package com.sap.bo.sync.client;
+
+import com.sap.bo.sync.config.ClientProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the RequestHedger class
+ */
+public class RequestHedgerTest {
+
+    private ClientProperties.HedgeProperties properties;
+    private RequestHedger hedger;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new ClientProperties.HedgeProperties();
+        properties.setEnabled(true);
+        properties.setMinSamples(5);
+        properties.setMinDelay(20);
+        properties.setBudgetReserve(1);
+        properties.setBudgetRatio(0);
+        hedger = new RequestHedger(properties, Executors.newCachedThreadPool());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hedger.shutdown();
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < properties.getMinSamples(); i++) {
+            hedger.execute("GET /infostore/x", () -> "fast");
+        }
+    }
+
+    /**
+     * Request whose first copy blocks until it is aborted, while later copies answer right away
+     */
+    private static final class SlowFirstRequest {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch aborted = new CountDownLatch(1);
+
+        String send() {
+            if (calls.incrementAndGet() > 1) {
+                return "hedge";
+            }
+            RequestHedger.track(aborted::countDown);
+            try {
+                aborted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new ResourceAccessException("Request aborted");
+        }
+    }
+
+    @Test
+    public void testNoHedgingBeforeEnoughSamples() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        Thread caller = Thread.currentThread();
+
+        // Act
+        String result = hedger.execute("GET /infostore/x", () -> {
+            calls.incrementAndGet();
+            return Thread.currentThread() == caller ? "direct" : "worker";
+        });
+
+        // Assert
+        assertEquals("direct", result);
+        assertEquals(1, calls.get());
+        assertEquals(-1, hedger.hedgeDelay());
+    }
+
+    @Test
+    public void testHedgeDelayIsBoundedByMinDelay() {
+        // Act
+        warmUp();
+
+        // Assert - the fast warm-up reads put the percentile below the minimum delay
+        assertEquals(20, hedger.hedgeDelay());
+    }
+
+    @Test
+    public void testSlowRequestIsHedgedAndLoserAborted() throws Exception {
+        // Arrange
+        warmUp();
+        SlowFirstRequest request = new SlowFirstRequest();
+
+        // Act
+        String result = hedger.execute("GET /infostore/x", request::send);
+
+        // Assert
+        assertEquals("hedge", result);
+        assertEquals(2, request.calls.get());
+        assertTrue(request.aborted.await(1, TimeUnit.SECONDS));
+        assertEquals(1L, hedger.snapshot().get("hedges"));
+        assertEquals(1L, hedger.snapshot().get("hedgeWins"));
+    }
+
+    @Test
+    public void testNoHedgeWhenBudgetIsExhausted() {
+        // Arrange
+        warmUp();
+        hedger.execute("GET /infostore/x", new SlowFirstRequest()::send);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        String result = hedger.execute("GET /infostore/x", () -> {
+            calls.incrementAndGet();
+            sleep(50);
+            return "slow";
+        });
+
+        // Assert
+        assertEquals("slow", result);
+        assertEquals(1, calls.get());
+        assertEquals(1L, hedger.snapshot().get("budgetExhausted"));
+    }
+
+    @Test
+    public void testNoHedgeWhenAllWorkersAreBusy() {
+        // Arrange - one worker thread, taken by the first copy
+        RequestHedger bounded = new RequestHedger(properties, 1);
+        try {
+            for (int i = 0; i < properties.getMinSamples(); i++) {
+                bounded.execute("GET /infostore/x", () -> "fast");
+            }
+            AtomicInteger calls = new AtomicInteger();
+
+            // Act
+            String result = bounded.execute("GET /infostore/x", () -> {
+                calls.incrementAndGet();
+                sleep(60);
+                return "slow";
+            });
+
+            // Assert
+            assertEquals("slow", result);
+            assertEquals(1, calls.get());
+            assertEquals(0L, bounded.snapshot().get("hedges"));
+            assertEquals(1L, bounded.snapshot().get("saturated"));
+        } finally {
+            bounded.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailureIsReturnedWhenNoCopySucceeds() {
+        // Arrange
+        warmUp();
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert
+        ResourceAccessException exception = assertThrows(ResourceAccessException.class,
+                () -> hedger.execute("GET /infostore/x", () -> {
+                    int call = calls.incrementAndGet();
+                    sleep(call == 1 ? 60 : 0);
+                    throw new ResourceAccessException("Copy " + call + " failed");
+                }));
+        assertEquals(2, calls.get());
+        assertFalse(exception.getMessage().isEmpty());
+    }
+
+    @Test
+    public void testOnlyPathsBelowPrefixAreHedgeable() {
+        // Assert
+        assertTrue(hedger.isHedgeable("/infostore/reports/1"));
+        assertFalse(hedger.isHedgeable("/logon/long"));
+        properties.setEnabled(false);
+        assertFalse(hedger.isHedgeable("/infostore/reports/1"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
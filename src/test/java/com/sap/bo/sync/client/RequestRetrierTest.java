@@ -0,0 +1,129 @@
+package com.sap.bo.sync.client;
+
+import com.sap.bo.sync.config.ClientProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the RequestRetrier class
+ */
+public class RequestRetrierTest {
+
+    private final List<Long> sleeps = new ArrayList<>();
+
+    private ClientProperties.RetryProperties properties;
+    private RequestRetrier retrier;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new ClientProperties.RetryProperties();
+        retrier = new RequestRetrier(properties, sleeps::add, () -> 0L);
+    }
+
+    private static HttpServerErrorException serviceUnavailable(String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        if (retryAfter != null) {
+            headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        return HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", headers,
+                new byte[0], StandardCharsets.UTF_8);
+    }
+
+    private static ResourceAccessException ioError(IOException cause) {
+        return new ResourceAccessException("I/O error", cause);
+    }
+
+    @Test
+    public void testRetriesWithJitteredBackoff() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        String result = retrier.execute("GET /x", true, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw ioError(new SocketTimeoutException("Read timed out"));
+            }
+            return "ok";
+        });
+
+        // Assert
+        assertEquals("ok", result);
+        assertEquals(2, sleeps.size());
+        assertTrue(sleeps.get(0) <= 200);
+        assertTrue(sleeps.get(1) <= 400);
+        assertEquals(2L, retrier.snapshot().get("retries"));
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(ResourceAccessException.class, () -> retrier.execute("GET /x", true, () -> {
+            calls.incrementAndGet();
+            throw ioError(new SocketTimeoutException("Read timed out"));
+        }));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testNonIdempotentRequestOnlyRetriedWhenNotProcessed() {
+        // Arrange
+        ResourceAccessException timeout = ioError(new SocketTimeoutException("Read timed out"));
+        ResourceAccessException refused = ioError(new ConnectException("Connection refused"));
+
+        // Act & Assert
+        assertEquals(-1, retrier.retryDelay(timeout, false, 1));
+        assertTrue(retrier.retryDelay(refused, false, 1) >= 0);
+        assertTrue(retrier.retryDelay(serviceUnavailable(null), false, 1) >= 0);
+        assertEquals(-1, retrier.retryDelay(
+                HttpServerErrorException.create(HttpStatus.INTERNAL_SERVER_ERROR, "Error", null, null, null), true, 1));
+    }
+
+    @Test
+    public void testHonorsRetryAfter() {
+        // Act & Assert
+        assertEquals(2000, retrier.retryDelay(serviceUnavailable("2"), true, 1));
+        assertEquals(-1, retrier.retryDelay(serviceUnavailable("120"), true, 1));
+        assertEquals(0, retrier.retryDelay(serviceUnavailable("Thu, 01 Jan 1970 00:00:00 GMT"), true, 1));
+    }
+
+    @Test
+    public void testBudgetLimitsRetries() {
+        // Arrange
+        properties.setBudgetReserve(2);
+        properties.setBudgetRatio(0.5);
+        retrier = new RequestRetrier(properties, sleeps::add, () -> 0L);
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act - an outage: every attempt fails
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class, () -> retrier.execute("GET /x", true, () -> {
+                calls.incrementAndGet();
+                throw serviceUnavailable(null);
+            }));
+        }
+
+        // Assert - the reserve of 2 plus 0.5 per request allows 3 retries for 4 requests
+        assertEquals(7, calls.get());
+        assertEquals(3L, retrier.snapshot().get("retries"));
+        assertEquals(3L, retrier.snapshot().get("budgetExhausted"));
+    }
+}
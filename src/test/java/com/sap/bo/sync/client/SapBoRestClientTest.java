@@ -0,0 +1,330 @@
+package com.sap.bo.sync.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.sap.bo.sync.config.ClientProperties;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Unit tests for the SapBoRestClient class
+ */
+public class SapBoRestClientTest {
+
+    private static final String BASE_URL = "http://bo.example.com/biprws";
+
+    private MockRestServiceServer server;
+    private SapBoRestClient restClient;
+    private SapBoProperties.BoEnvironment environment;
+
+    @BeforeEach
+    public void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        restClient = new SapBoRestClient(restTemplate, new ObjectMapper(), new ClientProperties());
+
+        environment = new SapBoProperties.BoEnvironment();
+        environment.setUrl(BASE_URL);
+        environment.setUsername("admin");
+        environment.setPassword("secret");
+        environment.setAuthType("secEnterprise");
+
+        server.expect(requestTo(BASE_URL + "/logon/long"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("{\"logonToken\": \"token\"}", MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void testConditionalGetServedFromCache() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        server.expect(requestTo(BASE_URL + "/infostore/universes/1"))
+                .andRespond(withSuccess("{\"id\": \"1\"}", MediaType.APPLICATION_JSON).headers(headers));
+        server.expect(requestTo(BASE_URL + "/infostore/universes/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // Act
+        String first = restClient.get(environment, "/infostore/universes/1", String.class);
+        String second = restClient.get(environment, "/infostore/universes/1", String.class);
+
+        // Assert
+        server.verify();
+        assertEquals("{\"id\": \"1\"}", first);
+        assertEquals(first, second);
+        assertEquals(1, restClient.getResponseCacheStats().getHits());
+    }
+
+    @Test
+    public void testParsedBodyIsCachedWithTheResponse() throws IOException {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        server.expect(requestTo(BASE_URL + "/infostore/folders"))
+                .andRespond(withSuccess("{\"entries\": []}", MediaType.APPLICATION_JSON).headers(headers));
+        server.expect(requestTo(BASE_URL + "/infostore/folders"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        server.expect(requestTo(BASE_URL + "/infostore/folders"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        AtomicInteger parses = new AtomicInteger();
+        SapBoRestClient.ResponseParser<String, Object> parser = body -> {
+            parses.incrementAndGet();
+            return new Object();
+        };
+
+        // Act
+        Object first = restClient.get(environment, "/infostore/folders", String.class, "reader", parser);
+        Object cached = restClient.get(environment, "/infostore/folders", String.class, "reader", parser);
+        Object otherParser = restClient.get(environment, "/infostore/folders", String.class, "other", parser);
+
+        // Assert - a 304 is answered with the parsed body unless it was parsed with another parser
+        server.verify();
+        assertSame(first, cached);
+        assertNotSame(first, otherParser);
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    public void testChangedResponseReplacesCachedBody() {
+        // Arrange
+        HttpHeaders v1 = new HttpHeaders();
+        v1.setETag("\"v1\"");
+        HttpHeaders v2 = new HttpHeaders();
+        v2.setETag("\"v2\"");
+        server.expect(requestTo(BASE_URL + "/infostore/folders"))
+                .andRespond(withSuccess("{\"entries\": []}", MediaType.APPLICATION_JSON).headers(v1));
+        server.expect(requestTo(BASE_URL + "/infostore/folders"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withSuccess("{\"entries\": [{}]}", MediaType.APPLICATION_JSON).headers(v2));
+        server.expect(requestTo(BASE_URL + "/infostore/folders"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v2\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // Act
+        restClient.get(environment, "/infostore/folders", String.class);
+        String changed = restClient.get(environment, "/infostore/folders", String.class);
+        String cached = restClient.get(environment, "/infostore/folders", String.class);
+
+        // Assert
+        server.verify();
+        assertEquals("{\"entries\": [{}]}", changed);
+        assertEquals(changed, cached);
+    }
+
+    @Test
+    public void testLargePutBodyIsCompressedWithFallback() {
+        // Arrange
+        ClientProperties clientProperties = new ClientProperties();
+        clientProperties.getCompression().setRequestEnabled(true);
+        clientProperties.getCompression().setMinRequestSize(64);
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        restClient = new SapBoRestClient(restTemplate, new ObjectMapper(), clientProperties);
+        server.expect(requestTo(BASE_URL + "/logon/long"))
+                .andRespond(withSuccess("{\"logonToken\": \"token\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE_URL + "/infostore/universes/1"))
+                .andExpect(method(HttpMethod.PUT))
+                .andExpect(header(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andRespond(withStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE));
+        server.expect(requestTo(BASE_URL + "/infostore/universes/1"))
+                .andExpect(method(HttpMethod.PUT))
+                .andExpect(headerDoesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(BASE_URL + "/infostore/universes/1"))
+                .andExpect(headerDoesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        Map<String, String> body = Collections.singletonMap("content", String.join("", Collections.nCopies(100, "SELECT 1;")));
+
+        // Act
+        restClient.put(environment, "/infostore/universes/1", body, String.class);
+        restClient.put(environment, "/infostore/universes/1", body, String.class);
+
+        // Assert
+        server.verify();
+        assertEquals(0L, restClient.getTransferStats().get("compressedRequests"));
+    }
+
+    @Test
+    public void testPutBodiesAreStreamedToTheConnection() throws IOException {
+        // Arrange - a real HTTP server, since the mock server buffers request bodies
+        List<String[]> received = new CopyOnWriteArrayList<>();
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        httpServer.createContext("/", exchange -> {
+            InputStream in = exchange.getRequestBody();
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+                in = new GZIPInputStream(in);
+            }
+            byte[] requestBody = readAll(in);
+            received.add(new String[] {exchange.getRequestURI().getPath(),
+                    exchange.getRequestHeaders().getFirst(HttpHeaders.CONTENT_ENCODING),
+                    exchange.getRequestHeaders().getFirst("Transfer-encoding"),
+                    new String(requestBody, StandardCharsets.UTF_8)});
+            byte[] response = "{\"logonToken\": \"token\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        httpServer.start();
+
+        ClientProperties clientProperties = new ClientProperties();
+        clientProperties.getCompression().setRequestEnabled(true);
+        clientProperties.getCompression().setMinRequestSize(64);
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
+        requestFactory.setBufferRequestBody(false);
+        ObjectMapper objectMapper = new ObjectMapper();
+        SapBoRestClient streamingClient = new SapBoRestClient(new RestTemplate(requestFactory), objectMapper, clientProperties);
+        environment.setUrl("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/biprws");
+        Map<String, String> large = Collections.singletonMap("content", String.join("", Collections.nCopies(100, "SELECT 1;")));
+        Map<String, String> small = Collections.singletonMap("name", "x");
+
+        // Act
+        try {
+            streamingClient.put(environment, "/infostore/universes/1", large, String.class);
+            streamingClient.put(environment, "/infostore/universes/2", small, String.class);
+        } finally {
+            httpServer.stop(0);
+        }
+
+        // Assert
+        assertEquals(3, received.size());
+        String[] compressed = received.get(1);
+        assertEquals("/biprws/infostore/universes/1", compressed[0]);
+        assertEquals("gzip", compressed[1]);
+        assertEquals("chunked", compressed[2]);
+        assertEquals(objectMapper.writeValueAsString(large), compressed[3]);
+        String[] plain = received.get(2);
+        assertNull(plain[1]);
+        assertEquals(objectMapper.writeValueAsString(small), plain[3]);
+
+        Map<String, Object> stats = streamingClient.getTransferStats();
+        assertEquals(2L, stats.get("requestBodyWrites"));
+        assertEquals(1L, stats.get("compressedRequests"));
+        assertTrue((Long) stats.get("requestBytesSaved") > 0);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testIdempotentRequestIsRetried() {
+        // Arrange
+        ClientProperties clientProperties = new ClientProperties();
+        clientProperties.getRetry().setInitialDelay(1);
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer retryServer = MockRestServiceServer.bindTo(restTemplate).build();
+        SapBoRestClient retryingClient = new SapBoRestClient(restTemplate, new ObjectMapper(), clientProperties);
+        retryServer.expect(requestTo(BASE_URL + "/logon/long"))
+                .andRespond(withSuccess("{\"logonToken\": \"token\"}", MediaType.APPLICATION_JSON));
+        retryServer.expect(requestTo(BASE_URL + "/infostore/reports/1"))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+        retryServer.expect(requestTo(BASE_URL + "/infostore/reports/1"))
+                .andRespond(withSuccess("{\"id\": \"1\"}", MediaType.APPLICATION_JSON));
+        retryServer.expect(requestTo(BASE_URL + "/infostore/reports"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withStatus(HttpStatus.BAD_GATEWAY));
+
+        // Act
+        String report = retryingClient.get(environment, "/infostore/reports/1", String.class);
+
+        // Assert - a POST may have been processed before the gateway failed, so it is not retried
+        assertThrows(SapBoApiException.class,
+                () -> retryingClient.post(environment, "/infostore/reports", Collections.singletonMap("name", "x"), String.class));
+        retryServer.verify();
+        assertEquals("{\"id\": \"1\"}", report);
+        assertEquals(1L, retryingClient.getRetryStats().get("retries"));
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneLogon() throws Exception {
+        // Arrange - a slow logon
+        AtomicInteger logons = new AtomicInteger();
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        httpServer.setExecutor(Executors.newCachedThreadPool());
+        httpServer.createContext("/", exchange -> {
+            logons.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = ("{\"logonToken\": \"token" + logons.get() + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        httpServer.start();
+        SapBoRestClient client = new SapBoRestClient(new RestTemplate(), new ObjectMapper());
+        environment.setUrl("http://127.0.0.1:" + httpServer.getAddress().getPort() + "/biprws");
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        // Act
+        List<Future<String>> tokens = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                tokens.add(callers.submit(() -> client.getAuthToken(environment)));
+            }
+            for (Future<String> token : tokens) {
+                // Assert
+                assertEquals("token1", token.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+            httpServer.stop(0);
+        }
+        assertEquals(1, logons.get());
+    }
+}
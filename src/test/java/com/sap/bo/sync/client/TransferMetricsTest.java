@@ -0,0 +1,83 @@
+package com.sap.bo.sync.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the TransferMetrics class
+ */
+public class TransferMetricsTest {
+
+    private static final String BODY = "{\"entries\": [" + String.join(",", Collections.nCopies(200, "{\"name\": \"Report\"}")) + "]}";
+
+    private HttpServer server;
+    private byte[] compressedBody;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(BODY.getBytes(StandardCharsets.UTF_8));
+        }
+        compressedBody = out.toByteArray();
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/infostore", exchange -> {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, compressedBody.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(compressedBody);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testCountsWireAndDecodedBytes() throws Exception {
+        // Arrange
+        TransferMetrics metrics = new TransferMetrics();
+        String url = "http://localhost:" + server.getAddress().getPort() + "/infostore";
+
+        // Act
+        String body;
+        try (CloseableHttpClient client = HttpClientBuilder.create()
+                .addInterceptorFirst(metrics.wireBytesInterceptor())
+                .addInterceptorLast(metrics.decodedBytesInterceptor())
+                .build();
+             CloseableHttpResponse response = client.execute(new HttpGet(url))) {
+            body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+        }
+
+        // Assert
+        Map<String, Object> snapshot = metrics.snapshot();
+        assertEquals(BODY, body);
+        assertEquals((long) compressedBody.length, snapshot.get("responseWireBytes"));
+        assertEquals((long) BODY.length(), snapshot.get("responseDecodedBytes"));
+        assertEquals(1L, snapshot.get("compressedResponses"));
+        assertTrue((Long) snapshot.get("responseBytesSaved") > 0);
+    }
+}
@@ -0,0 +1,158 @@
+package com.sap.bo.sync.drift;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.config.SapBoProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the ConfigHistoryStore class
+ */
+public class ConfigHistoryStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static SortedMap<String, String> config(int version) {
+        SortedMap<String, String> config = new TreeMap<>();
+        for (int i = 0; i < 200; i++) {
+            config.put("/servers/" + i + "/port", String.valueOf(6400 + i));
+        }
+        config.put("/heap", "\"" + version + "g\"");
+        if (version % 2 == 0) {
+            config.put("/debug", "true");
+        }
+        return config;
+    }
+
+    @Test
+    public void testSnapshotsAreStoredAsDeltasBetweenKeyframes() throws IOException {
+        // Arrange
+        ConfigHistoryStore store = new ConfigHistoryStore(dir, 4, objectMapper);
+
+        // Act
+        for (int version = 1; version <= 10; version++) {
+            assertTrue(store.record("prod", "server", config(version), version * 1000L));
+        }
+        assertFalse(store.record("prod", "server", config(10), 11000L));
+
+        // Assert
+        List<ConfigHistoryStore.Entry> entries = store.list("prod", "server");
+        assertEquals(10, entries.size());
+        assertTrue(entries.get(0).isKeyframe());
+        assertFalse(entries.get(1).isKeyframe());
+        assertTrue(entries.get(4).isKeyframe());
+        assertEquals(2, entries.get(1).getChanges()); // Heap changed, debug added
+        long fullSize = objectMapper.writeValueAsBytes(config(1)).length;
+        assertTrue(Files.size(dir.resolve("prod.server.ndjson")) < 4 * fullSize);
+    }
+
+    @Test
+    public void testPointInTimeLookupReplaysDeltas() {
+        // Arrange
+        ConfigHistoryStore store = new ConfigHistoryStore(dir, 4, objectMapper);
+        for (int version = 1; version <= 10; version++) {
+            store.record("prod", "server", config(version), version * 1000L);
+        }
+
+        // Act & Assert
+        assertNull(store.at("prod", "server", 999L));
+        for (int version = 1; version <= 10; version++) {
+            ConfigHistoryStore.Snapshot snapshot = store.at("prod", "server", version * 1000L + 500);
+            assertEquals(version * 1000L, snapshot.getTimestamp());
+            assertEquals(config(version), snapshot.getConfig());
+        }
+    }
+
+    @Test
+    public void testHistoryIsReloadedAndDamagedLineCutOff() throws IOException {
+        // Arrange
+        ConfigHistoryStore store = new ConfigHistoryStore(dir, 4, objectMapper);
+        for (int version = 1; version <= 6; version++) {
+            store.record("prod", "server", config(version), version * 1000L);
+        }
+        Files.write(dir.resolve("prod.server.ndjson"), "{\"timestamp\":70".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        // Act
+        ConfigHistoryStore reloaded = new ConfigHistoryStore(dir, 4, objectMapper);
+        boolean stored = reloaded.record("prod", "server", config(7), 7000L);
+
+        // Assert
+        assertTrue(stored);
+        assertEquals(7, reloaded.list("prod", "server").size());
+        assertEquals(config(6), reloaded.at("prod", "server", 6500L).getConfig());
+        assertEquals(config(7), new ConfigHistoryStore(dir, 4, objectMapper).at("prod", "server", 7000L).getConfig());
+    }
+
+    @Test
+    public void testDamagedLinesMidFileAreSkippedToTheNextKeyframe() throws IOException {
+        // Arrange - keyframes at versions 1, 5 and 9; the delta of version 3 and the keyframe of version 9 are damaged
+        ConfigHistoryStore store = new ConfigHistoryStore(dir, 4, objectMapper);
+        for (int version = 1; version <= 10; version++) {
+            store.record("prod", "server", config(version), version * 1000L);
+        }
+        Path file = dir.resolve("prod.server.ndjson");
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        lines.set(2, "{\"timestamp\":3000,\"ha");
+        lines.set(8, "{\"timestamp\":9000,\"ha");
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        // Act
+        ConfigHistoryStore reloaded = new ConfigHistoryStore(dir, 4, objectMapper);
+        List<ConfigHistoryStore.Entry> entries = reloaded.list("prod", "server");
+        boolean stored = reloaded.record("prod", "server", config(11), 11000L);
+
+        // Assert - versions 3, 4, 9 and 10 are skipped, nothing is cut off and version 11 is a keyframe
+        assertEquals(6, entries.size());
+        assertEquals(lines, Files.readAllLines(file, StandardCharsets.UTF_8).subList(0, 10));
+        assertTrue(stored);
+        assertEquals(config(2), reloaded.at("prod", "server", 4500L).getConfig());
+        assertEquals(config(6), reloaded.at("prod", "server", 6500L).getConfig());
+        assertEquals(config(8), reloaded.at("prod", "server", 10500L).getConfig());
+        assertTrue(reloaded.list("prod", "server").get(6).isKeyframe());
+        assertEquals(config(11), new ConfigHistoryStore(dir, 4, objectMapper).at("prod", "server", 11000L).getConfig());
+    }
+
+    @Test
+    public void testDiffBetweenPointsInTime() {
+        // Arrange
+        SapBoProperties properties = new SapBoProperties();
+        ConfigHistoryStore store = new ConfigHistoryStore(dir, 4, objectMapper);
+        ConfigHistoryService service = new ConfigHistoryService(null, store, properties, null);
+        for (int version = 1; version <= 3; version++) {
+            store.record("prod", "server", config(version), version * 1000L);
+        }
+
+        // Act
+        Map<String, Object> diff = service.diff("prod", "server", Instant.ofEpochMilli(1500L), null);
+
+        // Assert
+        assertEquals(2L, diff.get("snapshotsBetween"));
+        assertEquals(true, diff.get("hasDifferences"));
+        @SuppressWarnings("unchecked")
+        List<ConfigMatrix.Row> differences = (List<ConfigMatrix.Row>) diff.get("differences");
+        assertEquals(1, differences.size());
+        assertEquals("/heap", differences.get(0).getPath());
+        assertEquals("\"1g\"", differences.get(0).getValues().get("from"));
+        assertEquals("\"3g\"", differences.get(0).getValues().get("to"));
+    }
+}
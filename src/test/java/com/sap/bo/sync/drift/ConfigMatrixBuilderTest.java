@@ -0,0 +1,138 @@
+package com.sap.bo.sync.drift;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.pipeline.SyncExecutor;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the ConfigMatrixBuilder, ConfigMatrix and ConfigReader classes
+ */
+public class ConfigMatrixBuilderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SapBoService dev;
+    private SapBoService test;
+    private SapBoService prod;
+    private ConfigMatrixBuilder builder;
+
+    private static SapBoProperties.BoEnvironment environment(String url) {
+        SapBoProperties.BoEnvironment environment = new SapBoProperties.BoEnvironment();
+        environment.setUrl(url);
+        return environment;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        SapBoProperties properties = new SapBoProperties();
+        SapBoProperties.BoEnvironment devEnvironment = environment("http://dev");
+        SapBoProperties.BoEnvironment testEnvironment = environment("http://test");
+        SapBoProperties.BoEnvironment prodEnvironment = environment("http://prod");
+        properties.getEnvironments().put("dev", devEnvironment);
+        properties.getEnvironments().put("test", testEnvironment);
+        properties.getEnvironments().put("prod", prodEnvironment);
+
+        dev = mock(SapBoService.class);
+        test = mock(SapBoService.class);
+        prod = mock(SapBoService.class);
+        SapBoServiceFactory serviceFactory = mock(SapBoServiceFactory.class);
+        when(serviceFactory.getService(devEnvironment)).thenReturn(dev);
+        when(serviceFactory.getService(testEnvironment)).thenReturn(test);
+        when(serviceFactory.getService(prodEnvironment)).thenReturn(prod);
+
+        builder = new ConfigMatrixBuilder(new ConfigReader(serviceFactory, properties, objectMapper),
+                SyncExecutor.create(SyncExecutor.MODE_PLATFORM, 3));
+    }
+
+    private JsonNode json(String text) throws Exception {
+        return objectMapper.readTree(text);
+    }
+
+    @Test
+    public void testFlattenIgnoresFieldOrder() throws Exception {
+        // Act
+        SortedMap<String, String> first = ConfigReader.flatten(json("{\"a\":1,\"b\":{\"c\":\"x\",\"d\":[true,[]]}}"));
+        SortedMap<String, String> second = ConfigReader.flatten(json("{\"b\":{\"d\":[true,[]],\"c\":\"x\"},\"a\":1}"));
+
+        // Assert
+        assertEquals("\"x\"", first.get("/b/c"));
+        assertEquals("[]", first.get("/b/d/1"));
+        assertEquals(ConfigReader.hash(first), ConfigReader.hash(second));
+        assertFalse(ConfigReader.hash(first).equals(
+                ConfigReader.hash(ConfigReader.flatten(json("{\"a\":\"1\",\"b\":{\"c\":\"x\",\"d\":[true,[]]}}")))));
+    }
+
+    @Test
+    public void testMatrixOfThreeEnvironments() throws Exception {
+        // Arrange
+        when(dev.getServerConfig(eq("server"), anyMap())).thenReturn(json("{\"port\":6400,\"heap\":\"2g\",\"debug\":true}"));
+        when(test.getServerConfig(eq("server"), anyMap())).thenReturn(json("{\"port\":6400,\"heap\":\"4g\"}"));
+        when(prod.getServerConfig(eq("server"), anyMap())).thenReturn(json("{\"port\":6400,\"heap\":\"4g\"}"));
+
+        // Act
+        ConfigMatrix matrix = builder.compare(Arrays.asList("dev", "test", "prod"), "server", Collections.emptyMap());
+
+        // Assert
+        assertEquals(3, matrix.getPaths());
+        assertEquals(2, matrix.getDifferences().size());
+        ConfigMatrix.Row debug = matrix.getDifferences().get(0);
+        assertEquals("/debug", debug.getPath());
+        assertEquals("true", debug.getValues().get("dev"));
+        assertNull(debug.getValues().get("prod"));
+        assertEquals(2, matrix.getPairDifferences().get("dev").get("prod").intValue());
+        assertEquals(2, matrix.getPairDifferences().get("prod").get("dev").intValue());
+        assertEquals(0, matrix.getPairDifferences().get("test").get("prod").intValue());
+        assertEquals(matrix.getHashes().get("test"), matrix.getHashes().get("prod"));
+        assertFalse(matrix.isCached());
+    }
+
+    @Test
+    public void testUnchangedConfigurationsAreServedFromCache() throws Exception {
+        // Arrange
+        when(dev.getServerConfig(eq("server"), any())).thenReturn(json("{\"port\":6400}"));
+        when(prod.getServerConfig(eq("server"), any())).thenReturn(json("{\"port\":6401}"), json("{\"port\":6401}"),
+                json("{\"port\":6402}"));
+
+        // Act
+        ConfigMatrix first = builder.compare(Arrays.asList("dev", "prod"), "server", null);
+        ConfigMatrix second = builder.compare(Arrays.asList("dev", "prod"), "server", null);
+        ConfigMatrix third = builder.compare(Arrays.asList("dev", "prod"), "server", null);
+
+        // Assert
+        assertFalse(first.isCached());
+        assertTrue(second.isCached());
+        assertEquals(first.getDifferences(), second.getDifferences());
+        assertFalse(third.isCached());
+        assertEquals("6402", third.getDifferences().get(0).getValues().get("prod"));
+    }
+
+    @Test
+    public void testUnknownEnvironment() {
+        // Assert
+        assertThrows(SapBoApiException.class,
+                () -> builder.compare(Arrays.asList("dev", "staging"), "server", null));
+        assertThrows(SapBoApiException.class,
+                () -> builder.compare(Collections.singletonList("dev"), "server", null));
+    }
+}
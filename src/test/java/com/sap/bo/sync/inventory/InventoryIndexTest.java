@@ -0,0 +1,158 @@
+package com.sap.bo.sync.inventory;
+
+import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.ObjectType;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.model.Universe;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the InventoryIndex class
+ */
+public class InventoryIndexTest {
+
+    private Report createReport(String cuid, String id, String name, long size) {
+        Report report = new Report();
+        report.setCuid(cuid);
+        report.setId(id);
+        report.setName(name);
+        report.setParentCuid("FolderCuid");
+        report.setSize(size);
+        report.setModified(new Date(1000));
+        return report;
+    }
+
+    @Test
+    public void testAddAndLookup() {
+        // Arrange
+        InventoryIndex index = new InventoryIndex(2);
+
+        // Act
+        index.add(createReport("AaBbCc1", "101", "Sales", 1000L));
+        SapBoObject folder = new SapBoObject();
+        folder.setId("7");
+        folder.setType("Folder");
+        index.add(folder);
+
+        // Assert
+        assertEquals(2, index.size());
+        int report = index.indexOf("AaBbCc1");
+        assertEquals("AaBbCc1", index.getCuid(report));
+        assertEquals("101", index.getId(report));
+        assertEquals("FolderCuid", index.getParentCuid(report));
+        assertEquals("report", index.getType(report));
+        assertEquals(1000, index.getModified(report));
+
+        int byId = index.indexOf("7");
+        assertEquals(ObjectType.FOLDER, index.getObjectType(byId));
+        assertNull(index.getParentCuid(byId));
+        assertEquals(-1, index.indexOf("missing"));
+    }
+
+    @Test
+    public void testAddReplacesExistingEntry() {
+        // Arrange
+        InventoryIndex index = new InventoryIndex();
+        index.add(createReport("AaBbCc1", "101", "Sales", 1000L));
+
+        // Act
+        Report updated = createReport("AaBbCc1", "101", "Sales", 2000L);
+        updated.setModified(new Date(2000));
+        index.add(updated);
+
+        // Assert
+        assertEquals(1, index.size());
+        assertEquals(2000, index.getModified(index.indexOf("AaBbCc1")));
+        assertEquals(InventoryIndex.fingerprint(updated), index.getFingerprint(0));
+    }
+
+    @Test
+    public void testGrowsBeyondExpectedSize() {
+        // Arrange
+        InventoryIndex index = new InventoryIndex(16);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            index.add(createReport("Cuid" + i, String.valueOf(i), "Report " + i, 1000L));
+        }
+
+        // Assert
+        assertEquals(10_000, index.size());
+        for (int i = 0; i < 10_000; i += 997) {
+            assertEquals(String.valueOf(i), index.getId(index.indexOf("Cuid" + i)));
+        }
+        assertTrue(index.estimateBytes() < 10_000L * 200, "footprint " + index.estimateBytes());
+    }
+
+    @Test
+    public void testDiff() {
+        // Arrange
+        InventoryIndex source = new InventoryIndex().addAll(Arrays.asList(
+                createReport("Same", "1", "Same", 1000L),
+                createReport("Changed", "2", "Changed", 2000L),
+                createReport("Added", "3", "Added", 1000L)));
+        Report targetCopy = createReport("Same", "51", "Same", 1000L);
+        targetCopy.setModified(new Date(5000)); // Written later, but identical content
+        InventoryIndex target = new InventoryIndex().addAll(Arrays.asList(
+                targetCopy,
+                createReport("Changed", "52", "Changed", 1000L),
+                createReport("Removed", "53", "Removed", 1000L)));
+
+        // Act
+        InventoryDiff diff = source.diff(target);
+
+        // Assert
+        assertArrayEquals(new int[]{source.indexOf("Added")}, diff.getAdded());
+        assertArrayEquals(new int[]{source.indexOf("Changed")}, diff.getChanged());
+        assertArrayEquals(new int[]{target.indexOf("Removed")}, diff.getRemoved());
+        assertEquals(1, diff.getUnchangedCount());
+        assertEquals("53", target.getId(diff.getRemoved()[0]));
+    }
+
+    @Test
+    public void testFingerprintCoversConnectionParameters() {
+        // Arrange
+        Connection first = new Connection();
+        first.setCuid("Conn");
+        first.setParameters(Collections.singletonMap("port", "1521"));
+        Connection second = new Connection();
+        second.setCuid("Conn");
+        second.setParameters(Collections.singletonMap("port", "1522"));
+
+        // Act & Assert
+        assertTrue(InventoryIndex.fingerprint(first) != InventoryIndex.fingerprint(second));
+    }
+
+    @Test
+    public void testFingerprintIgnoresEnvironmentSpecificReferences() {
+        // Arrange - the same report and universe with the IDs of their references in another environment
+        Report source = createReport("Rep", "1", "Sales", 100);
+        source.setUniverseId("10");
+        source.setUniverseName("Sales universe");
+        Report target = createReport("Rep", "2", "Sales", 100);
+        target.setUniverseId("20");
+        target.setUniverseName("Sales universe");
+        Universe sourceUniverse = new Universe();
+        sourceUniverse.setConnectionId("30");
+        sourceUniverse.setConnectionName("Sales DB");
+        Universe targetUniverse = new Universe();
+        targetUniverse.setConnectionId("40");
+        targetUniverse.setConnectionName("Sales DB");
+
+        // Act & Assert
+        assertEquals(InventoryIndex.fingerprint(source), InventoryIndex.fingerprint(target));
+        assertEquals(InventoryIndex.fingerprint(sourceUniverse), InventoryIndex.fingerprint(targetUniverse));
+        target.setUniverseName("Costs universe");
+        assertTrue(InventoryIndex.fingerprint(source) != InventoryIndex.fingerprint(target));
+    }
+}
@@ -0,0 +1,62 @@
+package com.sap.bo.sync.inventory;
+
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the InventoryLoader class
+ */
+@ExtendWith(MockitoExtension.class)
+public class InventoryLoaderTest {
+
+    @Mock
+    private SapBoServiceFactory serviceFactory;
+
+    @Mock
+    private SapBoService service;
+
+    @Test
+    public void testInventoryIsLoadedPageByPage() {
+        // Arrange - five reports in pages of two
+        SapBoProperties properties = new SapBoProperties();
+        properties.getSync().setStreamPageSize(2);
+        when(service.getReports(isNull(), isNull(), any())).thenAnswer(invocation -> {
+            Map<String, String> options = invocation.getArgument(2);
+            int page = Integer.parseInt(options.get("page"));
+            List<Report> reports = new ArrayList<>();
+            for (int i = (page - 1) * 2; i < Math.min(page * 2, 5); i++) {
+                Report report = new Report();
+                report.setId("rep" + i);
+                report.setCuid("cuid" + i);
+                reports.add(report);
+            }
+            return reports;
+        });
+
+        // Act
+        InventoryIndex index = new InventoryLoader(serviceFactory, properties)
+                .load(service, Collections.singletonList("report"));
+
+        // Assert
+        assertEquals(5, index.size());
+        verify(service, times(3)).getReports(isNull(), isNull(), any());
+    }
+}
@@ -0,0 +1,69 @@
+package com.sap.bo.sync.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the FolderTree class
+ */
+public class FolderTreeTest {
+
+    private SapBoObject folder(String id, String name, String parentId) {
+        SapBoObject folder = new SapBoObject();
+        folder.setId(id);
+        folder.setName(name);
+        folder.setParentId(parentId);
+        folder.setType("Folder");
+        return folder;
+    }
+
+    @Test
+    public void testPathsDerivedFromParentChain() {
+        // Arrange
+        List<SapBoObject> folders = Arrays.asList(
+                folder("3", "Monthly", "2"),
+                folder("1", "Root", null),
+                folder("2", "Finance", "1"));
+
+        // Act
+        FolderTree tree = FolderTree.of(folders);
+
+        // Assert
+        assertEquals(3, tree.size());
+        assertEquals("/Root/Finance/Monthly", tree.getPath("3"));
+        assertEquals("2", tree.get("Root/Finance/").getId());
+    }
+
+    @Test
+    public void testMissingFoldersGroupedByDepth() {
+        // Arrange
+        FolderTree source = FolderTree.of(Arrays.asList(
+                folder("1", "Root", null),
+                folder("2", "Finance", "1"),
+                folder("3", "Monthly", "2"),
+                folder("4", "Sales", "1")));
+        FolderTree target = FolderTree.of(Collections.singletonList(folder("10", "Root", null)));
+
+        // Act
+        List<List<SapBoObject>> levels = source.missingIn(target);
+
+        // Assert
+        assertEquals(2, levels.size());
+        assertEquals(2, levels.get(0).size());
+        assertEquals("Monthly", levels.get(1).get(0).getName());
+    }
+
+    @Test
+    public void testParentPath() {
+        assertEquals("/Root/Finance", FolderTree.parentPath("/Root/Finance/Monthly"));
+        assertNull(FolderTree.parentPath("/Root"));
+        assertTrue(FolderTree.of(Collections.emptyList()).missingIn(FolderTree.of(Collections.emptyList())).isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+package com.sap.bo.sync.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the ObjectCodecs class
+ */
+public class ObjectCodecsTest {
+
+    private static final String REPORT_JSON = "{\"id\":\"report1\",\"name\":\"Sales\",\"type\":\"Webi\","
+            + "\"universeId\":\"universe1\",\"format\":\"webi\",\"size\":2048,\"content\":\"<document/>\"}";
+
+    @Test
+    public void testReadersAndWritersArePrebuiltAndShared() {
+        // Arrange
+        ObjectCodecs codecs = new ObjectCodecs(new ObjectMapper());
+
+        // Act & Assert
+        for (Class<?> type : ObjectCodecs.MODEL_TYPES) {
+            assertSame(codecs.reader(type), codecs.reader(type));
+            assertSame(codecs.writer(type), codecs.writer(type));
+        }
+        assertSame(codecs.reader(JsonNode.class), codecs.reader(JsonNode.class));
+    }
+
+    @Test
+    public void testListingReaderSkipsPayloads() throws IOException {
+        // Arrange
+        ObjectCodecs codecs = new ObjectCodecs(new ObjectMapper());
+
+        // Act
+        Report full = codecs.read(REPORT_JSON, Report.class);
+        Report listed = codecs.listingReader(Report.class).readValue(REPORT_JSON);
+
+        // Assert
+        assertEquals("<document/>", full.getContent());
+        assertEquals("report1", listed.getId());
+        assertFalse(listed.getContentValue().isLoaded());
+    }
+
+    @Test
+    public void testGeneratedAccessorsBindLikeReflection() throws IOException {
+        // Arrange
+        ObjectCodecs reflective = new ObjectCodecs(new ObjectMapper());
+        ObjectCodecs generated = new ObjectCodecs(new ObjectMapper().registerModule(new BlackbirdModule()));
+        Connection connection = new Connection();
+        connection.setId("conn1");
+        connection.setName("Sales DB");
+        connection.setServer("db.example.com");
+        connection.setParameters(Collections.singletonMap("port", "1433"));
+
+        // Act
+        Report report = generated.read(REPORT_JSON, Report.class);
+        String connectionJson = generated.writer(Connection.class).writeValueAsString(connection);
+        JsonNode tree = generated.getObjectMapper().readTree(REPORT_JSON);
+
+        // Assert
+        assertEquals(reflective.writer(Report.class).writeValueAsString(reflective.read(REPORT_JSON, Report.class)),
+                generated.writer(Report.class).writeValueAsString(report));
+        assertEquals(reflective.writer(Connection.class).writeValueAsString(connection), connectionJson);
+        assertEquals(Long.valueOf(2048), generated.treeToValue(tree, Report.class).getSize());
+        assertTrue(report.getContentValue().isLoaded());
+    }
+}
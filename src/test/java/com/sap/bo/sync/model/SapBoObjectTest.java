@@ -1,5 +1,7 @@
 package com.sap.bo.sync.model;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -9,13 +11,18 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Unit tests for the SapBoObject class
  */
 public class SapBoObjectTest {
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @Test
     public void testSapBoObjectProperties() {
         // Arrange
@@ -96,4 +103,69 @@ public class SapBoObjectTest {
         assertEquals("child2", parent.getChildren().get(1).getId());
         assertEquals("Child 2", parent.getChildren().get(1).getName());
     }
+
+    @Test
+    public void testTimestampsKeepWireFormat() throws Exception {
+        // Arrange
+        String json = "{\"id\":\"1\",\"created\":1600000000000,\"modified\":1650000000000}";
+
+        // Act
+        Report report = objectMapper.readValue(json, Report.class);
+        String serialized = objectMapper.writeValueAsString(report);
+
+        // Assert
+        assertEquals(1650000000000L, report.getModifiedMillis());
+        assertEquals(new Date(1600000000000L), report.getCreated());
+        assertEquals(json, serialized);
+        assertFalse(serialized.contains("Millis"));
+        assertFalse(serialized.contains("objectType"));
+    }
+
+    @Test
+    public void testUnsetTimestamps() throws Exception {
+        // Arrange
+        SapBoObject object = new SapBoObject();
+        object.setModified(new Date(5));
+
+        // Act
+        object.setModified(null);
+
+        // Assert
+        assertNull(object.getModified());
+        assertNull(object.getCreated());
+        assertEquals(SapBoObject.NO_TIMESTAMP, object.getModifiedMillis());
+        assertEquals("{}", objectMapper.writeValueAsString(object));
+    }
+
+    @Test
+    public void testRepetitiveValuesAreShared() throws Exception {
+        // Arrange
+        String json = "[{\"id\":\"1\",\"type\":\"Webi\",\"owner\":\"Administrator\",\"path\":\"/Sales\",\"universeName\":\"eFashion\"},"
+                + "{\"id\":\"2\",\"type\":\"Webi\",\"owner\":\"Administrator\",\"path\":\"/Sales\",\"universeName\":\"eFashion\"}]";
+
+        // Act
+        List<Report> reports = objectMapper.readValue(json, new TypeReference<List<Report>>() { });
+
+        // Assert
+        Report first = reports.get(0);
+        Report second = reports.get(1);
+        assertSame(first.getType(), second.getType());
+        assertSame(first.getOwner(), second.getOwner());
+        assertSame(first.getPath(), second.getPath());
+        assertSame(first.getUniverseName(), second.getUniverseName());
+        assertEquals("/Sales", second.getPath());
+    }
+
+    @Test
+    public void testObjectType() {
+        // Arrange
+        SapBoObject folder = new SapBoObject();
+        folder.setType("Folder");
+
+        // Act & Assert
+        assertEquals(ObjectType.FOLDER, folder.getObjectType());
+        assertEquals(ObjectType.REPORT, new Report().getObjectType());
+        assertEquals(ObjectType.OTHER, ObjectType.fromType("Publication"));
+        assertEquals(ObjectType.CONNECTION, ObjectType.of(new Connection()));
+    }
 }
@@ -1,12 +1,16 @@
 package com.sap.bo.sync.model;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * Unit tests for the Universe class
@@ -85,4 +89,31 @@ public class UniverseTest {
         assertEquals("Revenue measure", retrievedMeasure.getDescription());
         assertEquals("SUM(sales.amount)", retrievedMeasure.getSql());
     }
+    
+    @Test
+    public void testLazyPayloads() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        String json = "{\"id\":\"universe1\",\"content\":\"blob\",\"objects\":[{\"id\":\"obj1\",\"sql\":\"SELECT 1\"}]}";
+        AtomicInteger loads = new AtomicInteger();
+        
+        // Act
+        Universe details = objectMapper.readValue(json, Universe.class);
+        Universe listed = LazyValueDeserializer.listingReader(objectMapper.readerFor(Universe.class)).readValue(json);
+        listed.getObjectsValue().bind(() -> {
+            loads.incrementAndGet();
+            return details.getObjects();
+        });
+        
+        // Assert
+        assertEquals("SELECT 1", details.getObjects().get(0).getSql());
+        assertEquals(objectMapper.readTree(json), objectMapper.valueToTree(details));
+        
+        assertFalse(listed.getObjectsValue().isLoaded());
+        assertEquals("{\"id\":\"universe1\"}", objectMapper.writeValueAsString(listed));
+        assertNull(listed.getContent());
+        assertEquals("obj1", listed.getObjects().get(0).getId());
+        listed.getObjects();
+        assertEquals(1, loads.get());
+    }
 }
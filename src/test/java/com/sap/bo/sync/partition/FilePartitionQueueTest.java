@@ -0,0 +1,236 @@
+package com.sap.bo.sync.partition;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.model.SapBoObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the FilePartitionQueue class
+ */
+public class FilePartitionQueueTest {
+
+    @TempDir
+    Path queueDir;
+
+    private final AtomicLong clock = new AtomicLong(1000);
+
+    private FilePartitionQueue queue;
+
+    @BeforeEach
+    public void setUp() {
+        queue = new FilePartitionQueue(queueDir, new ObjectMapper(), 500, 2, clock::get);
+    }
+
+    private PartitionRun createRun(String runId) {
+        PartitionRun run = new PartitionRun();
+        run.setRunId(runId);
+        run.setPartitions(Arrays.asList(
+                SyncPartition.forHashRange(runId, 0, 0, 1L << 31),
+                SyncPartition.forHashRange(runId, 1, 1L << 31, 1L << 32)));
+        return run;
+    }
+
+    @Test
+    public void testClaimAndComplete() {
+        // Arrange
+        queue.publish(createRun("run1"));
+
+        // Act
+        Optional<SyncPartition> first = queue.claim("run1", "nodeA");
+        Optional<SyncPartition> second = queue.claim("run1", "nodeB");
+        Optional<SyncPartition> none = queue.claim("run1", "nodeC");
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertTrue(second.isPresent());
+        assertFalse(none.isPresent());
+
+        assertTrue(queue.complete(first.get().getId(), "nodeA", 3));
+        assertTrue(queue.complete(second.get().getId(), "nodeB", 4));
+
+        PartitionRun run = queue.getActiveRun().get();
+        assertTrue(run.isFinished());
+        assertEquals(7, run.getSyncedCount());
+    }
+
+    @Test
+    public void testPublishJoinsUnfinishedRun() {
+        // Arrange
+        queue.publish(createRun("run1"));
+
+        // Act
+        PartitionRun active = queue.publish(createRun("run2"));
+
+        // Assert
+        assertEquals("run1", active.getRunId());
+    }
+
+    @Test
+    public void testExpiredLeaseIsReassigned() {
+        // Arrange
+        queue.publish(createRun("run1"));
+        SyncPartition claimed = queue.claim("run1", "nodeA").get();
+        queue.claim("run1", "nodeA");
+
+        // Act - nodeA stops sending heartbeats
+        clock.addAndGet(1000);
+        Optional<SyncPartition> reassigned = queue.claim("run1", "nodeB");
+
+        // Assert
+        assertTrue(reassigned.isPresent());
+        assertEquals(claimed.getId(), reassigned.get().getId());
+        assertEquals("nodeB", reassigned.get().getOwner());
+        assertFalse(queue.heartbeat(claimed.getId(), "nodeA"));
+        assertFalse(queue.complete(claimed.getId(), "nodeA", 10));
+    }
+
+    @Test
+    public void testHeartbeatKeepsLease() {
+        // Arrange
+        queue.publish(createRun("run1"));
+        SyncPartition first = queue.claim("run1", "nodeA").get();
+        SyncPartition second = queue.claim("run1", "nodeA").get();
+
+        // Act
+        clock.addAndGet(400);
+        assertTrue(queue.heartbeat(first.getId(), "nodeA"));
+        assertTrue(queue.heartbeat(second.getId(), "nodeA"));
+        clock.addAndGet(400);
+
+        // Assert
+        assertFalse(queue.claim("run1", "nodeB").isPresent());
+    }
+
+    @Test
+    public void testFailedPartitionIsRetriedUntilAttemptsExhausted() {
+        // Arrange
+        PartitionRun run = new PartitionRun();
+        run.setRunId("run1");
+        run.setPartitions(Arrays.asList(SyncPartition.forConnections("run1")));
+        queue.publish(run);
+
+        // Act
+        SyncPartition partition = queue.claim("run1", "nodeA").get();
+        queue.fail(partition.getId(), "nodeA", "boom");
+        SyncPartition retried = queue.claim("run1", "nodeB").get();
+        queue.fail(retried.getId(), "nodeB", "boom again");
+
+        // Assert
+        assertFalse(queue.claim("run1", "nodeC").isPresent());
+        SyncPartition failed = queue.getActiveRun().get().getPartitions().get(0);
+        assertEquals(SyncPartition.Status.FAILED, failed.getStatus());
+        assertEquals("boom again", failed.getLastError());
+    }
+
+    @Test
+    public void testExpiredLeaseFailsOnceAttemptsExhausted() {
+        // Arrange
+        PartitionRun run = new PartitionRun();
+        run.setRunId("run1");
+        run.setPartitions(Arrays.asList(SyncPartition.forConnections("run1")));
+        queue.publish(run);
+
+        // Act - the partition takes down every node that claims it
+        queue.claim("run1", "nodeA").get();
+        clock.addAndGet(1000);
+        queue.claim("run1", "nodeB").get();
+        clock.addAndGet(1000);
+        Optional<SyncPartition> third = queue.claim("run1", "nodeC");
+
+        // Assert
+        assertFalse(third.isPresent());
+        PartitionRun finished = queue.getActiveRun().get();
+        assertTrue(finished.isFinished());
+        assertEquals(SyncPartition.Status.FAILED, finished.getPartitions().get(0).getStatus());
+    }
+
+    @Test
+    public void testDependentPartitionsWaitForTheirDependency() {
+        // Arrange
+        SyncPartition connections = SyncPartition.forConnections("run1");
+        SyncPartition folder = SyncPartition.forFolder("run1", "folder1");
+        folder.setDependsOn(Collections.singletonList(connections.getId()));
+        PartitionRun run = new PartitionRun();
+        run.setRunId("run1");
+        run.setPartitions(Arrays.asList(folder, connections));
+        queue.publish(run);
+
+        // Act
+        SyncPartition first = queue.claim("run1", "nodeA").get();
+        Optional<SyncPartition> blocked = queue.claim("run1", "nodeB");
+        queue.complete(first.getId(), "nodeA", 2);
+        Optional<SyncPartition> released = queue.claim("run1", "nodeB");
+
+        // Assert
+        assertEquals(connections.getId(), first.getId());
+        assertFalse(blocked.isPresent());
+        assertEquals(folder.getId(), released.get().getId());
+    }
+
+    @Test
+    public void testDependentPartitionsFailWithTheirDependency() {
+        // Arrange
+        SyncPartition connections = SyncPartition.forConnections("run1");
+        SyncPartition folder = SyncPartition.forFolder("run1", "folder1");
+        folder.setDependsOn(Collections.singletonList(connections.getId()));
+        PartitionRun run = new PartitionRun();
+        run.setRunId("run1");
+        run.setPartitions(Arrays.asList(connections, folder));
+        queue.publish(run);
+
+        // Act
+        queue.fail(queue.claim("run1", "nodeA").get().getId(), "nodeA", "boom");
+        queue.fail(queue.claim("run1", "nodeA").get().getId(), "nodeA", "boom again");
+        Optional<SyncPartition> none = queue.claim("run1", "nodeB");
+
+        // Assert
+        assertFalse(none.isPresent());
+        assertTrue(queue.getActiveRun().get().isFinished());
+        assertEquals(SyncPartition.Status.FAILED, queue.getActiveRun().get().getPartitions().get(1).getStatus());
+    }
+
+    @Test
+    public void testObjectIdsAreStoredOutsideTheState() {
+        // Arrange
+        PartitionRun run = createRun("run1");
+        Map<String, List<String>> objectIds = new HashMap<>();
+        objectIds.put("report", Arrays.asList("r1", "r2"));
+        run.getPartitions().get(0).setObjectIds(objectIds);
+        queue.publish(run);
+
+        // Act
+        SyncPartition claimed = queue.claim("run1", "nodeA").get();
+
+        // Assert
+        assertEquals(Arrays.asList("r1", "r2"), claimed.getObjectIds("report"));
+        assertNull(queue.getActiveRun().get().getPartitions().get(0).getObjectIds());
+    }
+
+    @Test
+    public void testHashRangeMembership() {
+        // Arrange
+        SapBoObject object = new SapBoObject();
+        object.setCuid("AaBbCcDd1234");
+        long hash = SyncPartition.hashOf(object);
+
+        // Act & Assert
+        assertTrue(SyncPartition.forHashRange("run1", 0, hash, hash + 1).containsHash(object));
+        assertFalse(SyncPartition.forHashRange("run1", 0, hash + 1, hash + 2).containsHash(object));
+    }
+}
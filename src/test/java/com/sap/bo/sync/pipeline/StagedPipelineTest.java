@@ -0,0 +1,132 @@
+package com.sap.bo.sync.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the StagedPipeline class
+ */
+public class StagedPipelineTest {
+
+    @Test
+    public void testItemsPassEveryStage() {
+        // Arrange
+        Set<Integer> written = ConcurrentHashMap.newKeySet();
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>("test", 4)
+                .stage("double", 3, item -> item * 2)
+                .stage("write", 2, item -> {
+                    written.add(item);
+                    return item;
+                });
+
+        // Act
+        int completed = pipeline.run(emit -> {
+            for (int i = 0; i < 100; i++) {
+                emit.accept(i);
+            }
+        });
+
+        // Assert
+        assertEquals(100, completed);
+        assertEquals(100, written.size());
+        assertTrue(written.contains(198));
+    }
+
+    @Test
+    public void testDroppedAndFailedItemsDoNotComplete() {
+        // Arrange
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>("test", 2)
+                .stage("filter", 2, item -> item % 2 == 0 ? item : null)
+                .stage("write", 1, item -> {
+                    if (item == 4) {
+                        throw new IllegalStateException("write failed");
+                    }
+                    return item;
+                });
+
+        // Act
+        int completed = pipeline.run(emit -> {
+            for (int i = 0; i < 10; i++) {
+                emit.accept(i);
+            }
+        });
+
+        // Assert - 0, 2, 6, 8 are written
+        assertEquals(4, completed);
+    }
+
+    @Test
+    public void testSlowStageThrottlesProducer() {
+        // Arrange
+        int capacity = 2;
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>("test", capacity)
+                .stage("fetch", 1, item -> item)
+                .stage("write", 1, item -> {
+                    sleep(5);
+                    inFlight.decrementAndGet();
+                    return item;
+                });
+
+        // Act
+        pipeline.run(emit -> {
+            for (int i = 0; i < 30; i++) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                emit.accept(i);
+            }
+        });
+
+        // Assert - two queues, one item per worker and the item being emitted
+        assertTrue(maxInFlight.get() <= 2 * capacity + 3, "max in flight: " + maxInFlight.get());
+    }
+
+    @Test
+    public void testProducerFailureIsRethrown() {
+        // Arrange
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>("test", 2)
+                .stage("write", 1, item -> item);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> pipeline.run(emit -> {
+            emit.accept(1);
+            throw new IllegalStateException("listing failed");
+        }));
+    }
+
+    @Test
+    public void testInterruptedWorkerAbortsPipeline() {
+        // Arrange - the fetch worker is left interrupted, so it cannot pass its item on
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>("test", 2)
+                .stage("fetch", 1, item -> {
+                    Thread.currentThread().interrupt();
+                    return item;
+                })
+                .stage("write", 2, item -> item);
+
+        // Act & Assert - the pipeline fails instead of waiting for the write workers forever
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(IllegalStateException.class,
+                () -> pipeline.run(emit -> {
+                    for (int i = 0; i < 100; i++) {
+                        emit.accept(i);
+                    }
+                })));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.sap.bo.sync.pipeline;
+
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.model.Report;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the SyncPriority class
+ */
+public class SyncPriorityTest {
+
+    private static Report report(String id, String path, String type, long modifiedMillis) {
+        Report report = new Report();
+        report.setId(id);
+        report.setPath(path);
+        report.setType(type);
+        if (modifiedMillis > 0) {
+            report.setModifiedMillis(modifiedMillis);
+        }
+        return report;
+    }
+
+    private static List<String> ids(List<Report> reports) {
+        List<String> ids = new ArrayList<>();
+        for (Report report : reports) {
+            ids.add(report.getId());
+        }
+        return ids;
+    }
+
+    private final List<Report> listing = Arrays.asList(
+            report("archive", "/Archive/2019/Sales", "CrystalReport", 1000),
+            report("financeOld", "/Finance/Close", "Webi", 2000),
+            report("financeArchive", "/FinanceArchive", "Webi", 9000),
+            report("board", "/Board", "Webi", 0),
+            report("financeNew", "/Finance", "Webi", 5000),
+            report("hr", "/HR", "CrystalReport", 7000));
+
+    @Test
+    public void testRulesApplyInConfiguredOrder() {
+        // Arrange
+        SapBoProperties.PriorityProperties properties = new SapBoProperties.PriorityProperties();
+        properties.setEnabled(true);
+        properties.setIds(Collections.singletonList("board"));
+        properties.setFolders(Arrays.asList("/Finance/", "/HR"));
+        properties.setTypes(Collections.singletonList("webi"));
+
+        // Act
+        List<Report> sorted = SyncPriority.of(properties).sort(listing);
+
+        // Assert - explicit ID, then folders by prefix order and recency, then types, then recency
+        assertEquals(Arrays.asList("board", "financeNew", "financeOld", "hr", "financeArchive", "archive"), ids(sorted));
+    }
+
+    @Test
+    public void testRuleOrderAndRecencyDirectionAreConfigurable() {
+        // Arrange
+        SapBoProperties.PriorityProperties properties = new SapBoProperties.PriorityProperties();
+        properties.setEnabled(true);
+        properties.setRules(Arrays.asList("modified", "types"));
+        properties.setRecentFirst(false);
+
+        // Act
+        List<Report> sorted = SyncPriority.of(properties).sort(listing);
+
+        // Assert - oldest first, objects without a modification time last
+        assertEquals(Arrays.asList("archive", "financeOld", "financeNew", "hr", "financeArchive", "board"), ids(sorted));
+    }
+
+    @Test
+    public void testDisabledPriorityKeepsListingOrder() {
+        // Arrange
+        SapBoProperties.PriorityProperties properties = new SapBoProperties.PriorityProperties();
+        properties.setFolders(Collections.singletonList("/Finance"));
+
+        // Act
+        SyncPriority priority = SyncPriority.of(properties);
+
+        // Assert
+        assertFalse(priority.isEnabled());
+        assertSame(listing, priority.sort(listing));
+    }
+
+    @Test
+    public void testUnknownRuleIsRejected() {
+        // Arrange
+        SapBoProperties.PriorityProperties properties = new SapBoProperties.PriorityProperties();
+        properties.setEnabled(true);
+        properties.setRules(Collections.singletonList("size"));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> SyncPriority.of(properties));
+    }
+
+    @Test
+    public void testBufferReordersWithinItsWindow() {
+        // Arrange
+        SapBoProperties.PriorityProperties properties = new SapBoProperties.PriorityProperties();
+        properties.setEnabled(true);
+        properties.setRules(Collections.singletonList("modified"));
+        SyncPriority priority = SyncPriority.of(properties);
+        List<Report> windowed = new ArrayList<>();
+        List<Report> whole = new ArrayList<>();
+
+        // Act
+        SyncPriority.Buffer<Report> small = priority.buffer(2, windowed::add);
+        SyncPriority.Buffer<Report> large = priority.buffer(listing.size(), whole::add);
+        listing.forEach(small);
+        listing.forEach(large);
+        small.flush();
+        large.flush();
+
+        // Assert - a window of two passes on the most recent of every three reports it has seen
+        assertEquals(Arrays.asList("financeArchive", "financeOld", "financeNew", "hr", "archive", "board"), ids(windowed));
+        assertEquals(ids(priority.sort(listing)), ids(whole));
+    }
+}
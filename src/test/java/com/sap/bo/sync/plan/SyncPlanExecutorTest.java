@@ -0,0 +1,155 @@
+package com.sap.bo.sync.plan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.model.Universe;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the SyncPlanExecutor class
+ */
+@ExtendWith(MockitoExtension.class)
+public class SyncPlanExecutorTest {
+
+    @Mock
+    private SapBoServiceFactory serviceFactory;
+
+    @Mock
+    private SapBoService targetService;
+
+    @TempDir
+    Path planDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SyncPlanExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        when(serviceFactory.getTargetService()).thenReturn(targetService);
+        executor = new SyncPlanExecutor(serviceFactory, objectMapper, null);
+    }
+
+    private SyncAction action(int id, SyncAction.Type type, String objectType, Object payload, Integer... dependsOn) {
+        SyncAction action = new SyncAction();
+        action.setId(id);
+        action.setType(type);
+        action.setObjectType(objectType);
+        action.setDependsOn(Arrays.asList(dependsOn));
+        if (payload != null) {
+            action.setPayload(objectMapper.valueToTree(payload));
+        }
+        return action;
+    }
+
+    @Test
+    public void testSavedPlanIsAppliedWithCreatedParentFolders() {
+        // Arrange
+        SapBoObject parent = new SapBoObject();
+        parent.setName("Finance");
+        SapBoObject child = new SapBoObject();
+        child.setName("Monthly");
+        SyncAction createParent = action(0, SyncAction.Type.CREATE, "folder", parent);
+        createParent.setPath("/Root/Finance");
+        createParent.setTargetParentId("t1");
+        SyncAction createChild = action(1, SyncAction.Type.CREATE, "folder", child, 0);
+        createChild.setPath("/Root/Finance/Monthly");
+        createChild.setParentPath("/Root/Finance");
+
+        SyncPlan plan = new SyncPlan();
+        plan.setPlanId("plan-1");
+        plan.setActions(Arrays.asList(createParent, createChild, action(2, SyncAction.Type.DELETE, "report", null)));
+        plan.getActions().get(2).setObjectId("rep9");
+
+        SyncPlanStore store = new SyncPlanStore(planDir, objectMapper);
+        store.save(plan);
+
+        SapBoObject created = new SapBoObject();
+        created.setId("t2");
+        when(targetService.createFolder(argThat(folder -> folder != null && "Finance".equals(folder.getName())))).thenReturn(created);
+        SapBoObject createdChild = new SapBoObject();
+        createdChild.setId("t3");
+        when(targetService.createFolder(argThat(folder -> folder != null && "Monthly".equals(folder.getName())))).thenReturn(createdChild);
+
+        // Act
+        SyncPlanResult result = executor.apply(store.load("plan-1"));
+
+        // Assert
+        assertEquals(3, result.getSucceeded());
+        verify(targetService).createFolder(argThat(folder -> folder != null && "t1".equals(folder.getParentId())));
+        verify(targetService).createFolder(argThat(folder -> folder != null && "t2".equals(folder.getParentId())));
+        verify(targetService).deleteReport("rep9");
+    }
+
+    @Test
+    public void testActionsAfterFailedDependencyAreSkipped() {
+        // Arrange
+        Connection connection = new Connection();
+        connection.setId("conn1");
+        Universe universe = new Universe();
+        universe.setId("univ1");
+
+        SyncPlan plan = new SyncPlan();
+        plan.setPlanId("plan-2");
+        plan.setActions(Arrays.asList(
+                action(0, SyncAction.Type.CREATE, "connection", connection),
+                action(1, SyncAction.Type.CREATE, "universe", universe, 0)));
+
+        when(targetService.saveConnection(any(Connection.class))).thenThrow(new SapBoApiException("target down"));
+
+        // Act
+        SyncPlanResult result = executor.apply(plan);
+
+        // Assert
+        assertEquals(0, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(1, result.getSkipped());
+        verify(targetService, never()).saveUniverse(any(Universe.class));
+    }
+
+    @Test
+    public void testFolderCreatedWithoutIdFailsItsDependents() {
+        // Arrange
+        SapBoObject folder = new SapBoObject();
+        folder.setName("Finance");
+        SyncAction createFolder = action(0, SyncAction.Type.CREATE, "folder", folder);
+        createFolder.setPath("/Root/Finance");
+        createFolder.setTargetParentId("t1");
+        Report report = new Report();
+        report.setId("rep1");
+
+        SyncPlan plan = new SyncPlan();
+        plan.setPlanId("plan-3");
+        plan.setActions(Arrays.asList(createFolder, action(1, SyncAction.Type.CREATE, "report", report, 0)));
+
+        when(targetService.createFolder(any(SapBoObject.class))).thenReturn(new SapBoObject());
+
+        // Act
+        SyncPlanResult result = executor.apply(plan);
+
+        // Assert
+        assertEquals(1, result.getFailed());
+        assertEquals(1, result.getSkipped());
+        verify(targetService, never()).saveReport(any(Report.class));
+    }
+}
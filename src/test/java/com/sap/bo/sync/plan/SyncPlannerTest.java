@@ -0,0 +1,146 @@
+package com.sap.bo.sync.plan;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.model.Universe;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the SyncPlanner class
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SyncPlannerTest {
+
+    @Mock
+    private SapBoServiceFactory serviceFactory;
+
+    @Mock
+    private SapBoService sourceService;
+
+    @Mock
+    private SapBoService targetService;
+
+    private SyncPlanner planner;
+
+    @BeforeEach
+    public void setUp() {
+        when(serviceFactory.getSourceService()).thenReturn(sourceService);
+        when(serviceFactory.getTargetService()).thenReturn(targetService);
+        SapBoProperties properties = new SapBoProperties();
+        properties.setSource(new SapBoProperties.BoEnvironment());
+        properties.setTarget(new SapBoProperties.BoEnvironment());
+        planner = new SyncPlanner(serviceFactory, properties, new ObjectMapper());
+
+        SapBoObject root = folder("f1", "Root", null);
+        SapBoObject finance = folder("f2", "Finance", "f1");
+        when(sourceService.getFolders(isNull())).thenReturn(Arrays.asList(root, finance));
+        when(targetService.getFolders(isNull())).thenReturn(Collections.singletonList(folder("t1", "Root", null)));
+
+        Connection connection = new Connection();
+        connection.setId("conn1");
+        Universe universe = new Universe();
+        universe.setId("univ1");
+        universe.setConnectionId("conn1");
+        Report report = new Report();
+        report.setId("rep1");
+        report.setUniverseId("univ1");
+        Report unchanged = new Report();
+        unchanged.setId("rep2");
+        unchanged.setModified(new Date(1000));
+
+        when(sourceService.getConnections(any(), any())).thenReturn(Collections.singletonList(connection));
+        when(sourceService.getUniverses(any(), any(), any())).thenReturn(Collections.singletonList(universe));
+        when(sourceService.getReports(any(), any(), any())).thenReturn(Arrays.asList(report, unchanged));
+
+        Report stale = new Report();
+        stale.setId("rep3");
+        when(targetService.getConnections(any(), any())).thenReturn(Collections.emptyList());
+        when(targetService.getUniverses(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(targetService.getReports(any(), any(), any())).thenReturn(Arrays.asList(unchanged, stale));
+    }
+
+    private SapBoObject folder(String id, String name, String parentId) {
+        SapBoObject folder = new SapBoObject();
+        folder.setId(id);
+        folder.setName(name);
+        folder.setParentId(parentId);
+        return folder;
+    }
+
+    @Test
+    public void testPlanOrdersActionsByDependency() {
+        // Act
+        SyncPlan plan = planner.createPlan(false, false);
+
+        // Assert
+        List<String> actions = plan.getActions().stream().map(SyncAction::toString).collect(Collectors.toList());
+        assertEquals(Arrays.asList("CREATE folder Finance", "CREATE connection conn1", "CREATE universe univ1",
+                "CREATE report rep1"), actions);
+
+        SyncAction folder = plan.getActions().get(0);
+        assertEquals("t1", folder.getTargetParentId());
+        assertEquals("/Root/Finance", folder.getPath());
+        assertEquals(Collections.singletonList(1), plan.getActions().get(2).getDependsOn());
+        assertEquals(Collections.singletonList(2), plan.getActions().get(3).getDependsOn());
+        assertTrue(plan.getActions().get(3).getSize() > 0);
+    }
+
+    @Test
+    public void testObjectsInCreatedFoldersWaitForTheirFolder() {
+        // Arrange - the universe names its folder by ID, the report only by its path
+        Universe universe = new Universe();
+        universe.setId("univ1");
+        universe.setParentId("f2");
+        Report report = new Report();
+        report.setId("rep1");
+        report.setPath("/Root/Finance/Revenue");
+        when(sourceService.getUniverses(any(), any(), any())).thenReturn(Collections.singletonList(universe));
+        when(sourceService.getReports(any(), any(), any())).thenReturn(Collections.singletonList(report));
+
+        // Act
+        SyncPlan plan = planner.createPlan(false, false);
+
+        // Assert
+        List<String> actions = plan.getActions().stream().map(SyncAction::toString).collect(Collectors.toList());
+        assertEquals(Arrays.asList("CREATE folder Finance", "CREATE connection conn1", "CREATE universe univ1",
+                "CREATE report rep1"), actions);
+        assertEquals(Collections.singletonList(0), plan.getActions().get(2).getDependsOn());
+        assertEquals(Collections.singletonList(0), plan.getActions().get(3).getDependsOn());
+    }
+
+    @Test
+    public void testPlanIncludesDeletesOnRequest() {
+        // Act
+        SyncPlan plan = planner.createPlan(false, true);
+
+        // Assert
+        SyncAction delete = plan.getActions().get(plan.getActions().size() - 1);
+        assertEquals(SyncAction.Type.DELETE, delete.getType());
+        assertEquals("rep3", delete.getObjectId());
+        assertEquals(1, (int) plan.getActionCounts().get("DELETE report"));
+    }
+}
@@ -0,0 +1,153 @@
+package com.sap.bo.sync.reconcile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.model.Connection;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.model.SapBoObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the HashJoinReconciler and ReconcileWriter classes
+ */
+public class HashJoinReconcilerTest {
+
+    @TempDir
+    Path spillDir;
+
+    private static Report report(String cuid, String id, String name, long size) {
+        Report report = new Report();
+        report.setCuid(cuid);
+        report.setId(id);
+        report.setName(name);
+        report.setPath("/Sales/" + name);
+        report.setSize(size);
+        return report;
+    }
+
+    private static Map<String, ReconcileResult.Status> statuses(HashJoinReconciler reconciler, List<? extends SapBoObject> source,
+                                                              List<? extends SapBoObject> target, ReconcileSummary[] summary) {
+        Map<String, ReconcileResult.Status> statuses = new HashMap<>();
+        summary[0] = reconciler.reconcile(source::forEach, target::forEach,
+                result -> assertNull(statuses.put(result.getCuid(), result.getStatus())));
+        return statuses;
+    }
+
+    @Test
+    public void testClassifiesObjectsInMemory() {
+        // Arrange
+        Connection connection = new Connection();
+        connection.setId("conn1");
+        connection.setName("Sales DB");
+        List<SapBoObject> source = Arrays.asList(report("AaBb", "1", "Revenue", 100), report("CcDd", "2", "Costs", 200),
+                report("EeFf", "3", "Margin", 300), connection);
+        List<SapBoObject> target = Arrays.asList(report("AaBb", "11", "Revenue", 100), report("CcDd", "12", "Costs", 250),
+                report("GgHh", "13", "Forecast", 400), report("AaBb", "14", "Revenue copy", 100));
+        ReconcileSummary[] summary = new ReconcileSummary[1];
+
+        // Act
+        Map<String, ReconcileResult.Status> statuses = statuses(new HashJoinReconciler(100, 4, spillDir), source, target, summary);
+
+        // Assert - the duplicate target listing of AaBb is ignored
+        assertEquals(ReconcileResult.Status.EQUAL, statuses.get("AaBb"));
+        assertEquals(ReconcileResult.Status.CHANGED, statuses.get("CcDd"));
+        assertEquals(ReconcileResult.Status.MISSING, statuses.get("EeFf"));
+        assertEquals(ReconcileResult.Status.EXTRA, statuses.get("GgHh"));
+        assertEquals(ReconcileResult.Status.MISSING, statuses.get("conn1"));
+        assertEquals(Long.valueOf(2), summary[0].getCounts().get("missing"));
+        assertEquals(Long.valueOf(1), summary[0].getTypeCounts().get("connection").get("missing"));
+        assertEquals(4, summary[0].getTargetObjects());
+        assertFalse(summary[0].isSpilled());
+    }
+
+    @Test
+    public void testSpilledJoinMatchesInMemoryJoin() throws Exception {
+        // Arrange - 2000 objects against a budget of 50 entries need two levels of 4 partitions
+        List<Report> source = new ArrayList<>();
+        List<Report> target = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            source.add(report("cuid" + i, "s" + i, "Report " + i, i));
+            if (i % 10 != 0) {
+                target.add(report("cuid" + i, "t" + i, "Report " + i, i % 7 == 0 ? i + 1 : i));
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            target.add(report("extra" + i, "x" + i, "Extra " + i, i));
+        }
+        ReconcileSummary[] inMemory = new ReconcileSummary[1];
+        ReconcileSummary[] spilled = new ReconcileSummary[1];
+
+        // Act
+        Map<String, ReconcileResult.Status> expected = statuses(new HashJoinReconciler(10000, 4, spillDir), source, target, inMemory);
+        Map<String, ReconcileResult.Status> actual = statuses(new HashJoinReconciler(50, 4, spillDir), source, target, spilled);
+
+        // Assert
+        assertEquals(2100, expected.size());
+        assertEquals(expected, actual);
+        assertEquals(inMemory[0].getCounts(), spilled[0].getCounts());
+        assertEquals(Long.valueOf(200), spilled[0].getCounts().get("missing"));
+        assertEquals(Long.valueOf(100), spilled[0].getCounts().get("extra"));
+        assertFalse(inMemory[0].isSpilled());
+        assertTrue(spilled[0].isSpilled());
+        assertTrue(spilled[0].getSpillFiles() > 8);
+        try (Stream<Path> files = Files.list(spillDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void testCsvAndNdjsonReports() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<SapBoObject> source = Arrays.asList(report("AaBb", "1", "Revenue, \"net\"", 100));
+        List<SapBoObject> target = Arrays.asList(report("GgHh", "13", "Forecast", 400));
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        // Act
+        for (ByteArrayOutputStream out : Arrays.asList(csv, ndjson)) {
+            ReconcileWriter writer = ReconcileWriter.of(out == csv ? "CSV" : "ndjson", out, objectMapper);
+            ReconcileSummary summary = new HashJoinReconciler(100, 4, spillDir).reconcile(source::forEach, target::forEach, result -> {
+                try {
+                    writer.write(result);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            writer.finish(summary);
+        }
+
+        // Assert
+        String[] csvLines = new String(csv.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals("status,type,cuid,sourceId,targetId,name,path", csvLines[0]);
+        assertEquals("extra,report,GgHh,,13,Forecast,/Sales/Forecast", csvLines[1]);
+        assertEquals("missing,report,AaBb,1,,\"Revenue, \"\"net\"\"\",\"/Sales/Revenue, \"\"net\"\"\"", csvLines[2]);
+
+        String[] ndjsonLines = new String(ndjson.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, ndjsonLines.length);
+        JsonNode missing = objectMapper.readTree(ndjsonLines[1]);
+        assertEquals("missing", missing.path("status").asText());
+        assertFalse(missing.has("targetId"));
+        JsonNode summary = objectMapper.readTree(ndjsonLines[2]).path("summary");
+        assertEquals(1, summary.path("counts").path("extra").asInt());
+        assertEquals(0, summary.path("counts").path("equal").asInt());
+        assertEquals(1, summary.path("typeCounts").path("report").path("missing").asInt());
+    }
+}
@@ -0,0 +1,147 @@
+package com.sap.bo.sync.service.impl;
+
+import com.sap.bo.sync.cache.BlobStore;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.model.Universe;
+import com.sap.bo.sync.service.SapBoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the CachingSapBoService class
+ */
+@ExtendWith(MockitoExtension.class)
+public class CachingSapBoServiceTest {
+
+    @Mock
+    private SapBoService delegate;
+
+    private CachingSapBoService service;
+
+    private Universe universe;
+
+    @BeforeEach
+    public void setUp() {
+        service = new CachingSapBoService(delegate, new SapBoProperties.ObjectCacheProperties());
+
+        universe = new Universe();
+        universe.setId("universe1");
+        universe.setName("Universe 1");
+        universe.setModified(new Date(1000));
+    }
+
+    @Test
+    public void testRepeatedReadsAreServedFromCache() {
+        // Arrange
+        when(delegate.getUniverse("universe1")).thenReturn(universe);
+
+        // Act
+        Universe first = service.getUniverse("universe1");
+        Universe second = service.getUniverse("universe1");
+
+        // Assert - every caller gets a copy of the cached object to modify
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertNotSame(universe, first);
+        verify(delegate, times(1)).getUniverse("universe1");
+        assertEquals(1, service.getCacheStats().getHits());
+        assertEquals(1, service.getCacheStats().getMisses());
+    }
+
+    @Test
+    public void testListingWithNewerTimestampEvictsCachedObject() {
+        // Arrange
+        when(delegate.getUniverse("universe1")).thenReturn(universe);
+        service.getUniverse("universe1");
+
+        Universe modified = new Universe();
+        modified.setId("universe1");
+        modified.setModified(new Date(2000));
+        when(delegate.getUniverses(null, null, null)).thenReturn(Collections.singletonList(modified));
+
+        // Act
+        service.getUniverses(null, null, null);
+        service.getUniverse("universe1");
+
+        // Assert
+        verify(delegate, times(2)).getUniverse("universe1");
+    }
+
+    @Test
+    public void testLookupByIdsFetchesOnlyUncachedObjects() {
+        // Arrange
+        when(delegate.getUniverse("universe1")).thenReturn(universe);
+        service.getUniverse("universe1");
+        Universe other = new Universe();
+        other.setId("universe2");
+        when(delegate.getUniversesByIds(Collections.singletonList("universe2"))).thenReturn(Collections.singletonList(other));
+
+        // Act
+        List<Universe> first = service.getUniversesByIds(Arrays.asList("universe2", "universe1"));
+        List<Universe> second = service.getUniversesByIds(Arrays.asList("universe1", "universe2"));
+
+        // Assert
+        assertEquals(Arrays.asList(other, universe), first);
+        assertEquals(Arrays.asList(universe, other), second);
+        verify(delegate, times(1)).getUniversesByIds(Collections.singletonList("universe2"));
+    }
+
+    @Test
+    public void testSaveInvalidatesCachedObject() {
+        // Arrange
+        when(delegate.getUniverse("universe1")).thenReturn(universe);
+        service.getUniverse("universe1");
+
+        // Act
+        service.saveUniverse(universe);
+        service.getUniverse("universe1");
+
+        // Assert
+        verify(delegate, times(2)).getUniverse("universe1");
+    }
+
+    @Test
+    public void testUnchangedReportContentIsDownloadedOnce(@TempDir Path blobDir) {
+        // Arrange
+        BlobStore blobStore = new BlobStore(blobDir, 1024);
+        CachingSapBoService source = new CachingSapBoService(delegate, new SapBoProperties.ObjectCacheProperties(),
+                blobStore, "source");
+        Report report = new Report();
+        report.setId("report1");
+        report.setModified(new Date(1000));
+        Report changed = new Report();
+        changed.setId("report1");
+        changed.setModified(new Date(2000));
+        when(delegate.getReportContent(report)).thenReturn(new byte[] {1, 2, 3});
+        when(delegate.getReportContent(changed)).thenReturn(new byte[] {4});
+
+        // Act
+        byte[] first = source.getReportContent(report);
+        byte[] second = source.getReportContent(report);
+        byte[] third = source.getReportContent(changed);
+
+        // Assert
+        assertArrayEquals(first, second);
+        assertArrayEquals(new byte[] {4}, third);
+        verify(delegate, times(1)).getReportContent(report);
+        assertEquals(1, blobStore.stats().getHits());
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sap.bo.sync.client.SapBoRestClient;
 import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
 import com.sap.bo.sync.model.Connection;
 import com.sap.bo.sync.model.Report;
 import com.sap.bo.sync.model.SapBoObject;
@@ -16,14 +17,25 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 // import org.springframework.http.HttpMethod; // Not used
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
@@ -51,7 +63,7 @@ public class SapBoServiceImplTest {
     private SapBoProperties.BoEnvironment sourceEnv;
 
     @BeforeEach
-    public void setUp() {
+    public void setUp() throws IOException {
         sourceEnv = new SapBoProperties.BoEnvironment();
         sourceEnv.setUrl("http://source.example.com/bo");
         sourceEnv.setUsername("sourceUser");
@@ -59,6 +71,11 @@ public class SapBoServiceImplTest {
         sourceEnv.setAuthType("secEnterprise");
 
         when(sapBoProperties.getSource()).thenReturn(sourceEnv);
+        
+        // Listing pages are parsed by the REST client from the body of the plain GET of the endpoint
+        when(restClient.get(any(SapBoProperties.BoEnvironment.class), anyString(), eq(String.class), any(), any()))
+            .thenAnswer(invocation -> invocation.<SapBoRestClient.ResponseParser<String, ?>>getArgument(4)
+                .parse(restClient.get(invocation.getArgument(0), invocation.getArgument(1), String.class)));
     }
 
     @Test
@@ -141,6 +158,110 @@ public class SapBoServiceImplTest {
         assertEquals(2, result.size());
     }
     
+    @Test
+    public void testListedReportContentIsLoadedOnFirstAccess() throws Exception {
+        // Arrange
+        SapBoServiceImpl service = new SapBoServiceImpl(restClient, sapBoProperties, new ObjectMapper());
+        String reportsJson = "{\"total\": 1, \"entries\": [{\"id\": \"report1\", \"name\": \"Report 1\", \"content\": \"listed\"}]}";
+        String reportJson = "{\"id\": \"report1\", \"name\": \"Report 1\", \"content\": \"details\"}";
+        when(restClient.get(any(SapBoProperties.BoEnvironment.class), eq("/infostore/reports"), eq(String.class)))
+            .thenReturn(reportsJson);
+        when(restClient.get(any(SapBoProperties.BoEnvironment.class), eq("/infostore/reports/report1"), eq(String.class)))
+            .thenReturn(reportJson);
+        
+        // Act
+        List<Report> result = service.getReports(null, null, null);
+        
+        // Assert
+        assertEquals(1, result.size());
+        Report report = result.get(0);
+        assertFalse(report.getContentValue().isLoaded());
+        assertFalse(new ObjectMapper().writeValueAsString(report).contains("content"));
+        verify(restClient, never()).get(any(SapBoProperties.BoEnvironment.class), eq("/infostore/reports/report1"), eq(String.class));
+        
+        assertEquals("details", report.getContent());
+        assertEquals("details", report.getContent());
+        verify(restClient, times(1)).get(any(SapBoProperties.BoEnvironment.class), eq("/infostore/reports/report1"), eq(String.class));
+    }
+    
+    @Test
+    public void testUnchangedListingPageIsServedAsCopies() throws Exception {
+        // Arrange - the REST client returns the same response again after a 304
+        SapBoServiceImpl service = new SapBoServiceImpl(restClient, sapBoProperties, new ObjectMapper());
+        String reportsJson = "{\"total\": 1, \"entries\": [{\"id\": \"report1\", \"name\": \"Report 1\", \"content\": \"listed\", \"properties\": {\"k\": \"v\"}}]}";
+        String reportJson = "{\"id\": \"report1\", \"name\": \"Report 1\", \"content\": \"details\"}";
+        when(restClient.get(any(SapBoProperties.BoEnvironment.class), eq("/infostore/reports"), eq(String.class)))
+            .thenReturn(reportsJson);
+        when(restClient.get(any(SapBoProperties.BoEnvironment.class), eq("/infostore/reports/report1"), eq(String.class)))
+            .thenReturn(reportJson);
+        
+        // Act
+        Report first = service.getReports(null, null, null).get(0);
+        first.getProperties().put("k", "changed");
+        assertEquals("details", first.getContent());
+        Report second = service.getReports(null, null, null).get(0);
+        
+        // Assert
+        assertNotSame(first, second);
+        assertEquals("Report 1", second.getName());
+        assertEquals("v", second.getProperties().get("k"));
+        assertFalse(second.getContentValue().isLoaded());
+        assertEquals("details", second.getContent());
+        verify(restClient, times(2)).get(any(SapBoProperties.BoEnvironment.class), eq("/infostore/reports/report1"), eq(String.class));
+    }
+    
+    @Test
+    public void testContentOfDeletedReportFailsWithItsId() {
+        // Arrange - the report is deleted between the listing and the detail lookup
+        SapBoServiceImpl service = new SapBoServiceImpl(restClient, sapBoProperties, new ObjectMapper()) {
+            @Override
+            public Report getReport(String reportId) {
+                return null;
+            }
+        };
+        when(restClient.get(any(SapBoProperties.BoEnvironment.class), eq("/infostore/reports"), eq(String.class)))
+            .thenReturn("{\"entries\": [{\"id\": \"report1\", \"name\": \"Report 1\", \"content\": \"listed\"}]}");
+        Report report = service.getReports(null, null, null).get(0);
+        
+        // Act
+        SapBoApiException exception = assertThrows(SapBoApiException.class, report::getContent);
+        
+        // Assert
+        assertTrue(exception.getMessage().contains("report1"));
+    }
+    
+    @Test
+    public void testGetReportsByIdsIsChunkedAndKeepsRequestOrder() throws Exception {
+        // Arrange
+        SapBoProperties properties = new SapBoProperties();
+        properties.getSync().setIdBatchSize(2);
+        ExecutorService lookupExecutor = Executors.newFixedThreadPool(2);
+        SapBoServiceImpl service = new SapBoServiceImpl(restClient, properties, new ObjectMapper(), sourceEnv, lookupExecutor);
+        when(restClient.get(any(SapBoProperties.BoEnvironment.class), eq("/infostore/reports?ids=r1,r2"), eq(String.class)))
+            .thenReturn("{\"entries\": [{\"id\": \"r2\", \"content\": \"two\"}, {\"id\": \"r1\", \"content\": \"one\"}]}");
+        when(restClient.get(any(SapBoProperties.BoEnvironment.class), eq("/infostore/reports?ids=r3,r4"), eq(String.class)))
+            .thenReturn("{\"entries\": [{\"id\": \"r3\", \"content\": \"three\"}]}");
+        when(restClient.get(any(SapBoProperties.BoEnvironment.class), eq("/infostore/reports?ids=r5"), eq(String.class)))
+            .thenReturn("{\"entries\": [{\"id\": \"r5\", \"content\": \"five\"}]}");
+        
+        // Act
+        List<Report> result;
+        try {
+            result = service.getReportsByIds(Arrays.asList("r1", "r2", "r3", "r4", "r5", "r1"));
+        } finally {
+            lookupExecutor.shutdown();
+        }
+        
+        // Assert - three requests for five distinct IDs; the unknown ID is left out
+        assertEquals(4, result.size());
+        assertEquals("r1", result.get(0).getId());
+        assertEquals("r2", result.get(1).getId());
+        assertEquals("r3", result.get(2).getId());
+        assertEquals("r5", result.get(3).getId());
+        assertEquals("one", result.get(0).getContent());
+        verify(restClient, times(3)).get(any(SapBoProperties.BoEnvironment.class), anyString(), eq(String.class));
+    }
+    
     @Test
     public void testGetReport() throws Exception {
         // Arrange
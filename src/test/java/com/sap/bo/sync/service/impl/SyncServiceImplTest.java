@@ -4,10 +4,15 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.CircuitOpenException;
+import com.sap.bo.sync.exception.SapBoApiException;
 import com.sap.bo.sync.model.Connection;
 import com.sap.bo.sync.model.Report;
 import com.sap.bo.sync.model.SapBoObject;
 import com.sap.bo.sync.model.Universe;
+import com.sap.bo.sync.partition.PartitionRun;
+import com.sap.bo.sync.partition.PartitionedSyncRunner;
+import com.sap.bo.sync.partition.SyncPartition;
 import com.sap.bo.sync.service.SapBoService;
 import com.sap.bo.sync.service.SapBoServiceFactory;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +23,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -115,11 +122,25 @@ public class SyncServiceImplTest {
         connections.add(conn1);
     }
 
+    private static SapBoObject folder(String id, String path) {
+        SapBoObject folder = new SapBoObject();
+        folder.setId(id);
+        folder.setName(path.substring(path.lastIndexOf('/') + 1));
+        folder.setType("Folder");
+        folder.setPath(path);
+        return folder;
+    }
+    
     @Test
     public void testSyncFolders() {
         // Arrange
         when(sourceService.getFolders(null)).thenReturn(folders);
-        // Only stub what's needed - removed unnecessary stubs
+        when(targetService.getFolders(null)).thenReturn(Collections.singletonList(folder("t-public", "/Public")));
+        when(targetService.createFolder(any(SapBoObject.class))).thenAnswer(invocation -> {
+            SapBoObject created = invocation.getArgument(0);
+            created.setId("new-" + created.getName());
+            return created;
+        });
         
         // Act
         int result = syncService.syncFolders(null);
@@ -129,6 +150,60 @@ public class SyncServiceImplTest {
         verify(sourceService, times(1)).getFolders(null);
     }
     
+    @Test
+    public void testSyncFoldersCountsFolderWithoutIdAsFailed() {
+        // Arrange - the target accepts the request but returns no folder ID
+        when(sourceService.getFolders(null)).thenReturn(folders);
+        when(targetService.getFolders(null)).thenReturn(Collections.singletonList(folder("t-public", "/Public")));
+        when(targetService.createFolder(any(SapBoObject.class))).thenReturn(new SapBoObject());
+        
+        // Act
+        int result = syncService.syncFolders(null);
+        
+        // Assert
+        assertEquals(0, result);
+        verify(targetService, times(2)).createFolder(any(SapBoObject.class));
+    }
+    
+    @Test
+    public void testSyncFolderSubtreeUnderParentOutsideTheListing() {
+        // Arrange - the subtree /A/B is listed, its parent /A only exists in the full target tree
+        when(sourceService.getFolders("/A/B")).thenReturn(Arrays.asList(folder("s-b", "/A/B"), folder("s-c", "/A/B/C")));
+        when(targetService.getFolders("/A/B")).thenReturn(Collections.emptyList());
+        when(targetService.getFolders(null)).thenReturn(Collections.singletonList(folder("t-a", "/A")));
+        List<SapBoObject> created = new ArrayList<>();
+        when(targetService.createFolder(any(SapBoObject.class))).thenAnswer(invocation -> {
+            SapBoObject folder = invocation.getArgument(0);
+            folder.setId("t-" + folder.getName().toLowerCase());
+            created.add(folder);
+            return folder;
+        });
+        
+        // Act
+        int result = syncService.syncFolders("/A/B");
+        
+        // Assert - /A/B is created under /A instead of at the top level
+        assertEquals(2, result);
+        assertEquals("t-a", created.get(0).getParentId());
+        assertEquals("t-b", created.get(1).getParentId());
+    }
+    
+    @Test
+    public void testSyncFolderWithoutParentInTargetIsSkipped() {
+        // Arrange - neither the target nor the source has the parent /A of /A/B
+        when(sourceService.getFolders("/A/B")).thenReturn(Collections.singletonList(folder("s-b", "/A/B")));
+        when(targetService.getFolders("/A/B")).thenReturn(Collections.emptyList());
+        when(targetService.getFolders(null)).thenReturn(Collections.emptyList());
+        
+        // Act
+        int result = syncService.syncFolders("/A/B");
+        
+        // Assert
+        assertEquals(0, result);
+        assertEquals(1, syncService.getFailedObjects());
+        verify(targetService, never()).createFolder(any(SapBoObject.class));
+    }
+    
     @Test
     public void testSyncUniverses() {
         // Arrange
@@ -137,7 +212,7 @@ public class SyncServiceImplTest {
         Map<String, String> options = new HashMap<>();
         options.put("forceUpdate", "true");
         
-        when(sourceService.getUniverse("universe1")).thenReturn(universes.get(0));
+        when(sourceService.getUniversesByIds(universeIds)).thenReturn(universes);
         when(targetService.saveUniverse(any(Universe.class))).thenReturn(new Universe());
         
         // Act
@@ -145,7 +220,7 @@ public class SyncServiceImplTest {
         
         // Assert
         assertEquals(1, result);
-        verify(sourceService, times(1)).getUniverse("universe1");
+        verify(sourceService, times(1)).getUniversesByIds(universeIds);
         verify(targetService, times(1)).saveUniverse(any(Universe.class));
     }
     
@@ -157,7 +232,7 @@ public class SyncServiceImplTest {
         Map<String, String> options = new HashMap<>();
         options.put("forceUpdate", "true");
         
-        when(sourceService.getConnection("conn1")).thenReturn(connections.get(0));
+        when(sourceService.getConnectionsByIds(connectionIds)).thenReturn(connections);
         when(targetService.saveConnection(any(Connection.class))).thenReturn(new Connection());
         
         // Act
@@ -165,10 +240,83 @@ public class SyncServiceImplTest {
         
         // Assert
         assertEquals(1, result);
-        verify(sourceService, times(1)).getConnection("conn1");
+        verify(sourceService, times(1)).getConnectionsByIds(connectionIds);
+        verify(sourceService, never()).getConnections(any(), any());
         verify(targetService, times(1)).saveConnection(any(Connection.class));
     }
     
+    @Test
+    public void testFailedConnectionsAreCounted() {
+        // Arrange
+        Map<String, String> options = new HashMap<>();
+        options.put("forceUpdate", "true");
+        when(sourceService.getConnectionsByIds(Collections.singletonList("conn1"))).thenReturn(connections);
+        when(targetService.saveConnection(any(Connection.class))).thenThrow(new SapBoApiException("target rejected"));
+        
+        // Act
+        int result = syncService.syncConnections(Collections.singletonList("conn1"), options);
+        
+        // Assert
+        assertEquals(0, result);
+        assertEquals(1, syncService.getFailedObjects());
+    }
+    
+    @Test
+    public void testSyncReportsPipelinedInPriorityOrder() {
+        // Arrange
+        SapBoProperties.SyncProperties sync = sapBoProperties.getSync();
+        sync.getPipeline().setEnabled(true);
+        // One worker per stage, so the reports leave the pipeline in the order they entered it
+        sync.getPipeline().setDetailWorkers(1);
+        sync.getPipeline().setDiffWorkers(1);
+        sync.getPipeline().setContentWorkers(1);
+        sync.getPipeline().setWriteWorkers(1);
+        sync.getPriority().setEnabled(true);
+        sync.getPriority().setFolders(Collections.singletonList("/Finance"));
+        List<Report> listed = new ArrayList<>();
+        for (String path : Arrays.asList("/Archive/2019", "/Finance/Close", "/Archive/2020", "/Finance")) {
+            Report report = new Report();
+            report.setId(path);
+            report.setPath(path);
+            listed.add(report);
+        }
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        
+        when(sourceService.getReports(null, null, null)).thenReturn(listed);
+        when(targetService.saveReport(any(Report.class))).thenAnswer(invocation -> {
+            written.add(invocation.<Report>getArgument(0).getId());
+            return invocation.getArgument(0);
+        });
+        
+        // Act
+        int result = syncService.syncReports((List<String>) null, null, null);
+        
+        // Assert
+        assertEquals(4, result);
+        assertEquals(Arrays.asList("/Finance/Close", "/Finance", "/Archive/2019", "/Archive/2020"), written);
+    }
+    
+    @Test
+    public void testSyncPausesWhileCircuitIsOpen() {
+        // Arrange
+        List<String> universeIds = new ArrayList<>();
+        universeIds.add("universe1");
+        Map<String, String> options = new HashMap<>();
+        options.put("forceUpdate", "true");
+        
+        when(sourceService.getUniversesByIds(universeIds)).thenReturn(universes);
+        when(targetService.saveUniverse(any(Universe.class)))
+                .thenThrow(new SapBoApiException("Failed to save universe", new CircuitOpenException("http://target", 10)))
+                .thenReturn(new Universe());
+        
+        // Act
+        int result = syncService.syncUniverses(universeIds, options);
+        
+        // Assert - the universe is transferred once the breaker lets requests through again
+        assertEquals(1, result);
+        verify(targetService, times(2)).saveUniverse(any(Universe.class));
+    }
+    
     @Test
     public void testSyncReports() {
         // Arrange
@@ -177,7 +325,7 @@ public class SyncServiceImplTest {
         Map<String, String> options = new HashMap<>();
         options.put("forceUpdate", "true");
         
-        when(sourceService.getReport("report1")).thenReturn(reports.get(0));
+        when(sourceService.getReportsByIds(reportIds)).thenReturn(reports);
         when(sourceService.getReportContent("report1")).thenReturn("Report content".getBytes());
         when(targetService.saveReport(any(Report.class))).thenReturn(new Report());
         
@@ -186,12 +334,59 @@ public class SyncServiceImplTest {
         
         // Assert
         assertEquals(1, result);
-        verify(sourceService, times(1)).getReport("report1");
+        verify(sourceService, times(1)).getReportsByIds(reportIds);
+        verify(sourceService, never()).getReport("report1");
         // The implementation might have changed and no longer calls getReportContent
         // So we remove this verification
         verify(targetService, times(1)).saveReport(any(Report.class));
     }
     
+    @Test
+    public void testSyncReportsPipelined() {
+        // Arrange
+        sapBoProperties.getSync().getPipeline().setEnabled(true);
+        List<String> folderIds = new ArrayList<>();
+        folderIds.add("/Public/Folder 1");
+        Report existing = new Report();
+        existing.setId("report2");
+        List<Report> listed = new ArrayList<>(reports);
+        listed.add(existing);
+        
+        when(sourceService.getReports("/Public/Folder 1", null, null)).thenReturn(listed);
+        when(sourceService.getReport("report1")).thenReturn(reports.get(0));
+        when(targetService.getReport("report2")).thenReturn(existing);
+        when(targetService.saveReport(any(Report.class))).thenReturn(new Report());
+        
+        // Act
+        int result = syncService.syncReports(folderIds, null, null);
+        
+        // Assert - the report that already exists in the target is skipped
+        assertEquals(1, result);
+        verify(sourceService, times(1)).getReportContent(reports.get(0));
+        verify(sourceService, never()).getReportContent(existing);
+        verify(targetService, times(1)).saveReport(reports.get(0));
+    }
+    
+    @Test
+    public void testSyncReportsPipelinedByIdLooksReportsUpInBulk() {
+        // Arrange
+        sapBoProperties.getSync().getPipeline().setEnabled(true);
+        List<String> reportIds = new ArrayList<>();
+        reportIds.add("report1");
+        reportIds.add("unknown");
+        
+        when(sourceService.getReportsByIds(reportIds)).thenReturn(reports);
+        when(targetService.saveReport(any(Report.class))).thenReturn(new Report());
+        
+        // Act
+        int result = syncService.syncReports(reportIds, null, null);
+        
+        // Assert - the details come with the bulk lookup and are not fetched again
+        assertEquals(1, result);
+        verify(sourceService, never()).getReport(anyString());
+        verify(targetService, times(1)).saveReport(reports.get(0));
+    }
+    
     @Test
     public void testSyncAll() {
         // Arrange
@@ -212,6 +407,56 @@ public class SyncServiceImplTest {
         verify(sourceService, times(1)).getReports(null, null, null);
     }
     
+    @Test
+    public void testFolderPartitionsCoverNestedAndUnfiledObjects() {
+        // Arrange - a top-level folder with a subfolder, and objects below, outside and above the folder tree
+        PartitionedSyncRunner partitionRunner = mock(PartitionedSyncRunner.class);
+        when(partitionRunner.isEnabled()).thenReturn(true);
+        when(partitionRunner.getStrategy()).thenReturn("folder");
+        SyncServiceImpl service = new SyncServiceImpl(serviceFactory, sapBoProperties, new ObjectMapper(), partitionRunner, null);
+        
+        SapBoObject top = new SapBoObject();
+        top.setId("top");
+        top.setPath("/Sales");
+        SapBoObject sub = new SapBoObject();
+        sub.setId("sub");
+        sub.setParentId("top");
+        sub.setPath("/Sales/Monthly");
+        when(sourceService.getFolders(null)).thenReturn(Arrays.asList(top, sub));
+        when(targetService.getFolders(null)).thenReturn(Arrays.asList(top, sub));
+        
+        List<Universe> listedUniverses = new ArrayList<>();
+        for (String parentId : Arrays.asList("sub", "unlisted", null)) {
+            Universe universe = new Universe();
+            universe.setId("universe-" + parentId);
+            universe.setParentId(parentId);
+            listedUniverses.add(universe);
+        }
+        reports.get(0).setParentId("top");
+        when(sourceService.getUniverses(isNull(), isNull(), any())).thenReturn(listedUniverses);
+        when(sourceService.getReports(isNull(), isNull(), any())).thenReturn(reports);
+        
+        List<PartitionRun> runs = new ArrayList<>();
+        when(partitionRunner.run(any(PartitionRun.class), any())).thenAnswer(invocation -> {
+            runs.add(invocation.getArgument(0));
+            return 0;
+        });
+        
+        // Act
+        service.syncAll(false);
+        
+        // Assert - connections, the subtree of the top-level folder and the unfiled objects
+        List<SyncPartition> partitions = runs.get(0).getPartitions();
+        assertEquals(3, partitions.size());
+        SyncPartition subtree = partitions.get(1);
+        assertEquals("top", subtree.getFolderId());
+        assertEquals(Collections.singletonList("universe-sub"), subtree.getObjectIds("universe"));
+        assertEquals(Collections.singletonList("report1"), subtree.getObjectIds("report"));
+        SyncPartition unfiled = partitions.get(2);
+        assertEquals(Arrays.asList("universe-unlisted", "universe-null"), unfiled.getObjectIds("universe"));
+        assertEquals(Collections.emptyList(), unfiled.getObjectIds("report"));
+    }
+    
     @Test
     public void testCompareServerConfigs() throws Exception {
         // Arrange
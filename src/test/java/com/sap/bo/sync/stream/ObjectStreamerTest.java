@@ -0,0 +1,149 @@
+package com.sap.bo.sync.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.bo.sync.config.SapBoProperties;
+import com.sap.bo.sync.exception.SapBoApiException;
+import com.sap.bo.sync.model.Report;
+import com.sap.bo.sync.model.SapBoObject;
+import com.sap.bo.sync.service.SapBoService;
+import com.sap.bo.sync.service.SapBoServiceFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the ObjectStreamer class
+ */
+@ExtendWith(MockitoExtension.class)
+public class ObjectStreamerTest {
+
+    @Mock
+    private SapBoServiceFactory serviceFactory;
+
+    @Mock
+    private SapBoService sourceService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ObjectStreamer streamer;
+
+    @BeforeEach
+    public void setUp() {
+        SapBoProperties properties = new SapBoProperties();
+        properties.setSource(new SapBoProperties.BoEnvironment());
+        properties.getSync().setStreamPageSize(2);
+        streamer = new ObjectStreamer(serviceFactory, properties, objectMapper);
+        lenient().when(serviceFactory.getSourceService()).thenReturn(sourceService);
+        lenient().when(serviceFactory.getService(properties.getSource())).thenReturn(sourceService);
+    }
+
+    /**
+     * Answer listing requests with pages of the given objects, as the server would for page and pagesize
+     */
+    private static <T extends SapBoObject> List<T> page(List<T> objects, Map<String, String> options) {
+        int pageSize = Integer.parseInt(options.get("pagesize"));
+        int from = (Integer.parseInt(options.get("page")) - 1) * pageSize;
+        return new ArrayList<>(objects.subList(Math.min(from, objects.size()), Math.min(from + pageSize, objects.size())));
+    }
+
+    private static List<Report> reports(int count) {
+        List<Report> reports = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Report report = new Report();
+            report.setId("report" + i);
+            reports.add(report);
+        }
+        return reports;
+    }
+
+    private List<JsonNode> run(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8.name()).split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void testSearchIsStreamedPageByPage() throws IOException {
+        // Arrange
+        List<Report> reports = reports(5);
+        lenient().when(sourceService.search(eq("sales"), isNull(), isNull(), any()))
+                .thenAnswer(invocation -> page(reports, invocation.getArgument(3)));
+
+        // Act
+        List<JsonNode> lines = run(streamer.search("sales", null, null, 0));
+
+        // Assert - three pages of two, the last one short; no cursor after complete results
+        assertEquals(5, lines.size());
+        assertEquals("report5", lines.get(4).path("id").asText());
+        assertFalse(lines.get(4).has(ObjectStreamer.NEXT_CURSOR));
+        verify(sourceService, times(3)).search(eq("sales"), isNull(), isNull(), any());
+    }
+
+    @Test
+    public void testCursorContinuesAcrossObjectTypes() throws IOException {
+        // Arrange
+        List<Report> reports = reports(3);
+        SapBoObject folder = new SapBoObject();
+        folder.setId("folder1");
+        lenient().when(sourceService.getFolders(null)).thenReturn(Collections.singletonList(folder));
+        lenient().when(sourceService.getReports(isNull(), isNull(), any()))
+                .thenAnswer(invocation -> page(reports, invocation.getArgument(2)));
+        List<String> types = Arrays.asList("folder", "report");
+
+        // Act
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        int calls = 0;
+        do {
+            List<JsonNode> lines = run(streamer.inventory("source", types, cursor, 2));
+            cursor = null;
+            for (JsonNode line : lines) {
+                if (line.has(ObjectStreamer.NEXT_CURSOR)) {
+                    cursor = line.get(ObjectStreamer.NEXT_CURSOR).asText();
+                } else {
+                    ids.add(line.path("id").asText());
+                }
+            }
+            calls++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(Arrays.asList("folder1", "report1", "report2", "report3"), ids);
+        assertEquals(2, calls);
+    }
+
+    @Test
+    public void testInvalidCursorIsRejected() {
+        // Act & Assert
+        assertThrows(SapBoApiException.class, () -> streamer.search("sales", null, "not a cursor", 10));
+    }
+}